@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link BeanWrapperImpl#setPropertyValue} and
+ * {@link BeanWrapperImpl#getPropertyValue}, for simple, converted and
+ * nested property paths.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class BeanWrapperBenchmark {
+
+	@Benchmark
+	public Object setSimpleProperty(BeanWrapperState state) {
+		state.beanWrapper.setPropertyValue("name", "Rod");
+		return state.beanWrapper.getWrappedInstance();
+	}
+
+	@Benchmark
+	public Object setPropertyWithConversion(BeanWrapperState state) {
+		state.beanWrapper.setPropertyValue("age", "42");
+		return state.beanWrapper.getWrappedInstance();
+	}
+
+	@Benchmark
+	public Object setNestedProperty(BeanWrapperState state) {
+		state.beanWrapper.setPropertyValue("address.city", "Vienna");
+		return state.beanWrapper.getWrappedInstance();
+	}
+
+	@Benchmark
+	public Object getNestedProperty(BeanWrapperState state) {
+		return state.beanWrapper.getPropertyValue("address.city");
+	}
+
+	@Benchmark
+	public Object setPropertyOnNewBeanWrapper() {
+		BeanWrapper beanWrapper = new BeanWrapperImpl(new Person());
+		beanWrapper.setPropertyValue("name", "Rod");
+		beanWrapper.setPropertyValue("age", "42");
+		return beanWrapper.getWrappedInstance();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BeanWrapperState {
+
+		public BeanWrapper beanWrapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			Person person = new Person();
+			person.setAddress(new Address());
+			this.beanWrapper = new BeanWrapperImpl(person);
+		}
+	}
+
+
+	public static class Person {
+
+		private String name;
+
+		private int age;
+
+		private Address address;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public Address getAddress() {
+			return this.address;
+		}
+
+		public void setAddress(Address address) {
+			this.address = address;
+		}
+	}
+
+
+	public static class Address {
+
+		private String city;
+
+		public String getCity() {
+			return this.city;
+		}
+
+		public void setCity(String city) {
+			this.city = city;
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean}, for singleton
+ * lookups as well as for prototype creation with property population.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Benchmark
+	public Object getSingletonByName(BeanFactoryState state) {
+		return state.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object getSingletonByType(BeanFactoryState state) {
+		return state.beanFactory.getBean(Repository.class);
+	}
+
+	@Benchmark
+	public Object getPrototype(BeanFactoryState state) {
+		return state.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object getPrototypeWithConstructorArguments(BeanFactoryState state) {
+		return state.beanFactory.getBean("prototypeWithConstructor");
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BeanFactoryState {
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+
+			RootBeanDefinition singleton = new RootBeanDefinition(Repository.class);
+			this.beanFactory.registerBeanDefinition("singleton", singleton);
+
+			RootBeanDefinition prototype = new RootBeanDefinition(Service.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			prototype.getPropertyValues().add("name", "service");
+			prototype.getPropertyValues().add("timeout", "30");
+			prototype.getPropertyValues().add("repository", new RuntimeBeanReference("singleton"));
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+
+			RootBeanDefinition prototypeWithConstructor = new RootBeanDefinition(ConstructorService.class);
+			prototypeWithConstructor.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			prototypeWithConstructor.getConstructorArgumentValues().addGenericArgumentValue(
+					new RuntimeBeanReference("singleton"));
+			this.beanFactory.registerBeanDefinition("prototypeWithConstructor", prototypeWithConstructor);
+
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	public static class Repository {
+	}
+
+
+	public static class Service {
+
+		private String name;
+
+		private int timeout;
+
+		private Repository repository;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(int timeout) {
+			this.timeout = timeout;
+		}
+
+		public Repository getRepository() {
+			return this.repository;
+		}
+
+		public void setRepository(Repository repository) {
+			this.repository = repository;
+		}
+	}
+
+
+	public static class ConstructorService {
+
+		private final Repository repository;
+
+		public ConstructorService(Repository repository) {
+			this.repository = repository;
+		}
+
+		public Repository getRepository() {
+			return this.repository;
+		}
+	}
+
+}
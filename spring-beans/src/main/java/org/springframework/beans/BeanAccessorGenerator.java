@@ -0,0 +1,344 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Generates a {@link GeneratedBeanAccessor} subclass for a bean class, with a
+ * {@code tableswitch} over the indexes of its properties in the {@code read}
+ * and {@code write} methods, each branch directly invoking the read or write
+ * method of the property. Exceptions thrown by that invocation are wrapped in
+ * an {@link java.lang.reflect.InvocationTargetException}, as with reflection.
+ *
+ * <p>Only public methods declared by public types, with public parameter
+ * types, are covered: the generated class lives in a child ClassLoader of the
+ * bean's ClassLoader and has no privileged access to the bean class. Other
+ * properties are left to reflection.
+ *
+ * @since 5.1.17
+ * @see CachedIntrospectionResults#getGeneratedAccessor()
+ */
+final class BeanAccessorGenerator implements Opcodes {
+
+	private static final Log logger = LogFactory.getLog(BeanAccessorGenerator.class);
+
+	private static final String ACCESSOR_INTERNAL_NAME = Type.getInternalName(GeneratedBeanAccessor.class);
+
+	private static final String INVOCATION_TARGET_EXCEPTION_INTERNAL_NAME =
+			Type.getInternalName(InvocationTargetException.class);
+
+	private static final AtomicInteger suffixId = new AtomicInteger();
+
+	/** Child ClassLoaders for the generated classes, keyed by parent ClassLoader. */
+	private static final Map<ClassLoader, AccessorClassLoader> classLoaders = new ConcurrentReferenceHashMap<>();
+
+
+	private BeanAccessorGenerator() {
+	}
+
+
+	/**
+	 * Generate an accessor for the given bean class and properties.
+	 * @param beanClass the bean class
+	 * @param pds the property descriptors of the bean class
+	 * @return the accessor, or {@code null} if none of the read and write
+	 * methods can be invoked from generated code
+	 */
+	@Nullable
+	static GeneratedBeanAccessor generate(Class<?> beanClass, Collection<PropertyDescriptor> pds) {
+		ClassLoader parent = determineParentClassLoader(beanClass);
+		if (parent == null) {
+			return null;
+		}
+
+		Method[] readMethods = new Method[pds.size()];
+		Method[] writeMethods = new Method[pds.size()];
+		Class<?>[] writeTypes = new Class<?>[pds.size()];
+		Map<String, Integer> readIndexes = new HashMap<>();
+		Map<String, Integer> writeIndexes = new HashMap<>();
+		int index = 0;
+		for (PropertyDescriptor pd : pds) {
+			Method readMethod = pd.getReadMethod();
+			if (readMethod != null && readMethod.getParameterCount() == 0 && isInvokable(readMethod)) {
+				readMethods[index] = readMethod;
+				readIndexes.put(pd.getName(), index);
+			}
+			Method writeMethod = pd.getWriteMethod();
+			if (writeMethod != null && pd instanceof GenericTypeAwarePropertyDescriptor) {
+				writeMethod = ((GenericTypeAwarePropertyDescriptor) pd).getWriteMethodForActualAccess();
+			}
+			if (writeMethod != null && writeMethod.getParameterCount() == 1 && isInvokable(writeMethod) &&
+					isPublic(writeMethod.getParameterTypes()[0])) {
+				writeMethods[index] = writeMethod;
+				writeTypes[index] = writeMethod.getParameterTypes()[0];
+				writeIndexes.put(pd.getName(), index);
+			}
+			index++;
+		}
+		if (readIndexes.isEmpty() && writeIndexes.isEmpty()) {
+			return null;
+		}
+
+		String className = ACCESSOR_INTERNAL_NAME + "$$Generated" + suffixId.incrementAndGet();
+		byte[] bytes = generateClass(className, readMethods, writeMethods);
+		try {
+			AccessorClassLoader classLoader = classLoaders.computeIfAbsent(parent, AccessorClassLoader::new);
+			Class<?> accessorClass = classLoader.defineClass(className.replace('/', '.'), bytes);
+			GeneratedBeanAccessor accessor = (GeneratedBeanAccessor) accessorClass.getDeclaredConstructor().newInstance();
+			accessor.setIndexes(readIndexes, writeIndexes, writeTypes);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Generated property accessor for class [" + beanClass.getName() + "]");
+			}
+			return accessor;
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate property accessor for class [" + beanClass.getName() + "]", ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Determine a ClassLoader that sees both the bean class and
+	 * {@link GeneratedBeanAccessor}, if any.
+	 */
+	@Nullable
+	private static ClassLoader determineParentClassLoader(Class<?> beanClass) {
+		ClassLoader beanClassLoader = beanClass.getClassLoader();
+		if (beanClassLoader != null && ClassUtils.isVisible(GeneratedBeanAccessor.class, beanClassLoader)) {
+			return beanClassLoader;
+		}
+		ClassLoader accessorClassLoader = GeneratedBeanAccessor.class.getClassLoader();
+		if (accessorClassLoader != null && ClassUtils.isVisible(beanClass, accessorClassLoader)) {
+			return accessorClassLoader;
+		}
+		return null;
+	}
+
+	private static boolean isInvokable(Method method) {
+		int modifiers = method.getModifiers();
+		return (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) &&
+				isPublic(method.getDeclaringClass()));
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		return (type.isPrimitive() || Modifier.isPublic(type.getModifiers()));
+	}
+
+
+	private static byte[] generateClass(String className, Method[] readMethods, Method[] writeMethods) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, ACCESSOR_INTERNAL_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, ACCESSOR_INTERNAL_NAME, "<init>", "()V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// public Object read(Object target, int index) throws InvocationTargetException
+		mv = cw.visitMethod(ACC_PUBLIC, "read", "(Ljava/lang/Object;I)Ljava/lang/Object;",
+				null, new String[] {INVOCATION_TARGET_EXCEPTION_INTERNAL_NAME});
+		mv.visitCode();
+		Label[] labels = new Label[readMethods.length];
+		Label defaultLabel = new Label();
+		for (int i = 0; i < readMethods.length; i++) {
+			labels[i] = (readMethods[i] != null ? new Label() : defaultLabel);
+		}
+		Label handlerLabel = new Label();
+		Label[] invokeLabels = visitInvocationTryCatchBlocks(mv, readMethods, handlerLabel);
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitTableSwitchInsn(0, readMethods.length - 1, defaultLabel, labels);
+		for (int i = 0; i < readMethods.length; i++) {
+			Method readMethod = readMethods[i];
+			if (readMethod != null) {
+				mv.visitLabel(labels[i]);
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(readMethod.getDeclaringClass()));
+				mv.visitLabel(invokeLabels[i * 2]);
+				invokeMethod(mv, readMethod);
+				mv.visitLabel(invokeLabels[i * 2 + 1]);
+				Class<?> returnType = readMethod.getReturnType();
+				if (returnType == void.class) {
+					mv.visitInsn(ACONST_NULL);
+				}
+				else if (returnType.isPrimitive()) {
+					box(mv, returnType);
+				}
+				mv.visitInsn(ARETURN);
+			}
+		}
+		throwInvalidIndex(mv, defaultLabel);
+		throwInvocationTargetException(mv, handlerLabel);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// public void write(Object target, int index, Object value) throws InvocationTargetException
+		mv = cw.visitMethod(ACC_PUBLIC, "write", "(Ljava/lang/Object;ILjava/lang/Object;)V",
+				null, new String[] {INVOCATION_TARGET_EXCEPTION_INTERNAL_NAME});
+		mv.visitCode();
+		labels = new Label[writeMethods.length];
+		defaultLabel = new Label();
+		for (int i = 0; i < writeMethods.length; i++) {
+			labels[i] = (writeMethods[i] != null ? new Label() : defaultLabel);
+		}
+		handlerLabel = new Label();
+		invokeLabels = visitInvocationTryCatchBlocks(mv, writeMethods, handlerLabel);
+		mv.visitVarInsn(ILOAD, 2);
+		mv.visitTableSwitchInsn(0, writeMethods.length - 1, defaultLabel, labels);
+		for (int i = 0; i < writeMethods.length; i++) {
+			Method writeMethod = writeMethods[i];
+			if (writeMethod != null) {
+				mv.visitLabel(labels[i]);
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(writeMethod.getDeclaringClass()));
+				mv.visitVarInsn(ALOAD, 3);
+				Class<?> parameterType = writeMethod.getParameterTypes()[0];
+				if (parameterType.isPrimitive()) {
+					unbox(mv, parameterType);
+				}
+				else if (parameterType != Object.class) {
+					mv.visitTypeInsn(CHECKCAST, Type.getInternalName(parameterType));
+				}
+				mv.visitLabel(invokeLabels[i * 2]);
+				invokeMethod(mv, writeMethod);
+				mv.visitLabel(invokeLabels[i * 2 + 1]);
+				Class<?> returnType = writeMethod.getReturnType();
+				if (returnType == long.class || returnType == double.class) {
+					mv.visitInsn(POP2);
+				}
+				else if (returnType != void.class) {
+					mv.visitInsn(POP);
+				}
+				mv.visitInsn(RETURN);
+			}
+		}
+		throwInvalidIndex(mv, defaultLabel);
+		throwInvocationTargetException(mv, handlerLabel);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	/**
+	 * Declare a try-catch block around the invocation of each given method,
+	 * leaving exceptions from the generated code itself unwrapped.
+	 * @return the start and end labels of the invocations, to be visited in
+	 * sequence around each invocation instruction
+	 */
+	private static Label[] visitInvocationTryCatchBlocks(MethodVisitor mv, Method[] methods, Label handlerLabel) {
+		Label[] invokeLabels = new Label[methods.length * 2];
+		for (int i = 0; i < methods.length; i++) {
+			if (methods[i] != null) {
+				invokeLabels[i * 2] = new Label();
+				invokeLabels[i * 2 + 1] = new Label();
+				mv.visitTryCatchBlock(invokeLabels[i * 2], invokeLabels[i * 2 + 1], handlerLabel,
+						"java/lang/Throwable");
+			}
+		}
+		return invokeLabels;
+	}
+
+	private static void invokeMethod(MethodVisitor mv, Method method) {
+		Class<?> owner = method.getDeclaringClass();
+		boolean isInterface = owner.isInterface();
+		mv.visitMethodInsn(isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL, Type.getInternalName(owner),
+				method.getName(), Type.getMethodDescriptor(method), isInterface);
+	}
+
+	private static void box(MethodVisitor mv, Class<?> primitiveType) {
+		Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(primitiveType);
+		mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapperType), "valueOf",
+				Type.getMethodDescriptor(Type.getType(wrapperType), Type.getType(primitiveType)), false);
+	}
+
+	private static void unbox(MethodVisitor mv, Class<?> primitiveType) {
+		Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(primitiveType);
+		String wrapperName = Type.getInternalName(wrapperType);
+		mv.visitTypeInsn(CHECKCAST, wrapperName);
+		mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, primitiveType.getName() + "Value",
+				Type.getMethodDescriptor(Type.getType(primitiveType)), false);
+	}
+
+	private static void throwInvocationTargetException(MethodVisitor mv, Label handlerLabel) {
+		mv.visitLabel(handlerLabel);
+		mv.visitTypeInsn(NEW, INVOCATION_TARGET_EXCEPTION_INTERNAL_NAME);
+		mv.visitInsn(DUP_X1);
+		mv.visitInsn(SWAP);
+		mv.visitMethodInsn(INVOKESPECIAL, INVOCATION_TARGET_EXCEPTION_INTERNAL_NAME, "<init>",
+				"(Ljava/lang/Throwable;)V", false);
+		mv.visitInsn(ATHROW);
+	}
+
+	private static void throwInvalidIndex(MethodVisitor mv, Label defaultLabel) {
+		mv.visitLabel(defaultLabel);
+		mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+		mv.visitInsn(DUP);
+		mv.visitLdcInsn("Invalid property index");
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>",
+				"(Ljava/lang/String;)V", false);
+		mv.visitInsn(ATHROW);
+	}
+
+
+	/**
+	 * Child ClassLoader that defines the generated accessor classes.
+	 */
+	private static class AccessorClassLoader extends URLClassLoader {
+
+		private static final URL[] NO_URLS = new URL[0];
+
+		AccessorClassLoader(ClassLoader parent) {
+			super(NO_URLS, parent);
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) {
+			return super.defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
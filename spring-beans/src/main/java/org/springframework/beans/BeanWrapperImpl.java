@@ -304,6 +304,19 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				GeneratedBeanAccessor accessor = getCachedIntrospectionResults().getGeneratedAccessor();
+				if (accessor != null) {
+					int index = accessor.getReadIndex(this.pd.getName());
+					if (index != -1) {
+						try {
+							return accessor.read(getWrappedInstance(), index);
+						}
+						catch (RuntimeException ex) {
+							// Not thrown by the read method itself but by the generated code:
+							// fall back to reflection for consistent exception handling.
+						}
+					}
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -328,6 +341,20 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				GeneratedBeanAccessor accessor = getCachedIntrospectionResults().getGeneratedAccessor();
+				if (accessor != null) {
+					int index = accessor.getWriteIndex(this.pd.getName());
+					if (index != -1 && accessor.isWritableValue(index, value)) {
+						try {
+							accessor.write(getWrappedInstance(), index, value);
+							return;
+						}
+						catch (RuntimeException ex) {
+							// Not thrown by the write method itself but by the generated code:
+							// fall back to reflection for consistent exception handling.
+						}
+					}
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
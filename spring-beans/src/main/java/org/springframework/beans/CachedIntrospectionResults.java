@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -92,10 +93,34 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to generate bytecode for reading and
+	 * writing bean properties, instead of invoking their read and write methods
+	 * through reflection: "spring.beans.generate-accessors".
+	 * <p>The default is "false". Consider switching this flag to "true" for
+	 * applications that read and write many properties of the same classes
+	 * through a {@link BeanWrapperImpl}, e.g. for data binding or JDBC row mapping.
+	 * An accessor is only generated for a bean class once its properties have
+	 * been accessed a number of times, so that classes that are only configured
+	 * once, such as most bean classes of an application context, do not incur
+	 * the cost of generating and loading a class.
+	 * @since 5.1.17
+	 * @see GeneratedBeanAccessor
+	 */
+	public static final String GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beans.generate-accessors";
+
+	/**
+	 * The number of property accesses after which an accessor is generated for a class.
+	 */
+	static final int ACCESSOR_GENERATION_THRESHOLD = 32;
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	/** Marker for a class without generated accessor. */
+	private static final Object NO_GENERATED_ACCESSOR = new Object();
+
 	/** Stores the BeanInfoFactory instances. */
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -258,6 +283,16 @@ public final class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor. */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** Whether to generate an accessor, as per GENERATED_ACCESSORS_PROPERTY_NAME at introspection time. */
+	private final boolean shouldGenerateAccessor;
+
+	/** Number of requests for the generated accessor, until the generation threshold is reached. */
+	private final AtomicInteger accessorRequestCount = new AtomicInteger();
+
+	/** The GeneratedBeanAccessor, or NO_GENERATED_ACCESSOR if not applicable, once resolved. */
+	@Nullable
+	private volatile Object generatedAccessor;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -303,6 +338,7 @@ public final class CachedIntrospectionResults {
 			}
 
 			this.typeDescriptorCache = new ConcurrentReferenceHashMap<>();
+			this.shouldGenerateAccessor = SpringProperties.getFlag(GENERATED_ACCESSORS_PROPERTY_NAME);
 		}
 		catch (IntrospectionException ex) {
 			throw new FatalBeanException("Failed to obtain BeanInfo for class [" + beanClass.getName() + "]", ex);
@@ -371,6 +407,38 @@ public final class CachedIntrospectionResults {
 		}
 	}
 
+	/**
+	 * Return the generated accessor for the properties of the bean class,
+	 * if {@link #GENERATED_ACCESSORS_PROPERTY_NAME enabled} and applicable.
+	 * <p>Each call counts as a property access towards the threshold for
+	 * generating the accessor.
+	 * @return the accessor, or {@code null} if none (yet)
+	 * @since 5.1.17
+	 */
+	@Nullable
+	GeneratedBeanAccessor getGeneratedAccessor() {
+		if (!this.shouldGenerateAccessor) {
+			return null;
+		}
+		Object accessor = this.generatedAccessor;
+		if (accessor == null) {
+			if (this.accessorRequestCount.incrementAndGet() < ACCESSOR_GENERATION_THRESHOLD) {
+				return null;
+			}
+			synchronized (this) {
+				accessor = this.generatedAccessor;
+				if (accessor == null) {
+					accessor = BeanAccessorGenerator.generate(getBeanClass(), this.propertyDescriptorCache.values());
+					if (accessor == null) {
+						accessor = NO_GENERATED_ACCESSOR;
+					}
+					this.generatedAccessor = accessor;
+				}
+			}
+		}
+		return (accessor != NO_GENERATED_ACCESSOR ? (GeneratedBeanAccessor) accessor : null);
+	}
+
 	TypeDescriptor addTypeDescriptor(PropertyDescriptor pd, TypeDescriptor td) {
 		TypeDescriptor existing = this.typeDescriptorCache.putIfAbsent(pd, td);
 		return (existing != null ? existing : td);
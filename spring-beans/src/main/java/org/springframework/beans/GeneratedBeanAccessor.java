@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Base class for property accessors that are generated as bytecode for a
+ * specific bean class, invoking the read and write methods of its properties
+ * directly rather than through reflection. Not intended for direct use by
+ * application code.
+ *
+ * <p>Generated subclasses are created and cached along with the
+ * {@link CachedIntrospectionResults} of a bean class, if enabled through the
+ * {@link CachedIntrospectionResults#GENERATED_ACCESSORS_PROPERTY_NAME} property.
+ *
+ * @since 5.1.17
+ * @see BeanWrapperImpl
+ */
+public abstract class GeneratedBeanAccessor {
+
+	private Map<String, Integer> readIndexes = Collections.emptyMap();
+
+	private Map<String, Integer> writeIndexes = Collections.emptyMap();
+
+	private Class<?>[] writeTypes = new Class<?>[0];
+
+
+	/**
+	 * Invoke the read method of the property with the given index.
+	 * @param target the bean instance to read from
+	 * @param index the index of the property
+	 * @return the property value, with primitive values boxed
+	 * @throws InvocationTargetException if the read method threw an exception
+	 * @throws IllegalArgumentException if the index is not covered
+	 * @throws ClassCastException if the target is not an instance of the bean class
+	 */
+	@Nullable
+	public abstract Object read(Object target, int index) throws InvocationTargetException;
+
+	/**
+	 * Invoke the write method of the property with the given index.
+	 * <p>The value is expected to be assignable to the parameter type of the
+	 * write method, i.e. non-null and of the corresponding wrapper type for a
+	 * primitive parameter.
+	 * @param target the bean instance to write to
+	 * @param index the index of the property
+	 * @param value the value to write
+	 * @throws InvocationTargetException if the write method threw an exception
+	 * @throws IllegalArgumentException if the index is not covered
+	 * @throws ClassCastException if the target or the value is not of the expected type
+	 */
+	public abstract void write(Object target, int index, @Nullable Object value) throws InvocationTargetException;
+
+
+	void setIndexes(Map<String, Integer> readIndexes, Map<String, Integer> writeIndexes, Class<?>[] writeTypes) {
+		this.readIndexes = readIndexes;
+		this.writeIndexes = writeIndexes;
+		this.writeTypes = writeTypes;
+	}
+
+	/**
+	 * Return the index for {@link #read} of the given property,
+	 * or -1 if its read method is not covered by this accessor.
+	 */
+	int getReadIndex(String propertyName) {
+		Integer index = this.readIndexes.get(propertyName);
+		return (index != null ? index : -1);
+	}
+
+	/**
+	 * Return the index for {@link #write} of the given property,
+	 * or -1 if its write method is not covered by this accessor.
+	 */
+	int getWriteIndex(String propertyName) {
+		Integer index = this.writeIndexes.get(propertyName);
+		return (index != null ? index : -1);
+	}
+
+	/**
+	 * Determine whether the given value can be passed to {@link #write} for the
+	 * property with the given index as-is. Otherwise, the caller is expected to
+	 * fall back to reflection, which applies widening conversions and reports
+	 * argument mismatches.
+	 */
+	boolean isWritableValue(int index, @Nullable Object value) {
+		Class<?> type = this.writeTypes[index];
+		return (value != null ? ClassUtils.resolvePrimitiveIfNecessary(type).isInstance(value) : !type.isPrimitive());
+	}
+
+}
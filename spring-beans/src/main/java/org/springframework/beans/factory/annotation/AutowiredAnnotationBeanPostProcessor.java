@@ -442,8 +442,12 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 		do {
 			final List<InjectionMetadata.InjectedElement> currElements = new ArrayList<>();
+			final Set<String> injectionPoints = getIndexedInjectionPoints(targetClass);
 
 			ReflectionUtils.doWithLocalFields(targetClass, field -> {
+				if (!InjectionPointsIndex.isCandidate(injectionPoints, field)) {
+					return;
+				}
 				AnnotationAttributes ann = findAutowiredAnnotation(field);
 				if (ann != null) {
 					if (Modifier.isStatic(field.getModifiers())) {
@@ -458,6 +462,9 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 			});
 
 			ReflectionUtils.doWithLocalMethods(targetClass, method -> {
+				if (!InjectionPointsIndex.isCandidate(injectionPoints, method)) {
+					return;
+				}
 				Method bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
 				if (!BridgeMethodResolver.isVisibilityBridgeMethodPair(method, bridgedMethod)) {
 					return;
@@ -490,6 +497,23 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		return new InjectionMetadata(clazz, elements);
 	}
 
+	/**
+	 * Return the injection points of the given class from the compile-time index,
+	 * provided that the index covers all autowired annotation types.
+	 * @return the indexed injection points, or {@code null} to introspect all members
+	 * @see InjectionPointsIndex#getInjectionPoints
+	 */
+	@Nullable
+	private Set<String> getIndexedInjectionPoints(Class<?> targetClass) {
+		for (Class<? extends Annotation> type : this.autowiredAnnotationTypes) {
+			if (!InjectionPointsIndex.isIndexedAnnotationType(type)) {
+				return null;
+			}
+		}
+		InjectionPointsIndex index = InjectionPointsIndex.loadIndex(targetClass.getClassLoader());
+		return (index != null ? index.getInjectionPoints(targetClass) : null);
+	}
+
 	@Nullable
 	private AnnotationAttributes findAutowiredAnnotation(AccessibleObject ao) {
 		if (ao.getAnnotations().length > 0) {  // autowiring annotations have to be local
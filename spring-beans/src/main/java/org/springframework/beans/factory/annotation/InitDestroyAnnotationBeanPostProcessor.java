@@ -203,8 +203,12 @@ public class InitDestroyAnnotationBeanPostProcessor
 		do {
 			final List<LifecycleElement> currInitMethods = new ArrayList<>();
 			final List<LifecycleElement> currDestroyMethods = new ArrayList<>();
+			final Set<String> injectionPoints = getIndexedLifecycleMethods(targetClass);
 
 			ReflectionUtils.doWithLocalMethods(targetClass, method -> {
+				if (!InjectionPointsIndex.isCandidate(injectionPoints, method)) {
+					return;
+				}
 				if (this.initAnnotationType != null && method.isAnnotationPresent(this.initAnnotationType)) {
 					LifecycleElement element = new LifecycleElement(method);
 					currInitMethods.add(element);
@@ -229,6 +233,23 @@ public class InitDestroyAnnotationBeanPostProcessor
 		return new LifecycleMetadata(clazz, initMethods, destroyMethods);
 	}
 
+	/**
+	 * Return the lifecycle methods of the given class from the compile-time index,
+	 * provided that the index covers the init and destroy annotation types.
+	 * @return the indexed methods, or {@code null} to introspect all methods
+	 * @see InjectionPointsIndex#getInjectionPoints
+	 */
+	@Nullable
+	private Set<String> getIndexedLifecycleMethods(Class<?> targetClass) {
+		if ((this.initAnnotationType != null && !InjectionPointsIndex.isIndexedAnnotationType(this.initAnnotationType)) ||
+				(this.destroyAnnotationType != null &&
+						!InjectionPointsIndex.isIndexedAnnotationType(this.destroyAnnotationType))) {
+			return null;
+		}
+		InjectionPointsIndex index = InjectionPointsIndex.loadIndex(targetClass.getClassLoader());
+		return (index != null ? index.getInjectionPoints(targetClass) : null);
+	}
+
 
 	//---------------------------------------------------------------------
 	// Serialization support
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.annotation;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of the injection points declared by classes, as generated at compile time
+ * by the {@code spring-context-indexer} annotation processor in
+ * {@value #INJECTION_POINTS_RESOURCE_LOCATION}.
+ *
+ * <p>For each indexed class, the index holds the fields and methods that are
+ * declared locally and annotated or meta-annotated with one of the
+ * {@linkplain #isIndexedAnnotationType indexed annotation types}. Annotation
+ * post-processors use it to skip the annotation introspection of all other
+ * members, and of entire classes without any injection point. Classes that are
+ * not indexed, such as classes compiled without the annotation processor, keep
+ * being introspected as usual.
+ *
+ * @since 5.1.17
+ * @see AutowiredAnnotationBeanPostProcessor
+ * @see InitDestroyAnnotationBeanPostProcessor
+ */
+public final class InjectionPointsIndex {
+
+	/**
+	 * The location to look for injection points.
+	 * <p>Can be present in multiple JAR files.
+	 */
+	public static final String INJECTION_POINTS_RESOURCE_LOCATION = "META-INF/spring.injection";
+
+	/**
+	 * System property that instructs Spring to ignore the index, i.e.
+	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
+	 * <p>Shared with the candidate components index: the default is "false",
+	 * allowing for regular use of the index.
+	 */
+	public static final String IGNORE_INDEX = "spring.index.ignore";
+
+
+	private static final Set<String> indexedAnnotationTypes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"org.springframework.beans.factory.annotation.Autowired",
+			"org.springframework.beans.factory.annotation.Value",
+			"javax.inject.Inject",
+			"javax.annotation.Resource",
+			"javax.ejb.EJB",
+			"javax.xml.ws.WebServiceRef",
+			"javax.annotation.PostConstruct",
+			"javax.annotation.PreDestroy")));
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
+
+	private static final Log logger = LogFactory.getLog(InjectionPointsIndex.class);
+
+	private static final ConcurrentMap<ClassLoader, Object> cache = new ConcurrentReferenceHashMap<>();
+
+	private static final Object NO_INDEX = new Object();
+
+
+	private final Map<String, Set<String>> index;
+
+
+	InjectionPointsIndex(Properties properties) {
+		this.index = new HashMap<>(properties.size());
+		properties.forEach((type, value) -> this.index.put((String) type,
+				StringUtils.commaDelimitedListToSet((String) value)));
+	}
+
+
+	/**
+	 * Return the keys of the injection points declared by the given class.
+	 * @param clazz the class to introspect (superclasses are indexed separately)
+	 * @return the keys of the indexed fields and methods, to be checked through
+	 * {@link #isCandidate}, or {@code null} if the class is not indexed or if the
+	 * index does not match the class as loaded
+	 */
+	@Nullable
+	public Set<String> getInjectionPoints(Class<?> clazz) {
+		Set<String> injectionPoints = this.index.get(clazz.getName());
+		if (injectionPoints == null || injectionPoints.isEmpty()) {
+			return injectionPoints;
+		}
+		// Verify the index against the declared members, e.g. in case of a stale index
+		Set<String> unresolved = new HashSet<>(injectionPoints);
+		ReflectionUtils.doWithLocalFields(clazz, field -> unresolved.remove(getKey(field)));
+		ReflectionUtils.doWithLocalMethods(clazz, method -> unresolved.remove(getKey(method)));
+		if (!unresolved.isEmpty()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring injection points index for " + clazz + " since it does not declare " + unresolved);
+			}
+			return null;
+		}
+		return injectionPoints;
+	}
+
+
+	/**
+	 * Load and instantiate the {@link InjectionPointsIndex} from
+	 * {@value #INJECTION_POINTS_RESOURCE_LOCATION}, using the given class loader.
+	 * If no index is available, return {@code null}.
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the index to use or {@code null} if no index was found
+	 * @throws IllegalArgumentException if any module index cannot be loaded
+	 */
+	@Nullable
+	public static InjectionPointsIndex loadIndex(@Nullable ClassLoader classLoader) {
+		if (shouldIgnoreIndex) {
+			return null;
+		}
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = InjectionPointsIndex.class.getClassLoader();
+		}
+		Object index = cache.computeIfAbsent(classLoaderToUse, InjectionPointsIndex::doLoadIndex);
+		return (index != NO_INDEX ? (InjectionPointsIndex) index : null);
+	}
+
+	private static Object doLoadIndex(ClassLoader classLoader) {
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INJECTION_POINTS_RESOURCE_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return NO_INDEX;
+			}
+			Properties result = new Properties();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				result.putAll(PropertiesLoaderUtils.loadProperties(new UrlResource(url)));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded injection points for " + result.size() + " classes");
+			}
+			return (!result.isEmpty() ? new InjectionPointsIndex(result) : NO_INDEX);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Unable to load indexes from location [" +
+					INJECTION_POINTS_RESOURCE_LOCATION + "]", ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given annotation type is covered by the index,
+	 * i.e. whether all members carrying it are indexed.
+	 * @param annotationType the annotation type to check
+	 */
+	public static boolean isIndexedAnnotationType(Class<? extends Annotation> annotationType) {
+		return indexedAnnotationTypes.contains(annotationType.getName());
+	}
+
+	/**
+	 * Determine whether the given field or method needs to be introspected.
+	 * @param injectionPoints the injection points of the declaring class, as returned by
+	 * {@link #getInjectionPoints}, or {@code null} if the class is not indexed
+	 * @param member the field or method declared by that class
+	 * @return {@code true} if the class is not indexed, if the member is indexed,
+	 * or if the member is a bridge method that the compiler generated
+	 */
+	public static boolean isCandidate(@Nullable Set<String> injectionPoints, Member member) {
+		return (injectionPoints == null || (member instanceof Method && ((Method) member).isBridge()) ||
+				(!injectionPoints.isEmpty() && injectionPoints.contains(getKey(member))));
+	}
+
+	/**
+	 * Return the key of the given field or method in the index: the name of a field,
+	 * or the name of a method followed by its parameter type names.
+	 */
+	static String getKey(Member member) {
+		if (!(member instanceof Method)) {
+			return member.getName();
+		}
+		Class<?>[] parameterTypes = ((Method) member).getParameterTypes();
+		StringBuilder key = new StringBuilder(member.getName()).append('(');
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (i > 0) {
+				key.append(';');
+			}
+			key.append(parameterTypes[i].getTypeName());
+		}
+		return key.append(')').toString();
+	}
+
+}
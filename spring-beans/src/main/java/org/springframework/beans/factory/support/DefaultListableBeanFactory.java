@@ -184,6 +184,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether bean definition metadata may be cached for all beans. */
 	private volatile boolean configurationFrozen = false;
 
+	/** Number of threads for pre-instantiating singletons, with 1 indicating sequential instantiation. */
+	private int preInstantiationParallelism = 1;
+
+	/** Whether concurrent singleton creation has been switched on for parallel pre-instantiation. */
+	private boolean concurrentSingletonCreationForPreInstantiation = false;
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -315,6 +321,42 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set the number of threads for pre-instantiating singletons in
+	 * {@link #preInstantiateSingletons()}.
+	 * <p>Default is 1, instantiating all singletons sequentially in registration
+	 * order. Specify a higher number to instantiate independent singletons in
+	 * parallel on a {@link java.util.concurrent.ForkJoinPool}, according to the
+	 * dependencies declared in their bean definitions. A critical path report
+	 * gets logged at debug level once finished.
+	 * <p>A value higher than 1 switches this factory to
+	 * {@link #setConcurrentSingletonCreation concurrent singleton creation},
+	 * and a value of 1 switches it back unless explicitly enabled otherwise.
+	 * @since 5.1.17
+	 */
+	public void setPreInstantiationParallelism(int preInstantiationParallelism) {
+		Assert.isTrue(preInstantiationParallelism > 0, "Pre-instantiation parallelism must be greater than 0");
+		this.preInstantiationParallelism = preInstantiationParallelism;
+		if (preInstantiationParallelism > 1) {
+			if (!isConcurrentSingletonCreation()) {
+				setConcurrentSingletonCreation(true);
+				this.concurrentSingletonCreationForPreInstantiation = true;
+			}
+		}
+		else if (this.concurrentSingletonCreationForPreInstantiation) {
+			setConcurrentSingletonCreation(false);
+			this.concurrentSingletonCreationForPreInstantiation = false;
+		}
+	}
+
+	/**
+	 * Return the number of threads for pre-instantiating singletons.
+	 * @since 5.1.17
+	 */
+	public int getPreInstantiationParallelism() {
+		return this.preInstantiationParallelism;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -324,6 +366,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationParallelism = otherListableFactory.preInstantiationParallelism;
+			this.concurrentSingletonCreationForPreInstantiation =
+					otherListableFactory.concurrentSingletonCreationForPreInstantiation;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(
 					BeanUtils.instantiateClass(otherListableFactory.getAutowireCandidateResolver().getClass()));
@@ -835,6 +880,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
+		List<String> parallelBeanNames = (this.preInstantiationParallelism > 1 ? new ArrayList<>() : null);
 		for (String beanName : beanNames) {
 			// 合并父 Bean 中的配置
 			// Bean定义公共的抽象类是AbstractBeanDefinition，普通的Bean在Spring加载Bean定义的时候，
@@ -844,34 +890,18 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
 			// 判断是否非抽象、非懒加载的 singletons。如果配置了 'abstract = true'，那是不需要实例化的
 			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				// 处理 FactoryBean
-				if (isFactoryBean(beanName)) {
-					// FactoryBean 的话，在 beanName 前面加上 ‘&’ 符号。再调用 getBean
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					// 判断当前 FactoryBean 是否是 SmartFactoryBean 的实现
-					if (bean instanceof FactoryBean) {
-						FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged(
-									(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
+				if (parallelBeanNames != null) {
+					parallelBeanNames.add(beanName);
 				}
 				else {
-					// 对于普通的 Bean，只要调用 getBean(beanName) 这个方法就可以进行初始化了
-					getBean(beanName);
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
+		if (parallelBeanNames != null) {
+			new ParallelSingletonPreInstantiator(this, this.preInstantiationParallelism)
+					.preInstantiate(parallelBeanNames, this::preInstantiateSingleton);
+		}
 
 		// Trigger post-initialization callback for all applicable beans...
 		// bean已完全处理完了
@@ -897,6 +927,40 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Pre-instantiate the given non-lazy singleton, triggering the creation
+	 * of the object exposed by a FactoryBean if eagerly requested.
+	 * @param beanName the name of the singleton
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		// 处理 FactoryBean
+		if (isFactoryBean(beanName)) {
+			// FactoryBean 的话，在 beanName 前面加上 ‘&’ 符号。再调用 getBean
+			Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+			// 判断当前 FactoryBean 是否是 SmartFactoryBean 的实现
+			if (bean instanceof FactoryBean) {
+				FactoryBean<?> factory = (FactoryBean<?>) bean;
+				boolean isEagerInit;
+				if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+					isEagerInit = AccessController.doPrivileged(
+							(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
+							getAccessControlContext());
+				}
+				else {
+					isEagerInit = (factory instanceof SmartFactoryBean &&
+							((SmartFactoryBean<?>) factory).isEagerInit());
+				}
+				if (isEagerInit) {
+					getBean(beanName);
+				}
+			}
+		}
+		else {
+			// 对于普通的 Bean，只要调用 getBean(beanName) 这个方法就可以进行初始化了
+			getBean(beanName);
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
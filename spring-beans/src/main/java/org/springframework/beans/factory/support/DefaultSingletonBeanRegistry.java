@@ -32,6 +32,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -61,6 +62,12 @@ import org.springframework.util.StringUtils;
  * (which inherit from it). Can alternatively also be used as a nested
  * helper to delegate to.
  *
+ * <p>By default, singleton creation is serialized on the {@link #getSingletonMutex()
+ * singleton mutex}. In {@link #setConcurrentSingletonCreation concurrent singleton
+ * creation} mode, each singleton is created under a lock for its bean name instead,
+ * so that independent singletons may be created in parallel, and lookups of singletons
+ * which are in creation in other threads do not block.
+ *
  * @author Juergen Hoeller
  * @since 2.0
  * @see #registerSingleton
@@ -86,7 +93,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	// 单例对象工厂的cache：三级缓存
 	// 存放的是ObjectFactory 可以理解为创建单例 bean 的 factory
 	// 对应关系是 bean name --> ObjectFactory
-	private final Map<String, ObjectFactory<?>> singletonFactories = new HashMap<>(16);
+	private final Map<String, ObjectFactory<?>> singletonFactories = new ConcurrentHashMap<>(16);
 
 	/**
 	 * Cache of early singleton objects: bean name to bean instance.
@@ -101,7 +108,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * 这个 Map 也是【循环依赖】的关键所在。
 	 */
 	// 提前曝光的单例对象的Cache ：二级缓存
-	private final Map<String, Object> earlySingletonObjects = new HashMap<>(16);
+	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
 
 	/** Set of registered singletons, containing the bean names in registration order. */
 	private final Set<String> registeredSingletons = new LinkedHashSet<>(256);
@@ -116,12 +123,24 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
-	/** Collection of suppressed Exceptions, available for associating related causes. */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	/** Collection of suppressed Exceptions per creating thread, available for associating related causes. */
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions of singleton creation");
 
 	/** Flag that indicates whether we're currently within destroySingletons. */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
+
+	/** Whether to create singletons under a lock per bean name rather than the singleton mutex. */
+	private volatile boolean concurrentSingletonCreation = false;
+
+	/** Creation locks for concurrent singleton creation: bean name to lock, while held or awaited. */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(16);
+
+	/** Threads waiting for a creation lock, for deadlock detection: thread to awaited lock. */
+	private final Map<Thread, SingletonCreationLock> singletonCreationWaits = new HashMap<>(16);
+
+	/** Monitor guarding the creation lock state and the wait-for graph. */
+	private final Object singletonCreationMonitor = new Object();
 
 	/** Disposable bean instances: bean name to disposable instance. */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -136,6 +155,34 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Set whether to create singletons concurrently, holding a lock per bean name
+	 * rather than the {@link #getSingletonMutex() singleton mutex} during creation.
+	 * <p>Default is "false". Turn this on to allow for independent singletons to be
+	 * created by several threads in parallel. A thread requesting a singleton that
+	 * is currently in creation in another thread waits for that creation to complete;
+	 * if the other thread in turn waits for a singleton in creation in this thread,
+	 * the circular reference is resolved through an early singleton reference, just
+	 * like within a single thread, or rejected with a
+	 * {@link BeanCurrentlyInCreationException} if no early reference is available.
+	 * <p><b>NOTE:</b> In this mode, the singleton mutex is not held during singleton
+	 * creation, so it does not serve as a guard against concurrent creation anymore.
+	 * @since 5.1.17
+	 * @see #getSingleton(String, ObjectFactory)
+	 */
+	public void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether to create singletons concurrently, holding a lock per bean name.
+	 * @since 5.1.17
+	 * @see #setConcurrentSingletonCreation
+	 */
+	public boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		Assert.notNull(beanName, "Bean name must not be null");
@@ -234,6 +281,12 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		// isSingletonCurrentlyInCreationg():判断当前singleton bean 是否处于创建中。
 		// bean处于创建中也就是说bean在初始化过程中并没有完成初始化。
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+			if (this.concurrentSingletonCreation) {
+				// In creation in another thread: do not block, the caller needs to
+				// wait for the fully initialized instance in the creation phase.
+				return (isSingletonCreationLockedByCurrentThread(beanName) ?
+						getEarlySingletonReference(beanName, allowEarlyReference) : null);
+			}
 			// 尝试给一级缓存对象加锁，因为接下来就要对缓存对象操作了
 			synchronized (this.singletonObjects) {
 				// 尝试从二级缓存 earlySingletonObjects 获取。HashMap结构。
@@ -267,68 +320,100 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
-		synchronized (this.singletonObjects) {
-			// 因为 singleton 模式其实就是复用已经创建的 bean 所以这步骤必须检查
-			// 再次检查缓存是否已经加载过，如果已经加载过则直接返回，否则开始加载过程
-			Object singletonObject = this.singletonObjects.get(beanName);
-			//  为空，开始加载过程
+		if (!this.concurrentSingletonCreation) {
+			synchronized (this.singletonObjects) {
+				return createSingleton(beanName, singletonFactory);
+			}
+		}
+
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		if (!lockSingletonCreation(beanName)) {
+			// Waiting would deadlock: resolve the circular reference across threads.
+			singletonObject = getEarlySingletonReference(beanName, true);
 			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
-				}
-				// 加载前置处理，记录加载单例 bean 之前的加载状态
-				// 在单例对象创建前先做一个标记
-				// 将beanName放入到singletonsCurrentlyInCreation这个集合中
-				// 标志着这个单例Bean正在创建
-				// 如果同一个单例Bean多次被创建，这里会抛出异常
-				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
-				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
-				}
-				try {
-					// 真正初始化 bean
-					// 这个过程其实是调用 createBean() 方法
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
-				}
-				catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
-					}
-				}
-				catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
-						}
-					}
+				throw new BeanCurrentlyInCreationException(beanName,
+						"Requested bean is currently in creation in another thread which is waiting for " +
+						"a bean in creation in this thread: Is there an unresolvable circular reference?");
+			}
+			return singletonObject;
+		}
+		try {
+			return createSingleton(beanName, singletonFactory);
+		}
+		finally {
+			unlockSingletonCreation(beanName);
+		}
+	}
+
+	/**
+	 * Create and register the singleton object for the given name, unless
+	 * registered in the meantime. Called under the singleton mutex or the
+	 * creation lock for the given bean name.
+	 */
+	private Object createSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		// 因为 singleton 模式其实就是复用已经创建的 bean 所以这步骤必须检查
+		// 再次检查缓存是否已经加载过，如果已经加载过则直接返回，否则开始加载过程
+		Object singletonObject = this.singletonObjects.get(beanName);
+		//  为空，开始加载过程
+		if (singletonObject == null) {
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+			}
+			// 加载前置处理，记录加载单例 bean 之前的加载状态
+			// 在单例对象创建前先做一个标记
+			// 将beanName放入到singletonsCurrentlyInCreation这个集合中
+			// 标志着这个单例Bean正在创建
+			// 如果同一个单例Bean多次被创建，这里会抛出异常
+			beforeSingletonCreation(beanName);
+			boolean newSingleton = false;
+			boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
+			if (recordSuppressedExceptions) {
+				this.suppressedExceptions.set(new LinkedHashSet<>());
+			}
+			try {
+				// 真正初始化 bean
+				// 这个过程其实是调用 createBean() 方法
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			}
+			catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
 					throw ex;
 				}
-				finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+			}
+			catch (BeanCreationException ex) {
+				if (recordSuppressedExceptions) {
+					for (Exception suppressedException : this.suppressedExceptions.get()) {
+						ex.addRelatedCause(suppressedException);
 					}
-					// 移除正在创建bean的状态
-					afterSingletonCreation(beanName);
 				}
-				if (newSingleton) {
-					//通过createBean方法返回的Bean最终被放到了一级缓存，也就是单例池中。
-					// 加入一级缓存中，删除二级缓存中的bean
-					addSingleton(beanName, singletonObject);
+				throw ex;
+			}
+			finally {
+				if (recordSuppressedExceptions) {
+					this.suppressedExceptions.remove();
 				}
+				// 移除正在创建bean的状态
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				//通过createBean方法返回的Bean最终被放到了一级缓存，也就是单例池中。
+				// 加入一级缓存中，删除二级缓存中的bean
+				addSingleton(beanName, singletonObject);
 			}
-			return singletonObject;
 		}
+		return singletonObject;
 	}
 
 	/**
@@ -341,10 +426,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see BeanCreationException#getRelatedCauses()
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -437,6 +521,150 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Acquire the creation lock for the given singleton in
+	 * {@link #setConcurrentSingletonCreation concurrent singleton creation} mode,
+	 * waiting for its creation in another thread to complete if necessary.
+	 * <p>Gives up if the other thread directly or transitively waits for a singleton
+	 * in creation in the current thread, since waiting would never end then.
+	 * @param beanName the name of the singleton about to be created
+	 * @return {@code true} if the lock has been acquired, to be released through
+	 * {@link #unlockSingletonCreation}, or {@code false} if waiting would deadlock
+	 * @since 5.1.17
+	 * @see #tryLockSingletonCreation
+	 */
+	protected boolean lockSingletonCreation(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		synchronized (this.singletonCreationMonitor) {
+			SingletonCreationLock lock = obtainSingletonCreationLock(beanName);
+			if (lock.tryAcquire(currentThread)) {
+				return true;
+			}
+			// The wait-for graph only changes under the monitor, so a wait cycle
+			// is always detected by the thread that would close it.
+			if (isSingletonCreationWaitCycle(currentThread, lock)) {
+				return false;
+			}
+			this.singletonCreationWaits.put(currentThread, lock);
+			lock.waiters++;
+			try {
+				while (!lock.tryAcquire(currentThread)) {
+					this.singletonCreationMonitor.wait();
+				}
+				return true;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new BeanCreationException(beanName,
+						"Interrupted while waiting for creation of singleton in another thread", ex);
+			}
+			finally {
+				lock.waiters--;
+				this.singletonCreationWaits.remove(currentThread);
+				if (lock.owner == null && lock.waiters == 0) {
+					this.singletonCreationLocks.remove(beanName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Acquire the creation lock for the given singleton in
+	 * {@link #setConcurrentSingletonCreation concurrent singleton creation} mode,
+	 * unless it is currently held by another thread.
+	 * @param beanName the name of the singleton
+	 * @return {@code true} if the lock has been acquired, to be released through
+	 * {@link #unlockSingletonCreation}, or {@code false} if not available
+	 * @since 5.1.17
+	 * @see #lockSingletonCreation
+	 */
+	protected boolean tryLockSingletonCreation(String beanName) {
+		synchronized (this.singletonCreationMonitor) {
+			return obtainSingletonCreationLock(beanName).tryAcquire(Thread.currentThread());
+		}
+	}
+
+	/**
+	 * Release the creation lock for the given singleton, as acquired through
+	 * {@link #lockSingletonCreation} or {@link #tryLockSingletonCreation}.
+	 * @param beanName the name of the singleton
+	 * @since 5.1.17
+	 */
+	protected void unlockSingletonCreation(String beanName) {
+		synchronized (this.singletonCreationMonitor) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			Assert.state(lock != null && lock.owner == Thread.currentThread(),
+					() -> "Creation lock for singleton '" + beanName + "' not held by current thread");
+			if (--lock.holdCount == 0) {
+				lock.owner = null;
+				if (lock.waiters == 0) {
+					this.singletonCreationLocks.remove(beanName);
+				}
+				else {
+					this.singletonCreationMonitor.notifyAll();
+				}
+			}
+		}
+	}
+
+	private SingletonCreationLock obtainSingletonCreationLock(String beanName) {
+		return this.singletonCreationLocks.computeIfAbsent(beanName, name -> new SingletonCreationLock());
+	}
+
+	private boolean isSingletonCreationLockedByCurrentThread(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		return (lock != null && lock.owner == Thread.currentThread());
+	}
+
+	/**
+	 * Determine whether the owner of the given lock waits, directly or through
+	 * further waiting threads, for a lock held by the given thread.
+	 * To be called under the singleton creation monitor.
+	 */
+	private boolean isSingletonCreationWaitCycle(Thread currentThread, SingletonCreationLock lock) {
+		SingletonCreationLock lockToCheck = lock;
+		while (lockToCheck != null) {
+			Thread owner = lockToCheck.owner;
+			if (owner == null) {
+				return false;
+			}
+			if (owner == currentThread) {
+				return true;
+			}
+			lockToCheck = this.singletonCreationWaits.get(owner);
+		}
+		return false;
+	}
+
+	/**
+	 * Return an early reference to the given singleton in concurrent singleton
+	 * creation mode, creating it through the registered singleton factory if
+	 * necessary. Only to be called by the thread holding the creation lock for
+	 * the singleton, or by a thread that the lock holder waits for.
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName, boolean allowEarlyReference) {
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null && allowEarlyReference) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			synchronized (lock != null ? lock : this.singletonObjects) {
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					singletonObject = this.earlySingletonObjects.get(beanName);
+					if (singletonObject == null) {
+						ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+						if (singletonFactory != null) {
+							singletonObject = singletonFactory.getObject();
+							this.earlySingletonObjects.put(beanName, singletonObject);
+							this.singletonFactories.remove(beanName);
+						}
+					}
+				}
+			}
+		}
+		return singletonObject;
+	}
+
 
 	/**
 	 * Add the given bean to the list of disposable beans in this registry.
@@ -710,10 +938,40 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * any sort of extended singleton creation phase. In particular, subclasses
 	 * should <i>not</i> have their own mutexes involved in singleton creation,
 	 * to avoid the potential for deadlocks in lazy-init situations.
+	 * <p>In {@link #setConcurrentSingletonCreation concurrent singleton creation}
+	 * mode, the mutex only guards the registry state itself: Subclasses should
+	 * use {@link #lockSingletonCreation} for any extended creation phase instead.
 	 */
 	@Override
 	public final Object getSingletonMutex() {
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Reentrant creation lock for a singleton, with its state guarded by the
+	 * singleton creation monitor. The owner is visible to other threads for
+	 * the early reference check in {@link #getSingleton(String, boolean)}.
+	 */
+	private static final class SingletonCreationLock {
+
+		@Nullable
+		volatile Thread owner;
+
+		int holdCount;
+
+		int waiters;
+
+		boolean tryAcquire(Thread thread) {
+			if (this.owner == null) {
+				this.owner = thread;
+			}
+			else if (this.owner != thread) {
+				return false;
+			}
+			this.holdCount++;
+			return true;
+		}
+	}
+
 }
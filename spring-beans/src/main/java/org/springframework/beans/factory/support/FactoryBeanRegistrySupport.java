@@ -96,49 +96,20 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	protected Object getObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
 		// 为单例模式且缓存中存在
 		if (factory.isSingleton() && containsSingleton(beanName)) {
-			synchronized (getSingletonMutex()) {
-				//从缓存中获取指定的 factoryBean
-				// 双重检查锁机制，尝试再从缓存中获取，防止多线程下可能有别的线程已完成该单例bean的创建
-				Object object = this.factoryBeanObjectCache.get(beanName);
-				if (object == null) {
-					// 为空，则调用工厂方法从 FactoryBean 中获取对象
-					object = doGetObjectFromFactoryBean(factory, beanName);
-					// Only post-process and store if not put there already during getObject() call above
-					// (e.g. because of circular reference processing triggered by custom getBean calls)
-					Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
-					if (alreadyThere != null) {
-						object = alreadyThere;
-					}
-					else {
-						if (shouldPostProcess) {
-							// 该Bean实例是否已经有别的线程在尝试创建，但是还没有进行后置处理
-							if (isSingletonCurrentlyInCreation(beanName)) {
-								// Temporarily return non-post-processed object, not storing it yet..
-								return object;
-							}
-							// 后置处理完成前，先加入缓存锁定起来
-							beforeSingletonCreation(beanName);
-							try {
-								// 对从 FactoryBean 获取的对象进行后处理
-								// 生成的对象将暴露给 bean 引用
-								object = postProcessObjectFromFactoryBean(object, beanName);
-							}
-							catch (Throwable ex) {
-								throw new BeanCreationException(beanName,
-										"Post-processing of FactoryBean's singleton object failed", ex);
-							}
-							finally {
-								// 创建完成之后，从缓存锁定的名字里清除
-								afterSingletonCreation(beanName);
-							}
-						}
-						if (containsSingleton(beanName)) {
-							//添加到 factoryBeanObjectCache 中，进行缓存
-							this.factoryBeanObjectCache.put(beanName, object);
-						}
-					}
+			if (!isConcurrentSingletonCreation()) {
+				synchronized (getSingletonMutex()) {
+					return getSingletonObjectFromFactoryBean(factory, beanName, shouldPostProcess);
+				}
+			}
+			// Proceed without the lock if waiting would deadlock, as for a circular reference.
+			boolean locked = lockSingletonCreation(beanName);
+			try {
+				return getSingletonObjectFromFactoryBean(factory, beanName, shouldPostProcess);
+			}
+			finally {
+				if (locked) {
+					unlockSingletonCreation(beanName);
 				}
-				return object;
 			}
 		}
 		else {
@@ -156,6 +127,56 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 		}
 	}
 
+	/**
+	 * Obtain the singleton object to expose from the given FactoryBean, caching it
+	 * for subsequent calls. Called under the singleton mutex or the creation lock
+	 * for the given bean name.
+	 */
+	private Object getSingletonObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
+		//从缓存中获取指定的 factoryBean
+		// 双重检查锁机制，尝试再从缓存中获取，防止多线程下可能有别的线程已完成该单例bean的创建
+		Object object = this.factoryBeanObjectCache.get(beanName);
+		if (object == null) {
+			// 为空，则调用工厂方法从 FactoryBean 中获取对象
+			object = doGetObjectFromFactoryBean(factory, beanName);
+			// Only post-process and store if not put there already during getObject() call above
+			// (e.g. because of circular reference processing triggered by custom getBean calls)
+			Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
+			if (alreadyThere != null) {
+				object = alreadyThere;
+			}
+			else {
+				if (shouldPostProcess) {
+					// 该Bean实例是否已经有别的线程在尝试创建，但是还没有进行后置处理
+					if (isSingletonCurrentlyInCreation(beanName)) {
+						// Temporarily return non-post-processed object, not storing it yet..
+						return object;
+					}
+					// 后置处理完成前，先加入缓存锁定起来
+					beforeSingletonCreation(beanName);
+					try {
+						// 对从 FactoryBean 获取的对象进行后处理
+						// 生成的对象将暴露给 bean 引用
+						object = postProcessObjectFromFactoryBean(object, beanName);
+					}
+					catch (Throwable ex) {
+						throw new BeanCreationException(beanName,
+								"Post-processing of FactoryBean's singleton object failed", ex);
+					}
+					finally {
+						// 创建完成之后，从缓存锁定的名字里清除
+						afterSingletonCreation(beanName);
+					}
+				}
+				if (containsSingleton(beanName)) {
+					//添加到 factoryBeanObjectCache 中，进行缓存
+					this.factoryBeanObjectCache.put(beanName, object);
+				}
+			}
+		}
+		return object;
+	}
+
 	/**
 	 * Obtain an object to expose from the given FactoryBean.
 	 * @param factory the FactoryBean instance
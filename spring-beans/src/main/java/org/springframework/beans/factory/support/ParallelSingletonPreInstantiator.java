@@ -0,0 +1,675 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Helper class for pre-instantiating singletons of a {@link DefaultListableBeanFactory}
+ * in parallel on a {@link ForkJoinPool}.
+ *
+ * <p>Builds a dependency graph of the given singletons without instantiating them,
+ * considering "depends-on" declarations, factory beans and bean references in
+ * constructor arguments and property values, any dependencies that the factory
+ * has registered already, as well as the injection points of each bean: the
+ * parameters of its candidate constructors or factory methods, its
+ * {@link Autowired @Autowired}, {@code @Inject} and {@code @Resource} fields and
+ * methods, and its properties in case of autowiring by name or by type.
+ * Each singleton is instantiated once all of its dependencies have been
+ * instantiated, so that independent parts of the graph are instantiated
+ * concurrently. Any remaining dependencies, e.g. through custom injection
+ * mechanisms, are resolved at runtime, waiting for their creation in other
+ * threads where necessary.
+ *
+ * <p>Singletons whose dependencies cannot be determined upfront, e.g. beans
+ * with an instance supplier or with an unresolvable injection point type,
+ * are instantiated sequentially at the end, together with any singletons
+ * depending on them and any singletons on a cycle of dependencies.
+ *
+ * <p>Once finished, the critical path through the graph, i.e. the chain of
+ * dependencies with the longest total instantiation time, gets logged at debug
+ * level as a startup report.
+ *
+ * @since 5.1.17
+ * @see DefaultListableBeanFactory#setPreInstantiationParallelism
+ */
+class ParallelSingletonPreInstantiator {
+
+	@Nullable
+	private static final Class<? extends Annotation> injectAnnotationType =
+			loadAnnotationType("javax.inject.Inject");
+
+	@Nullable
+	private static final Class<? extends Annotation> resourceAnnotationType =
+			loadAnnotationType("javax.annotation.Resource");
+
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final int parallelism;
+
+	private final Log logger;
+
+
+	public ParallelSingletonPreInstantiator(DefaultListableBeanFactory beanFactory, int parallelism) {
+		this.beanFactory = beanFactory;
+		this.parallelism = parallelism;
+		this.logger = LogFactory.getLog(beanFactory.getClass());
+	}
+
+
+	/**
+	 * Pre-instantiate the given singletons.
+	 * @param beanNames the names of the singletons to pre-instantiate, in registration order
+	 * @param instantiator the callback for pre-instantiating a single singleton
+	 * @throws BeansException if any of the singletons could not be created
+	 */
+	public void preInstantiate(List<String> beanNames, Consumer<String> instantiator) throws BeansException {
+		long startTime = System.nanoTime();
+		Map<String, Node> nodes = buildGraph(beanNames);
+		List<Node> sortedNodes = sortTopologically(nodes.values());
+
+		instantiateInParallel(sortedNodes, instantiator);
+
+		// Remaining singletons with undetermined dependencies or on cycles of dependencies...
+		for (Node node : nodes.values()) {
+			if (!node.instantiated) {
+				node.instantiate(instantiator);
+			}
+		}
+
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug(buildReport(nodes, System.nanoTime() - startTime));
+		}
+	}
+
+	private Map<String, Node> buildGraph(List<String> beanNames) {
+		Map<String, Node> nodes = new LinkedHashMap<>(beanNames.size() * 2);
+		for (String beanName : beanNames) {
+			nodes.put(beanName, new Node(beanName));
+		}
+		for (Node node : nodes.values()) {
+			Set<String> dependencies = determineDependencies(node.beanName);
+			if (dependencies == null) {
+				node.serial = true;
+				continue;
+			}
+			for (String dependency : dependencies) {
+				Node dependencyNode = nodes.get(dependency);
+				if (dependencyNode != null && dependencyNode != node && node.dependencies.add(dependencyNode)) {
+					dependencyNode.dependents.add(node);
+				}
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Determine the names of the beans that the given bean depends on,
+	 * as far as derivable without instantiating it.
+	 * @return the names of the dependencies, or {@code null} if they
+	 * cannot be determined upfront
+	 */
+	@Nullable
+	private Set<String> determineDependencies(String beanName) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		for (String dependency : this.beanFactory.getDependenciesForBean(beanName)) {
+			dependencies.add(dependency);
+		}
+		RootBeanDefinition mbd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+		collectDependencies(mbd, dependencies);
+		try {
+			if (!collectInjectionPointDependencies(beanName, mbd, dependencies)) {
+				return null;
+			}
+		}
+		catch (BeansException | LinkageError ex) {
+			if (this.logger.isTraceEnabled()) {
+				this.logger.trace("Failed to determine dependencies of bean '" + beanName + "'", ex);
+			}
+			return null;
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Collect the dependencies of the given bean through its injection points.
+	 * @return {@code false} if the dependencies cannot be determined upfront
+	 */
+	private boolean collectInjectionPointDependencies(String beanName, RootBeanDefinition mbd,
+			Set<String> dependencies) {
+
+		if (mbd.getInstanceSupplier() != null) {
+			return false;
+		}
+		Class<?> beanType;
+		if (mbd.getFactoryMethodName() != null) {
+			Class<?> factoryClass;
+			boolean isStatic;
+			if (mbd.getFactoryBeanName() != null) {
+				String factoryBeanName = this.beanFactory.transformedBeanName(mbd.getFactoryBeanName());
+				if (!this.beanFactory.containsBeanDefinition(factoryBeanName)) {
+					return false;
+				}
+				factoryClass = this.beanFactory.determineTargetType(factoryBeanName,
+						this.beanFactory.getMergedLocalBeanDefinition(factoryBeanName));
+				isStatic = false;
+			}
+			else {
+				factoryClass = this.beanFactory.resolveBeanClass(mbd, beanName);
+				isStatic = true;
+			}
+			if (factoryClass == null) {
+				return false;
+			}
+			for (Method method : ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(factoryClass))) {
+				if (Modifier.isStatic(method.getModifiers()) == isStatic &&
+						method.getName().equals(mbd.getFactoryMethodName())) {
+					if (!collectParameterDependencies(method, dependencies)) {
+						return false;
+					}
+				}
+			}
+			beanType = this.beanFactory.determineTargetType(beanName, mbd);
+		}
+		else {
+			beanType = this.beanFactory.resolveBeanClass(mbd, beanName);
+			if (beanType == null) {
+				return false;
+			}
+			Constructor<?>[] ctors = this.beanFactory.determineConstructorsFromBeanPostProcessors(beanType, beanName);
+			if (ctors == null && mbd.getResolvedAutowireMode() == AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR) {
+				ctors = beanType.getDeclaredConstructors();
+			}
+			if (ctors == null) {
+				ctors = mbd.getPreferredConstructors();
+			}
+			if (ctors != null) {
+				for (Constructor<?> ctor : ctors) {
+					if (!collectParameterDependencies(ctor, dependencies)) {
+						return false;
+					}
+				}
+			}
+		}
+		if (beanType == null) {
+			return false;
+		}
+		return (collectMemberDependencies(ClassUtils.getUserClass(beanType), dependencies) &&
+				collectAutowiredPropertyDependencies(beanType, mbd, dependencies));
+	}
+
+	private boolean collectMemberDependencies(Class<?> beanType, Set<String> dependencies) {
+		for (Class<?> clazz = beanType; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					if (isInjectionPoint(field)) {
+						if (!collectTypeDependencies(ResolvableType.forField(field, beanType), dependencies)) {
+							return false;
+						}
+					}
+					else if (isResourceInjectionPoint(field) &&
+							!collectResourceDependencies(field, field.getName(), field.getType(), dependencies)) {
+						return false;
+					}
+				}
+			}
+		}
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType)) {
+			if (!Modifier.isStatic(method.getModifiers())) {
+				if (isInjectionPoint(method)) {
+					if (!collectParameterDependencies(method, dependencies)) {
+						return false;
+					}
+				}
+				else if (isResourceInjectionPoint(method) && method.getParameterCount() == 1) {
+					String name = StringUtils.uncapitalize(
+							method.getName().startsWith("set") ? method.getName().substring(3) : method.getName());
+					if (!collectResourceDependencies(method, name, method.getParameterTypes()[0], dependencies)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean collectAutowiredPropertyDependencies(Class<?> beanType, RootBeanDefinition mbd,
+			Set<String> dependencies) {
+
+		int autowireMode = mbd.getResolvedAutowireMode();
+		if (autowireMode != AutowireCapableBeanFactory.AUTOWIRE_BY_NAME &&
+				autowireMode != AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE) {
+			return true;
+		}
+		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(beanType)) {
+			if (pd.getWriteMethod() != null && !this.beanFactory.isExcludedFromDependencyCheck(pd) &&
+					!mbd.getPropertyValues().contains(pd.getName()) && !BeanUtils.isSimpleProperty(pd.getPropertyType())) {
+				if (autowireMode == AutowireCapableBeanFactory.AUTOWIRE_BY_NAME) {
+					if (this.beanFactory.containsBean(pd.getName())) {
+						addDependency(pd.getName(), dependencies);
+					}
+				}
+				else if (!collectTypeDependencies(
+						ResolvableType.forMethodParameter(pd.getWriteMethod(), 0, beanType), dependencies)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean collectParameterDependencies(Executable executable, Set<String> dependencies) {
+		for (int i = 0; i < executable.getParameterCount(); i++) {
+			MethodParameter parameter = MethodParameter.forExecutable(executable, i);
+			if (!collectTypeDependencies(ResolvableType.forMethodParameter(parameter), dependencies)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean collectResourceDependencies(AnnotatedElement element, String defaultName, Class<?> type,
+			Set<String> dependencies) {
+
+		AnnotationAttributes attributes = AnnotatedElementUtils.getMergedAnnotationAttributes(
+				element, resourceAnnotationType.getName());
+		String name = (attributes != null ? attributes.getString("name") : "");
+		if (!StringUtils.hasLength(name)) {
+			name = defaultName;
+		}
+		if (this.beanFactory.containsBean(name)) {
+			addDependency(name, dependencies);
+			return true;
+		}
+		return collectTypeDependencies(ResolvableType.forClass(type), dependencies);
+	}
+
+	/**
+	 * Collect the beans matching the given injection point type, considering
+	 * the element type of arrays, collections, maps and optionals. Lazy
+	 * injection points through a provider do not constitute a dependency.
+	 * @return {@code false} if the type cannot be resolved
+	 */
+	private boolean collectTypeDependencies(ResolvableType type, Set<String> dependencies) {
+		Class<?> rawType = type.resolve();
+		if (rawType == null) {
+			return false;
+		}
+		if (ObjectFactory.class.isAssignableFrom(rawType) || rawType.getName().equals("javax.inject.Provider")) {
+			return true;
+		}
+		if (rawType.isArray()) {
+			return collectTypeDependencies(type.getComponentType(), dependencies);
+		}
+		if (Collection.class.isAssignableFrom(rawType)) {
+			return collectTypeDependencies(type.asCollection().getGeneric(0), dependencies);
+		}
+		if (Map.class.isAssignableFrom(rawType)) {
+			return collectTypeDependencies(type.asMap().getGeneric(1), dependencies);
+		}
+		if (rawType == Optional.class) {
+			return collectTypeDependencies(type.getGeneric(0), dependencies);
+		}
+		if (!BeanUtils.isSimpleProperty(rawType)) {
+			for (String candidate : this.beanFactory.getBeanNamesForType(rawType, true, false)) {
+				addDependency(candidate, dependencies);
+			}
+		}
+		return true;
+	}
+
+	private static boolean isInjectionPoint(AnnotatedElement element) {
+		return (AnnotatedElementUtils.hasAnnotation(element, Autowired.class) ||
+				(injectAnnotationType != null && AnnotatedElementUtils.hasAnnotation(element, injectAnnotationType)));
+	}
+
+	private static boolean isResourceInjectionPoint(AnnotatedElement element) {
+		return (resourceAnnotationType != null && AnnotatedElementUtils.hasAnnotation(element, resourceAnnotationType));
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> loadAnnotationType(String name) {
+		try {
+			return (Class<? extends Annotation>)
+					ClassUtils.forName(name, ParallelSingletonPreInstantiator.class.getClassLoader());
+		}
+		catch (ClassNotFoundException ex) {
+			return null;
+		}
+	}
+
+	private void collectDependencies(BeanDefinition bd, Set<String> dependencies) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependency : dependsOn) {
+				addDependency(dependency, dependencies);
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			addDependency(bd.getFactoryBeanName(), dependencies);
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getIndexedArgumentValues().values()) {
+				collectDependencies(valueHolder.getValue(), dependencies);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cav.getGenericArgumentValues()) {
+				collectDependencies(valueHolder.getValue(), dependencies);
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectDependencies(pv.getValue(), dependencies);
+			}
+		}
+	}
+
+	private void collectDependencies(@Nullable Object value, Set<String> dependencies) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (!ref.isToParent()) {
+				addDependency(ref.getBeanName(), dependencies);
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencies);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectDependencies((BeanDefinition) value, dependencies);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectDependencies(element, dependencies);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectDependencies(entry.getKey(), dependencies);
+				collectDependencies(entry.getValue(), dependencies);
+			}
+		}
+	}
+
+	private void addDependency(String name, Set<String> dependencies) {
+		dependencies.add(this.beanFactory.transformedBeanName(name));
+	}
+
+	/**
+	 * Sort the given nodes such that each node comes after its dependencies,
+	 * leaving out serial nodes, nodes on cycles and nodes depending on those.
+	 */
+	private static List<Node> sortTopologically(Collection<Node> nodes) {
+		List<Node> sortedNodes = new ArrayList<>(nodes.size());
+		Deque<Node> readyNodes = new ArrayDeque<>();
+		for (Node node : nodes) {
+			node.pendingDependencies.set(node.dependencies.size());
+			if (node.dependencies.isEmpty() && !node.serial) {
+				readyNodes.add(node);
+			}
+		}
+		while (!readyNodes.isEmpty()) {
+			Node node = readyNodes.poll();
+			node.scheduled = true;
+			sortedNodes.add(node);
+			for (Node dependent : node.dependents) {
+				if (dependent.pendingDependencies.decrementAndGet() == 0 && !dependent.serial) {
+					readyNodes.add(dependent);
+				}
+			}
+		}
+		// Reset for the actual scheduling, now only considering schedulable nodes.
+		for (Node node : sortedNodes) {
+			int pendingDependencies = 0;
+			for (Node dependency : node.dependencies) {
+				if (dependency.scheduled) {
+					pendingDependencies++;
+				}
+			}
+			node.pendingDependencies.set(pendingDependencies);
+		}
+		return sortedNodes;
+	}
+
+	private void instantiateInParallel(List<Node> nodes, Consumer<String> instantiator) {
+		if (nodes.isEmpty()) {
+			return;
+		}
+		ForkJoinPool pool = createPool();
+		CountDownLatch remaining = new CountDownLatch(nodes.size());
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		try {
+			for (Node node : nodes) {
+				if (node.pendingDependencies.get() == 0) {
+					pool.execute(() -> run(node, pool, remaining, failure, instantiator));
+				}
+			}
+			remaining.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanCreationException("Interrupted during parallel pre-instantiation of singletons", ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		Throwable ex = failure.get();
+		if (ex instanceof RuntimeException) {
+			throw (RuntimeException) ex;
+		}
+		if (ex instanceof Error) {
+			throw (Error) ex;
+		}
+	}
+
+	private void run(Node node, ForkJoinPool pool, CountDownLatch remaining,
+			AtomicReference<Throwable> failure, Consumer<String> instantiator) {
+
+		try {
+			// Skip all further singletons after a failure, just signalling completion.
+			if (failure.get() == null) {
+				node.instantiate(instantiator);
+			}
+		}
+		catch (Throwable ex) {
+			failure.compareAndSet(null, ex);
+		}
+		finally {
+			for (Node dependent : node.dependents) {
+				if (dependent.scheduled && dependent.pendingDependencies.decrementAndGet() == 0) {
+					pool.execute(() -> run(dependent, pool, remaining, failure, instantiator));
+				}
+			}
+			remaining.countDown();
+		}
+	}
+
+	private ForkJoinPool createPool() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		AtomicInteger threadCount = new AtomicInteger();
+		return new ForkJoinPool(this.parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("singleton-pre-instantiation-" + threadCount.incrementAndGet());
+			thread.setContextClassLoader(classLoader);
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * Build a report on the critical path through the graph, based on the actual
+	 * instantiation times and on the dependencies actually registered by the factory.
+	 */
+	private String buildReport(Map<String, Node> nodes, long totalNanos) {
+		for (Node node : nodes.values()) {
+			for (String dependency : this.beanFactory.getDependenciesForBean(node.beanName)) {
+				Node dependencyNode = nodes.get(dependency);
+				if (dependencyNode != null && dependencyNode != node) {
+					node.dependencies.add(dependencyNode);
+				}
+			}
+		}
+		Node last = null;
+		for (Node node : nodes.values()) {
+			long pathNanos = node.determineCriticalPath();
+			if (last == null || pathNanos > last.criticalPathNanos) {
+				last = node;
+			}
+		}
+
+		StringBuilder report = new StringBuilder("Pre-instantiated ").append(nodes.size())
+				.append(" singletons with parallelism ").append(this.parallelism).append(" in ")
+				.append(TimeUnit.NANOSECONDS.toMillis(totalNanos)).append(" ms");
+		if (last != null) {
+			Deque<Node> path = new ArrayDeque<>();
+			for (Node node = last; node != null; node = node.criticalDependency) {
+				path.push(node);
+			}
+			report.append("; critical path of ").append(TimeUnit.NANOSECONDS.toMillis(last.criticalPathNanos))
+					.append(" ms: ");
+			boolean first = true;
+			for (Node node : path) {
+				if (!first) {
+					report.append(" -> ");
+				}
+				report.append(node.beanName).append(" (")
+						.append(TimeUnit.NANOSECONDS.toMillis(node.nanos)).append(" ms)");
+				first = false;
+			}
+		}
+		return report.toString();
+	}
+
+
+	/**
+	 * A singleton in the dependency graph.
+	 */
+	private static final class Node {
+
+		final String beanName;
+
+		final Set<Node> dependencies = new LinkedHashSet<>();
+
+		final List<Node> dependents = new ArrayList<>();
+
+		final AtomicInteger pendingDependencies = new AtomicInteger();
+
+		boolean serial;
+
+		boolean scheduled;
+
+		volatile boolean instantiated;
+
+		volatile long nanos;
+
+		long criticalPathNanos = -1;
+
+		@Nullable
+		Node criticalDependency;
+
+		private boolean visiting;
+
+		Node(String beanName) {
+			this.beanName = beanName;
+		}
+
+		void instantiate(Consumer<String> instantiator) {
+			long startTime = System.nanoTime();
+			try {
+				instantiator.accept(this.beanName);
+			}
+			finally {
+				this.nanos = System.nanoTime() - startTime;
+				this.instantiated = true;
+			}
+		}
+
+		/**
+		 * Determine the longest total instantiation time of a chain of dependencies
+		 * ending with this node, ignoring dependencies on cycles.
+		 */
+		long determineCriticalPath() {
+			if (this.criticalPathNanos >= 0) {
+				return this.criticalPathNanos;
+			}
+			if (this.visiting) {
+				return 0;
+			}
+			this.visiting = true;
+			long dependencyNanos = 0;
+			for (Node dependency : this.dependencies) {
+				long pathNanos = dependency.determineCriticalPath();
+				if (!dependency.visiting && pathNanos > dependencyNanos) {
+					dependencyNanos = pathNanos;
+					this.criticalDependency = dependency;
+				}
+			}
+			this.visiting = false;
+			this.criticalPathNanos = dependencyNanos + this.nanos;
+			return this.criticalPathNanos;
+		}
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.SpringProperties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GeneratedBeanAccessor} and its use in {@link BeanWrapperImpl}.
+ *
+ * @since 5.1.17
+ */
+public class GeneratedBeanAccessorTests {
+
+	@Before
+	public void enableGeneratedAccessors() {
+		SpringProperties.setProperty(CachedIntrospectionResults.GENERATED_ACCESSORS_PROPERTY_NAME, "true");
+		CachedIntrospectionResults.clearClassLoader(getClass().getClassLoader());
+	}
+
+	@After
+	public void resetGeneratedAccessors() {
+		SpringProperties.setProperty(CachedIntrospectionResults.GENERATED_ACCESSORS_PROPERTY_NAME, null);
+		CachedIntrospectionResults.clearClassLoader(getClass().getClassLoader());
+	}
+
+
+	@Test
+	public void generateAccessor() throws Exception {
+		PropertyDescriptor[] pds = CachedIntrospectionResults.forClass(AccessorBean.class).getPropertyDescriptors();
+		GeneratedBeanAccessor accessor = BeanAccessorGenerator.generate(AccessorBean.class, Arrays.asList(pds));
+		assertNotNull(accessor);
+
+		AccessorBean bean = new AccessorBean();
+		accessor.write(bean, accessor.getWriteIndex("name"), "Juergen");
+		accessor.write(bean, accessor.getWriteIndex("age"), 42);
+		accessor.write(bean, accessor.getWriteIndex("weight"), 72.5d);
+		accessor.write(bean, accessor.getWriteIndex("nicknames"), new String[] {"j"});
+
+		assertEquals("Juergen", accessor.read(bean, accessor.getReadIndex("name")));
+		assertEquals(42, accessor.read(bean, accessor.getReadIndex("age")));
+		assertEquals(72.5d, accessor.read(bean, accessor.getReadIndex("weight")));
+		assertArrayEquals(new String[] {"j"}, (String[]) accessor.read(bean, accessor.getReadIndex("nicknames")));
+		assertEquals(-1, accessor.getWriteIndex("hidden"));
+		assertEquals(-1, accessor.getReadIndex("other"));
+	}
+
+	@Test
+	public void generatedAccessorWrapsOnlyExceptionsFromAccessorMethods() throws Exception {
+		PropertyDescriptor[] pds = CachedIntrospectionResults.forClass(AccessorBean.class).getPropertyDescriptors();
+		GeneratedBeanAccessor accessor = BeanAccessorGenerator.generate(AccessorBean.class, Arrays.asList(pds));
+		assertNotNull(accessor);
+
+		AccessorBean bean = new AccessorBean();
+		try {
+			accessor.read(bean, accessor.getReadIndex("failing"));
+			fail("Should have thrown InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertTrue(ex.getTargetException() instanceof IllegalStateException);
+		}
+		try {
+			accessor.write(bean, accessor.getWriteIndex("failing"), "value");
+			fail("Should have thrown InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertTrue(ex.getTargetException() instanceof IllegalStateException);
+		}
+		try {
+			accessor.read(bean, pds.length);
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+		try {
+			accessor.write(new Object(), accessor.getWriteIndex("name"), "value");
+			fail("Should have thrown ClassCastException");
+		}
+		catch (ClassCastException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void writableValues() {
+		PropertyDescriptor[] pds = CachedIntrospectionResults.forClass(AccessorBean.class).getPropertyDescriptors();
+		GeneratedBeanAccessor accessor = BeanAccessorGenerator.generate(AccessorBean.class, Arrays.asList(pds));
+		assertNotNull(accessor);
+
+		int ageIndex = accessor.getWriteIndex("age");
+		assertTrue(accessor.isWritableValue(ageIndex, 42));
+		assertFalse(accessor.isWritableValue(ageIndex, null));
+		assertFalse(accessor.isWritableValue(ageIndex, 42L));
+		int nameIndex = accessor.getWriteIndex("name");
+		assertTrue(accessor.isWritableValue(nameIndex, null));
+		assertFalse(accessor.isWritableValue(nameIndex, 42));
+	}
+
+	@Test
+	public void beanWrapperUsesGeneratedAccessor() {
+		AccessorBean bean = new AccessorBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i < CachedIntrospectionResults.ACCESSOR_GENERATION_THRESHOLD + 1; i++) {
+			bw.setPropertyValue("age", String.valueOf(i));
+			bw.setPropertyValue("name", "name" + i);
+			assertEquals(i, bw.getPropertyValue("age"));
+			assertEquals("name" + i, bw.getPropertyValue("name"));
+		}
+
+		assertNotNull(CachedIntrospectionResults.forClass(AccessorBean.class).getGeneratedAccessor());
+		bw.setPropertyValue("weight", 3);
+		assertEquals(3d, bean.getWeight(), 0d);
+	}
+
+	@Test
+	public void beanWrapperPropagatesExceptionsFromGeneratedAccessor() {
+		AccessorBean bean = new AccessorBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i < CachedIntrospectionResults.ACCESSOR_GENERATION_THRESHOLD; i++) {
+			bw.getPropertyValue("age");
+		}
+		assertNotNull(CachedIntrospectionResults.forClass(AccessorBean.class).getGeneratedAccessor());
+
+		try {
+			bw.setPropertyValue("failing", "value");
+			fail("Should have thrown MethodInvocationException");
+		}
+		catch (MethodInvocationException ex) {
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+		try {
+			bw.getPropertyValue("failing");
+			fail("Should have thrown InvalidPropertyException");
+		}
+		catch (InvalidPropertyException ex) {
+			assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void noGeneratedAccessorIfDisabled() {
+		SpringProperties.setProperty(CachedIntrospectionResults.GENERATED_ACCESSORS_PROPERTY_NAME, null);
+		CachedIntrospectionResults.clearClassLoader(getClass().getClassLoader());
+
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(AccessorBean.class);
+		for (int i = 0; i < CachedIntrospectionResults.ACCESSOR_GENERATION_THRESHOLD; i++) {
+			assertNull(results.getGeneratedAccessor());
+		}
+	}
+
+
+	public static class AccessorBean {
+
+		private String name;
+
+		private int age;
+
+		private double weight;
+
+		private String[] nicknames;
+
+		private HiddenType hidden;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public double getWeight() {
+			return this.weight;
+		}
+
+		public void setWeight(double weight) {
+			this.weight = weight;
+		}
+
+		public String[] getNicknames() {
+			return this.nicknames;
+		}
+
+		public void setNicknames(String[] nicknames) {
+			this.nicknames = nicknames;
+		}
+
+		public HiddenType getHidden() {
+			return this.hidden;
+		}
+
+		public void setHidden(HiddenType hidden) {
+			this.hidden = hidden;
+		}
+
+		public String getFailing() {
+			throw new IllegalStateException("getter failure");
+		}
+
+		public void setFailing(String failing) {
+			throw new IllegalStateException("setter failure");
+		}
+	}
+
+
+	static class HiddenType {
+	}
+
+}
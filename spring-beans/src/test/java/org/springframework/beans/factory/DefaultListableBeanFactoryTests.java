@@ -37,6 +37,8 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -2954,12 +2956,112 @@ public class DefaultListableBeanFactoryTests {
 		}
 	}
 
+	@Test
+	public void testParallelPreInstantiationOfIndependentSingletons() {
+		lbf.setPreInstantiationParallelism(2);
+		assertTrue(lbf.isConcurrentSingletonCreation());
+		CountDownLatch latch = new CountDownLatch(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(LatchBean.class);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		lbf.registerBeanDefinition("latch1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(LatchBean.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		lbf.registerBeanDefinition("latch2", bd2);
+		lbf.preInstantiateSingletons();
+
+		assertTrue(lbf.getBean("latch1", LatchBean.class).released);
+		assertTrue(lbf.getBean("latch2", LatchBean.class).released);
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithDependencies() {
+		lbf.setPreInstantiationParallelism(4);
+		for (int i = 0; i < 20; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			bd.getPropertyValues().add("name", "tb" + i);
+			if (i > 0) {
+				bd.getPropertyValues().add("spouse", new RuntimeBeanReference("tb" + (i - 1)));
+			}
+			if (i > 1) {
+				bd.setDependsOn("tb" + (i - 2));
+			}
+			lbf.registerBeanDefinition("tb" + i, bd);
+		}
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazy);
+		lbf.preInstantiateSingletons();
+
+		for (int i = 1; i < 20; i++) {
+			TestBean tb = lbf.getBean("tb" + i, TestBean.class);
+			assertSame(lbf.getBean("tb" + (i - 1)), tb.getSpouse());
+		}
+		assertFalse(lbf.containsSingleton("lazy"));
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithCircularReference() {
+		lbf.setPreInstantiationParallelism(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class);
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("tb2"));
+		lbf.registerBeanDefinition("tb1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class);
+		bd2.getPropertyValues().add("spouse", new RuntimeBeanReference("tb1"));
+		lbf.registerBeanDefinition("tb2", bd2);
+		lbf.preInstantiateSingletons();
+
+		TestBean tb1 = lbf.getBean("tb1", TestBean.class);
+		TestBean tb2 = lbf.getBean("tb2", TestBean.class);
+		assertSame(tb2, tb1.getSpouse());
+		assertSame(tb1, tb2.getSpouse());
+	}
+
+	@Test
+	public void testSequentialPreInstantiationAfterParallelism() {
+		lbf.setPreInstantiationParallelism(2);
+		assertTrue(lbf.isConcurrentSingletonCreation());
+		lbf.setPreInstantiationParallelism(1);
+		assertFalse(lbf.isConcurrentSingletonCreation());
+
+		lbf.setConcurrentSingletonCreation(true);
+		lbf.setPreInstantiationParallelism(2);
+		lbf.setPreInstantiationParallelism(1);
+		assertTrue(lbf.isConcurrentSingletonCreation());
+	}
+
+	@Test
+	public void testParallelPreInstantiationWithFailure() {
+		lbf.setPreInstantiationParallelism(2);
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("age", "invalid");
+		lbf.registerBeanDefinition("invalid", bd);
+		try {
+			lbf.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertEquals("invalid", ex.getBeanName());
+		}
+	}
+
 
 	static class A { }
 
 	static class B { }
 
 
+	public static class LatchBean {
+
+		public final boolean released;
+
+		public LatchBean(CountDownLatch latch) throws InterruptedException {
+			latch.countDown();
+			this.released = latch.await(10, TimeUnit.SECONDS);
+		}
+	}
+
+
 	public static class NoDependencies {
 
 		private NoDependencies() {
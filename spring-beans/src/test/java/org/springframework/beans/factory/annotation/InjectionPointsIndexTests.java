@@ -0,0 +1,209 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link InjectionPointsIndex}.
+ *
+ * @since 5.1.17
+ */
+public class InjectionPointsIndexTests {
+
+	@Test
+	public void injectionPoints() {
+		InjectionPointsIndex index = createIndex(IndexedBean.class.getName(), "first,setSecond(" +
+				TestBean.class.getName() + ";java.lang.String[];int)");
+		Set<String> injectionPoints = index.getInjectionPoints(IndexedBean.class);
+
+		assertNotNull(injectionPoints);
+		assertTrue(InjectionPointsIndex.isCandidate(injectionPoints, field("first")));
+		assertFalse(InjectionPointsIndex.isCandidate(injectionPoints, field("second")));
+		assertTrue(InjectionPointsIndex.isCandidate(injectionPoints, ReflectionUtils.findMethod(
+				IndexedBean.class, "setSecond", TestBean.class, String[].class, int.class)));
+		assertFalse(InjectionPointsIndex.isCandidate(injectionPoints, ReflectionUtils.findMethod(
+				IndexedBean.class, "setSecond", TestBean.class)));
+	}
+
+	@Test
+	public void classWithoutInjectionPoints() {
+		InjectionPointsIndex index = createIndex(IndexedBean.class.getName(), "");
+		Set<String> injectionPoints = index.getInjectionPoints(IndexedBean.class);
+
+		assertEquals(Collections.emptySet(), injectionPoints);
+		assertFalse(InjectionPointsIndex.isCandidate(injectionPoints, field("first")));
+	}
+
+	@Test
+	public void classNotIndexed() {
+		InjectionPointsIndex index = createIndex(TestBean.class.getName(), "");
+
+		assertNull(index.getInjectionPoints(IndexedBean.class));
+		assertTrue(InjectionPointsIndex.isCandidate(null, field("first")));
+	}
+
+	@Test
+	public void staleIndexIsIgnored() {
+		InjectionPointsIndex index = createIndex(IndexedBean.class.getName(), "first,third");
+
+		assertNull(index.getInjectionPoints(IndexedBean.class));
+	}
+
+	@Test
+	public void bridgeMethodsAreAlwaysCandidates() {
+		Method bridge = null;
+		for (Method method : GenericSubclass.class.getDeclaredMethods()) {
+			if (method.isBridge()) {
+				bridge = method;
+			}
+		}
+		assertNotNull(bridge);
+		assertTrue(InjectionPointsIndex.isCandidate(Collections.emptySet(), bridge));
+	}
+
+	@Test
+	public void autowiringConsultsIndex() throws Exception {
+		Object bean = createIndexedBean(IndexedBean.class.getName() + "=first");
+
+		assertNotNull(getField(bean, "first"));
+		assertNull(getField(bean, "second"));
+	}
+
+	@Test
+	public void autowiringFallsBackToIntrospectionForStaleIndex() throws Exception {
+		Object bean = createIndexedBean(IndexedBean.class.getName() + "=first,third");
+
+		assertNotNull(getField(bean, "first"));
+		assertNotNull(getField(bean, "second"));
+	}
+
+
+	private static InjectionPointsIndex createIndex(String type, String injectionPoints) {
+		Properties properties = new Properties();
+		properties.setProperty(type, injectionPoints);
+		return new InjectionPointsIndex(properties);
+	}
+
+	private static Field field(String name) {
+		return ReflectionUtils.findField(IndexedBean.class, name);
+	}
+
+	private static Object getField(Object bean, String name) {
+		Field field = ReflectionUtils.findField(bean.getClass(), name);
+		ReflectionUtils.makeAccessible(field);
+		return ReflectionUtils.getField(field, bean);
+	}
+
+	/**
+	 * Create an {@link IndexedBean} through a class loader that serves the given index.
+	 */
+	private Object createIndexedBean(String index) throws IOException, ClassNotFoundException {
+		File file = File.createTempFile("spring", ".injection");
+		file.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(file)) {
+			out.write(index.getBytes("ISO-8859-1"));
+		}
+		ClassLoader classLoader = new IndexClassLoader(getClass().getClassLoader(), file.toURI().toURL());
+		Class<?> beanClass = classLoader.loadClass(IndexedBean.class.getName());
+		assertNotSame(IndexedBean.class, beanClass);
+
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(bf);
+		bf.addBeanPostProcessor(bpp);
+		bf.registerSingleton("testBean", new TestBean());
+		bf.registerBeanDefinition("indexedBean", new RootBeanDefinition(beanClass));
+		return bf.getBean("indexedBean");
+	}
+
+
+	public static class IndexedBean {
+
+		@Autowired
+		private TestBean first;
+
+		@Autowired
+		private TestBean second;
+
+		public void setSecond(TestBean second) {
+		}
+
+		public void setSecond(TestBean second, String[] names, int count) {
+		}
+	}
+
+
+	public static class GenericBase<T> {
+
+		public void setValue(T value) {
+		}
+	}
+
+
+	public static class GenericSubclass extends GenericBase<String> {
+
+		@Override
+		public void setValue(String value) {
+		}
+	}
+
+
+	private static class IndexClassLoader extends OverridingClassLoader {
+
+		private final URL index;
+
+		IndexClassLoader(ClassLoader parent, URL index) {
+			super(parent);
+			this.index = index;
+		}
+
+		@Override
+		protected boolean isEligibleForOverriding(String className) {
+			return className.equals(IndexedBean.class.getName());
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			if (InjectionPointsIndex.INJECTION_POINTS_RESOURCE_LOCATION.equals(name)) {
+				return Collections.enumeration(Collections.singletonList(this.index));
+			}
+			return super.getResources(name);
+		}
+	}
+
+}
@@ -16,10 +16,22 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.tests.sample.beans.DerivedTestBean;
 import org.springframework.tests.sample.beans.TestBean;
 
@@ -101,4 +113,144 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testConcurrentCreationOfIndependentSingletons() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CountDownLatch bothInCreation = new CountDownLatch(2);
+		ObjectFactory<Object> factory = () -> {
+			bothInCreation.countDown();
+			try {
+				assertTrue(bothInCreation.await(10, TimeUnit.SECONDS));
+			}
+			catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+			return new TestBean();
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> tb1 = executor.submit(() -> beanRegistry.getSingleton("tb1", factory));
+			Future<Object> tb2 = executor.submit(() -> beanRegistry.getSingleton("tb2", factory));
+			assertSame(tb1.get(10, TimeUnit.SECONDS), beanRegistry.getSingleton("tb1"));
+			assertSame(tb2.get(10, TimeUnit.SECONDS), beanRegistry.getSingleton("tb2"));
+			assertEquals(2, beanRegistry.getSingletonCount());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentCreationOfSameSingleton() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		AtomicInteger creationCount = new AtomicInteger();
+		ObjectFactory<Object> factory = () -> {
+			creationCount.incrementAndGet();
+			inCreation.countDown();
+			try {
+				assertTrue(proceed.await(10, TimeUnit.SECONDS));
+			}
+			catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+			return new TestBean();
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> tb1 = executor.submit(() -> beanRegistry.getSingleton("tb", factory));
+			assertTrue(inCreation.await(10, TimeUnit.SECONDS));
+			Future<Object> tb2 = executor.submit(() -> beanRegistry.getSingleton("tb", factory));
+			assertNull(beanRegistry.getSingleton("tb"));
+			proceed.countDown();
+			assertSame(tb1.get(10, TimeUnit.SECONDS), tb2.get(10, TimeUnit.SECONDS));
+			assertEquals(1, creationCount.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentCreationWithCircularReferenceAcrossThreads() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CyclicBarrier bothExposed = new CyclicBarrier(2);
+		TestBean tb1 = new TestBean("tb1");
+		TestBean tb2 = new TestBean("tb2");
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> result1 = executor.submit(() -> beanRegistry.getSingleton("tb1",
+					circularFactory(beanRegistry, bothExposed, "tb1", tb1, "tb2", tb2)));
+			Future<Object> result2 = executor.submit(() -> beanRegistry.getSingleton("tb2",
+					circularFactory(beanRegistry, bothExposed, "tb2", tb2, "tb1", tb1)));
+			assertSame(tb1, result1.get(10, TimeUnit.SECONDS));
+			assertSame(tb2, result2.get(10, TimeUnit.SECONDS));
+			assertSame(tb2, tb1.getSpouse());
+			assertSame(tb1, tb2.getSpouse());
+			assertSame(tb1, beanRegistry.getSingleton("tb1"));
+			assertSame(tb2, beanRegistry.getSingleton("tb2"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentCreationWithUnresolvableCircularReferenceAcrossThreads() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CyclicBarrier bothInCreation = new CyclicBarrier(2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> result1 = executor.submit(() -> beanRegistry.getSingleton("tb1",
+					circularFactory(beanRegistry, bothInCreation, "tb1", null, "tb2", new TestBean())));
+			Future<Object> result2 = executor.submit(() -> beanRegistry.getSingleton("tb2",
+					circularFactory(beanRegistry, bothInCreation, "tb2", null, "tb1", new TestBean())));
+			int failures = 0;
+			for (Future<Object> result : Arrays.asList(result1, result2)) {
+				try {
+					result.get(10, TimeUnit.SECONDS);
+				}
+				catch (ExecutionException ex) {
+					assertTrue(ex.getCause() instanceof BeanCurrentlyInCreationException);
+					failures++;
+				}
+			}
+			assertEquals(1, failures);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static ObjectFactory<Object> circularFactory(DefaultSingletonBeanRegistry beanRegistry,
+			CyclicBarrier barrier, String beanName, @Nullable TestBean earlyBean, String spouseName, TestBean spouse) {
+
+		return () -> {
+			if (earlyBean != null) {
+				beanRegistry.addSingletonFactory(beanName, () -> earlyBean);
+			}
+			try {
+				barrier.await(10, TimeUnit.SECONDS);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+			TestBean resolvedSpouse = (TestBean) beanRegistry.getSingleton(spouseName, () -> spouse);
+			if (earlyBean == null) {
+				return new TestBean();
+			}
+			earlyBean.setSpouse(resolvedSpouse);
+			return earlyBean;
+		};
+	}
+
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ParallelSingletonPreInstantiator}.
+ *
+ * @since 5.1.17
+ */
+public class ParallelSingletonPreInstantiatorTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final List<String> instantiated = Collections.synchronizedList(new ArrayList<>());
+
+
+	@Before
+	public void setup() {
+		this.beanFactory.setConcurrentSingletonCreation(true);
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(this.beanFactory);
+		this.beanFactory.addBeanPostProcessor(bpp);
+	}
+
+
+	@Test
+	public void constructorAndFieldInjectionPoints() {
+		this.beanFactory.registerBeanDefinition("consumer", new RootBeanDefinition(Consumer.class));
+		this.beanFactory.registerBeanDefinition("fieldDependency", new RootBeanDefinition(FieldDependency.class));
+		this.beanFactory.registerBeanDefinition("constructorDependency",
+				new RootBeanDefinition(ConstructorDependency.class));
+		preInstantiate("consumer", "fieldDependency", "constructorDependency");
+
+		assertEquals("consumer", this.instantiated.get(2));
+		Consumer consumer = this.beanFactory.getBean(Consumer.class);
+		assertSame(this.beanFactory.getBean(FieldDependency.class), consumer.fieldDependency);
+		assertSame(this.beanFactory.getBean(ConstructorDependency.class), consumer.constructorDependency);
+	}
+
+	@Test
+	public void factoryMethodParameters() {
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("config");
+		bd.setFactoryMethodName("fieldDependency");
+		bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("fieldDependency", bd);
+		this.beanFactory.registerBeanDefinition("config", new RootBeanDefinition(Config.class));
+		this.beanFactory.registerBeanDefinition("constructorDependency",
+				new RootBeanDefinition(ConstructorDependency.class));
+		preInstantiate("fieldDependency", "config", "constructorDependency");
+
+		assertEquals("fieldDependency", this.instantiated.get(2));
+	}
+
+	@Test
+	public void autowiredByTypeProperties() {
+		RootBeanDefinition bd = new RootBeanDefinition(PropertyConsumer.class);
+		bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE);
+		this.beanFactory.registerBeanDefinition("propertyConsumer", bd);
+		this.beanFactory.registerBeanDefinition("constructorDependency",
+				new RootBeanDefinition(ConstructorDependency.class));
+		preInstantiate("propertyConsumer", "constructorDependency");
+
+		assertEquals(Arrays.asList("constructorDependency", "propertyConsumer"), this.instantiated);
+		assertNotNull(this.beanFactory.getBean(PropertyConsumer.class).constructorDependency);
+	}
+
+	@Test
+	public void undeterminedDependenciesInstantiatedSerially() {
+		this.beanFactory.registerBeanDefinition("supplied",
+				new RootBeanDefinition(ConstructorDependency.class, ConstructorDependency::new));
+		RootBeanDefinition bd = new RootBeanDefinition(FieldDependency.class);
+		bd.setDependsOn("supplied");
+		this.beanFactory.registerBeanDefinition("dependent", bd);
+		this.beanFactory.registerBeanDefinition("independent", new RootBeanDefinition(Config.class));
+		preInstantiate("supplied", "dependent", "independent");
+
+		assertEquals(Arrays.asList("independent", "supplied", "dependent"), this.instantiated);
+	}
+
+
+	private void preInstantiate(String... beanNames) {
+		new ParallelSingletonPreInstantiator(this.beanFactory, 2).preInstantiate(Arrays.asList(beanNames), name -> {
+			this.instantiated.add(name);
+			this.beanFactory.getBean(name);
+		});
+	}
+
+
+	static class Consumer {
+
+		final ConstructorDependency constructorDependency;
+
+		@Autowired
+		FieldDependency fieldDependency;
+
+		Consumer(ConstructorDependency constructorDependency) {
+			this.constructorDependency = constructorDependency;
+		}
+	}
+
+
+	static class PropertyConsumer {
+
+		ConstructorDependency constructorDependency;
+
+		public void setConstructorDependency(ConstructorDependency constructorDependency) {
+			this.constructorDependency = constructorDependency;
+		}
+	}
+
+
+	static class Config {
+
+		public FieldDependency fieldDependency(ConstructorDependency constructorDependency) {
+			return new FieldDependency();
+		}
+	}
+
+
+	static class FieldDependency {
+	}
+
+
+	static class ConstructorDependency {
+	}
+
+}
@@ -38,7 +38,7 @@ import javax.lang.model.element.TypeElement;
 
 /**
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
- * file for spring components.
+ * file for spring components, as well as the injection points of all classes.
  *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
@@ -57,6 +57,12 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private List<StereotypesProvider> stereotypesProviders;
 
+	private MetadataStore injectionPointsStore;
+
+	private MetadataCollector injectionPointsCollector;
+
+	private InjectionPointsProvider injectionPointsProvider;
+
 
 	@Override
 	public Set<String> getSupportedOptions() {
@@ -79,11 +85,15 @@ public class CandidateComponentsIndexer implements Processor {
 		this.typeHelper = new TypeHelper(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		this.injectionPointsStore = new MetadataStore(env, MetadataStore.INJECTION_POINTS_PATH);
+		this.injectionPointsCollector = new MetadataCollector(env, this.injectionPointsStore.readMetadata());
+		this.injectionPointsProvider = new InjectionPointsProvider(env);
 	}
 
 	@Override
 	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
 		this.metadataCollector.processing(roundEnv);
+		this.injectionPointsCollector.processing(roundEnv);
 		roundEnv.getRootElements().forEach(this::processElement);
 		if (roundEnv.processingOver()) {
 			writeMetaData();
@@ -119,13 +129,24 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
 		}
+		if (element.getKind() == ElementKind.CLASS) {
+			// Record every class, so that classes without injection points are known as such
+			TypeElement type = (TypeElement) element;
+			this.injectionPointsCollector.add(new ItemMetadata(this.injectionPointsProvider.getType(type),
+					this.injectionPointsProvider.getInjectionPoints(type)));
+		}
 	}
 
 	private void writeMetaData() {
-		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
+		writeMetaData(this.metadataCollector, this.metadataStore);
+		writeMetaData(this.injectionPointsCollector, this.injectionPointsStore);
+	}
+
+	private void writeMetaData(MetadataCollector collector, MetadataStore store) {
+		CandidateComponentsMetadata metadata = collector.getMetadata();
 		if (!metadata.getItems().isEmpty()) {
 			try {
-				this.metadataStore.writeMetadata(metadata);
+				store.writeMetadata(metadata);
 			}
 			catch (IOException ex) {
 				throw new IllegalStateException("Failed to write metadata", ex);
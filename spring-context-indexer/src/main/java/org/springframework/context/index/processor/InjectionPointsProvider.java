@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Determine the injection points that a class declares: the fields and methods
+ * that are annotated or meta-annotated with one of the annotations that Spring's
+ * annotation post-processors look for.
+ *
+ * <p>Fields are identified by name, and methods by name and erased parameter
+ * types, matching {@code org.springframework.beans.factory.annotation.InjectionPointsIndex}.
+ *
+ * @since 5.1.17
+ */
+class InjectionPointsProvider {
+
+	private static final Set<String> INJECTION_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"org.springframework.beans.factory.annotation.Autowired",
+			"org.springframework.beans.factory.annotation.Value",
+			"javax.inject.Inject",
+			"javax.annotation.Resource",
+			"javax.ejb.EJB",
+			"javax.xml.ws.WebServiceRef",
+			"javax.annotation.PostConstruct",
+			"javax.annotation.PreDestroy")));
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public InjectionPointsProvider(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Return the binary name of the given class, as used to load it.
+	 */
+	public String getType(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	/**
+	 * Return the injection points that the given class declares locally.
+	 */
+	public Set<String> getInjectionPoints(TypeElement type) {
+		Set<String> injectionPoints = new LinkedHashSet<>();
+		for (Element element : type.getEnclosedElements()) {
+			if (element.getKind() == ElementKind.FIELD && isInjectionPoint(element)) {
+				injectionPoints.add(element.getSimpleName().toString());
+			}
+			else if (element.getKind() == ElementKind.METHOD && isInjectionPoint(element)) {
+				StringJoiner key = new StringJoiner(";", element.getSimpleName() + "(", ")");
+				for (VariableElement parameter : ((ExecutableElement) element).getParameters()) {
+					key.add(getErasedTypeName(parameter.asType()));
+				}
+				injectionPoints.add(key.toString());
+			}
+		}
+		return injectionPoints;
+	}
+
+	private boolean isInjectionPoint(Element element) {
+		return isAnnotatedWithInjectionAnnotation(element.getAnnotationMirrors(), new HashSet<>());
+	}
+
+	private boolean isAnnotatedWithInjectionAnnotation(List<? extends AnnotationMirror> annotations, Set<String> visited) {
+		for (AnnotationMirror annotation : annotations) {
+			Element annotationType = annotation.getAnnotationType().asElement();
+			String name = ((TypeElement) annotationType).getQualifiedName().toString();
+			if (INJECTION_ANNOTATIONS.contains(name)) {
+				return true;
+			}
+			if (!name.startsWith("java.lang.annotation") && visited.add(name) &&
+					isAnnotatedWithInjectionAnnotation(annotationType.getAnnotationMirrors(), visited)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String getErasedTypeName(TypeMirror type) {
+		TypeMirror erasedType = this.types.erasure(type);
+		if (erasedType instanceof ArrayType) {
+			return getErasedTypeName(((ArrayType) erasedType).getComponentType()) + "[]";
+		}
+		if (erasedType instanceof DeclaredType) {
+			return getType((TypeElement) ((DeclaredType) erasedType).asElement());
+		}
+		return erasedType.toString();
+	}
+
+}
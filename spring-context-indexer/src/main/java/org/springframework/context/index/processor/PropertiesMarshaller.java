@@ -43,7 +43,9 @@ abstract class PropertiesMarshaller {
 		Properties props = new Properties();
 		props.load(in);
 		props.forEach((type, value) -> {
-			Set<String> candidates = new HashSet<>(Arrays.asList(((String) value).split(",")));
+			String candidateList = (String) value;
+			Set<String> candidates = (!candidateList.isEmpty() ?
+					new HashSet<>(Arrays.asList(candidateList.split(","))) : new HashSet<>());
 			result.add(new ItemMetadata((String) type, candidates));
 		});
 		return result;
@@ -39,6 +39,7 @@ import org.springframework.context.index.sample.MetaControllerIndexed;
 import org.springframework.context.index.sample.SampleComponent;
 import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleEmbedded;
+import org.springframework.context.index.sample.SampleInjectionPoints;
 import org.springframework.context.index.sample.SampleMetaController;
 import org.springframework.context.index.sample.SampleMetaIndexedController;
 import org.springframework.context.index.sample.SampleNonStaticEmbedded;
@@ -230,6 +231,23 @@ public class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems(), hasSize(0));
 	}
 
+	@Test
+	public void injectionPoints() {
+		CandidateComponentsMetadata metadata = compileInjectionPoints(SampleInjectionPoints.class);
+		assertThat(metadata, hasComponent(SampleInjectionPoints.class.getName(), "component", "name",
+				"setLists(java.util.List;java.lang.String[];int)",
+				"setNested(" + SampleInjectionPoints.Nested.class.getName() + ")",
+				"setMap(java.util.Map)", "init()"));
+		assertThat(metadata, hasComponent(SampleInjectionPoints.Nested.class.getName(), "component"));
+	}
+
+	@Test
+	public void injectionPointsRecordedForEveryClass() {
+		CandidateComponentsMetadata metadata = compileInjectionPoints(SampleNone.class);
+		assertThat(metadata, hasComponent(SampleNone.class));
+		assertThat(metadata.getItems(), hasSize(1));
+	}
+
 	private void testComponent(Class<?>... classes) {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -256,10 +274,19 @@ public class CandidateComponentsIndexerTests {
 		return readGeneratedMetadata(this.compiler.getOutputLocation());
 	}
 
+	private CandidateComponentsMetadata compileInjectionPoints(Class<?>... types) {
+		CandidateComponentsIndexer processor = new CandidateComponentsIndexer();
+		this.compiler.getTask(types).call(processor);
+		return readGeneratedMetadata(this.compiler.getOutputLocation(), MetadataStore.INJECTION_POINTS_PATH);
+	}
+
 	private CandidateComponentsMetadata readGeneratedMetadata(File outputLocation) {
+		return readGeneratedMetadata(outputLocation, MetadataStore.METADATA_PATH);
+	}
+
+	private CandidateComponentsMetadata readGeneratedMetadata(File outputLocation, String path) {
 		try {
-			File metadataFile = new File(outputLocation,
-					MetadataStore.METADATA_PATH);
+			File metadataFile = new File(outputLocation, path);
 			if (metadataFile.isFile()) {
 				return PropertiesMarshaller.read(new FileInputStream(metadataFile));
 			}
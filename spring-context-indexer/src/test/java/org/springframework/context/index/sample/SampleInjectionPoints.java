@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.inject.Inject;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Test candidate declaring injection points.
+ */
+public class SampleInjectionPoints {
+
+	@Autowired
+	private SampleComponent component;
+
+	@Value("${name}")
+	private String name;
+
+	private String notInjected;
+
+	@Inject
+	public void setLists(List<String> list, String[] array, int count) {
+	}
+
+	@Resource
+	public void setNested(Nested nested) {
+	}
+
+	@CustomAutowired
+	public <T extends Map<String, ?>> void setMap(T map) {
+	}
+
+	public void setNotInjected(String notInjected) {
+	}
+
+	@PostConstruct
+	public void init() {
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Autowired
+	public @interface CustomAutowired {
+	}
+
+
+	public static class Nested {
+
+		@Autowired
+		private SampleComponent component;
+	}
+
+}
@@ -101,17 +101,18 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
+		return getExpression(this.keyCache, methodKey, keyExpression, CacheExpressionRootObject.class)
+				.getValue(evalContext);
 	}
 
 	public boolean condition(String conditionExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evalContext, Boolean.class)));
+		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression,
+				CacheExpressionRootObject.class).getValue(evalContext, Boolean.class)));
 	}
 
 	public boolean unless(String unlessExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.unlessCache, methodKey, unlessExpression).getValue(
-				evalContext, Boolean.class)));
+		return (Boolean.TRUE.equals(getExpression(this.unlessCache, methodKey, unlessExpression,
+				CacheExpressionRootObject.class).getValue(evalContext, Boolean.class)));
 	}
 
 	/**
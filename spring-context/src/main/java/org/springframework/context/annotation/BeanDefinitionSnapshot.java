@@ -0,0 +1,838 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Build-time snapshot of the bean definitions that configuration class processing
+ * derives from the bean definitions initially registered with a context: the
+ * results of component scanning, {@link Bean @Bean} methods, {@link Import @Import}
+ * declarations and {@link ImportResource @ImportResource} files, along with the
+ * import relationships required for {@link ImportAware} and the
+ * {@link PropertySource @PropertySource} declarations to apply to the environment.
+ *
+ * <p>A snapshot is {@linkplain #capture captured} once for an application, typically
+ * as part of its build, and {@linkplain #store stored} at
+ * {@value #SNAPSHOT_RESOURCE_LOCATION}. When present on the classpath, the
+ * {@link ConfigurationClassPostProcessor} registers its bean definitions instead of
+ * scanning and parsing configuration classes, provided that the context has been
+ * set up with the same bean definitions and the same profiles as at capture time,
+ * and that the class resources that the bean definitions have been derived from are
+ * unchanged: the configuration classes, the bean classes and all classes in the
+ * component scan packages, compared through a content hash. A stale snapshot is
+ * ignored, falling back to regular configuration class processing.
+ *
+ * <p>Note that {@link Conditional @Conditional} declarations are evaluated once at
+ * capture time: the snapshot needs to be captured again whenever conditions depend
+ * on inputs other than profiles and class resources, e.g. on environment properties
+ * or on resources outside of the classpath. Also, the snapshot only holds bean
+ * definitions made of plain metadata: bean definitions with instance suppliers,
+ * method overrides or custom attribute and property value types are rejected
+ * when capturing.
+ *
+ * @since 5.1.17
+ * @see ConfigurationClassPostProcessor
+ * @see org.springframework.context.index.CandidateComponentsIndexLoader
+ */
+public final class BeanDefinitionSnapshot {
+
+	/**
+	 * The location to look for a snapshot.
+	 */
+	public static final String SNAPSHOT_RESOURCE_LOCATION = "META-INF/spring.beans.snapshot";
+
+	/**
+	 * System property that instructs Spring to ignore any snapshot, i.e.
+	 * to always return {@code null} from {@link #loadSnapshot(ClassLoader)}.
+	 * <p>The default is "false", allowing for regular use of a snapshot.
+	 */
+	public static final String IGNORE_SNAPSHOT = "spring.snapshot.ignore";
+
+
+	private static final boolean shouldIgnoreSnapshot = SpringProperties.getFlag(IGNORE_SNAPSHOT);
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshot.class);
+
+	private static final ConcurrentMap<ClassLoader, Object> cache = new ConcurrentReferenceHashMap<>();
+
+	private static final Object NO_SNAPSHOT = new Object();
+
+
+	private final Properties properties;
+
+
+	private BeanDefinitionSnapshot(Properties properties) {
+		this.properties = properties;
+	}
+
+
+	/**
+	 * Process the configuration classes of the given context and capture the
+	 * resulting bean definitions.
+	 * <p>The context is expected to be set up as for a regular refresh, with its
+	 * component classes registered but not refreshed yet. It is processed as a
+	 * side effect and is not meant to be refreshed afterwards.
+	 * @param context the context to capture bean definitions for
+	 * @return the snapshot
+	 * @throws IllegalStateException if any bean definition cannot be captured
+	 */
+	public static BeanDefinitionSnapshot capture(GenericApplicationContext context) {
+		BeanDefinitionRegistry registry = context.getDefaultListableBeanFactory();
+		Map<String, BeanDefinition> definitionsBefore = new HashMap<>();
+		Map<String, Map<String, Object>> attributesBefore = new HashMap<>();
+		Properties properties = new Properties();
+
+		int rootIndex = 0;
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			BeanDefinition bd = registry.getBeanDefinition(beanName);
+			definitionsBefore.put(beanName, bd);
+			Map<String, Object> attributes = new HashMap<>();
+			for (String attributeName : bd.attributeNames()) {
+				attributes.put(attributeName, bd.getAttribute(attributeName));
+			}
+			attributesBefore.put(beanName, attributes);
+			if (bd.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE) {
+				String prefix = "root." + rootIndex++ + ".";
+				properties.setProperty(prefix + "name", beanName);
+				setIfNotNull(properties, prefix + "class", bd.getBeanClassName());
+			}
+		}
+		properties.setProperty("profiles", StringUtils.arrayToCommaDelimitedString(
+				getProfiles(context.getEnvironment())));
+
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setEnvironment(context.getEnvironment());
+		postProcessor.setResourceLoader(context);
+		postProcessor.setBeanClassLoader(context.getDefaultListableBeanFactory().getBeanClassLoader());
+		ConfigurationClassParser parser = postProcessor.doProcessConfigBeanDefinitions(registry);
+
+		int beanIndex = 0;
+		int configIndex = 0;
+		int aliasIndex = 0;
+		int importIndex = 0;
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			BeanDefinition bd = registry.getBeanDefinition(beanName);
+			if (definitionsBefore.get(beanName) != bd) {
+				String prefix = "bean." + beanIndex++ + ".";
+				properties.setProperty(prefix + "name", beanName);
+				writeDefinition(properties, prefix, bd);
+			}
+			else {
+				// Configuration class markers on bean definitions registered upfront
+				Map<String, Object> attributes = attributesBefore.get(beanName);
+				Predicate<String> changed = name -> !Objects.equals(attributes.get(name), bd.getAttribute(name));
+				if (Arrays.stream(bd.attributeNames()).anyMatch(changed)) {
+					String prefix = "config." + configIndex++ + ".";
+					properties.setProperty(prefix + "name", beanName);
+					writeAttributes(properties, prefix, bd, changed);
+				}
+			}
+			for (String alias : registry.getAliases(beanName)) {
+				String prefix = "alias." + aliasIndex++ + ".";
+				properties.setProperty(prefix + "name", beanName);
+				properties.setProperty(prefix + "alias", alias);
+			}
+			if (parser != null && bd.getBeanClassName() != null &&
+					(ConfigurationClassUtils.isFullConfigurationClass(bd) ||
+							ConfigurationClassUtils.isLiteConfigurationClass(bd))) {
+				AnnotationMetadata importingClass = parser.getImportRegistry().getImportingClassFor(bd.getBeanClassName());
+				if (importingClass != null) {
+					String prefix = "import." + importIndex++ + ".";
+					properties.setProperty(prefix + "class", bd.getBeanClassName());
+					properties.setProperty(prefix + "importingClass", importingClass.getClassName());
+				}
+			}
+		}
+
+		Set<String> classNames = new TreeSet<>();
+		Set<String> packageNames = new TreeSet<>();
+		for (String name : properties.stringPropertyNames()) {
+			if ((name.startsWith("root.") || name.startsWith("bean.")) && name.endsWith(".class")) {
+				classNames.add(properties.getProperty(name));
+			}
+		}
+		if (parser != null) {
+			for (ConfigurationClass configClass : parser.getConfigurationClasses()) {
+				AnnotationMetadata metadata = configClass.getMetadata();
+				classNames.add(metadata.getClassName());
+				collectScanPackages(metadata, context.getEnvironment(), packageNames);
+			}
+		}
+		int classIndex = 0;
+		for (String className : classNames) {
+			properties.setProperty("fingerprint.class." + classIndex++, className);
+		}
+		int packageIndex = 0;
+		for (String packageName : packageNames) {
+			properties.setProperty("fingerprint.package." + packageIndex++, packageName);
+		}
+		properties.setProperty("fingerprint", computeFingerprint(classNames, packageNames, context));
+
+		if (parser != null) {
+			int propertySourceIndex = 0;
+			for (AnnotationAttributes propertySource : parser.getProcessedPropertySources()) {
+				String prefix = "propertySource." + propertySourceIndex++ + ".";
+				properties.setProperty(prefix + "name", propertySource.getString("name"));
+				properties.setProperty(prefix + "encoding", propertySource.getString("encoding"));
+				properties.setProperty(prefix + "ignoreResourceNotFound",
+						String.valueOf(propertySource.getBoolean("ignoreResourceNotFound")));
+				properties.setProperty(prefix + "factory", propertySource.getClass("factory").getName());
+				String[] locations = propertySource.getStringArray("value");
+				for (int i = 0; i < locations.length; i++) {
+					properties.setProperty(prefix + "value." + i, locations[i]);
+				}
+			}
+		}
+		return new BeanDefinitionSnapshot(properties);
+	}
+
+	/**
+	 * Load a snapshot from the given stream, as written by {@link #store}.
+	 * @param in the stream to read from (not closed by this method)
+	 * @return the snapshot
+	 * @throws IOException if reading from the stream failed
+	 */
+	public static BeanDefinitionSnapshot load(InputStream in) throws IOException {
+		Properties properties = new Properties();
+		properties.load(in);
+		return new BeanDefinitionSnapshot(properties);
+	}
+
+	/**
+	 * Load the snapshot from {@value #SNAPSHOT_RESOURCE_LOCATION}, using the given
+	 * class loader. If no snapshot is available, return {@code null}.
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the snapshot to use or {@code null} if no snapshot was found
+	 * @throws IllegalStateException if the snapshot cannot be loaded
+	 */
+	@Nullable
+	public static BeanDefinitionSnapshot loadSnapshot(@Nullable ClassLoader classLoader) {
+		if (shouldIgnoreSnapshot) {
+			return null;
+		}
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = BeanDefinitionSnapshot.class.getClassLoader();
+		}
+		Object snapshot = cache.computeIfAbsent(classLoaderToUse, BeanDefinitionSnapshot::doLoadSnapshot);
+		return (snapshot != NO_SNAPSHOT ? (BeanDefinitionSnapshot) snapshot : null);
+	}
+
+	private static Object doLoadSnapshot(ClassLoader classLoader) {
+		URL url = classLoader.getResource(SNAPSHOT_RESOURCE_LOCATION);
+		if (url == null) {
+			return NO_SNAPSHOT;
+		}
+		try {
+			Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded bean definition snapshot from [" + url + "]");
+			}
+			return new BeanDefinitionSnapshot(properties);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load bean definition snapshot from location [" +
+					SNAPSHOT_RESOURCE_LOCATION + "]", ex);
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given stream, typically a file that ends up
+	 * at {@value #SNAPSHOT_RESOURCE_LOCATION} on the classpath.
+	 * @param out the stream to write to (not closed by this method)
+	 * @throws IOException if writing to the stream failed
+	 */
+	public void store(OutputStream out) throws IOException {
+		this.properties.store(out, "Bean definition snapshot");
+	}
+
+
+	/**
+	 * Determine whether this snapshot has been captured for the given registry:
+	 * that is, with the same non-infrastructure bean definitions, the same
+	 * profiles and unchanged class resources.
+	 */
+	boolean isApplicableTo(BeanDefinitionRegistry registry, Environment environment, ResourceLoader resourceLoader) {
+		Map<String, String> roots = new HashMap<>();
+		for (int i = 0; this.properties.containsKey("root." + i + ".name"); i++) {
+			roots.put(this.properties.getProperty("root." + i + ".name"),
+					this.properties.getProperty("root." + i + ".class"));
+		}
+		int rootCount = 0;
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			BeanDefinition bd = registry.getBeanDefinition(beanName);
+			if (bd.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE) {
+				if (!roots.containsKey(beanName) || !Objects.equals(roots.get(beanName), bd.getBeanClassName())) {
+					return false;
+				}
+				rootCount++;
+			}
+		}
+		return (rootCount == roots.size() &&
+				new HashSet<>(Arrays.asList(getProfiles(environment))).equals(
+						StringUtils.commaDelimitedListToSet(this.properties.getProperty("profiles"))) &&
+				hasFingerprintOf(resourceLoader));
+	}
+
+	/**
+	 * Determine whether the class resources recorded at capture time are unchanged.
+	 */
+	private boolean hasFingerprintOf(ResourceLoader resourceLoader) {
+		String fingerprint = this.properties.getProperty("fingerprint");
+		if (fingerprint == null) {
+			return false;
+		}
+		List<String> classNames = new ArrayList<>();
+		for (int i = 0; this.properties.containsKey("fingerprint.class." + i); i++) {
+			classNames.add(this.properties.getProperty("fingerprint.class." + i));
+		}
+		List<String> packageNames = new ArrayList<>();
+		for (int i = 0; this.properties.containsKey("fingerprint.package." + i); i++) {
+			packageNames.add(this.properties.getProperty("fingerprint.package." + i));
+		}
+		try {
+			return fingerprint.equals(computeFingerprint(classNames, packageNames, resourceLoader));
+		}
+		catch (IllegalStateException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to verify bean definition snapshot against class resources", ex);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Register the bean definitions and aliases of this snapshot with the given
+	 * registry, and apply configuration class markers to existing bean definitions.
+	 */
+	void restore(BeanDefinitionRegistry registry) {
+		int beanCount = 0;
+		for (; this.properties.containsKey("bean." + beanCount + ".name"); beanCount++) {
+			String prefix = "bean." + beanCount + ".";
+			registry.registerBeanDefinition(this.properties.getProperty(prefix + "name"),
+					readDefinition(this.properties, prefix));
+		}
+		for (int i = 0; this.properties.containsKey("config." + i + ".name"); i++) {
+			String prefix = "config." + i + ".";
+			readAttributes(this.properties, prefix, registry.getBeanDefinition(this.properties.getProperty(prefix + "name")));
+		}
+		for (int i = 0; this.properties.containsKey("alias." + i + ".name"); i++) {
+			String prefix = "alias." + i + ".";
+			String alias = this.properties.getProperty(prefix + "alias");
+			if (!registry.isAlias(alias)) {
+				registry.registerAlias(this.properties.getProperty(prefix + "name"), alias);
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Restored " + beanCount + " bean definitions from snapshot");
+		}
+	}
+
+	/**
+	 * Return an {@link ImportRegistry} for the import relationships of this snapshot.
+	 */
+	ImportRegistry getImportRegistry(@Nullable ClassLoader classLoader) {
+		Map<String, String> imports = new HashMap<>();
+		for (int i = 0; this.properties.containsKey("import." + i + ".class"); i++) {
+			imports.put(this.properties.getProperty("import." + i + ".class"),
+					this.properties.getProperty("import." + i + ".importingClass"));
+		}
+		return new SnapshotImportRegistry(imports, classLoader);
+	}
+
+	/**
+	 * Return the <code>@PropertySource</code> annotation metadata of this snapshot,
+	 * in the order in which the property sources need to be added to the environment.
+	 */
+	List<AnnotationAttributes> getPropertySources(@Nullable ClassLoader classLoader) {
+		List<AnnotationAttributes> propertySources = new ArrayList<>();
+		for (int i = 0; this.properties.containsKey("propertySource." + i + ".name"); i++) {
+			String prefix = "propertySource." + i + ".";
+			AnnotationAttributes propertySource = new AnnotationAttributes(PropertySource.class);
+			propertySource.put("name", this.properties.getProperty(prefix + "name"));
+			propertySource.put("encoding", this.properties.getProperty(prefix + "encoding"));
+			propertySource.put("ignoreResourceNotFound",
+					Boolean.valueOf(this.properties.getProperty(prefix + "ignoreResourceNotFound")));
+			propertySource.put("factory", resolveClass(this.properties.getProperty(prefix + "factory"), classLoader));
+			List<String> locations = new ArrayList<>();
+			for (int j = 0; this.properties.containsKey(prefix + "value." + j); j++) {
+				locations.add(this.properties.getProperty(prefix + "value." + j));
+			}
+			propertySource.put("value", StringUtils.toStringArray(locations));
+			propertySources.add(propertySource);
+		}
+		return propertySources;
+	}
+
+
+	/**
+	 * Collect the base packages of the {@link ComponentScan @ComponentScan}
+	 * declarations on the given configuration class.
+	 */
+	private static void collectScanPackages(AnnotationMetadata metadata, Environment environment,
+			Set<String> packageNames) {
+
+		for (AnnotationAttributes componentScan : AnnotationConfigUtils.attributesForRepeatable(
+				metadata, ComponentScans.class, ComponentScan.class)) {
+			Set<String> basePackages = new LinkedHashSet<>();
+			for (String pkg : componentScan.getStringArray("basePackages")) {
+				Collections.addAll(basePackages, StringUtils.tokenizeToStringArray(
+						environment.resolvePlaceholders(pkg), ConfigurableApplicationContext.CONFIG_LOCATION_DELIMITERS));
+			}
+			for (Class<?> clazz : componentScan.getClassArray("basePackageClasses")) {
+				basePackages.add(ClassUtils.getPackageName(clazz));
+			}
+			if (basePackages.isEmpty()) {
+				basePackages.add(ClassUtils.getPackageName(metadata.getClassName()));
+			}
+			packageNames.addAll(basePackages);
+		}
+	}
+
+	/**
+	 * Compute a hash over the names and contents of the given classes and of all
+	 * classes in the given packages, independent of their classpath location.
+	 */
+	private static String computeFingerprint(Collection<String> classNames, Collection<String> packageNames,
+			ResourceLoader resourceLoader) {
+
+		ResourcePatternResolver resolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+		Map<String, Resource> resources = new TreeMap<>();
+		try {
+			for (String className : classNames) {
+				String path = ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+				resources.put(path, resolver.getResource(ResourceLoader.CLASSPATH_URL_PREFIX + path));
+			}
+			for (String packageName : packageNames) {
+				String packagePath = ClassUtils.convertClassNameToResourcePath(packageName);
+				for (Resource resource : resolver.getResources(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
+						packagePath + "/**/*" + ClassUtils.CLASS_FILE_SUFFIX)) {
+					String url = resource.getURL().toString();
+					int index = url.lastIndexOf(packagePath + "/");
+					resources.putIfAbsent(index != -1 ? url.substring(index) : url, resource);
+				}
+			}
+
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+			for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+				digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+				Resource resource = entry.getValue();
+				if (resource.exists()) {
+					try (InputStream in = resource.getInputStream()) {
+						int bytesRead;
+						while ((bytesRead = in.read(buffer)) != -1) {
+							digest.update(buffer, 0, bytesRead);
+						}
+					}
+				}
+			}
+			StringBuilder fingerprint = new StringBuilder(32);
+			for (byte b : digest.digest()) {
+				fingerprint.append(String.format("%02x", b));
+			}
+			return fingerprint.toString();
+		}
+		catch (IOException | NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Failed to compute fingerprint of class resources", ex);
+		}
+	}
+
+	private static String[] getProfiles(Environment environment) {
+		String[] profiles = environment.getActiveProfiles();
+		return (profiles.length > 0 ? profiles : environment.getDefaultProfiles());
+	}
+
+	private static Class<?> resolveClass(String className, @Nullable ClassLoader classLoader) {
+		try {
+			return ClassUtils.forName(className, classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			throw new IllegalStateException("Cannot resolve class [" + className + "] from bean definition snapshot", ex);
+		}
+	}
+
+	private static void setIfNotNull(Properties properties, String key, @Nullable Object value) {
+		if (value != null) {
+			properties.setProperty(key, value.toString());
+		}
+	}
+
+
+	private static void writeDefinition(Properties properties, String prefix, BeanDefinition bd) {
+		if (!(bd instanceof AbstractBeanDefinition)) {
+			throw new IllegalStateException("Cannot capture bean definition of type [" +
+					bd.getClass().getName() + "]: " + bd);
+		}
+		AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+		if (abd.getInstanceSupplier() != null || abd.hasMethodOverrides()) {
+			throw new IllegalStateException(
+					"Cannot capture bean definition with instance supplier or method overrides: " + bd);
+		}
+
+		setIfNotNull(properties, prefix + "class", abd.getBeanClassName());
+		setIfNotNull(properties, prefix + "parent", abd.getParentName());
+		setIfNotNull(properties, prefix + "scope", StringUtils.hasLength(abd.getScope()) ? abd.getScope() : null);
+		setIfNotNull(properties, prefix + "dependsOn", abd.getDependsOn() != null ?
+				StringUtils.arrayToCommaDelimitedString(abd.getDependsOn()) : null);
+		setIfNotNull(properties, prefix + "factoryBean", abd.getFactoryBeanName());
+		setIfNotNull(properties, prefix + "factoryMethod", abd.getFactoryMethodName());
+		setIfNotNull(properties, prefix + "initMethod", abd.getInitMethodName());
+		setIfNotNull(properties, prefix + "destroyMethod", abd.getDestroyMethodName());
+		setIfNotNull(properties, prefix + "description", abd.getDescription());
+		properties.setProperty(prefix + "abstract", String.valueOf(abd.isAbstract()));
+		properties.setProperty(prefix + "lazyInit", String.valueOf(abd.isLazyInit()));
+		properties.setProperty(prefix + "primary", String.valueOf(abd.isPrimary()));
+		properties.setProperty(prefix + "autowireCandidate", String.valueOf(abd.isAutowireCandidate()));
+		properties.setProperty(prefix + "autowireMode", String.valueOf(abd.getAutowireMode()));
+		properties.setProperty(prefix + "dependencyCheck", String.valueOf(abd.getDependencyCheck()));
+		properties.setProperty(prefix + "role", String.valueOf(abd.getRole()));
+		properties.setProperty(prefix + "synthetic", String.valueOf(abd.isSynthetic()));
+		properties.setProperty(prefix + "nonPublicAccessAllowed", String.valueOf(abd.isNonPublicAccessAllowed()));
+		properties.setProperty(prefix + "lenientConstructorResolution",
+				String.valueOf(abd.isLenientConstructorResolution()));
+		properties.setProperty(prefix + "enforceInitMethod", String.valueOf(abd.isEnforceInitMethod()));
+		properties.setProperty(prefix + "enforceDestroyMethod", String.valueOf(abd.isEnforceDestroyMethod()));
+		// Instance @Bean methods are resolved by name, whereas static ones may be overloaded
+		if (abd instanceof AnnotatedBeanDefinition && abd.getFactoryBeanName() != null &&
+				((AnnotatedBeanDefinition) abd).getFactoryMethodMetadata() != null) {
+			properties.setProperty(prefix + "factoryMethodUnique", "true");
+		}
+
+		writeAttributes(properties, prefix, abd, name -> true);
+
+		int argIndex = 0;
+		ConstructorArgumentValues args = abd.getConstructorArgumentValues();
+		for (Map.Entry<Integer, ValueHolder> entry : args.getIndexedArgumentValues().entrySet()) {
+			String argPrefix = prefix + "arg." + argIndex++ + ".";
+			properties.setProperty(argPrefix + "index", String.valueOf(entry.getKey()));
+			writeArgument(properties, argPrefix, entry.getValue());
+		}
+		for (ValueHolder valueHolder : args.getGenericArgumentValues()) {
+			writeArgument(properties, prefix + "arg." + argIndex++ + ".", valueHolder);
+		}
+
+		int propertyIndex = 0;
+		for (PropertyValue pv : abd.getPropertyValues().getPropertyValues()) {
+			String propertyPrefix = prefix + "property." + propertyIndex++ + ".";
+			properties.setProperty(propertyPrefix + "name", pv.getName());
+			writeValue(properties, propertyPrefix, pv.getValue());
+		}
+
+		int qualifierIndex = 0;
+		for (AutowireCandidateQualifier qualifier : abd.getQualifiers()) {
+			Object value = qualifier.getAttribute(AutowireCandidateQualifier.VALUE_KEY);
+			if ((value != null && !(value instanceof String)) || qualifier.attributeNames().length > 1 ||
+					(value == null && qualifier.attributeNames().length > 0)) {
+				throw new IllegalStateException("Cannot capture qualifier [" + qualifier.getTypeName() +
+						"] with attributes other than a String value: " + bd);
+			}
+			String qualifierPrefix = prefix + "qualifier." + qualifierIndex++ + ".";
+			properties.setProperty(qualifierPrefix + "type", qualifier.getTypeName());
+			setIfNotNull(properties, qualifierPrefix + "value", value);
+		}
+
+		if (abd instanceof RootBeanDefinition) {
+			BeanDefinitionHolder decorated = ((RootBeanDefinition) abd).getDecoratedDefinition();
+			if (decorated != null) {
+				properties.setProperty(prefix + "decorated.name", decorated.getBeanName());
+				writeDefinition(properties, prefix + "decorated.", decorated.getBeanDefinition());
+			}
+		}
+	}
+
+	private static AbstractBeanDefinition readDefinition(Properties properties, String prefix) {
+		boolean unique = Boolean.parseBoolean(properties.getProperty(prefix + "factoryMethodUnique"));
+		boolean decorated = properties.containsKey(prefix + "decorated.name");
+		AbstractBeanDefinition abd;
+		if (unique || decorated) {
+			RootBeanDefinition rbd = new RootBeanDefinition();
+			if (unique) {
+				rbd.setUniqueFactoryMethodName(properties.getProperty(prefix + "factoryMethod"));
+			}
+			if (decorated) {
+				rbd.setDecoratedDefinition(new BeanDefinitionHolder(readDefinition(properties, prefix + "decorated."),
+						properties.getProperty(prefix + "decorated.name")));
+			}
+			abd = rbd;
+		}
+		else {
+			GenericBeanDefinition gbd = new GenericBeanDefinition();
+			gbd.setParentName(properties.getProperty(prefix + "parent"));
+			gbd.setFactoryMethodName(properties.getProperty(prefix + "factoryMethod"));
+			abd = gbd;
+		}
+
+		abd.setBeanClassName(properties.getProperty(prefix + "class"));
+		abd.setScope(properties.getProperty(prefix + "scope"));
+		String dependsOn = properties.getProperty(prefix + "dependsOn");
+		if (dependsOn != null) {
+			abd.setDependsOn(StringUtils.commaDelimitedListToStringArray(dependsOn));
+		}
+		abd.setFactoryBeanName(properties.getProperty(prefix + "factoryBean"));
+		abd.setInitMethodName(properties.getProperty(prefix + "initMethod"));
+		abd.setDestroyMethodName(properties.getProperty(prefix + "destroyMethod"));
+		abd.setDescription(properties.getProperty(prefix + "description"));
+		abd.setAbstract(Boolean.parseBoolean(properties.getProperty(prefix + "abstract")));
+		abd.setLazyInit(Boolean.parseBoolean(properties.getProperty(prefix + "lazyInit")));
+		abd.setPrimary(Boolean.parseBoolean(properties.getProperty(prefix + "primary")));
+		abd.setAutowireCandidate(Boolean.parseBoolean(properties.getProperty(prefix + "autowireCandidate")));
+		abd.setAutowireMode(Integer.parseInt(properties.getProperty(prefix + "autowireMode")));
+		abd.setDependencyCheck(Integer.parseInt(properties.getProperty(prefix + "dependencyCheck")));
+		abd.setRole(Integer.parseInt(properties.getProperty(prefix + "role")));
+		abd.setSynthetic(Boolean.parseBoolean(properties.getProperty(prefix + "synthetic")));
+		abd.setNonPublicAccessAllowed(Boolean.parseBoolean(properties.getProperty(prefix + "nonPublicAccessAllowed")));
+		abd.setLenientConstructorResolution(
+				Boolean.parseBoolean(properties.getProperty(prefix + "lenientConstructorResolution")));
+		abd.setEnforceInitMethod(Boolean.parseBoolean(properties.getProperty(prefix + "enforceInitMethod")));
+		abd.setEnforceDestroyMethod(Boolean.parseBoolean(properties.getProperty(prefix + "enforceDestroyMethod")));
+
+		readAttributes(properties, prefix, abd);
+
+		ConstructorArgumentValues args = abd.getConstructorArgumentValues();
+		for (int i = 0; properties.containsKey(prefix + "arg." + i + ".kind"); i++) {
+			String argPrefix = prefix + "arg." + i + ".";
+			ValueHolder valueHolder = new ValueHolder(readValue(properties, argPrefix),
+					properties.getProperty(argPrefix + "type"), properties.getProperty(argPrefix + "name"));
+			String index = properties.getProperty(argPrefix + "index");
+			if (index != null) {
+				args.addIndexedArgumentValue(Integer.parseInt(index), valueHolder);
+			}
+			else {
+				args.addGenericArgumentValue(valueHolder);
+			}
+		}
+
+		for (int i = 0; properties.containsKey(prefix + "property." + i + ".name"); i++) {
+			String propertyPrefix = prefix + "property." + i + ".";
+			abd.getPropertyValues().add(properties.getProperty(propertyPrefix + "name"),
+					readValue(properties, propertyPrefix));
+		}
+
+		for (int i = 0; properties.containsKey(prefix + "qualifier." + i + ".type"); i++) {
+			String qualifierPrefix = prefix + "qualifier." + i + ".";
+			String value = properties.getProperty(qualifierPrefix + "value");
+			String typeName = properties.getProperty(qualifierPrefix + "type");
+			abd.addQualifier(value != null ?
+					new AutowireCandidateQualifier(typeName, value) : new AutowireCandidateQualifier(typeName));
+		}
+		return abd;
+	}
+
+	private static void writeAttributes(Properties properties, String prefix, BeanDefinition bd,
+			Predicate<String> filter) {
+
+		int attributeIndex = 0;
+		for (String name : bd.attributeNames()) {
+			if (!filter.test(name)) {
+				continue;
+			}
+			Object value = bd.getAttribute(name);
+			String attributePrefix = prefix + "attribute." + attributeIndex++ + ".";
+			properties.setProperty(attributePrefix + "name", name);
+			if (value instanceof String || value instanceof Boolean || value instanceof Integer) {
+				properties.setProperty(attributePrefix + "type", value.getClass().getSimpleName());
+				properties.setProperty(attributePrefix + "value", value.toString());
+			}
+			else if (value != null) {
+				throw new IllegalStateException("Cannot capture attribute '" + name + "' of type [" +
+						value.getClass().getName() + "]: " + bd);
+			}
+		}
+	}
+
+	private static void readAttributes(Properties properties, String prefix, BeanDefinition bd) {
+		for (int i = 0; properties.containsKey(prefix + "attribute." + i + ".name"); i++) {
+			String attributePrefix = prefix + "attribute." + i + ".";
+			String type = properties.getProperty(attributePrefix + "type");
+			String value = properties.getProperty(attributePrefix + "value");
+			Object attribute = ("Boolean".equals(type) ? Boolean.valueOf(value) :
+					"Integer".equals(type) ? Integer.valueOf(value) : value);
+			bd.setAttribute(properties.getProperty(attributePrefix + "name"), attribute);
+		}
+	}
+
+	private static void writeArgument(Properties properties, String prefix, ValueHolder valueHolder) {
+		setIfNotNull(properties, prefix + "type", valueHolder.getType());
+		setIfNotNull(properties, prefix + "name", valueHolder.getName());
+		writeValue(properties, prefix, valueHolder.getValue());
+	}
+
+	private static void writeValue(Properties properties, String prefix, @Nullable Object value) {
+		if (value == null) {
+			properties.setProperty(prefix + "kind", "null");
+		}
+		else if (value instanceof String || value instanceof Boolean || value instanceof Integer) {
+			properties.setProperty(prefix + "kind", value.getClass().getSimpleName());
+			properties.setProperty(prefix + "value", value.toString());
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			properties.setProperty(prefix + "kind", "typed");
+			setIfNotNull(properties, prefix + "value", typedValue.getValue());
+			setIfNotNull(properties, prefix + "targetType", typedValue.getTargetTypeName());
+		}
+		else if (value instanceof RuntimeBeanReference && !((RuntimeBeanReference) value).isToParent()) {
+			properties.setProperty(prefix + "kind", "ref");
+			properties.setProperty(prefix + "value", ((RuntimeBeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+			properties.setProperty(prefix + "kind", "bean");
+			properties.setProperty(prefix + "value", holder.getBeanName());
+			writeDefinition(properties, prefix + "bean.", holder.getBeanDefinition());
+		}
+		else if (value instanceof BeanDefinition) {
+			properties.setProperty(prefix + "kind", "bean");
+			writeDefinition(properties, prefix + "bean.", (BeanDefinition) value);
+		}
+		else if (value instanceof List) {
+			properties.setProperty(prefix + "kind", "list");
+			int elementIndex = 0;
+			for (Object element : (List<?>) value) {
+				writeValue(properties, prefix + "element." + elementIndex++ + ".", element);
+			}
+		}
+		else {
+			throw new IllegalStateException("Cannot capture value of type [" + value.getClass().getName() + "]");
+		}
+	}
+
+	@Nullable
+	private static Object readValue(Properties properties, String prefix) {
+		String kind = properties.getProperty(prefix + "kind");
+		String value = properties.getProperty(prefix + "value");
+		switch (kind) {
+			case "null":
+				return null;
+			case "String":
+				return value;
+			case "Boolean":
+				return Boolean.valueOf(value);
+			case "Integer":
+				return Integer.valueOf(value);
+			case "typed":
+				String targetType = properties.getProperty(prefix + "targetType");
+				return (targetType != null ? new TypedStringValue(value, targetType) : new TypedStringValue(value));
+			case "ref":
+				return new RuntimeBeanReference(value);
+			case "bean":
+				AbstractBeanDefinition bd = readDefinition(properties, prefix + "bean.");
+				return (value != null ? new BeanDefinitionHolder(bd, value) : bd);
+			case "list":
+				ManagedList<Object> list = new ManagedList<>();
+				for (int i = 0; properties.containsKey(prefix + "element." + i + ".kind"); i++) {
+					list.add(readValue(properties, prefix + "element." + i + "."));
+				}
+				return list;
+			default:
+				throw new IllegalStateException("Unknown value kind '" + kind + "' in bean definition snapshot");
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} backed by the import relationships of a snapshot,
+	 * introspecting importing classes on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> imports;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		public SnapshotImportRegistry(Map<String, String> imports, @Nullable ClassLoader classLoader) {
+			this.imports = new ConcurrentHashMap<>(imports);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.imports.get(importedClass);
+			return (importingClass != null ?
+					new StandardAnnotationMetadata(resolveClass(importingClass, this.classLoader), true) : null);
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.imports.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
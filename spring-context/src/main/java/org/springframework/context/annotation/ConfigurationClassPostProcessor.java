@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -52,6 +53,7 @@ import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
@@ -229,7 +231,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 		this.registriesPostProcessed.add(registryId);
 
-		processConfigBeanDefinitions(registry);
+		if (!restoreSnapshot(registry)) {
+			processConfigBeanDefinitions(registry);
+		}
 	}
 
 	/**
@@ -259,6 +263,18 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	 * {@link Configuration} classes.
 	 */
 	public void processConfigBeanDefinitions(BeanDefinitionRegistry registry) {
+		doProcessConfigBeanDefinitions(registry);
+	}
+
+	/**
+	 * Build and validate a configuration model based on the registry of
+	 * {@link Configuration} classes, exposing the parser that has been used.
+	 * @return the parser, or {@code null} if no configuration classes were found
+	 * @since 5.1.17
+	 * @see BeanDefinitionSnapshot#capture
+	 */
+	@Nullable
+	ConfigurationClassParser doProcessConfigBeanDefinitions(BeanDefinitionRegistry registry) {
 		//定义一个list存放app 提供的bd（项目当中提供了@Compent）
 		List<BeanDefinitionHolder> configCandidates = new ArrayList<>();
 		//获取容器中注册的所有bd名字
@@ -288,7 +304,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 		// Return immediately if no @Configuration classes were found
 		if (configCandidates.isEmpty()) {
-			return;
+			return null;
 		}
 
 		// 排序，根据order,不重要
@@ -390,6 +406,53 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 			// for a shared cache since it'll be cleared by the ApplicationContext.
 			((CachingMetadataReaderFactory) this.metadataReaderFactory).clearCache();
 		}
+		return parser;
+	}
+
+	/**
+	 * Register the bean definitions of an applicable build-time snapshot instead of
+	 * parsing the configuration classes in the given registry, if any.
+	 * @return {@code true} if a snapshot has been restored, {@code false} if the
+	 * registry needs to be processed as usual
+	 * @see BeanDefinitionSnapshot#loadSnapshot(ClassLoader)
+	 */
+	private boolean restoreSnapshot(BeanDefinitionRegistry registry) {
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.loadSnapshot(this.beanClassLoader);
+		if (snapshot == null) {
+			return false;
+		}
+		if (this.environment == null) {
+			this.environment = new StandardEnvironment();
+		}
+		if (!snapshot.isApplicableTo(registry, this.environment, this.resourceLoader)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring bean definition snapshot since it does not match the current registry");
+			}
+			return false;
+		}
+
+		snapshot.restore(registry);
+		if (registry instanceof SingletonBeanRegistry) {
+			SingletonBeanRegistry sbr = (SingletonBeanRegistry) registry;
+			if (!sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+				sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, snapshot.getImportRegistry(this.beanClassLoader));
+			}
+		}
+
+		// Replay @PropertySource declarations in their original order
+		ConfigurationClassParser parser = new ConfigurationClassParser(
+				this.metadataReaderFactory, this.problemReporter, this.environment,
+				this.resourceLoader, this.componentScanBeanNameGenerator, registry);
+		for (AnnotationAttributes propertySource : snapshot.getPropertySources(this.beanClassLoader)) {
+			try {
+				parser.processPropertySource(propertySource);
+			}
+			catch (IOException ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to restore @PropertySource from bean definition snapshot", ex);
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -55,8 +55,8 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
 		}
 
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evaluationContext, Boolean.class)));
+		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression,
+				EventExpressionRootObject.class).getValue(evaluationContext, Boolean.class)));
 	}
 
 }
@@ -21,7 +21,9 @@ import java.util.Map;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
@@ -35,7 +37,7 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class CachedExpressionEvaluator {
 
-	private final SpelExpressionParser parser;
+	private final SpelExpressionCache expressionCache;
 
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
@@ -44,15 +46,18 @@ public abstract class CachedExpressionEvaluator {
 	 * Create a new instance with the specified {@link SpelExpressionParser}.
 	 */
 	protected CachedExpressionEvaluator(SpelExpressionParser parser) {
-		Assert.notNull(parser, "SpelExpressionParser must not be null");
-		this.parser = parser;
+		this.expressionCache = new SpelExpressionCache(parser);
 	}
 
 	/**
 	 * Create a new instance with a default {@link SpelExpressionParser}.
+	 * <p>As of 5.1.17, frequently evaluated expressions are compiled in
+	 * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED MIXED} mode
+	 * unless a default compiler mode has been set explicitly.
+	 * @see SpelExpressionCache#getDefaultCompilerMode()
 	 */
 	protected CachedExpressionEvaluator() {
-		this(new SpelExpressionParser());
+		this.expressionCache = new SpelExpressionCache((ClassLoader) null);
 	}
 
 
@@ -60,7 +65,7 @@ public abstract class CachedExpressionEvaluator {
 	 * Return the {@link SpelExpressionParser} to use.
 	 */
 	protected SpelExpressionParser getParser() {
-		return this.parser;
+		return this.expressionCache.getParser();
 	}
 
 	/**
@@ -82,10 +87,31 @@ public abstract class CachedExpressionEvaluator {
 	protected Expression getExpression(Map<ExpressionKey, Expression> cache,
 			AnnotatedElementKey elementKey, String expression) {
 
+		return getExpression(cache, elementKey, expression, null);
+	}
+
+	/**
+	 * Return the {@link Expression} for the specified SpEL value, evaluated
+	 * against a root object of the given type.
+	 * <p>Parse the expression if it hasn't been already. Annotated elements
+	 * declaring the same expression for the same root type share a single
+	 * {@link Expression} instance, compiled in
+	 * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED MIXED}
+	 * mode by default.
+	 * @param cache the cache to use
+	 * @param elementKey the element on which the expression is defined
+	 * @param expression the expression to parse
+	 * @param rootType the type of the root object, or {@code null} if none
+	 * @since 5.1.17
+	 * @see SpelExpressionCache#getExpression(String, Class)
+	 */
+	protected Expression getExpression(Map<ExpressionKey, Expression> cache,
+			AnnotatedElementKey elementKey, String expression, @Nullable Class<?> rootType) {
+
 		ExpressionKey expressionKey = createKey(elementKey, expression);
 		Expression expr = cache.get(expressionKey);
 		if (expr == null) {
-			expr = getParser().parseExpression(expression);
+			expr = this.expressionCache.getExpression(expression, rootType);
 			cache.put(expressionKey, expr);
 		}
 		return expr;
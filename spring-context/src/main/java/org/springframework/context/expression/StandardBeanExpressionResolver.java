@@ -27,8 +27,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
-import org.springframework.expression.spel.SpelParserConfiguration;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeConverter;
 import org.springframework.expression.spel.support.StandardTypeLocator;
@@ -62,6 +61,9 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
 	private ExpressionParser expressionParser;
 
+	@Nullable
+	private SpelExpressionCache spelExpressionCache;
+
 	private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>(256);
 
 	private final Map<BeanExpressionContext, StandardEvaluationContext> evaluationCache = new ConcurrentHashMap<>(8);
@@ -84,9 +86,15 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
 	/**
 	 * Create a new {@code StandardBeanExpressionResolver} with default settings.
+	 * <p>As of 5.1.17, expressions are compiled in
+	 * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED MIXED}
+	 * mode unless a default compiler mode has been set explicitly, and held
+	 * in a bounded {@link SpelExpressionCache} for {@link BeanExpressionContext}
+	 * root objects.
+	 * @see SpelExpressionCache#getDefaultCompilerMode()
 	 */
 	public StandardBeanExpressionResolver() {
-		this.expressionParser = new SpelExpressionParser();
+		this(null);
 	}
 
 	/**
@@ -95,7 +103,8 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 	 * @param beanClassLoader the factory's bean class loader
 	 */
 	public StandardBeanExpressionResolver(@Nullable ClassLoader beanClassLoader) {
-		this.expressionParser = new SpelExpressionParser(new SpelParserConfiguration(null, beanClassLoader));
+		this.spelExpressionCache = new SpelExpressionCache(beanClassLoader);
+		this.expressionParser = this.spelExpressionCache.getParser();
 	}
 
 
@@ -127,6 +136,7 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 	public void setExpressionParser(ExpressionParser expressionParser) {
 		Assert.notNull(expressionParser, "ExpressionParser must not be null");
 		this.expressionParser = expressionParser;
+		this.spelExpressionCache = null;
 	}
 
 
@@ -137,10 +147,17 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 			return value;
 		}
 		try {
-			Expression expr = this.expressionCache.get(value);
-			if (expr == null) {
-				expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
-				this.expressionCache.put(value, expr);
+			Expression expr;
+			if (this.spelExpressionCache != null) {
+				expr = this.spelExpressionCache.getExpression(
+						value, this.beanExpressionParserContext, BeanExpressionContext.class);
+			}
+			else {
+				expr = this.expressionCache.get(value);
+				if (expr == null) {
+					expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
+					this.expressionCache.put(value, expr);
+				}
 			}
 			StandardEvaluationContext sec = this.evaluationCache.get(evalContext);
 			if (sec == null) {
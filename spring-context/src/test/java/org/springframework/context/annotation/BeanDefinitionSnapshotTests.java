@@ -0,0 +1,273 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot}.
+ *
+ * @since 5.1.17
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@Before
+	public void resetCondition() {
+		CountingCondition.evaluations.set(0);
+	}
+
+
+	@Test
+	public void captureAndRestore() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(source);
+		assertTrue(source.containsBeanDefinition("conditionalBean"));
+		assertEquals(1, CountingCondition.evaluations.get());
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setClassLoader(new SnapshotClassLoader(getClass().getClassLoader(), store(snapshot)));
+		ctx.register(SnapshotConfig.class);
+		ctx.refresh();
+
+		assertEquals(1, CountingCondition.evaluations.get());
+		assertArrayEquals(new String[] {"alias"}, ctx.getAliases("conditionalBean"));
+		assertEquals("p1TestBean", ctx.getBean("conditionalBean"));
+		assertSame(ctx.getBean(ImportedConfig.class), ctx.getBean(SnapshotComponent.class).importedConfig);
+		assertEquals(SnapshotConfig.class.getName(), ctx.getBean(ImportedConfig.class).importMetadata.getClassName());
+		assertEquals("p1Value", ctx.getEnvironment().getProperty("from.p1"));
+		assertEquals("[scoped]", ctx.getBean("scopedBean").toString());
+		assertEquals("prototype", ctx.getBeanDefinition("scopedTarget.scopedBean").getScope());
+		// @Configuration classes still get enhanced
+		assertNotSame(SnapshotConfig.class, ctx.getBean(SnapshotConfig.class).getClass());
+		assertSame(ctx.getBean("dependency"), ctx.getBean(SnapshotConfig.class).dependency());
+		ctx.close();
+	}
+
+	@Test
+	public void snapshotNotAppliedToDifferentRegistry() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(source);
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setClassLoader(new SnapshotClassLoader(getClass().getClassLoader(), store(snapshot)));
+		ctx.register(ImportedConfig.class);
+		ctx.refresh();
+
+		assertFalse(ctx.containsBeanDefinition("conditionalBean"));
+		assertNotNull(ctx.getBean(ImportedConfig.class));
+		ctx.close();
+	}
+
+	@Test
+	public void snapshotNotAppliedToDifferentProfiles() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(source);
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setClassLoader(new SnapshotClassLoader(getClass().getClassLoader(), store(snapshot)));
+		ctx.getEnvironment().setActiveProfiles("other");
+		ctx.register(SnapshotConfig.class);
+		ctx.refresh();
+
+		assertEquals(2, CountingCondition.evaluations.get());
+		assertEquals("p1TestBean", ctx.getBean("conditionalBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void snapshotNotAppliedToChangedClasses() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(source);
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		SnapshotClassLoader classLoader = new SnapshotClassLoader(getClass().getClassLoader(), store(snapshot));
+		// Different class file content for a bean class recorded in the snapshot
+		classLoader.replaceClassResource(SnapshotComponent.class, CountingCondition.class);
+		ctx.setClassLoader(classLoader);
+		ctx.register(SnapshotConfig.class);
+		ctx.refresh();
+
+		assertEquals(2, CountingCondition.evaluations.get());
+		ctx.close();
+	}
+
+	@Test
+	public void storeAndLoad() throws IOException {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SnapshotConfig.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BeanDefinitionSnapshot.capture(source).store(out);
+
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.load(new ByteArrayInputStream(out.toByteArray()));
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.register(SnapshotConfig.class);
+		assertTrue(snapshot.isApplicableTo(ctx, ctx.getEnvironment(), ctx));
+		snapshot.restore(ctx);
+		assertEquals(source.getBeanDefinitionCount(), ctx.getBeanDefinitionCount());
+		BeanDefinition bd = ctx.getBeanDefinition("conditionalBean");
+		assertEquals(SnapshotConfig.class.getName(), ctx.getBeanDefinition(bd.getFactoryBeanName()).getBeanClassName());
+		assertEquals("conditionalBean", bd.getFactoryMethodName());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void captureRejectsInstanceSupplier() {
+		AnnotationConfigApplicationContext source = new AnnotationConfigApplicationContext();
+		source.register(SupplierConfig.class);
+		BeanDefinitionSnapshot.capture(source);
+	}
+
+
+	private static URL store(BeanDefinitionSnapshot snapshot) throws IOException {
+		File file = File.createTempFile("spring", ".snapshot");
+		file.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(file)) {
+			snapshot.store(out);
+		}
+		return file.toURI().toURL();
+	}
+
+
+	private static class SnapshotClassLoader extends ClassLoader {
+
+		private final Map<String, URL> resources = new HashMap<>();
+
+		SnapshotClassLoader(ClassLoader parent, URL snapshot) {
+			super(parent);
+			this.resources.put(BeanDefinitionSnapshot.SNAPSHOT_RESOURCE_LOCATION, snapshot);
+		}
+
+		void replaceClassResource(Class<?> clazz, Class<?> replacement) {
+			this.resources.put(ClassUtils.convertClassNameToResourcePath(clazz.getName()) + ".class",
+					replacement.getResource(ClassUtils.getClassFileName(replacement)));
+		}
+
+		@Override
+		public URL getResource(String name) {
+			URL url = this.resources.get(name);
+			return (url != null ? url : super.getResource(name));
+		}
+	}
+
+
+	@Configuration
+	@ComponentScan(basePackageClasses = SnapshotComponent.class, useDefaultFilters = false,
+			includeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SnapshotComponent.class))
+	@Import(ImportedConfig.class)
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	static class SnapshotConfig {
+
+		@Bean({"conditionalBean", "alias"})
+		@Conditional(CountingCondition.class)
+		public String conditionalBean(Environment environment) {
+			return environment.getProperty("testbean.name");
+		}
+
+		@Bean
+		@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+		public List<String> scopedBean() {
+			return new ArrayList<>(Collections.singletonList("scoped"));
+		}
+
+		@Bean
+		public Object dependency() {
+			return new Object();
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+	}
+
+
+	@Component
+	static class SnapshotComponent {
+
+		@Autowired
+		ImportedConfig importedConfig;
+	}
+
+
+	static class CountingCondition implements Condition {
+
+		static final AtomicInteger evaluations = new AtomicInteger();
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			evaluations.incrementAndGet();
+			return true;
+		}
+	}
+
+
+	@Configuration
+	@Import(SupplierRegistrar.class)
+	static class SupplierConfig {
+	}
+
+
+	static class SupplierRegistrar implements ImportBeanDefinitionRegistrar {
+
+		@Override
+		public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+			GenericBeanDefinition bd = new GenericBeanDefinition();
+			bd.setBeanClass(Object.class);
+			bd.setInstanceSupplier(Object::new);
+			registry.registerBeanDefinition("supplied", bd);
+		}
+	}
+
+}
@@ -66,6 +66,16 @@ public class MapAccessorTests {
 		assertEquals("bar",ex.getValue(sec,mapGetter));
 		assertTrue(SpelCompiler.compile(ex));
 		assertEquals("bar",ex.getValue(sec,mapGetter));
+
+		// value type narrowed down from Object, allowing for compiled operators
+		Map<String, Object> headers = new HashMap<>();
+		headers.put("priority", 5);
+		ex = sep.parseExpression("priority > 3");
+		assertTrue(ex.getValue(sec, headers, Boolean.class));
+		assertTrue(SpelCompiler.compile(ex));
+		assertTrue(ex.getValue(sec, headers, Boolean.class));
+		headers.put("priority", 2);
+		assertFalse(ex.getValue(sec, headers, Boolean.class));
 	}
 
 	public static class MapGetter {
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link AnnotationUtils#findAnnotation} lookups on classes and
+ * methods, covering direct, meta-present and inherited annotations, with and
+ * without a warm annotation cache.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AnnotationUtilsBenchmark {
+
+	@Benchmark
+	public Stereotype findDirectAnnotationOnClass() {
+		return AnnotationUtils.findAnnotation(DirectlyAnnotated.class, Stereotype.class);
+	}
+
+	@Benchmark
+	public Stereotype findMetaAnnotationOnClass() {
+		return AnnotationUtils.findAnnotation(MetaAnnotated.class, Stereotype.class);
+	}
+
+	@Benchmark
+	public Stereotype findAnnotationOnSuperclass() {
+		return AnnotationUtils.findAnnotation(InheritingClass.class, Stereotype.class);
+	}
+
+	@Benchmark
+	public Stereotype findMissingAnnotationOnClass() {
+		return AnnotationUtils.findAnnotation(NotAnnotated.class, Stereotype.class);
+	}
+
+	@Benchmark
+	public Order findAnnotationOnInterfaceMethod(MethodState state) {
+		return AnnotationUtils.findAnnotation(state.method, Order.class);
+	}
+
+	@Benchmark
+	public Stereotype findMetaAnnotationOnClassWithColdCache() {
+		AnnotationUtils.clearCache();
+		return AnnotationUtils.findAnnotation(MetaAnnotated.class, Stereotype.class);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class MethodState {
+
+		public Method method;
+
+		@Setup
+		public void setup() throws NoSuchMethodException {
+			this.method = InheritingClass.class.getMethod("handle", String.class);
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+	public @interface Stereotype {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	@Stereotype
+	public @interface ComposedStereotype {
+
+		@AliasFor(annotation = Stereotype.class)
+		String value() default "";
+	}
+
+
+	public interface Handler {
+
+		@Order(1)
+		void handle(String input);
+	}
+
+
+	@Stereotype("direct")
+	public static class DirectlyAnnotated {
+	}
+
+
+	@ComposedStereotype("meta")
+	public static class MetaAnnotated implements Handler {
+
+		@Override
+		public void handle(String input) {
+		}
+	}
+
+
+	public static class InheritingClass extends MetaAnnotated {
+
+		@Override
+		public void handle(String input) {
+		}
+	}
+
+
+	public static class NotAnnotated {
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for {@link GenericConversionService#convert}, for simple scalar
+ * conversions as well as for element-wise collection conversions.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class GenericConversionServiceBenchmark {
+
+	@Benchmark
+	public Integer convertStringToInteger(ConversionState state) {
+		return state.conversionService.convert("42", Integer.class);
+	}
+
+	@Benchmark
+	public Unit convertStringToEnum(ConversionState state) {
+		return state.conversionService.convert("SECONDS", Unit.class);
+	}
+
+	@Benchmark
+	public Object convertListOfStringToSetOfInteger(CollectionConversionState state) {
+		return state.conversionService.convert(state.source, state.sourceType, state.targetType);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ConversionState {
+
+		public GenericConversionService conversionService = new DefaultConversionService();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class CollectionConversionState {
+
+		@Param({"10", "1000"})
+		public int size;
+
+		public GenericConversionService conversionService = new DefaultConversionService();
+
+		public List<String> source;
+
+		public TypeDescriptor sourceType;
+
+		public TypeDescriptor targetType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.source = new ArrayList<>(this.size);
+			for (int i = 0; i < this.size; i++) {
+				this.source.add(Integer.toString(i));
+			}
+			this.sourceType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(String.class));
+			this.targetType = TypeDescriptor.collection(Set.class, TypeDescriptor.valueOf(Integer.class));
+		}
+	}
+
+
+	public enum Unit {
+
+		SECONDS, MINUTES, HOURS
+	}
+
+}
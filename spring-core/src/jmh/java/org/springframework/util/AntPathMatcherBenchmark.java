@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher#match(String, String)}, matching a set of
+ * request paths against a set of route patterns typical for a web application.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@Benchmark
+	public void matchAllRoutes(RoutesState state, Blackhole blackhole) {
+		for (String path : state.paths) {
+			for (String pattern : state.patterns) {
+				blackhole.consume(state.matcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(RoutesState state, Blackhole blackhole) {
+		for (String path : state.paths) {
+			blackhole.consume(state.matcher.match("/api/{resource}/{id}/**", path) ?
+					state.matcher.extractUriTemplateVariables("/api/{resource}/{id}/**", path) : null);
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class RoutesState {
+
+		@Param({"true", "false"})
+		public boolean cachePatterns;
+
+		public AntPathMatcher matcher;
+
+		public List<String> patterns = new ArrayList<>();
+
+		public List<String> paths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.matcher = new AntPathMatcher();
+			this.matcher.setCachePatterns(this.cachePatterns);
+
+			this.patterns.add("/");
+			this.patterns.add("/resources/**");
+			this.patterns.add("/static/*.css");
+			this.patterns.add("/api/users");
+			this.patterns.add("/api/users/{id}");
+			this.patterns.add("/api/users/{id}/orders/{orderId:[0-9]+}");
+			this.patterns.add("/api/{resource}/{id}/**");
+			this.patterns.add("/admin/**/settings/*");
+			this.patterns.add("/*/docs/**/*.html");
+			this.patterns.add("/files/{filename:.+}");
+
+			this.paths.add("/");
+			this.paths.add("/resources/js/app/main.js");
+			this.paths.add("/static/site.css");
+			this.paths.add("/api/users/42");
+			this.paths.add("/api/users/42/orders/1337");
+			this.paths.add("/api/products/123/reviews/5");
+			this.paths.add("/admin/cluster/nodes/settings/memory");
+			this.paths.add("/v2/docs/reference/core/index.html");
+			this.paths.add("/files/report.2020.pdf");
+			this.paths.add("/unknown/path/without/match");
+		}
+	}
+
+}
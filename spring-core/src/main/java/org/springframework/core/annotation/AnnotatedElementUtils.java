@@ -210,7 +210,7 @@ public abstract class AnnotatedElementUtils {
 	 * @see #getMetaAnnotationTypes
 	 */
 	public static boolean hasMetaAnnotationTypes(AnnotatedElement element, Class<? extends Annotation> annotationType) {
-		return hasMetaAnnotationTypes(element, annotationType, null);
+		return MergedAnnotationIndex.forElement(element).isMetaPresent(annotationType.getName());
 	}
 
 	/**
@@ -226,20 +226,7 @@ public abstract class AnnotatedElementUtils {
 	 * @see #getMetaAnnotationTypes
 	 */
 	public static boolean hasMetaAnnotationTypes(AnnotatedElement element, String annotationName) {
-		return hasMetaAnnotationTypes(element, null, annotationName);
-	}
-
-	private static boolean hasMetaAnnotationTypes(
-			AnnotatedElement element, @Nullable Class<? extends Annotation> annotationType, @Nullable String annotationName) {
-
-		return Boolean.TRUE.equals(
-			searchWithGetSemantics(element, annotationType, annotationName, new SimpleAnnotationProcessor<Boolean>() {
-				@Override
-				@Nullable
-				public Boolean process(@Nullable AnnotatedElement annotatedElement, Annotation annotation, int metaDepth) {
-					return (metaDepth > 0 ? Boolean.TRUE : CONTINUE);
-				}
-			}));
+		return MergedAnnotationIndex.forElement(element).isMetaPresent(annotationName);
 	}
 
 	/**
@@ -261,7 +248,7 @@ public abstract class AnnotatedElementUtils {
 		if (element.isAnnotationPresent(annotationType)) {
 			return true;
 		}
-		return Boolean.TRUE.equals(searchWithGetSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+		return MergedAnnotationIndex.forElement(element).isPresent(annotationType.getName());
 	}
 
 	/**
@@ -277,7 +264,7 @@ public abstract class AnnotatedElementUtils {
 	 * @return {@code true} if a matching annotation is present
 	 */
 	public static boolean isAnnotated(AnnotatedElement element, String annotationName) {
-		return Boolean.TRUE.equals(searchWithGetSemantics(element, null, annotationName, alwaysTrueAnnotationProcessor));
+		return MergedAnnotationIndex.forElement(element).isPresent(annotationName);
 	}
 
 	/**
@@ -301,6 +288,11 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
+		// Shortcut: not present anywhere within the annotation hierarchy?
+		if (MergedAnnotationIndex.forElement(element).isKnownAbsent(annotationType.getName())) {
+			return null;
+		}
+
 		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor());
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
@@ -360,6 +352,11 @@ public abstract class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
+		// Shortcut: not present anywhere within the annotation hierarchy?
+		if (MergedAnnotationIndex.forElement(element).isKnownAbsent(annotationName)) {
+			return null;
+		}
+
 		AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
@@ -384,6 +381,7 @@ public abstract class AnnotatedElementUtils {
 	 * @see #findMergedAnnotation(AnnotatedElement, Class)
 	 * @see AnnotationUtils#synthesizeAnnotation(Map, Class, AnnotatedElement)
 	 */
+	@SuppressWarnings("unchecked")
 	@Nullable
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
@@ -397,9 +395,17 @@ public abstract class AnnotatedElementUtils {
 			return null;
 		}
 
+		// Shortcut: merged annotation resolved before?
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(element);
+		Object cached = index.get(MergedAnnotationIndex.Lookup.MERGED_ANNOTATION, annotationType);
+		if (cached != null) {
+			return (cached != MergedAnnotationIndex.NONE ? (A) cached : null);
+		}
+
 		// Exhaustive retrieval of merged annotation attributes...
 		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return index.put(MergedAnnotationIndex.Lookup.MERGED_ANNOTATION, annotationType,
+				(attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null));
 	}
 
 	/**
@@ -599,7 +605,16 @@ public abstract class AnnotatedElementUtils {
 		if (element.isAnnotationPresent(annotationType)) {
 			return true;
 		}
-		return Boolean.TRUE.equals(searchWithFindSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+
+		// Shortcut: resolved before?
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(element);
+		Object cached = index.get(MergedAnnotationIndex.Lookup.FOUND_PRESENT, annotationType);
+		if (cached != null) {
+			return (Boolean) cached;
+		}
+
+		return index.put(MergedAnnotationIndex.Lookup.FOUND_PRESENT, annotationType,
+				Boolean.TRUE.equals(searchWithFindSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor)));
 	}
 
 	/**
@@ -694,6 +709,7 @@ public abstract class AnnotatedElementUtils {
 	 * @see #findMergedAnnotationAttributes(AnnotatedElement, String, boolean, boolean)
 	 * @see #getMergedAnnotationAttributes(AnnotatedElement, Class)
 	 */
+	@SuppressWarnings("unchecked")
 	@Nullable
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
@@ -707,9 +723,17 @@ public abstract class AnnotatedElementUtils {
 			return null;
 		}
 
+		// Shortcut: merged annotation resolved before?
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(element);
+		Object cached = index.get(MergedAnnotationIndex.Lookup.FOUND_MERGED_ANNOTATION, annotationType);
+		if (cached != null) {
+			return (cached != MergedAnnotationIndex.NONE ? (A) cached : null);
+		}
+
 		// Exhaustive retrieval of merged annotation attributes...
 		AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return index.put(MergedAnnotationIndex.Lookup.FOUND_MERGED_ANNOTATION, annotationType,
+				(attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null));
 	}
 
 	/**
@@ -119,12 +119,6 @@ public abstract class AnnotationUtils {
 	 */
 	public static final String VALUE = "value";
 
-	private static final Map<AnnotationCacheKey, Annotation> findAnnotationCache =
-			new ConcurrentReferenceHashMap<>(256);
-
-	private static final Map<AnnotationCacheKey, Boolean> metaPresentCache =
-			new ConcurrentReferenceHashMap<>(256);
-
 	private static final Map<AnnotatedElement, Annotation[]> declaredAnnotationsCache =
 			new ConcurrentReferenceHashMap<>(256);
 
@@ -192,8 +186,15 @@ public abstract class AnnotationUtils {
 	 * @return the first matching annotation, or {@code null} if not found
 	 * @since 3.1
 	 */
+	@SuppressWarnings("unchecked")
 	@Nullable
 	public static <A extends Annotation> A getAnnotation(AnnotatedElement annotatedElement, Class<A> annotationType) {
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(annotatedElement);
+		Object cached = index.get(MergedAnnotationIndex.Lookup.ANNOTATION, annotationType);
+		if (cached != null) {
+			return (cached != MergedAnnotationIndex.NONE ? (A) cached : null);
+		}
+
 		try {
 			A annotation = annotatedElement.getAnnotation(annotationType);
 			if (annotation == null) {
@@ -204,7 +205,8 @@ public abstract class AnnotationUtils {
 					}
 				}
 			}
-			return (annotation != null ? synthesizeAnnotation(annotation, annotatedElement) : null);
+			return index.put(MergedAnnotationIndex.Lookup.ANNOTATION, annotationType,
+					(annotation != null ? synthesizeAnnotation(annotation, annotatedElement) : null));
 		}
 		catch (Throwable ex) {
 			handleIntrospectionFailure(annotatedElement, ex);
@@ -456,7 +458,7 @@ public abstract class AnnotationUtils {
 			return null;
 		}
 
-		// Do NOT store result in the findAnnotationCache since doing so could break
+		// Do NOT store result in the MergedAnnotationIndex since doing so could break
 		// findAnnotation(Class, Class) and findAnnotation(Method, Class).
 		A ann = findAnnotation(annotatedElement, annotationType, new HashSet<>());
 		return (ann != null ? synthesizeAnnotation(ann, annotatedElement) : null);
@@ -519,46 +521,46 @@ public abstract class AnnotationUtils {
 			return null;
 		}
 
-		AnnotationCacheKey cacheKey = new AnnotationCacheKey(method, annotationType);
-		A result = (A) findAnnotationCache.get(cacheKey);
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(method);
+		Object cached = index.get(MergedAnnotationIndex.Lookup.FOUND_ANNOTATION, annotationType);
+		if (cached != null) {
+			return (cached != MergedAnnotationIndex.NONE ? (A) cached : null);
+		}
 
+		Method resolvedMethod = BridgeMethodResolver.findBridgedMethod(method);
+		A result = findAnnotation((AnnotatedElement) resolvedMethod, annotationType);
 		if (result == null) {
-			Method resolvedMethod = BridgeMethodResolver.findBridgedMethod(method);
-			result = findAnnotation((AnnotatedElement) resolvedMethod, annotationType);
-			if (result == null) {
-				result = searchOnInterfaces(method, annotationType, method.getDeclaringClass().getInterfaces());
-			}
+			result = searchOnInterfaces(method, annotationType, method.getDeclaringClass().getInterfaces());
+		}
 
-			Class<?> clazz = method.getDeclaringClass();
-			while (result == null) {
-				clazz = clazz.getSuperclass();
-				if (clazz == null || clazz == Object.class) {
-					break;
-				}
-				Set<Method> annotatedMethods = getAnnotatedMethodsInBaseType(clazz);
-				if (!annotatedMethods.isEmpty()) {
-					for (Method annotatedMethod : annotatedMethods) {
-						if (isOverride(method, annotatedMethod)) {
-							Method resolvedSuperMethod = BridgeMethodResolver.findBridgedMethod(annotatedMethod);
-							result = findAnnotation((AnnotatedElement) resolvedSuperMethod, annotationType);
-							if (result != null) {
-								break;
-							}
+		Class<?> clazz = method.getDeclaringClass();
+		while (result == null) {
+			clazz = clazz.getSuperclass();
+			if (clazz == null || clazz == Object.class) {
+				break;
+			}
+			Set<Method> annotatedMethods = getAnnotatedMethodsInBaseType(clazz);
+			if (!annotatedMethods.isEmpty()) {
+				for (Method annotatedMethod : annotatedMethods) {
+					if (isOverride(method, annotatedMethod)) {
+						Method resolvedSuperMethod = BridgeMethodResolver.findBridgedMethod(annotatedMethod);
+						result = findAnnotation((AnnotatedElement) resolvedSuperMethod, annotationType);
+						if (result != null) {
+							break;
 						}
 					}
 				}
-				if (result == null) {
-					result = searchOnInterfaces(method, annotationType, clazz.getInterfaces());
-				}
 			}
-
-			if (result != null) {
-				result = synthesizeAnnotation(result, method);
-				findAnnotationCache.put(cacheKey, result);
+			if (result == null) {
+				result = searchOnInterfaces(method, annotationType, clazz.getInterfaces());
 			}
 		}
 
-		return result;
+		if (result != null) {
+			result = synthesizeAnnotation(result, method);
+		}
+
+		return index.put(MergedAnnotationIndex.Lookup.FOUND_ANNOTATION, annotationType, result);
 	}
 
 	@Nullable
@@ -727,15 +729,18 @@ public abstract class AnnotationUtils {
 			return null;
 		}
 
-		AnnotationCacheKey cacheKey = new AnnotationCacheKey(clazz, annotationType);
-		A result = (A) findAnnotationCache.get(cacheKey);
-		if (result == null) {
-			result = findAnnotation(clazz, annotationType, new HashSet<>());
-			if (result != null && synthesize) {
-				result = synthesizeAnnotation(result, clazz);
-				findAnnotationCache.put(cacheKey, result);
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(clazz);
+		if (synthesize) {
+			Object cached = index.get(MergedAnnotationIndex.Lookup.FOUND_ANNOTATION, annotationType);
+			if (cached != null) {
+				return (cached != MergedAnnotationIndex.NONE ? (A) cached : null);
 			}
 		}
+		A result = findAnnotation(clazz, annotationType, new HashSet<>());
+		if (synthesize) {
+			result = index.put(MergedAnnotationIndex.Lookup.FOUND_ANNOTATION, annotationType,
+					(result != null ? synthesizeAnnotation(result, clazz) : null));
+		}
 		return result;
 	}
 
@@ -923,17 +928,13 @@ public abstract class AnnotationUtils {
 			return false;
 		}
 
-		AnnotationCacheKey cacheKey = new AnnotationCacheKey(annotationType, metaAnnotationType);
-		Boolean metaPresent = metaPresentCache.get(cacheKey);
-		if (metaPresent != null) {
-			return metaPresent;
-		}
-		metaPresent = Boolean.FALSE;
-		if (findAnnotation(annotationType, metaAnnotationType, false) != null) {
-			metaPresent = Boolean.TRUE;
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(annotationType);
+		Object metaPresent = index.get(MergedAnnotationIndex.Lookup.META_PRESENT, metaAnnotationType);
+		if (metaPresent == null) {
+			metaPresent = index.put(MergedAnnotationIndex.Lookup.META_PRESENT, metaAnnotationType,
+					findAnnotation(annotationType, metaAnnotationType, false) != null);
 		}
-		metaPresentCache.put(cacheKey, metaPresent);
-		return metaPresent;
+		return (Boolean) metaPresent;
 	}
 
 	/**
@@ -1980,8 +1981,7 @@ public abstract class AnnotationUtils {
 	 * @since 4.3.15
 	 */
 	public static void clearCache() {
-		findAnnotationCache.clear();
-		metaPresentCache.clear();
+		MergedAnnotationIndex.clearCache();
 		declaredAnnotationsCache.clear();
 		annotatedBaseTypeCache.clear();
 		synthesizableCache.clear();
@@ -1991,53 +1991,6 @@ public abstract class AnnotationUtils {
 	}
 
 
-	/**
-	 * Cache key for the AnnotatedElement cache.
-	 */
-	private static final class AnnotationCacheKey implements Comparable<AnnotationCacheKey> {
-
-		private final AnnotatedElement element;
-
-		private final Class<? extends Annotation> annotationType;
-
-		public AnnotationCacheKey(AnnotatedElement element, Class<? extends Annotation> annotationType) {
-			this.element = element;
-			this.annotationType = annotationType;
-		}
-
-		@Override
-		public boolean equals(Object other) {
-			if (this == other) {
-				return true;
-			}
-			if (!(other instanceof AnnotationCacheKey)) {
-				return false;
-			}
-			AnnotationCacheKey otherKey = (AnnotationCacheKey) other;
-			return (this.element.equals(otherKey.element) && this.annotationType.equals(otherKey.annotationType));
-		}
-
-		@Override
-		public int hashCode() {
-			return (this.element.hashCode() * 29 + this.annotationType.hashCode());
-		}
-
-		@Override
-		public String toString() {
-			return "@" + this.annotationType + " on " + this.element;
-		}
-
-		@Override
-		public int compareTo(AnnotationCacheKey other) {
-			int result = this.element.toString().compareTo(other.element.toString());
-			if (result == 0) {
-				result = this.annotationType.getName().compareTo(other.annotationType.getName());
-			}
-			return result;
-		}
-	}
-
-
 	private static class AnnotationCollector<A extends Annotation> {
 
 		private final Class<A> annotationType;
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Per-{@link AnnotatedElement} index of annotation lookup results, shared by
+ * {@link AnnotationUtils}, {@link AnnotatedElementUtils}, {@link OrderUtils}
+ * and {@link AnnotationAwareOrderComparator}.
+ *
+ * <p>An index holds two kinds of information for its element:
+ * <ul>
+ * <li>The names of all annotation types that are <em>present</em> or
+ * <em>meta-present</em> on the element following <em>get semantics</em>,
+ * computed once in a single traversal of the annotation hierarchy and kept
+ * in immutable sets. This allows for answering presence checks as well as
+ * negative lookups of merged annotations without any further traversal.
+ * <li>The results of individual lookups per annotation type and per kind of
+ * search (see {@link Lookup}), including misses, so that a repeated lookup
+ * neither walks class hierarchies or meta-annotations again nor synthesizes
+ * another annotation proxy.
+ * </ul>
+ *
+ * <p>A cache hit does not allocate: the index is retrieved by element and the
+ * result by annotation type, with no composite cache key involved.
+ *
+ * <p>Indexes are only retained for classes and class members; for any other
+ * kind of element, a transient index is returned which does not remember
+ * lookup results.
+ *
+ * @since 5.1.17
+ * @see AnnotationUtils#clearCache()
+ */
+final class MergedAnnotationIndex {
+
+	/**
+	 * The kinds of lookups that an index remembers results for.
+	 */
+	enum Lookup {
+
+		/** {@link AnnotationUtils#getAnnotation(AnnotatedElement, Class)}. */
+		ANNOTATION,
+
+		/** {@link AnnotationUtils#findAnnotation(Class, Class)} and its variant for methods. */
+		FOUND_ANNOTATION,
+
+		/** {@link AnnotationUtils#isAnnotationMetaPresent(Class, Class)}. */
+		META_PRESENT,
+
+		/** {@link AnnotatedElementUtils#getMergedAnnotation(AnnotatedElement, Class)}. */
+		MERGED_ANNOTATION,
+
+		/** {@link AnnotatedElementUtils#findMergedAnnotation(AnnotatedElement, Class)}. */
+		FOUND_MERGED_ANNOTATION,
+
+		/** {@link AnnotatedElementUtils#hasAnnotation(AnnotatedElement, Class)}. */
+		FOUND_PRESENT
+	}
+
+
+	/** Marker for a lookup that did not find anything. */
+	static final Object NONE = new Object();
+
+	private static final int LOOKUP_COUNT = Lookup.values().length;
+
+	private static final Map<AnnotatedElement, MergedAnnotationIndex> indexCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+
+	private final AnnotatedElement element;
+
+	private final boolean cached;
+
+	/**
+	 * Lookup results per annotation type, with one slot per {@link Lookup}.
+	 * <p>Slots are written without further synchronization: concurrent lookups
+	 * may compute the same result more than once, but results are immutable and
+	 * equivalent, so any of them may be retained.
+	 */
+	private final Map<Class<? extends Annotation>, Object[]> results = new ConcurrentHashMap<>(4);
+
+	@Nullable
+	private volatile Set<String> presentTypes;
+
+	@Nullable
+	private volatile Set<String> metaPresentTypes;
+
+	@Nullable
+	private volatile Object order;
+
+	@Nullable
+	private volatile Object priority;
+
+
+	private MergedAnnotationIndex(AnnotatedElement element, boolean cached) {
+		this.element = element;
+		this.cached = cached;
+	}
+
+
+	/**
+	 * Return the result of a previous lookup of the given kind.
+	 * @param lookup the kind of lookup
+	 * @param annotationType the annotation type that was looked up
+	 * @return the previous result, {@link #NONE} if the previous lookup did
+	 * not find anything, or {@code null} if there was no previous lookup
+	 */
+	@Nullable
+	Object get(Lookup lookup, Class<? extends Annotation> annotationType) {
+		Object[] slots = this.results.get(annotationType);
+		return (slots != null ? slots[lookup.ordinal()] : null);
+	}
+
+	/**
+	 * Remember the result of a lookup of the given kind.
+	 * @param lookup the kind of lookup
+	 * @param annotationType the annotation type that was looked up
+	 * @param result the result of the lookup (may be {@code null})
+	 * @return the given result, for convenient use in return statements
+	 */
+	@Nullable
+	<T> T put(Lookup lookup, Class<? extends Annotation> annotationType, @Nullable T result) {
+		if (this.cached) {
+			Object[] slots = this.results.computeIfAbsent(annotationType, key -> new Object[LOOKUP_COUNT]);
+			slots[lookup.ordinal()] = (result != null ? result : NONE);
+		}
+		return result;
+	}
+
+	/**
+	 * Determine whether an annotation with the given name is <em>present</em>
+	 * or <em>meta-present</em> on the element, following <em>get semantics</em>.
+	 * @see AnnotatedElementUtils#isAnnotated(AnnotatedElement, String)
+	 */
+	boolean isPresent(String annotationName) {
+		Set<String> presentTypes = this.presentTypes;
+		if (presentTypes == null) {
+			introspect();
+			presentTypes = this.presentTypes;
+		}
+		return presentTypes.contains(annotationName);
+	}
+
+	/**
+	 * Determine whether an annotation with the given name is known to be absent
+	 * from the element, following <em>get semantics</em>.
+	 * <p>Only answers from retained indexes, so that a transient index does not
+	 * traverse the entire annotation hierarchy in addition to a targeted search.
+	 * @see #isPresent(String)
+	 */
+	boolean isKnownAbsent(String annotationName) {
+		return (this.cached && !isPresent(annotationName));
+	}
+
+	/**
+	 * Determine whether an annotation with the given name is declared on a
+	 * composed annotation within the annotation hierarchy of the element,
+	 * following <em>get semantics</em>.
+	 * @see AnnotatedElementUtils#hasMetaAnnotationTypes(AnnotatedElement, String)
+	 */
+	boolean isMetaPresent(String annotationName) {
+		Set<String> metaPresentTypes = this.metaPresentTypes;
+		if (metaPresentTypes == null) {
+			introspect();
+			metaPresentTypes = this.metaPresentTypes;
+		}
+		return metaPresentTypes.contains(annotationName);
+	}
+
+	/**
+	 * Return the order value previously resolved by {@link OrderUtils}, with the
+	 * same conventions as {@link #get}.
+	 */
+	@Nullable
+	Object getOrder() {
+		return this.order;
+	}
+
+	@Nullable
+	Integer putOrder(@Nullable Integer order) {
+		if (this.cached) {
+			this.order = (order != null ? order : NONE);
+		}
+		return order;
+	}
+
+	/**
+	 * Return the priority value previously resolved by {@link OrderUtils}, with
+	 * the same conventions as {@link #get}.
+	 */
+	@Nullable
+	Object getPriority() {
+		return this.priority;
+	}
+
+	@Nullable
+	Integer putPriority(@Nullable Integer priority) {
+		if (this.cached) {
+			this.priority = (priority != null ? priority : NONE);
+		}
+		return priority;
+	}
+
+	/**
+	 * Traverse the annotation hierarchy of the element once, collecting the
+	 * names of all present and meta-present annotation types.
+	 * <p>Mirrors the traversal of {@code AnnotatedElementUtils.searchWithGetSemantics},
+	 * including its handling of inherited annotations and introspection failures.
+	 */
+	private void introspect() {
+		Set<String> presentTypes = new HashSet<>();
+		Set<String> metaPresentTypes = new HashSet<>();
+		introspect(this.element, presentTypes, metaPresentTypes, new HashSet<>(), 0);
+		this.metaPresentTypes = (metaPresentTypes.isEmpty() ?
+				Collections.emptySet() : Collections.unmodifiableSet(metaPresentTypes));
+		this.presentTypes = (presentTypes.isEmpty() ?
+				Collections.emptySet() : Collections.unmodifiableSet(presentTypes));
+	}
+
+	private static void introspect(AnnotatedElement element, Set<String> presentTypes,
+			Set<String> metaPresentTypes, Set<AnnotatedElement> visited, int metaDepth) {
+
+		if (!visited.add(element)) {
+			return;
+		}
+		try {
+			List<Annotation> declaredAnnotations = Arrays.asList(AnnotationUtils.getDeclaredAnnotations(element));
+			introspect(declaredAnnotations, presentTypes, metaPresentTypes, visited, metaDepth);
+			if (element instanceof Class) {
+				Class<?> superclass = ((Class<?>) element).getSuperclass();
+				if (superclass != null && superclass != Object.class) {
+					List<Annotation> inheritedAnnotations = new ArrayList<>();
+					for (Annotation annotation : element.getAnnotations()) {
+						if (!declaredAnnotations.contains(annotation)) {
+							inheritedAnnotations.add(annotation);
+						}
+					}
+					introspect(inheritedAnnotations, presentTypes, metaPresentTypes, visited, metaDepth);
+				}
+			}
+		}
+		catch (Throwable ex) {
+			AnnotationUtils.handleIntrospectionFailure(element, ex);
+		}
+	}
+
+	private static void introspect(List<Annotation> annotations, Set<String> presentTypes,
+			Set<String> metaPresentTypes, Set<AnnotatedElement> visited, int metaDepth) {
+
+		for (Annotation annotation : annotations) {
+			Class<? extends Annotation> annotationType = annotation.annotationType();
+			if (!AnnotationUtils.isInJavaLangAnnotationPackage(annotationType)) {
+				presentTypes.add(annotationType.getName());
+				if (metaDepth > 0) {
+					metaPresentTypes.add(annotationType.getName());
+				}
+			}
+		}
+		for (Annotation annotation : annotations) {
+			Class<? extends Annotation> annotationType = annotation.annotationType();
+			if (!AnnotationUtils.hasPlainJavaAnnotationsOnly(annotationType)) {
+				introspect(annotationType, presentTypes, metaPresentTypes, visited, metaDepth + 1);
+			}
+		}
+	}
+
+
+	/**
+	 * Return the index for the given element, creating it if necessary.
+	 * @param element the annotated element
+	 * @return the shared index for a class or class member, or a transient
+	 * index for any other kind of element
+	 */
+	static MergedAnnotationIndex forElement(AnnotatedElement element) {
+		MergedAnnotationIndex index = indexCache.get(element);
+		if (index != null) {
+			return index;
+		}
+		if (!(element instanceof Class || element instanceof Member)) {
+			return new MergedAnnotationIndex(element, false);
+		}
+		index = new MergedAnnotationIndex(element, true);
+		MergedAnnotationIndex existing = indexCache.putIfAbsent(element, index);
+		return (existing != null ? existing : index);
+	}
+
+	/**
+	 * Clear all indexes.
+	 */
+	static void clearCache() {
+		indexCache.clear();
+	}
+
+}
@@ -17,11 +17,9 @@
 package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
-import java.util.Map;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * General utility for determining the order of an object based on its type declaration.
@@ -36,10 +34,6 @@ import org.springframework.util.ConcurrentReferenceHashMap;
 @SuppressWarnings("unchecked")
 public abstract class OrderUtils {
 
-	/** Cache marker for a non-annotated Class. */
-	private static final Object NOT_ANNOTATED = new Object();
-
-
 	@Nullable
 	private static Class<? extends Annotation> priorityAnnotationType;
 
@@ -55,13 +49,6 @@ public abstract class OrderUtils {
 	}
 
 
-	/** Cache for @Order value (or NOT_ANNOTATED marker) per Class. */
-	private static final Map<Class<?>, Object> orderCache = new ConcurrentReferenceHashMap<>(64);
-
-	/** Cache for @Priority value (or NOT_ANNOTATED marker) per Class. */
-	private static final Map<Class<?>, Object> priorityCache = new ConcurrentReferenceHashMap<>();
-
-
 	/**
 	 * Return the order on the specified {@code type}, or the specified
 	 * default value if none can be found.
@@ -99,7 +86,8 @@ public abstract class OrderUtils {
 	 */
 	@Nullable
 	public static Integer getOrder(Class<?> type) {
-		Object cached = orderCache.get(type);
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(type);
+		Object cached = index.getOrder();
 		if (cached != null) {
 			return (cached instanceof Integer ? (Integer) cached : null);
 		}
@@ -111,8 +99,7 @@ public abstract class OrderUtils {
 		else {
 			result = getPriority(type);
 		}
-		orderCache.put(type, (result != null ? result : NOT_ANNOTATED));
-		return result;
+		return index.putOrder(result);
 	}
 
 	/**
@@ -126,7 +113,8 @@ public abstract class OrderUtils {
 		if (priorityAnnotationType == null) {
 			return null;
 		}
-		Object cached = priorityCache.get(type);
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(type);
+		Object cached = index.getPriority();
 		if (cached != null) {
 			return (cached instanceof Integer ? (Integer) cached : null);
 		}
@@ -135,8 +123,7 @@ public abstract class OrderUtils {
 		if (priority != null) {
 			result = (Integer) AnnotationUtils.getValue(priority);
 		}
-		priorityCache.put(type, (result != null ? result : NOT_ANNOTATED));
-		return result;
+		return index.putPriority(result);
 	}
 
 }
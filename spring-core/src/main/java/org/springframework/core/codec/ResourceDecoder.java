@@ -17,10 +17,14 @@
 package org.springframework.core.codec;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Map;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.ByteArrayResource;
@@ -28,9 +32,11 @@ import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.FileSpillingBuffer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
 
 /**
  * Decoder for {@link Resource Resources}.
@@ -41,11 +47,45 @@ import org.springframework.util.MimeTypeUtils;
  */
 public class ResourceDecoder extends AbstractDataBufferDecoder<Resource> {
 
+	@Nullable
+	private Path spillDirectory;
+
+
 	public ResourceDecoder() {
 		super(MimeTypeUtils.ALL);
 	}
 
 
+	/**
+	 * Set the directory in which to spill input that exceeds the
+	 * {@link #setMaxInMemorySize(int) maxInMemorySize} to a temporary file,
+	 * rather than rejecting it with a
+	 * {@link org.springframework.core.io.buffer.DataBufferLimitException}.
+	 * <p>Spilled input is decoded to an {@link InputStreamResource} that
+	 * deletes the temporary file when its input stream is closed, so the
+	 * caller must close the stream. Input decoded to other resource types,
+	 * such as {@link ByteArrayResource}, is always held in memory, and remains
+	 * subject to the limit.
+	 * <p>By default this is not set, and input is not spilled.
+	 * @param spillDirectory the directory for temporary files, or {@code null}
+	 * to disable spilling
+	 * @since 5.1.17
+	 * @see FileSpillingBuffer
+	 */
+	public void setSpillDirectory(@Nullable Path spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
+	/**
+	 * Return the {@link #setSpillDirectory configured} spill directory.
+	 * @since 5.1.17
+	 */
+	@Nullable
+	public Path getSpillDirectory() {
+		return this.spillDirectory;
+	}
+
+
 	@Override
 	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return (Resource.class.isAssignableFrom(elementType.toClass()) &&
@@ -59,6 +99,46 @@ public class ResourceDecoder extends AbstractDataBufferDecoder<Resource> {
 		return Flux.from(decodeToMono(inputStream, elementType, mimeType, hints));
 	}
 
+	@Override
+	public Mono<Resource> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		Path directory = this.spillDirectory;
+		if (directory == null || !elementType.toClass().isAssignableFrom(InputStreamResource.class)) {
+			return super.decodeToMono(inputStream, elementType, mimeType, hints);
+		}
+		return Mono.usingWhen(FileSpillingBuffer.collect(inputStream, getMaxInMemorySize(), directory),
+				buffer -> Mono.fromCallable(() -> decodeSpillingBuffer(buffer, elementType, hints)),
+				buffer -> Mono.empty(),
+				buffer -> Mono.<Void>fromRunnable(buffer::release),
+				buffer -> Mono.<Void>fromRunnable(buffer::release));
+	}
+
+	private Resource decodeSpillingBuffer(FileSpillingBuffer buffer, ResolvableType elementType,
+			@Nullable Map<String, Object> hints) {
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(Hints.getLogPrefix(hints) + "Read " + buffer.getByteCount() + " bytes" +
+					(buffer.isSpilled() ? " into temporary file" : ""));
+		}
+
+		try {
+			if (buffer.isSpilled()) {
+				return new InputStreamResource(buffer.getInputStream(true));
+			}
+			byte[] bytes;
+			try (InputStream inputStream = buffer.getInputStream(true)) {
+				bytes = StreamUtils.copyToByteArray(inputStream);
+			}
+			return (elementType.toClass() == InputStreamResource.class ?
+					new InputStreamResource(new ByteArrayInputStream(bytes)) : new ByteArrayResource(bytes));
+		}
+		catch (IOException ex) {
+			buffer.release();
+			throw new DecodingException("Could not read buffered input", ex);
+		}
+	}
+
 	@Override
 	protected Resource decodeDataBuffer(DataBuffer dataBuffer, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
@@ -19,10 +19,12 @@ package org.springframework.core.codec;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
@@ -49,6 +51,10 @@ import org.springframework.util.MimeTypeUtils;
  * This is to make sure that multibyte characters are decoded properly, and do not cross buffer
  * boundaries. The default delimiters ({@code \n}, {@code \r\n})can be customized.
  *
+ * <p>Delimiters are found with a {@link DataBufferUtils#matcher(byte[]...)
+ * matcher} that scans each byte once for all delimiters, and keeps its state
+ * across data buffers, so that a delimiter may span data buffer boundaries.
+ *
  * <p>Partially inspired by Netty's {@code DelimiterBasedFrameDecoder}.
  *
  * @author Sebastien Deleuze
@@ -62,6 +68,12 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 
 	private static final DataBuffer END_FRAME = new DefaultDataBufferFactory().wrap(new byte[0]);
 
+	/**
+	 * End frame marker for a delimiter that started in a previous data buffer,
+	 * so that part of it still has to be stripped from the joined frame.
+	 */
+	private static final DataBuffer SPLIT_DELIMITER_END_FRAME = new DefaultDataBufferFactory().wrap(new byte[0]);
+
 	/** The default charset to use, i.e. "UTF-8". */
 	public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
@@ -73,7 +85,7 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 
 	private final boolean stripDelimiter;
 
-	private final ConcurrentMap<Charset, List<byte[]>> delimitersCache = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Charset, byte[][]> delimitersCache = new ConcurrentHashMap<>();
 
 
 	private StringDecoder(List<String> delimiters, boolean stripDelimiter, MimeType... mimeTypes) {
@@ -93,9 +105,12 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 	public Flux<String> decode(Publisher<DataBuffer> input, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		List<byte[]> delimiterBytes = getDelimiterBytes(mimeType);
+		byte[][] delimiterBytes = getDelimiterBytes(mimeType);
 
 		Flux<DataBuffer> inputFlux = Flux.defer(() -> {
+			DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(delimiterBytes);
+			Queue<Integer> splitDelimiterLengths = new ArrayDeque<>();
+
 			if (getMaxInMemorySize() != -1) {
 
 				// Passing limiter into endFrameAfterDelimiter helps to ensure that in case of one DataBuffer
@@ -109,9 +124,9 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 				LimitedDataBufferList limiter = new LimitedDataBufferList(getMaxInMemorySize());
 
 				return Flux.from(input)
-						.concatMapIterable(buffer -> splitOnDelimiter(buffer, delimiterBytes, limiter))
-						.bufferUntil(buffer -> buffer == END_FRAME)
-						.map(StringDecoder::joinUntilEndFrame)
+						.concatMapIterable(buffer -> splitOnDelimiter(buffer, matcher, splitDelimiterLengths, limiter))
+						.bufferUntil(StringDecoder::isEndFrame)
+						.map(buffers -> joinUntilEndFrame(buffers, splitDelimiterLengths))
 						.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 			}
 			else {
@@ -125,11 +140,12 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 				ConcatMapIterableDiscardWorkaroundCache cache = new ConcatMapIterableDiscardWorkaroundCache();
 
 				return Flux.from(input)
-						.concatMapIterable(buffer -> cache.addAll(splitOnDelimiter(buffer, delimiterBytes, null)))
+						.concatMapIterable(buffer -> cache.addAll(
+								splitOnDelimiter(buffer, matcher, splitDelimiterLengths, null)))
 						.doOnNext(cache)
 						.doOnCancel(cache)
-						.bufferUntil(buffer -> buffer == END_FRAME)
-						.map(StringDecoder::joinUntilEndFrame)
+						.bufferUntil(StringDecoder::isEndFrame)
+						.map(buffers -> joinUntilEndFrame(buffers, splitDelimiterLengths))
 						.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 			}
 		});
@@ -137,45 +153,50 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 		return super.decode(inputFlux, elementType, mimeType, hints);
 	}
 
-	private List<byte[]> getDelimiterBytes(@Nullable MimeType mimeType) {
+	private byte[][] getDelimiterBytes(@Nullable MimeType mimeType) {
 		return this.delimitersCache.computeIfAbsent(getCharset(mimeType), charset -> {
-			List<byte[]> list = new ArrayList<>();
-			for (String delimiter : this.delimiters) {
-				byte[] bytes = delimiter.getBytes(charset);
-				list.add(bytes);
+			byte[][] result = new byte[this.delimiters.size()][];
+			for (int i = 0; i < this.delimiters.size(); i++) {
+				result[i] = this.delimiters.get(i).getBytes(charset);
 			}
-			return list;
+			return result;
 		});
 	}
 
 	/**
-	 * Split the given data buffer on delimiter boundaries.
-	 * The returned Flux contains an {@link #END_FRAME} buffer after each delimiter.
+	 * Split the given data buffer on delimiter boundaries, using the given
+	 * matcher so that each byte is scanned only once, and delimiters that
+	 * span data buffers are found as well.
+	 * The returned Flux contains an end frame buffer after each delimiter.
 	 */
-	private List<DataBuffer> splitOnDelimiter(
-			DataBuffer buffer, List<byte[]> delimiterBytes, @Nullable LimitedDataBufferList limiter) {
+	private List<DataBuffer> splitOnDelimiter(DataBuffer buffer, DataBufferUtils.Matcher matcher,
+			Queue<Integer> splitDelimiterLengths, @Nullable LimitedDataBufferList limiter) {
 
 		List<DataBuffer> frames = new ArrayList<>();
 		try {
 			do {
-				int length = Integer.MAX_VALUE;
-				byte[] matchingDelimiter = null;
-				for (byte[] delimiter : delimiterBytes) {
-					int index = indexOf(buffer, delimiter);
-					if (index >= 0 && index < length) {
-						length = index;
-						matchingDelimiter = delimiter;
-					}
-				}
-				DataBuffer frame;
 				int readPosition = buffer.readPosition();
-				if (matchingDelimiter != null) {
-					frame = this.stripDelimiter ?
-							buffer.slice(readPosition, length) :
-							buffer.slice(readPosition, length + matchingDelimiter.length);
-					buffer.readPosition(readPosition + length + matchingDelimiter.length);
+				int endIndex = matcher.match(buffer);
+				DataBuffer frame;
+				if (endIndex != -1) {
+					int length = endIndex + 1 - readPosition;
+					DataBuffer endFrame = END_FRAME;
+					if (this.stripDelimiter) {
+						int delimiterLength = matcher.delimiter().length;
+						int delimiterLengthInBuffer = Math.min(delimiterLength, length);
+						if (delimiterLengthInBuffer < delimiterLength) {
+							// the start of the delimiter is at the end of a previous frame
+							splitDelimiterLengths.add(delimiterLength - delimiterLengthInBuffer);
+							endFrame = SPLIT_DELIMITER_END_FRAME;
+						}
+						frame = buffer.slice(readPosition, length - delimiterLengthInBuffer);
+					}
+					else {
+						frame = buffer.slice(readPosition, length);
+					}
+					buffer.readPosition(endIndex + 1);
 					frames.add(DataBufferUtils.retain(frame));
-					frames.add(END_FRAME);
+					frames.add(endFrame);
 					if (limiter != null) {
 						limiter.add(frame); // enforce the limit
 						limiter.clear();
@@ -210,46 +231,32 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 		return frames;
 	}
 
-	/**
-	 * Find the given delimiter in the given data buffer.
-	 * @return the index of the delimiter, or -1 if not found.
-	 */
-	private static int indexOf(DataBuffer buffer, byte[] delimiter) {
-		for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
-			int bufferPos = i;
-			int delimiterPos = 0;
-			while (delimiterPos < delimiter.length) {
-				if (buffer.getByte(bufferPos) != delimiter[delimiterPos]) {
-					break;
-				}
-				else {
-					bufferPos++;
-					boolean endOfBuffer = bufferPos == buffer.writePosition();
-					boolean endOfDelimiter = delimiterPos == delimiter.length - 1;
-					if (endOfBuffer && !endOfDelimiter) {
-						return -1;
-					}
-				}
-				delimiterPos++;
-			}
-			if (delimiterPos == delimiter.length) {
-				return i - buffer.readPosition();
-			}
-		}
-		return -1;
+	private static boolean isEndFrame(DataBuffer dataBuffer) {
+		return (dataBuffer == END_FRAME || dataBuffer == SPLIT_DELIMITER_END_FRAME);
 	}
 
 	/**
-	 * Join the given list of buffers into a single buffer.
+	 * Join the given list of buffers into a single buffer, stripping what
+	 * remains of a delimiter that started in a previous data buffer.
 	 */
-	private static DataBuffer joinUntilEndFrame(List<DataBuffer> dataBuffers) {
+	private static DataBuffer joinUntilEndFrame(List<DataBuffer> dataBuffers, Queue<Integer> splitDelimiterLengths) {
+		int stripLength = 0;
 		if (!dataBuffers.isEmpty()) {
 			int lastIdx = dataBuffers.size() - 1;
-			if (dataBuffers.get(lastIdx) == END_FRAME) {
+			DataBuffer last = dataBuffers.get(lastIdx);
+			if (isEndFrame(last)) {
 				dataBuffers.remove(lastIdx);
+				if (last == SPLIT_DELIMITER_END_FRAME) {
+					Integer length = splitDelimiterLengths.poll();
+					stripLength = (length != null ? length : 0);
+				}
 			}
 		}
-		return dataBuffers.get(0).factory().join(dataBuffers);
+		DataBuffer result = dataBuffers.get(0).factory().join(dataBuffers);
+		if (stripLength > 0) {
+			result.writePosition(result.writePosition() - stripLength);
+		}
+		return result;
 	}
 
 	@Override
@@ -470,6 +470,71 @@ public abstract class DataBufferUtils {
 	}
 
 
+	/**
+	 * Return a {@link Matcher} for the given delimiter.
+	 * The matcher can be used to find the delimiter in a stream of data
+	 * buffers, including delimiters that span buffer boundaries.
+	 * @param delimiter the delimiter bytes to find
+	 * @return the matcher
+	 * @since 5.1.17
+	 */
+	public static Matcher matcher(byte[] delimiter) {
+		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
+		return createMatcher(delimiter);
+	}
+
+	/**
+	 * Return a {@link Matcher} for the given delimiters.
+	 * The matcher scans each byte only once, regardless of the number of
+	 * delimiters, and reports the first delimiter to end in the data buffer.
+	 * If several delimiters end at the same byte, the longest one is reported.
+	 * @param delimiters the delimiters bytes to find
+	 * @return the matcher
+	 * @since 5.1.17
+	 */
+	public static Matcher matcher(byte[]... delimiters) {
+		Assert.isTrue(delimiters.length > 0, "Delimiters must not be empty");
+		return (delimiters.length == 1 ? matcher(delimiters[0]) : new CompositeMatcher(delimiters));
+	}
+
+	private static NestedMatcher createMatcher(byte[] delimiter) {
+		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
+		return (delimiter.length == 1 ? new SingleByteMatcher(delimiter) : new KnuthMorrisPrattMatcher(delimiter));
+	}
+
+
+	/**
+	 * Contract to find delimiter(s) against one or more data buffers that can
+	 * be passed one at a time to the {@link #match(DataBuffer)} method.
+	 * @since 5.1.17
+	 * @see #matcher(byte[])
+	 * @see #matcher(byte[]...)
+	 */
+	public interface Matcher {
+
+		/**
+		 * Find the first matching delimiter in the readable bytes of the given
+		 * data buffer, taking into account a partial match at the end of the
+		 * data buffer previously passed to this method.
+		 * @param dataBuffer the data buffer in which to search for the delimiter
+		 * @return the index of the last byte of the matching delimiter,
+		 * or {@code -1} if not found
+		 */
+		int match(DataBuffer dataBuffer);
+
+		/**
+		 * Return the delimiter from the last invocation of
+		 * {@link #match(DataBuffer)} that found a match.
+		 */
+		byte[] delimiter();
+
+		/**
+		 * Reset the state of this matcher, discarding any partial match.
+		 */
+		void reset();
+	}
+
+
 	private static class ReadableByteChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
 
 		private final ReadableByteChannel channel;
@@ -739,4 +804,190 @@ public abstract class DataBufferUtils {
 		}
 	}
 
+
+	/**
+	 * Matcher that can be fed one byte at a time, for use in a
+	 * {@link CompositeMatcher}.
+	 */
+	private interface NestedMatcher extends Matcher {
+
+		/**
+		 * Perform a match against the next byte of the stream.
+		 * @return {@code true} if the delimiter ends with the given byte
+		 */
+		boolean match(byte b);
+	}
+
+
+	/**
+	 * Base class for a {@link NestedMatcher}, matching the readable bytes of
+	 * a data buffer one byte at a time.
+	 */
+	private abstract static class AbstractNestedMatcher implements NestedMatcher {
+
+		private final byte[] delimiter;
+
+		AbstractNestedMatcher(byte[] delimiter) {
+			this.delimiter = delimiter;
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			for (int pos = dataBuffer.readPosition(); pos < dataBuffer.writePosition(); pos++) {
+				if (match(dataBuffer.getByte(pos))) {
+					reset();
+					return pos;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public byte[] delimiter() {
+			return this.delimiter;
+		}
+	}
+
+
+	/**
+	 * Matcher for a single byte delimiter, which requires no state.
+	 */
+	private static class SingleByteMatcher extends AbstractNestedMatcher {
+
+		private final byte delimiterByte;
+
+		SingleByteMatcher(byte[] delimiter) {
+			super(delimiter);
+			this.delimiterByte = delimiter[0];
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			byte delimiterByte = this.delimiterByte;
+			for (int pos = dataBuffer.readPosition(); pos < dataBuffer.writePosition(); pos++) {
+				if (dataBuffer.getByte(pos) == delimiterByte) {
+					return pos;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public boolean match(byte b) {
+			return (b == this.delimiterByte);
+		}
+
+		@Override
+		public void reset() {
+		}
+	}
+
+
+	/**
+	 * Matcher for a multi-byte delimiter, based on the Knuth-Morris-Pratt
+	 * algorithm, so that each byte is examined only once.
+	 */
+	private static class KnuthMorrisPrattMatcher extends AbstractNestedMatcher {
+
+		private final int[] table;
+
+		private int matches;
+
+		KnuthMorrisPrattMatcher(byte[] delimiter) {
+			super(delimiter);
+			this.table = longestSuffixPrefixTable(delimiter);
+		}
+
+		private static int[] longestSuffixPrefixTable(byte[] delimiter) {
+			int[] result = new int[delimiter.length];
+			result[0] = 0;
+			for (int i = 1; i < delimiter.length; i++) {
+				int j = result[i - 1];
+				while (j > 0 && delimiter[i] != delimiter[j]) {
+					j = result[j - 1];
+				}
+				if (delimiter[i] == delimiter[j]) {
+					j++;
+				}
+				result[i] = j;
+			}
+			return result;
+		}
+
+		@Override
+		public boolean match(byte b) {
+			byte[] delimiter = delimiter();
+			while (this.matches > 0 && b != delimiter[this.matches]) {
+				this.matches = this.table[this.matches - 1];
+			}
+			if (b == delimiter[this.matches]) {
+				this.matches++;
+				if (this.matches == delimiter.length) {
+					this.matches = 0;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void reset() {
+			this.matches = 0;
+		}
+	}
+
+
+	/**
+	 * Matcher for multiple delimiters, feeding each byte to all nested
+	 * matchers in a single pass over the data buffer.
+	 */
+	private static class CompositeMatcher implements Matcher {
+
+		private static final byte[] NO_DELIMITER = new byte[0];
+
+		private final NestedMatcher[] matchers;
+
+		private byte[] delimiter = NO_DELIMITER;
+
+		CompositeMatcher(byte[][] delimiters) {
+			this.matchers = new NestedMatcher[delimiters.length];
+			for (int i = 0; i < delimiters.length; i++) {
+				this.matchers[i] = createMatcher(delimiters[i]);
+			}
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			NestedMatcher[] matchers = this.matchers;
+			for (int pos = dataBuffer.readPosition(); pos < dataBuffer.writePosition(); pos++) {
+				byte b = dataBuffer.getByte(pos);
+				byte[] match = null;
+				for (NestedMatcher matcher : matchers) {
+					if (matcher.match(b) && (match == null || matcher.delimiter().length > match.length)) {
+						match = matcher.delimiter();
+					}
+				}
+				if (match != null) {
+					reset();
+					this.delimiter = match;
+					return pos;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public byte[] delimiter() {
+			Assert.state(this.delimiter != NO_DELIMITER, "No delimiter matched");
+			return this.delimiter;
+		}
+
+		@Override
+		public void reset() {
+			for (NestedMatcher matcher : this.matchers) {
+				matcher.reset();
+			}
+		}
+	}
+
 }
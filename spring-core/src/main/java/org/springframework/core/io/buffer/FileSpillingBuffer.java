@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
+
+/**
+ * Aggregates a stream of {@link DataBuffer DataBuffers}, keeping the content
+ * in memory up to a threshold and spilling it to a temporary file, written
+ * through an {@link AsynchronousFileChannel}, once the threshold is exceeded.
+ *
+ * <p>This is a third option next to aggregating in memory, as done by
+ * {@link DataBufferUtils#join(Publisher, int)}, and rejecting the input with
+ * a {@link DataBufferLimitException}: large input is accepted without
+ * holding it on the heap. The aggregated content can then be replayed via
+ * {@link #read(DataBufferFactory, int)}, or consumed via
+ * {@link #getInputStream(boolean)}.
+ *
+ * <p>Temporary files are deleted when the buffer is {@linkplain #release()
+ * released}, or when {@link #collect collecting} fails or is cancelled.
+ *
+ * @since 5.1.17
+ */
+public final class FileSpillingBuffer {
+
+	private static final String TEMP_FILE_PREFIX = "spring-spill-";
+
+	private static final DataBufferFactory memoryBufferFactory = new DefaultDataBufferFactory();
+
+
+	private final int maxInMemorySize;
+
+	private final Path directory;
+
+	private final FastByteArrayOutputStream memory = new FastByteArrayOutputStream(256);
+
+	@Nullable
+	private volatile Path file;
+
+	@Nullable
+	private AsynchronousFileChannel channel;
+
+	private long byteCount;
+
+
+	private FileSpillingBuffer(int maxInMemorySize, Path directory) {
+		this.maxInMemorySize = maxInMemorySize;
+		this.directory = directory;
+	}
+
+
+	/**
+	 * Aggregate the given data buffers, keeping up to {@code maxInMemorySize}
+	 * bytes in memory, and spilling to a temporary file in the given directory
+	 * beyond that. The data buffers are released once aggregated.
+	 * @param source the data buffers to aggregate
+	 * @param maxInMemorySize the max number of bytes to keep in memory,
+	 * or -1 to always keep the content in memory
+	 * @param directory the directory to create the temporary file in
+	 * @return a mono with the aggregated content, emitted once {@code source}
+	 * completes
+	 */
+	public static Mono<FileSpillingBuffer> collect(Publisher<? extends DataBuffer> source,
+			int maxInMemorySize, Path directory) {
+
+		Assert.notNull(source, "'source' must not be null");
+		Assert.notNull(directory, "'directory' must not be null");
+
+		return Mono.defer(() -> {
+			FileSpillingBuffer buffer = new FileSpillingBuffer(maxInMemorySize, directory);
+			return Flux.from(source)
+					.concatMap(buffer::append)
+					.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release)
+					.then(Mono.fromCallable(buffer::complete))
+					.doOnError(ex -> buffer.release())
+					.doOnCancel(buffer::release);
+		});
+	}
+
+
+	/**
+	 * Whether the content was spilled to a temporary file.
+	 */
+	public boolean isSpilled() {
+		return (this.file != null);
+	}
+
+	/**
+	 * Return the temporary file holding the content, or {@code null} if the
+	 * content is held in memory.
+	 */
+	@Nullable
+	public Path getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Return the total number of bytes aggregated.
+	 */
+	public long getByteCount() {
+		return this.byteCount;
+	}
+
+	/**
+	 * Replay the aggregated content as a stream of data buffers. The returned
+	 * flux may be subscribed to multiple times, until this buffer is
+	 * {@linkplain #release() released}.
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers with the aggregated content
+	 */
+	public Flux<DataBuffer> read(DataBufferFactory bufferFactory, int bufferSize) {
+		Path file = this.file;
+		if (file != null) {
+			return DataBufferUtils.readAsynchronousFileChannel(
+					() -> AsynchronousFileChannel.open(file, StandardOpenOption.READ), bufferFactory, bufferSize);
+		}
+		return Flux.defer(() -> {
+			if (this.memory.size() == 0) {
+				return Flux.empty();
+			}
+			byte[] bytes = this.memory.toByteArrayUnsafe();
+			return Flux.just(bufferFactory.wrap(ByteBuffer.wrap(bytes, 0, this.memory.size())));
+		});
+	}
+
+	/**
+	 * Return an {@link InputStream} over the aggregated content.
+	 * @param releaseOnClose whether to {@linkplain #release() release} this
+	 * buffer when the input stream is closed, in which case the caller is
+	 * responsible for closing it
+	 * @return an input stream with the aggregated content
+	 * @throws IOException in case of I/O errors when opening the temporary file
+	 */
+	public InputStream getInputStream(boolean releaseOnClose) throws IOException {
+		Path file = this.file;
+		if (file != null) {
+			return (releaseOnClose ?
+					Files.newInputStream(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE) :
+					Files.newInputStream(file, StandardOpenOption.READ));
+		}
+		InputStream inputStream = this.memory.getInputStream();
+		return (releaseOnClose ? new ReleasingInputStream(inputStream) : inputStream);
+	}
+
+	/**
+	 * Release this buffer, i.e. discard the content held in memory, and
+	 * delete the temporary file, if any.
+	 */
+	public void release() {
+		DataBufferUtils.closeChannel(this.channel);
+		this.memory.reset();
+		Path file = this.file;
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
+	private Mono<Void> append(DataBuffer dataBuffer) {
+		int length = dataBuffer.readableByteCount();
+		long position = this.byteCount;
+		this.byteCount += length;
+
+		AsynchronousFileChannel channel = this.channel;
+		if (channel == null) {
+			if (this.maxInMemorySize == -1 || this.byteCount <= this.maxInMemorySize) {
+				try {
+					byte[] bytes = new byte[length];
+					dataBuffer.read(bytes);
+					this.memory.write(bytes);
+					return Mono.empty();
+				}
+				catch (IOException ex) {
+					return Mono.error(ex);
+				}
+				finally {
+					DataBufferUtils.release(dataBuffer);
+				}
+			}
+			try {
+				channel = spill();
+			}
+			catch (IOException ex) {
+				DataBufferUtils.release(dataBuffer);
+				return Mono.error(ex);
+			}
+			if (position > 0) {
+				// Move the content collected in memory so far to the file, ahead of this buffer
+				byte[] bytes = this.memory.toByteArrayUnsafe();
+				DataBuffer inMemory = memoryBufferFactory.wrap(ByteBuffer.wrap(bytes, 0, (int) position));
+				return DataBufferUtils.write(Flux.just(inMemory, dataBuffer), channel, 0)
+						.then(Mono.<Void>fromRunnable(this.memory::reset))
+						.doFinally(signal -> DataBufferUtils.release(dataBuffer));
+			}
+		}
+		return DataBufferUtils.write(Mono.just(dataBuffer), channel, position)
+				.then()
+				.doFinally(signal -> DataBufferUtils.release(dataBuffer));
+	}
+
+	private AsynchronousFileChannel spill() throws IOException {
+		Path file = Files.createTempFile(this.directory, TEMP_FILE_PREFIX, null);
+		this.file = file;
+		AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, StandardOpenOption.WRITE);
+		this.channel = channel;
+		return channel;
+	}
+
+	private FileSpillingBuffer complete() throws IOException {
+		AsynchronousFileChannel channel = this.channel;
+		if (channel != null) {
+			channel.close();
+		}
+		return this;
+	}
+
+
+	/**
+	 * Input stream over in-memory content that releases the buffer when closed.
+	 */
+	private class ReleasingInputStream extends FilterInputStream {
+
+		ReleasingInputStream(InputStream inputStream) {
+			super(inputStream);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			}
+			finally {
+				release();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DefaultDataBufferFactory} that recycles the memory of released buffers,
+ * for runtimes without Netty (i.e. Servlet and Undertow) where allocating a new
+ * {@code ByteBuffer} for every chunk read or written creates GC pressure.
+ *
+ * <p>Buffers returned by {@link #allocateBuffer(int)} implement
+ * {@link PooledDataBuffer}, starting with a reference count of 1. Once
+ * {@linkplain DataBufferUtils#release(DataBuffer) released}, their memory goes
+ * back into a pool of power-of-two size classes, from 256 bytes up to the
+ * configured maximum pooled capacity; larger requests are allocated unpooled.
+ * Each size class retains at most the configured number of free buffers.
+ * Memory of buffers that are never released is not recycled but simply left to
+ * the garbage collector, which makes a missing release cheap, but a buffer
+ * must not be accessed after it has been released.
+ *
+ * <p>The pool exposes simple counters to monitor its effectiveness, and
+ * {@link #getAllocatedBufferCount()} to detect leaks in tests.
+ *
+ * @since 5.1.17
+ * @see PooledDataBuffer
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default largest capacity to pool buffers for.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default number of free buffers to retain per size class.
+	 */
+	public static final int DEFAULT_MAX_BUFFERS_PER_SIZE_CLASS = 64;
+
+	private static final int MIN_SIZE_CLASS_SHIFT = 8;
+
+
+	private final boolean preferDirect;
+
+	private final SizeClass[] sizeClasses;
+
+	private final AtomicLong allocatedBufferCount = new AtomicLong();
+
+	private final LongAdder poolHitCount = new LongAdder();
+
+	private final LongAdder poolMissCount = new LongAdder();
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with direct buffers and default
+	 * pool settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(true);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default pool settings.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_BUFFERS_PER_SIZE_CLASS);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the largest capacity to pool buffers for,
+	 * rounded up to the next power of two
+	 * @param maxBuffersPerSizeClass the maximum number of free buffers to retain
+	 * per size class
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity, int maxBuffersPerSizeClass) {
+		super(preferDirect);
+		Assert.isTrue(maxPooledCapacity > 0, "'maxPooledCapacity' should be larger than 0");
+		Assert.isTrue(maxBuffersPerSizeClass >= 0, "'maxBuffersPerSizeClass' should not be negative");
+		this.preferDirect = preferDirect;
+		int count = sizeClassIndex(maxPooledCapacity) + 1;
+		this.sizeClasses = new SizeClass[count];
+		for (int i = 0; i < count; i++) {
+			this.sizeClasses[i] = new SizeClass(1 << (MIN_SIZE_CLASS_SHIFT + i), maxBuffersPerSizeClass);
+		}
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' should not be negative");
+		ByteBuffer chunk = acquireChunk(initialCapacity);
+		this.allocatedBufferCount.incrementAndGet();
+		return new PooledDefaultDataBuffer(this, chunk, initialCapacity);
+	}
+
+	/**
+	 * Return a chunk of memory with at least the given capacity, from the pool
+	 * if possible.
+	 */
+	ByteBuffer acquireChunk(int capacity) {
+		SizeClass sizeClass = getSizeClass(capacity);
+		ByteBuffer chunk = (sizeClass != null ? sizeClass.poll() : null);
+		if (chunk != null) {
+			this.poolHitCount.increment();
+			((Buffer) chunk).clear();
+			return chunk;
+		}
+		this.poolMissCount.increment();
+		int size = (sizeClass != null ? sizeClass.size : capacity);
+		return (this.preferDirect ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size));
+	}
+
+	/**
+	 * Return a chunk of memory obtained from {@link #acquireChunk} to the pool.
+	 */
+	void recycleChunk(ByteBuffer chunk) {
+		SizeClass sizeClass = getSizeClass(chunk.capacity());
+		if (sizeClass != null && sizeClass.size == chunk.capacity()) {
+			sizeClass.offer(chunk);
+		}
+	}
+
+	/**
+	 * Called when the reference count of a buffer from this factory drops to 0.
+	 */
+	void release() {
+		this.allocatedBufferCount.decrementAndGet();
+	}
+
+	@Nullable
+	private SizeClass getSizeClass(int capacity) {
+		int index = sizeClassIndex(capacity);
+		return (index < this.sizeClasses.length ? this.sizeClasses[index] : null);
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= (1 << MIN_SIZE_CLASS_SHIFT)) {
+			return 0;
+		}
+		return (Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1)) - MIN_SIZE_CLASS_SHIFT;
+	}
+
+
+	/**
+	 * Return the number of buffers allocated by this factory that have not been
+	 * released yet.
+	 */
+	public long getAllocatedBufferCount() {
+		return this.allocatedBufferCount.get();
+	}
+
+	/**
+	 * Return the number of free buffers currently retained in the pool.
+	 */
+	public int getPooledBufferCount() {
+		int count = 0;
+		for (SizeClass sizeClass : this.sizeClasses) {
+			count += sizeClass.count.get();
+		}
+		return count;
+	}
+
+	/**
+	 * Return the number of bytes currently retained in the pool.
+	 */
+	public long getPooledMemory() {
+		long memory = 0;
+		for (SizeClass sizeClass : this.sizeClasses) {
+			memory += (long) sizeClass.count.get() * sizeClass.size;
+		}
+		return memory;
+	}
+
+	/**
+	 * Return how many times memory was served from the pool, including memory
+	 * for growing the capacity of a buffer.
+	 */
+	public long getPoolHitCount() {
+		return this.poolHitCount.sum();
+	}
+
+	/**
+	 * Return how many times new memory had to be allocated.
+	 */
+	public long getPoolMissCount() {
+		return this.poolMissCount.sum();
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.sizeClasses[this.sizeClasses.length - 1].size + ")";
+	}
+
+
+	/**
+	 * Free buffers of a single power-of-two size.
+	 */
+	private static class SizeClass {
+
+		final int size;
+
+		private final int maxCount;
+
+		private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+		final AtomicInteger count = new AtomicInteger();
+
+		SizeClass(int size, int maxCount) {
+			this.size = size;
+			this.maxCount = maxCount;
+		}
+
+		@Nullable
+		ByteBuffer poll() {
+			ByteBuffer buffer = this.buffers.poll();
+			if (buffer != null) {
+				this.count.decrementAndGet();
+			}
+			return buffer;
+		}
+
+		void offer(ByteBuffer buffer) {
+			if (this.count.incrementAndGet() <= this.maxCount) {
+				this.buffers.offer(buffer);
+			}
+			else {
+				this.count.decrementAndGet();
+			}
+		}
+	}
+
+}
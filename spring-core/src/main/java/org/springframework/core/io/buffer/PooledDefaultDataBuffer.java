@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DefaultDataBuffer} whose memory is obtained from and returned to a
+ * {@link PooledDataBufferFactory}. Slices share the reference count of the
+ * buffer they were created from.
+ *
+ * <p>The memory itself is reference counted per chunk: the buffer holds a
+ * reference to its current chunk, and slices hold a reference to the chunk they
+ * were created from until the shared reference count drops to 0. A chunk
+ * replaced when {@linkplain #capacity(int) growing} the buffer is therefore only
+ * recycled once no slice can access it anymore.
+ *
+ * @since 5.1.17
+ * @see PooledDataBufferFactory
+ */
+final class PooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+	private final PooledDataBufferFactory pool;
+
+	private final AtomicInteger refCount = new AtomicInteger(1);
+
+	private Chunk chunk;
+
+	private final List<Chunk> slicedChunks = new ArrayList<>(1);
+
+
+	PooledDefaultDataBuffer(PooledDataBufferFactory pool, ByteBuffer chunk, int capacity) {
+		super(pool, view(chunk, capacity));
+		this.pool = pool;
+		this.chunk = new Chunk(chunk);
+	}
+
+	private static ByteBuffer view(ByteBuffer chunk, int capacity) {
+		ByteBuffer duplicate = chunk.duplicate();
+		((Buffer) duplicate).position(0).limit(capacity);
+		return duplicate.slice();
+	}
+
+
+	@Override
+	public DefaultDataBuffer capacity(int newCapacity) {
+		Chunk oldChunk = this.chunk;
+		super.capacity(newCapacity);
+		if (this.chunk != oldChunk) {
+			oldChunk.release();
+		}
+		return this;
+	}
+
+	@Override
+	ByteBuffer allocate(int capacity, boolean direct) {
+		ByteBuffer memory = this.pool.acquireChunk(capacity);
+		this.chunk = new Chunk(memory);
+		return view(memory, capacity);
+	}
+
+	@Override
+	public DefaultDataBuffer slice(int index, int length) {
+		DefaultDataBuffer slice = super.slice(index, length);
+		if (!this.slicedChunks.contains(this.chunk)) {
+			this.chunk.retain();
+			this.slicedChunks.add(this.chunk);
+		}
+		return new PooledSlice(slice.getNativeBuffer(), length);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		InputStream inputStream = asInputStream();
+		return (releaseOnClose ? new ReleasingInputStream(inputStream) : inputStream);
+	}
+
+	@Override
+	public boolean isAllocated() {
+		return this.refCount.get() > 0;
+	}
+
+	@Override
+	public PooledDataBuffer retain() {
+		for (;;) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Cannot retain buffer that has been released: " + this);
+			}
+			if (this.refCount.compareAndSet(count, count + 1)) {
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public boolean release() {
+		for (;;) {
+			int count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released: " + this);
+			}
+			if (this.refCount.compareAndSet(count, count - 1)) {
+				if (count == 1) {
+					this.pool.release();
+					this.chunk.release();
+					for (Chunk slicedChunk : this.slicedChunks) {
+						slicedChunk.release();
+					}
+					this.slicedChunks.clear();
+					return true;
+				}
+				return false;
+			}
+		}
+	}
+
+
+	/**
+	 * Memory obtained from the pool, recycled when its last reference is released.
+	 */
+	private class Chunk {
+
+		private final ByteBuffer memory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		Chunk(ByteBuffer memory) {
+			this.memory = memory;
+		}
+
+		void retain() {
+			this.refCount.incrementAndGet();
+		}
+
+		void release() {
+			if (this.refCount.decrementAndGet() == 0) {
+				PooledDefaultDataBuffer.this.pool.recycleChunk(this.memory);
+			}
+		}
+	}
+
+
+	/**
+	 * InputStream that releases the buffer when closed.
+	 */
+	private class ReleasingInputStream extends FilterInputStream {
+
+		private boolean closed;
+
+		ReleasingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				release();
+			}
+		}
+	}
+
+
+	/**
+	 * Slice sharing the memory and the reference count of the enclosing buffer.
+	 */
+	private class PooledSlice extends SlicedDefaultDataBuffer implements PooledDataBuffer {
+
+		PooledSlice(ByteBuffer byteBuffer, int length) {
+			super(byteBuffer, PooledDefaultDataBuffer.this.pool, length);
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			DefaultDataBuffer slice = super.slice(index, length);
+			return new PooledSlice(slice.getNativeBuffer(), length);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return PooledDefaultDataBuffer.this.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			PooledDefaultDataBuffer.this.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return PooledDefaultDataBuffer.this.release();
+		}
+	}
+
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.core.io.buffer.TrackingDataBufferFactory.Allocation;
+
+/**
+ * {@link PooledDataBuffer} created by {@link TrackingDataBufferFactory},
+ * counting references on its own and reporting its release to the factory.
+ * Slices are tracked buffers as well, sharing the reference count and the
+ * allocation of the buffer they were created from.
+ *
+ * @since 5.1.17
+ */
+final class TrackedDataBuffer implements PooledDataBuffer {
+
+	private final DataBuffer delegate;
+
+	private final TrackingDataBufferFactory dataBufferFactory;
+
+	private final Allocation allocation;
+
+	private final AtomicInteger refCount;
+
+
+	TrackedDataBuffer(DataBuffer delegate, TrackingDataBufferFactory dataBufferFactory, Allocation allocation) {
+		this(delegate, dataBufferFactory, allocation, new AtomicInteger(1));
+	}
+
+	private TrackedDataBuffer(DataBuffer delegate, TrackingDataBufferFactory dataBufferFactory,
+			Allocation allocation, AtomicInteger refCount) {
+
+		this.delegate = delegate;
+		this.dataBufferFactory = dataBufferFactory;
+		this.allocation = allocation;
+		this.refCount = refCount;
+	}
+
+
+	DataBuffer getDelegate() {
+		return this.delegate;
+	}
+
+	Allocation getAllocation() {
+		return this.allocation;
+	}
+
+	/**
+	 * Give up a reference to this buffer without releasing the delegate, as its
+	 * memory was handed over to another buffer, and stop tracking it with the
+	 * last reference.
+	 */
+	void untrack() {
+		int count;
+		do {
+			count = this.refCount.get();
+			if (count <= 0) {
+				return;
+			}
+		}
+		while (!this.refCount.compareAndSet(count, count - 1));
+		if (count == 1) {
+			this.dataBufferFactory.onReleased(this.allocation);
+		}
+	}
+
+	@Override
+	public boolean isAllocated() {
+		return this.refCount.get() > 0;
+	}
+
+	@Override
+	public PooledDataBuffer retain() {
+		int count;
+		do {
+			count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Cannot retain released buffer: " + this);
+			}
+		}
+		while (!this.refCount.compareAndSet(count, count + 1));
+		DataBufferUtils.retain(this.delegate);
+		return this;
+	}
+
+	@Override
+	public boolean release() {
+		int count;
+		do {
+			count = this.refCount.get();
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer already released: " + this);
+			}
+		}
+		while (!this.refCount.compareAndSet(count, count - 1));
+		if (count == 1) {
+			this.dataBufferFactory.onReleased(this.allocation);
+		}
+		DataBufferUtils.release(this.delegate);
+		return (count == 1);
+	}
+
+	@Override
+	public TrackingDataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+
+	// Delegation, returning this buffer rather than the delegate
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		return this.delegate.indexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		return this.delegate.lastIndexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.delegate.readableByteCount();
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.delegate.writableByteCount();
+	}
+
+	@Override
+	public int capacity() {
+		return this.delegate.capacity();
+	}
+
+	@Override
+	public DataBuffer capacity(int capacity) {
+		this.delegate.capacity(capacity);
+		return this;
+	}
+
+	@Override
+	public DataBuffer ensureCapacity(int capacity) {
+		this.delegate.ensureCapacity(capacity);
+		return this;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.delegate.readPosition();
+	}
+
+	@Override
+	public DataBuffer readPosition(int readPosition) {
+		this.delegate.readPosition(readPosition);
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.delegate.writePosition();
+	}
+
+	@Override
+	public DataBuffer writePosition(int writePosition) {
+		this.delegate.writePosition(writePosition);
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		return this.delegate.getByte(index);
+	}
+
+	@Override
+	public byte read() {
+		return this.delegate.read();
+	}
+
+	@Override
+	public DataBuffer read(byte[] destination) {
+		this.delegate.read(destination);
+		return this;
+	}
+
+	@Override
+	public DataBuffer read(byte[] destination, int offset, int length) {
+		this.delegate.read(destination, offset, length);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte b) {
+		this.delegate.write(b);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte[] source) {
+		this.delegate.write(source);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte[] source, int offset, int length) {
+		this.delegate.write(source, offset, length);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(DataBuffer... buffers) {
+		DataBuffer[] delegateBuffers = new DataBuffer[buffers.length];
+		for (int i = 0; i < buffers.length; i++) {
+			DataBuffer buffer = buffers[i];
+			delegateBuffers[i] = (buffer instanceof TrackedDataBuffer ?
+					((TrackedDataBuffer) buffer).getDelegate() : buffer);
+		}
+		this.delegate.write(delegateBuffers);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(ByteBuffer... buffers) {
+		this.delegate.write(buffers);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(CharSequence charSequence, Charset charset) {
+		this.delegate.write(charSequence, charset);
+		return this;
+	}
+
+	@Override
+	public DataBuffer slice(int index, int length) {
+		return new TrackedDataBuffer(this.delegate.slice(index, length),
+				this.dataBufferFactory, this.allocation, this.refCount);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return this.delegate.asByteBuffer();
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		return this.delegate.asByteBuffer(index, length);
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return this.delegate.asInputStream();
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		InputStream inputStream = this.delegate.asInputStream();
+		if (!releaseOnClose) {
+			return inputStream;
+		}
+		return new FilterInputStream(inputStream) {
+			private boolean closed;
+			@Override
+			public void close() throws IOException {
+				if (!this.closed) {
+					this.closed = true;
+					release();
+				}
+			}
+		};
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return this.delegate.asOutputStream();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || (other instanceof TrackedDataBuffer &&
+				this.delegate.equals(((TrackedDataBuffer) other).delegate)));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.delegate.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "Tracked" + this.delegate;
+	}
+
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBufferFactory} decorator that keeps track of the buffers it hands
+ * out, in order to find buffers that are never
+ * {@linkplain DataBufferUtils#release(DataBuffer) released}.
+ *
+ * <p>Every buffer allocated, wrapped or joined through this factory is a
+ * {@link PooledDataBuffer} that counts references independently of the
+ * delegate buffer, so that leaks are detected for unpooled delegates such as
+ * {@link DefaultDataBufferFactory} too. Each buffer is attributed to an
+ * <em>owner</em>, typically the class name of the {@code Encoder},
+ * {@code Decoder} or {@code HttpMessageReader} working with it: use
+ * {@link #withOwner(String)} to obtain a view of this factory that attributes
+ * its allocations to a given owner, and {@link #claim(DataBuffer, String)} to
+ * transfer a buffer received from elsewhere. Outstanding buffers and bytes can
+ * then be queried per owner through {@link #getOutstandingUsage()}.
+ *
+ * <p>{@link Listener Listeners} are notified whenever a tracked buffer is
+ * allocated or released, e.g. to export allocation metrics. With
+ * {@linkplain #setRecordAllocationSites(boolean) allocation site recording}
+ * enabled, the stack trace of each allocation is captured and reported by
+ * {@link #checkForLeaks()}, which makes this factory suitable for asserting
+ * that a test does not leak buffers, for instance through the
+ * {@code dataBufferFactory} option of {@code WebTestClient}.
+ *
+ * <p>Tracking adds per-buffer overhead, and is meant for tests and
+ * diagnostics rather than for production use.
+ *
+ * @since 5.1.17
+ * @see PooledDataBuffer
+ */
+public class TrackingDataBufferFactory implements DataBufferFactory {
+
+	/**
+	 * Owner of buffers allocated through this factory itself, rather than
+	 * through one of its {@linkplain #withOwner(String) owner views}.
+	 */
+	public static final String UNKNOWN_OWNER = "unknown";
+
+
+	private final DataBufferFactory delegate;
+
+	private final String owner;
+
+	private final Tracker tracker;
+
+
+	/**
+	 * Create a new {@code TrackingDataBufferFactory} that wraps a
+	 * {@link DefaultDataBufferFactory}.
+	 */
+	public TrackingDataBufferFactory() {
+		this(new DefaultDataBufferFactory());
+	}
+
+	/**
+	 * Create a new {@code TrackingDataBufferFactory} that wraps the given factory.
+	 * @param delegate the factory to allocate buffers with
+	 */
+	public TrackingDataBufferFactory(DataBufferFactory delegate) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		Assert.isTrue(!(delegate instanceof TrackingDataBufferFactory), "Delegate must not be tracking already");
+		this.delegate = delegate;
+		this.owner = UNKNOWN_OWNER;
+		this.tracker = new Tracker();
+	}
+
+	private TrackingDataBufferFactory(TrackingDataBufferFactory parent, String owner) {
+		this.delegate = parent.delegate;
+		this.owner = owner;
+		this.tracker = parent.tracker;
+	}
+
+
+	/**
+	 * Return the factory that this factory allocates buffers with.
+	 */
+	public DataBufferFactory getDelegate() {
+		return this.delegate;
+	}
+
+	/**
+	 * Return the owner that buffers allocated through this factory are
+	 * attributed to.
+	 */
+	public String getOwner() {
+		return this.owner;
+	}
+
+	/**
+	 * Return a view of this factory that attributes the buffers allocated
+	 * through it to the given owner. All views share the same tracking state
+	 * and listeners.
+	 * @param owner the owner, typically a codec class name
+	 * @return the owner view
+	 */
+	public TrackingDataBufferFactory withOwner(String owner) {
+		Assert.hasText(owner, "Owner must not be empty");
+		return (owner.equals(this.owner) ? this : new TrackingDataBufferFactory(this, owner));
+	}
+
+	/**
+	 * Whether to capture the stack trace of every allocation, to be reported
+	 * for leaked buffers. This is expensive, and disabled by default.
+	 */
+	public void setRecordAllocationSites(boolean recordAllocationSites) {
+		this.tracker.recordAllocationSites = recordAllocationSites;
+	}
+
+	/**
+	 * Whether the stack trace of every allocation is captured.
+	 */
+	public boolean isRecordAllocationSites() {
+		return this.tracker.recordAllocationSites;
+	}
+
+	/**
+	 * Register a listener to be notified of allocations and releases.
+	 */
+	public void addListener(Listener listener) {
+		Assert.notNull(listener, "Listener must not be null");
+		this.tracker.listeners.add(listener);
+	}
+
+	/**
+	 * Unregister a listener previously registered through
+	 * {@link #addListener(Listener)}.
+	 */
+	public void removeListener(Listener listener) {
+		this.tracker.listeners.remove(listener);
+	}
+
+
+	/**
+	 * Return the total number of buffers tracked so far.
+	 */
+	public long getTotalBufferCount() {
+		return this.tracker.totalBufferCount.get();
+	}
+
+	/**
+	 * Return the number of buffers that have not been released yet.
+	 */
+	public int getOutstandingBufferCount() {
+		return this.tracker.outstanding.size();
+	}
+
+	/**
+	 * Return the current capacity of all buffers that have not been released yet.
+	 */
+	public long getOutstandingByteCount() {
+		long result = 0;
+		for (Allocation allocation : this.tracker.outstanding) {
+			result += allocation.getCapacity();
+		}
+		return result;
+	}
+
+	/**
+	 * Return the buffers that have not been released yet, in no particular order.
+	 */
+	public List<Allocation> getOutstandingAllocations() {
+		return new ArrayList<>(this.tracker.outstanding);
+	}
+
+	/**
+	 * Return the buffers and bytes that have not been released yet, keyed and
+	 * sorted by owner.
+	 */
+	public Map<String, Usage> getOutstandingUsage() {
+		Map<String, Usage> result = new TreeMap<>();
+		for (Allocation allocation : this.tracker.outstanding) {
+			result.computeIfAbsent(allocation.getOwner(), owner -> new Usage()).add(allocation);
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Check that all buffers tracked by this factory have been released,
+	 * waiting up to 5 seconds for asynchronous releases to happen.
+	 * @throws IllegalStateException describing the outstanding buffers per
+	 * owner, with the first allocation site (if recorded) as cause
+	 * @see #checkForLeaks(Duration)
+	 */
+	public void checkForLeaks() {
+		checkForLeaks(Duration.ofSeconds(5));
+	}
+
+	/**
+	 * Check that all buffers tracked by this factory have been released,
+	 * waiting up to the given duration for asynchronous releases to happen.
+	 * @param timeout how long to wait for outstanding buffers to be released
+	 * @throws IllegalStateException describing the outstanding buffers per
+	 * owner, with the first allocation site (if recorded) as cause
+	 */
+	public void checkForLeaks(Duration timeout) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		while (!this.tracker.outstanding.isEmpty() && System.nanoTime() < deadline) {
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		List<Allocation> leaks = getOutstandingAllocations();
+		if (leaks.isEmpty()) {
+			return;
+		}
+		Throwable allocationSite = null;
+		for (Allocation leak : leaks) {
+			if (leak.getAllocationSite() != null) {
+				allocationSite = leak.getAllocationSite();
+				break;
+			}
+		}
+		throw new IllegalStateException(leaks.size() + " DataBuffer leak(s) detected: " +
+				getOutstandingUsage(), allocationSite);
+	}
+
+
+	@Override
+	public DataBuffer allocateBuffer() {
+		return track(this.delegate.allocateBuffer());
+	}
+
+	@Override
+	public DataBuffer allocateBuffer(int initialCapacity) {
+		return track(this.delegate.allocateBuffer(initialCapacity));
+	}
+
+	@Override
+	public DataBuffer wrap(ByteBuffer byteBuffer) {
+		return track(this.delegate.wrap(byteBuffer));
+	}
+
+	@Override
+	public DataBuffer wrap(byte[] bytes) {
+		return track(this.delegate.wrap(bytes));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Tracked buffers among the given buffers are considered released, and
+	 * the returned buffer is tracked in their place, attributed to the owner
+	 * of the first tracked buffer.
+	 */
+	@Override
+	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		String owner = null;
+		List<DataBuffer> delegateBuffers = new ArrayList<>(dataBuffers.size());
+		for (DataBuffer dataBuffer : dataBuffers) {
+			if (dataBuffer instanceof TrackedDataBuffer) {
+				TrackedDataBuffer tracked = (TrackedDataBuffer) dataBuffer;
+				if (owner == null) {
+					owner = tracked.getAllocation().getOwner();
+				}
+				tracked.untrack();
+				delegateBuffers.add(tracked.getDelegate());
+			}
+			else {
+				delegateBuffers.add(dataBuffer);
+			}
+		}
+		DataBuffer joined = this.delegate.join(delegateBuffers);
+		return (owner != null ? withOwner(owner).track(joined) : track(joined));
+	}
+
+	private DataBuffer track(DataBuffer delegateBuffer) {
+		Throwable allocationSite = (this.tracker.recordAllocationSites ?
+				new Throwable("DataBuffer allocated by " + this.owner) : null);
+		Allocation allocation = new Allocation(this.owner, delegateBuffer, allocationSite);
+		this.tracker.track(allocation);
+		return new TrackedDataBuffer(delegateBuffer, this, allocation);
+	}
+
+	void onReleased(Allocation allocation) {
+		this.tracker.untrack(allocation);
+	}
+
+	@Override
+	public String toString() {
+		return "TrackingDataBufferFactory [owner='" + this.owner + "', outstanding=" +
+				getOutstandingBufferCount() + ", delegate=" + this.delegate + "]";
+	}
+
+
+	/**
+	 * Return an owner view of the given factory if it is a
+	 * {@code TrackingDataBufferFactory}, or the factory itself otherwise.
+	 * @param bufferFactory the factory to attribute allocations for
+	 * @param owner the owner, typically a codec class name
+	 * @return the factory to allocate buffers with
+	 * @see #withOwner(String)
+	 */
+	public static DataBufferFactory forOwner(DataBufferFactory bufferFactory, String owner) {
+		return (bufferFactory instanceof TrackingDataBufferFactory ?
+				((TrackingDataBufferFactory) bufferFactory).withOwner(owner) : bufferFactory);
+	}
+
+	/**
+	 * Attribute the given buffer to the given owner, if it was obtained from a
+	 * {@code TrackingDataBufferFactory}. Used by decoders and message readers
+	 * to take responsibility for the buffers they consume.
+	 * @param dataBuffer the buffer to claim
+	 * @param owner the new owner, typically a codec class name
+	 * @return the given buffer
+	 */
+	public static <T extends DataBuffer> T claim(T dataBuffer, String owner) {
+		if (dataBuffer instanceof TrackedDataBuffer) {
+			((TrackedDataBuffer) dataBuffer).getAllocation().owner = owner;
+		}
+		return dataBuffer;
+	}
+
+
+	/**
+	 * Callback interface for allocations and releases of tracked buffers.
+	 * Invoked on the thread that allocates or releases the buffer.
+	 */
+	public interface Listener {
+
+		/**
+		 * Invoked when a buffer was allocated, wrapped or joined.
+		 */
+		default void onAllocated(Allocation allocation) {
+		}
+
+		/**
+		 * Invoked when the last reference to a buffer was released.
+		 */
+		default void onReleased(Allocation allocation) {
+		}
+	}
+
+
+	/**
+	 * Describes a buffer obtained from a {@code TrackingDataBufferFactory}.
+	 */
+	public static final class Allocation {
+
+		volatile String owner;
+
+		private final DataBuffer buffer;
+
+		@Nullable
+		private final Throwable allocationSite;
+
+		Allocation(String owner, DataBuffer buffer, @Nullable Throwable allocationSite) {
+			this.owner = owner;
+			this.buffer = buffer;
+			this.allocationSite = allocationSite;
+		}
+
+		/**
+		 * Return the owner the buffer is currently attributed to.
+		 */
+		public String getOwner() {
+			return this.owner;
+		}
+
+		/**
+		 * Return the current capacity of the buffer.
+		 */
+		public int getCapacity() {
+			return this.buffer.capacity();
+		}
+
+		/**
+		 * Return the stack trace of the allocation, if
+		 * {@linkplain #setRecordAllocationSites(boolean) recorded}.
+		 */
+		@Nullable
+		public Throwable getAllocationSite() {
+			return this.allocationSite;
+		}
+
+		@Override
+		public String toString() {
+			return "Allocation [owner='" + this.owner + "', buffer=" + this.buffer + "]";
+		}
+	}
+
+
+	/**
+	 * Number of buffers and bytes outstanding for an owner.
+	 */
+	public static final class Usage {
+
+		private int bufferCount;
+
+		private long byteCount;
+
+		void add(Allocation allocation) {
+			this.bufferCount++;
+			this.byteCount += allocation.getCapacity();
+		}
+
+		/**
+		 * Return the number of outstanding buffers.
+		 */
+		public int getBufferCount() {
+			return this.bufferCount;
+		}
+
+		/**
+		 * Return the current capacity of the outstanding buffers.
+		 */
+		public long getByteCount() {
+			return this.byteCount;
+		}
+
+		@Override
+		public String toString() {
+			return this.bufferCount + " buffer(s) / " + this.byteCount + " byte(s)";
+		}
+	}
+
+
+	/**
+	 * Tracking state shared between a factory and its owner views.
+	 */
+	private static class Tracker {
+
+		final Set<Allocation> outstanding = ConcurrentHashMap.newKeySet();
+
+		final AtomicLong totalBufferCount = new AtomicLong();
+
+		final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+		volatile boolean recordAllocationSites;
+
+		void track(Allocation allocation) {
+			this.outstanding.add(allocation);
+			this.totalBufferCount.incrementAndGet();
+			for (Listener listener : this.listeners) {
+				listener.onAllocated(allocation);
+			}
+		}
+
+		void untrack(Allocation allocation) {
+			if (this.outstanding.remove(allocation)) {
+				for (Listener listener : this.listeners) {
+					listener.onReleased(allocation);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.lang.reflect.Array;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Bounded, thread-safe cache with a <em>least recently used</em> (LRU) eviction
+ * policy, as an alternative to an unbounded {@code ConcurrentHashMap} for caches
+ * whose keys may be of high cardinality, e.g. derived from request input.
+ *
+ * <p>Entries are spread across lock-striped segments, each maintaining its own
+ * access order and its own share of the overall size limit. The eviction order
+ * is therefore an approximation of a global LRU order, in exchange for
+ * contention being limited to the threads that access the same segment.
+ * Once the size limit is reached, the least recently used entries of a segment
+ * are evicted rather than caching being given up entirely.
+ *
+ * <p>Lookups do not lock: values are read from a {@code ConcurrentHashMap},
+ * and accesses are queued up, to be applied to the access order whenever the
+ * lock of the segment is available. Queued accesses are always applied before
+ * entries get evicted, so the eviction order within a segment remains exact.
+ *
+ * <p>Values are generated outside of any lock, so a slow generator does not
+ * hold up other keys. Concurrent misses for the same key may generate a value
+ * more than once, in which case the first value to be cached is returned to
+ * all callers. Neither {@code null} keys nor {@code null} values are supported.
+ *
+ * <p>The cache keeps track of its hits, misses and evictions, for example to
+ * be exposed for monitoring purposes.
+ *
+ * @since 5.1.17
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see ConcurrentReferenceHashMap
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private static final int MAXIMUM_CONCURRENCY_LEVEL = 1 << 16;
+
+	private static final int MAXIMUM_PENDING_ACCESSES = 1024;
+
+
+	private final int sizeLimit;
+
+	private final Segment[] segments;
+
+	@Nullable
+	private final BiConsumer<K, V> evictionListener;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new {@code ConcurrentLruCache} with the given size limit.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 */
+	public ConcurrentLruCache(int sizeLimit) {
+		this(sizeLimit, DEFAULT_CONCURRENCY_LEVEL, null);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentLruCache} with the given size limit
+	 * and concurrency level.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param concurrencyLevel the expected number of threads that will
+	 * concurrently access the cache, i.e. the number of lock stripes
+	 */
+	public ConcurrentLruCache(int sizeLimit, int concurrencyLevel) {
+		this(sizeLimit, concurrencyLevel, null);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentLruCache} with the given size limit,
+	 * concurrency level and eviction listener.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param concurrencyLevel the expected number of threads that will
+	 * concurrently access the cache, i.e. the number of lock stripes
+	 * @param evictionListener a callback for entries evicted because of the
+	 * size limit (not for entries that are explicitly removed), invoked by
+	 * the thread that caused the eviction without holding any lock
+	 */
+	public ConcurrentLruCache(int sizeLimit, int concurrencyLevel, @Nullable BiConsumer<K, V> evictionListener) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be positive");
+		this.sizeLimit = sizeLimit;
+		this.evictionListener = evictionListener;
+		int size = 1;
+		int maxSize = Math.min(Math.min(concurrencyLevel, MAXIMUM_CONCURRENCY_LEVEL), Math.max(sizeLimit, 1));
+		while (size < maxSize) {
+			size <<= 1;
+		}
+		if (size > maxSize) {
+			size >>= 1;
+		}
+		@SuppressWarnings("unchecked")
+		Segment[] segments = (Segment[]) Array.newInstance(Segment.class, size);
+		for (int i = 0; i < size; i++) {
+			segments[i] = new Segment(sizeLimit / size + (i < sizeLimit % size ? 1 : 0));
+		}
+		this.segments = segments;
+	}
+
+
+	/**
+	 * Return the value for the given key, generating and caching it
+	 * through the given function if not present yet.
+	 * @param key the key to look up
+	 * @param generator the function to generate the value for a missing key
+	 * (the value is not cached if the function returns {@code null})
+	 * @return the cached or generated value
+	 */
+	@Nullable
+	public V get(K key, Function<? super K, ? extends V> generator) {
+		Segment segment = getSegment(key);
+		V value = segment.get(key);
+		if (value != null) {
+			this.hitCount.increment();
+			return value;
+		}
+		this.missCount.increment();
+		value = generator.apply(key);
+		if (value == null) {
+			return null;
+		}
+		V existing = segment.put(key, value, true);
+		return (existing != null ? existing : value);
+	}
+
+	/**
+	 * Return the value for the given key, marking it as recently used.
+	 * @param key the key to look up
+	 * @return the cached value, or {@code null} if none
+	 */
+	@Nullable
+	public V get(K key) {
+		V value = getSegment(key).get(key);
+		if (value != null) {
+			this.hitCount.increment();
+		}
+		else {
+			this.missCount.increment();
+		}
+		return value;
+	}
+
+	/**
+	 * Determine whether the cache contains a value for the given key,
+	 * without affecting the access order or the statistics.
+	 * @param key the key to check
+	 */
+	public boolean contains(K key) {
+		return getSegment(key).contains(key);
+	}
+
+	/**
+	 * Cache the given value for the given key, replacing any existing value.
+	 * @param key the key to cache the value for
+	 * @param value the value to cache
+	 * @return the previous value, or {@code null} if none
+	 */
+	@Nullable
+	public V put(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		return getSegment(key).put(key, value, false);
+	}
+
+	/**
+	 * Cache the given value for the given key, unless a value is present already.
+	 * @param key the key to cache the value for
+	 * @param value the value to cache
+	 * @return the existing value, or {@code null} if the given value got cached
+	 */
+	@Nullable
+	public V putIfAbsent(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		return getSegment(key).put(key, value, true);
+	}
+
+	/**
+	 * Remove the value for the given key, if any.
+	 * @param key the key to remove
+	 * @return the removed value, or {@code null} if none
+	 */
+	@Nullable
+	public V remove(K key) {
+		return getSegment(key).remove(key);
+	}
+
+	/**
+	 * Remove all entries from the cache.
+	 * <p>The statistics are kept: see {@link #clearStatistics()}.
+	 */
+	public void clear() {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * Return a snapshot of the keys in the cache, from least recently used to
+	 * most recently used within each lock stripe.
+	 */
+	public Set<K> keySet() {
+		Set<K> keys = new LinkedHashSet<>(size());
+		for (Segment segment : this.segments) {
+			segment.collectKeys(keys);
+		}
+		return keys;
+	}
+
+	/**
+	 * Return the current number of entries in the cache.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache.
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries evicted because of the size limit.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Reset the hit, miss and eviction counts.
+	 */
+	public void clearStatistics() {
+		this.hitCount.reset();
+		this.missCount.reset();
+		this.evictionCount.reset();
+	}
+
+	private Segment getSegment(K key) {
+		Assert.notNull(key, "Key must not be null");
+		int hash = key.hashCode();
+		// Spread bits so that the segment index does not only depend on the lowest bits
+		hash ^= (hash >>> 16);
+		hash *= 0x85ebca6b;
+		hash ^= (hash >>> 13);
+		return this.segments[hash & (this.segments.length - 1)];
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [size=" + size() + ", sizeLimit=" + this.sizeLimit +
+				", hitCount=" + getHitCount() + ", missCount=" + getMissCount() +
+				", evictionCount=" + getEvictionCount() + "]";
+	}
+
+
+	/**
+	 * A single lock stripe with its own share of the size limit, keeping its
+	 * values in a map for lookups without locking, and their access order in
+	 * a separate map guarded by the lock.
+	 */
+	@SuppressWarnings("serial")
+	private final class Segment extends ReentrantLock {
+
+		private final int sizeLimit;
+
+		private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>(16);
+
+		private final LinkedHashMap<K, Boolean> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+
+		/**
+		 * Keys looked up since the access order was last brought up to date.
+		 */
+		private final Queue<K> pendingAccesses = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger pendingAccessCount = new AtomicInteger();
+
+		Segment(int sizeLimit) {
+			this.sizeLimit = sizeLimit;
+		}
+
+		@Nullable
+		V get(K key) {
+			V value = this.entries.get(key);
+			if (value != null) {
+				this.pendingAccesses.add(key);
+				if (this.pendingAccessCount.incrementAndGet() >= MAXIMUM_PENDING_ACCESSES) {
+					// The lock has been busy for a while: wait for it rather than queueing up further
+					lock();
+				}
+				else if (!tryLock()) {
+					return value;
+				}
+				try {
+					applyPendingAccesses();
+				}
+				finally {
+					unlock();
+				}
+			}
+			return value;
+		}
+
+		boolean contains(K key) {
+			return this.entries.containsKey(key);
+		}
+
+		int size() {
+			return this.entries.size();
+		}
+
+		/**
+		 * Bring the access order up to date, to be called with the lock held.
+		 */
+		private void applyPendingAccesses() {
+			K key;
+			while ((key = this.pendingAccesses.poll()) != null) {
+				this.pendingAccessCount.decrementAndGet();
+				this.accessOrder.get(key);
+			}
+		}
+
+		@Nullable
+		V put(K key, V value, boolean onlyIfAbsent) {
+			if (this.sizeLimit == 0) {
+				return null;
+			}
+			V previous;
+			List<Map.Entry<K, V>> evicted = Collections.emptyList();
+			lock();
+			try {
+				applyPendingAccesses();
+				previous = (onlyIfAbsent ? this.entries.putIfAbsent(key, value) : this.entries.put(key, value));
+				this.accessOrder.put(key, Boolean.TRUE);
+				if (this.accessOrder.size() > this.sizeLimit) {
+					evicted = new ArrayList<>(1);
+					Iterator<K> iterator = this.accessOrder.keySet().iterator();
+					while (this.accessOrder.size() > this.sizeLimit) {
+						K eldest = iterator.next();
+						iterator.remove();
+						V evictedValue = this.entries.remove(eldest);
+						if (evictedValue != null) {
+							evicted.add(new AbstractMap.SimpleImmutableEntry<>(eldest, evictedValue));
+						}
+					}
+				}
+			}
+			finally {
+				unlock();
+			}
+			if (!evicted.isEmpty()) {
+				evictionCount.add(evicted.size());
+				if (evictionListener != null) {
+					for (Map.Entry<K, V> entry : evicted) {
+						evictionListener.accept(entry.getKey(), entry.getValue());
+					}
+				}
+			}
+			return previous;
+		}
+
+		@Nullable
+		V remove(K key) {
+			lock();
+			try {
+				this.accessOrder.remove(key);
+				return this.entries.remove(key);
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		void collectKeys(Set<K> keys) {
+			lock();
+			try {
+				applyPendingAccesses();
+				keys.addAll(this.accessOrder.keySet());
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		void clear() {
+			lock();
+			try {
+				applyPendingAccesses();
+				this.accessOrder.clear();
+				this.entries.clear();
+			}
+			finally {
+				unlock();
+			}
+		}
+	}
+
+}
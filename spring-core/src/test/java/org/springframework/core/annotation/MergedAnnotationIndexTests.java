@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MergedAnnotationIndex}.
+ *
+ * @since 5.1.17
+ */
+public class MergedAnnotationIndexTests {
+
+	@After
+	public void clearCache() {
+		AnnotationUtils.clearCache();
+	}
+
+
+	@Test
+	public void presentTypesIncludeDirectAndMetaAnnotations() {
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(ComposedClass.class);
+		assertTrue(index.isPresent(Composed.class.getName()));
+		assertTrue(index.isPresent(Meta.class.getName()));
+		assertFalse(index.isPresent(Unused.class.getName()));
+		assertFalse(index.isPresent(Retention.class.getName()));
+	}
+
+	@Test
+	public void metaPresentTypesExcludeDirectAnnotations() {
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(ComposedClass.class);
+		assertFalse(index.isMetaPresent(Composed.class.getName()));
+		assertTrue(index.isMetaPresent(Meta.class.getName()));
+	}
+
+	@Test
+	public void presentTypesIncludeInheritedAnnotations() {
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(SubClass.class);
+		assertTrue(index.isPresent(Composed.class.getName()));
+		assertTrue(index.isPresent(Meta.class.getName()));
+		assertTrue(index.isKnownAbsent(Unused.class.getName()));
+	}
+
+	@Test
+	public void indexIsSharedPerElement() throws Exception {
+		assertSame(MergedAnnotationIndex.forElement(ComposedClass.class),
+				MergedAnnotationIndex.forElement(ComposedClass.class));
+		Method method = ComposedClass.class.getMethod("handle");
+		assertSame(MergedAnnotationIndex.forElement(method),
+				MergedAnnotationIndex.forElement(ComposedClass.class.getMethod("handle")));
+	}
+
+	@Test
+	public void indexIsTransientForOtherElements() {
+		AnnotatedElement element = AnnotatedElementUtils.forAnnotations(
+				ComposedClass.class.getAnnotation(Composed.class));
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(element);
+		assertNotSame(index, MergedAnnotationIndex.forElement(element));
+		assertTrue(index.isPresent(Meta.class.getName()));
+		assertFalse(index.isKnownAbsent(Unused.class.getName()));
+		index.put(MergedAnnotationIndex.Lookup.ANNOTATION, Unused.class, null);
+		assertNull(index.get(MergedAnnotationIndex.Lookup.ANNOTATION, Unused.class));
+	}
+
+	@Test
+	public void lookupResultsIncludingMissesAreRetained() {
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(ComposedClass.class);
+		assertNull(index.get(MergedAnnotationIndex.Lookup.FOUND_MERGED_ANNOTATION, Meta.class));
+		assertNull(index.get(MergedAnnotationIndex.Lookup.FOUND_MERGED_ANNOTATION, Unused.class));
+
+		Meta meta = AnnotatedElementUtils.findMergedAnnotation(ComposedClass.class, Meta.class);
+		assertNotNull(meta);
+		assertEquals("composed", meta.value());
+		assertNull(AnnotatedElementUtils.findMergedAnnotation(ComposedClass.class, Unused.class));
+
+		assertSame(meta, index.get(MergedAnnotationIndex.Lookup.FOUND_MERGED_ANNOTATION, Meta.class));
+		assertSame(MergedAnnotationIndex.NONE,
+				index.get(MergedAnnotationIndex.Lookup.FOUND_MERGED_ANNOTATION, Unused.class));
+		assertSame(meta, AnnotatedElementUtils.findMergedAnnotation(ComposedClass.class, Meta.class));
+		assertNull(index.get(MergedAnnotationIndex.Lookup.MERGED_ANNOTATION, Meta.class));
+	}
+
+	@Test
+	public void lookupResultsAreSeparatedPerKind() {
+		Meta found = AnnotationUtils.findAnnotation(ComposedClass.class, Meta.class);
+		Meta merged = AnnotatedElementUtils.findMergedAnnotation(ComposedClass.class, Meta.class);
+		assertNotNull(found);
+		assertNotNull(merged);
+		assertEquals("", found.value());
+		assertEquals("composed", merged.value());
+		assertSame(found, AnnotationUtils.findAnnotation(ComposedClass.class, Meta.class));
+		assertSame(merged, AnnotatedElementUtils.findMergedAnnotation(ComposedClass.class, Meta.class));
+	}
+
+	@Test
+	public void clearCacheDiscardsIndexes() {
+		MergedAnnotationIndex index = MergedAnnotationIndex.forElement(ComposedClass.class);
+		AnnotationUtils.clearCache();
+		assertNotSame(index, MergedAnnotationIndex.forElement(ComposedClass.class));
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Meta {
+
+		String value() default "";
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Inherited
+	@Meta
+	@interface Composed {
+
+		@AliasFor(annotation = Meta.class)
+		String value() default "";
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Unused {
+	}
+
+	@Composed("composed")
+	static class ComposedClass {
+
+		public void handle() {
+		}
+	}
+
+	static class SubClass extends ComposedClass {
+	}
+
+}
@@ -17,15 +17,22 @@
 package org.springframework.core.codec;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 
 import org.junit.Test;
 import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.util.StreamUtils;
 
@@ -96,4 +103,56 @@ public class ResourceDecoderTests extends AbstractDecoderTestCase<ResourceDecode
 				.verify());
 	}
 
+	@Test
+	public void decodeToMonoWithSpill() throws IOException {
+		Path directory = Files.createTempDirectory("ResourceDecoderTests");
+		try {
+			this.decoder.setMaxInMemorySize(4);
+			this.decoder.setSpillDirectory(directory);
+			Flux<DataBuffer> input = Flux.concat(dataBuffer(this.fooBytes), dataBuffer(this.barBytes));
+
+			testDecodeToMono(input, Resource.class, step -> step
+					.consumeNextWith(resource -> {
+						assertTrue(resource instanceof InputStreamResource);
+						try (InputStream inputStream = resource.getInputStream()) {
+							assertEquals("foobar", new String(StreamUtils.copyToByteArray(inputStream)));
+						}
+						catch (IOException ex) {
+							fail(ex.getMessage());
+						}
+					})
+					.expectComplete()
+					.verify());
+			assertEquals(0, directory.toFile().list().length);
+
+			Flux<DataBuffer> byteArrayInput = Flux.concat(dataBuffer(this.fooBytes), dataBuffer(this.barBytes));
+			testDecodeToMono(byteArrayInput, ByteArrayResource.class, step -> step
+					.expectError(DataBufferLimitException.class)
+					.verify());
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void decodeToMonoWithSpillCancelled() throws IOException {
+		Path directory = Files.createTempDirectory("ResourceDecoderTests");
+		try {
+			this.decoder.setMaxInMemorySize(4);
+			this.decoder.setSpillDirectory(directory);
+			Flux<DataBuffer> input = Flux.concat(dataBuffer(this.fooBytes), dataBuffer(this.barBytes), Flux.never());
+
+			StepVerifier.create(this.decoder.decodeToMono(input, forClass(Resource.class), null, null))
+					.expectSubscription()
+					.thenAwait(Duration.ofMillis(100))
+					.thenCancel()
+					.verify();
+			assertEquals(0, directory.toFile().list().length);
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
 }
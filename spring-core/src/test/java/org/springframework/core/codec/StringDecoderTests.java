@@ -127,6 +127,42 @@ public class StringDecoderTests extends AbstractDecoderTestCase<StringDecoder> {
 				.verify());
 	}
 
+	@Test
+	public void decodeNewLineAcrossBuffers() {
+		Flux<DataBuffer> input = Flux.just(
+				stringBuffer("abc\r"),
+				stringBuffer("\ndef\r"),
+				stringBuffer("\r\n"),
+				stringBuffer("ghi")
+		);
+
+		testDecode(input, String.class, step -> step
+				.expectNext("abc")
+				.expectNext("def\r")
+				.expectNext("ghi")
+				.expectComplete()
+				.verify());
+	}
+
+	@Test
+	public void decodeCustomDelimiterAcrossBuffers() {
+		this.decoder = StringDecoder.allMimeTypes(Arrays.asList("--", "##"), true);
+
+		Flux<DataBuffer> input = Flux.just(
+				stringBuffer("abc-"),
+				stringBuffer("-def#"),
+				stringBuffer("#"),
+				stringBuffer("g-h")
+		);
+
+		testDecode(input, String.class, step -> step
+				.expectNext("abc")
+				.expectNext("def")
+				.expectNext("g-h")
+				.expectComplete()
+				.verify());
+	}
+
 	@Test
 	public void maxInMemoryLimit() {
 		Flux<DataBuffer> input = Flux.just(
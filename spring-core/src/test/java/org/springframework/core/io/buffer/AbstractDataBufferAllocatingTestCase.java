@@ -60,7 +60,9 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(false, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new DefaultDataBufferFactory(true)},
-				{new DefaultDataBufferFactory(false)}
+				{new DefaultDataBufferFactory(false)},
+				{new PooledDataBufferFactory(true)},
+				{new PooledDataBufferFactory(false)}
 
 		};
 	}
@@ -118,29 +120,37 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 	}
 
 	private void verifyAllocations() {
+		Instant start = Instant.now();
+		while (true) {
+			long total = getActiveAllocations();
+			if (total == 0) {
+				return;
+			}
+			if (Instant.now().isBefore(start.plus(Duration.ofSeconds(5)))) {
+				try {
+					Thread.sleep(50);
+				}
+				catch (InterruptedException ex) {
+					// ignore
+				}
+				continue;
+			}
+			assertEquals("DataBuffer Leak: " + total + " unreleased allocations", 0, total);
+		}
+	}
+
+	private long getActiveAllocations() {
 		if (this.bufferFactory instanceof NettyDataBufferFactory) {
 			ByteBufAllocator allocator = ((NettyDataBufferFactory) this.bufferFactory).getByteBufAllocator();
 			if (allocator instanceof PooledByteBufAllocator) {
-				Instant start = Instant.now();
-				while (true) {
-					PooledByteBufAllocatorMetric metric = ((PooledByteBufAllocator) allocator).metric();
-					long total = getAllocations(metric.directArenas()) + getAllocations(metric.heapArenas());
-					if (total == 0) {
-						return;
-					}
-					if (Instant.now().isBefore(start.plus(Duration.ofSeconds(5)))) {
-						try {
-							Thread.sleep(50);
-						}
-						catch (InterruptedException ex) {
-							// ignore
-						}
-						continue;
-					}
-					assertEquals("ByteBuf Leak: " + total + " unreleased allocations", 0, total);
-				}
+				PooledByteBufAllocatorMetric metric = ((PooledByteBufAllocator) allocator).metric();
+				return getAllocations(metric.directArenas()) + getAllocations(metric.heapArenas());
 			}
 		}
+		else if (this.bufferFactory instanceof PooledDataBufferFactory) {
+			return ((PooledDataBufferFactory) this.bufferFactory).getAllocatedBufferCount();
+		}
+		return 0;
 	}
 
 	private static long getAllocations(List<PoolArenaMetric> metrics) {
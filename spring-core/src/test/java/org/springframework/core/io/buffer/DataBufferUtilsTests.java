@@ -48,6 +48,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.support.DataBufferTestUtils;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -764,6 +765,74 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void matcher() {
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+
+		byte[] delims = "ooba".getBytes(StandardCharsets.UTF_8);
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(delims);
+		assertEquals(-1, matcher.match(foo));
+		assertEquals(1, matcher.match(bar));
+		assertArrayEquals(delims, matcher.delimiter());
+
+		release(foo, bar);
+	}
+
+	@Test
+	public void matcherSingleByte() {
+		DataBuffer buffer = stringBuffer("foo\nbar\n");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher("\n".getBytes(StandardCharsets.UTF_8));
+		assertEquals(3, matcher.match(buffer));
+		buffer.readPosition(4);
+		assertEquals(7, matcher.match(buffer));
+
+		release(buffer);
+	}
+
+	@Test
+	public void matcherRepeatedPrefix() {
+		DataBuffer buffer = stringBuffer("aaab");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher("aab".getBytes(StandardCharsets.UTF_8));
+		assertEquals(3, matcher.match(buffer));
+
+		release(buffer);
+	}
+
+	@Test
+	public void matcherMultipleDelimiters() {
+		DataBuffer foo = stringBuffer("foo\r");
+		DataBuffer bar = stringBuffer("\nbar\n");
+
+		byte[] crlf = "\r\n".getBytes(StandardCharsets.UTF_8);
+		byte[] lf = "\n".getBytes(StandardCharsets.UTF_8);
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(lf, crlf);
+		assertEquals(-1, matcher.match(foo));
+		assertEquals(0, matcher.match(bar));
+		assertArrayEquals(crlf, matcher.delimiter());
+
+		bar.readPosition(1);
+		assertEquals(4, matcher.match(bar));
+		assertArrayEquals(lf, matcher.delimiter());
+
+		release(foo, bar);
+	}
+
+	@Test
+	public void matcherReset() {
+		DataBuffer foo = stringBuffer("foo-");
+		DataBuffer bar = stringBuffer("-bar");
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher("--".getBytes(StandardCharsets.UTF_8));
+		assertEquals(-1, matcher.match(foo));
+		matcher.reset();
+		assertEquals(-1, matcher.match(bar));
+
+		release(foo, bar);
+	}
+
 
 	private static class ZeroDemandSubscriber extends BaseSubscriber<DataBuffer> {
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link FileSpillingBuffer}.
+ */
+public class FileSpillingBufferTests {
+
+	private final TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory();
+
+	private Path directory;
+
+
+	@Before
+	public void createDirectory() throws IOException {
+		this.directory = Files.createTempDirectory("FileSpillingBufferTests");
+	}
+
+	@After
+	public void deleteDirectory() throws IOException {
+		this.bufferFactory.checkForLeaks(Duration.ofSeconds(5));
+		FileSystemUtils.deleteRecursively(this.directory);
+	}
+
+
+	@Test
+	public void inMemory() throws IOException {
+		FileSpillingBuffer buffer = FileSpillingBuffer.collect(input("foo", "bar"), 6, this.directory).block();
+
+		assertNotNull(buffer);
+		assertFalse(buffer.isSpilled());
+		assertNull(buffer.getFile());
+		assertEquals(6, buffer.getByteCount());
+		assertEquals("foobar", read(buffer));
+		assertEquals(0, fileCount());
+	}
+
+	@Test
+	public void spilled() throws IOException {
+		FileSpillingBuffer buffer = FileSpillingBuffer.collect(input("foo", "bar", "baz"), 4, this.directory).block();
+
+		assertNotNull(buffer);
+		assertTrue(buffer.isSpilled());
+		assertEquals(9, buffer.getByteCount());
+		assertEquals("foobarbaz", new String(Files.readAllBytes(buffer.getFile()), StandardCharsets.UTF_8));
+		assertEquals("foobarbaz", read(buffer));
+		assertEquals(1, fileCount());
+
+		buffer.release();
+		assertEquals(0, fileCount());
+	}
+
+	@Test
+	public void spilledWithFirstBuffer() throws IOException {
+		FileSpillingBuffer buffer = FileSpillingBuffer.collect(input("foobar", "baz"), 4, this.directory).block();
+
+		assertNotNull(buffer);
+		assertTrue(buffer.isSpilled());
+		assertEquals("foobarbaz", read(buffer));
+		buffer.release();
+	}
+
+	@Test
+	public void noLimit() {
+		FileSpillingBuffer buffer = FileSpillingBuffer.collect(input("foo", "bar"), -1, this.directory).block();
+
+		assertNotNull(buffer);
+		assertFalse(buffer.isSpilled());
+	}
+
+	@Test
+	public void inputStreamReleaseOnClose() throws IOException {
+		FileSpillingBuffer buffer = FileSpillingBuffer.collect(input("foo", "bar"), 2, this.directory).block();
+
+		assertNotNull(buffer);
+		try (InputStream inputStream = buffer.getInputStream(true)) {
+			assertEquals("foobar", StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8));
+		}
+		assertEquals(0, fileCount());
+	}
+
+	@Test
+	public void errorDeletesFile() throws IOException {
+		Flux<DataBuffer> input = Flux.concat(input("foo", "bar"), Flux.error(new IllegalStateException()));
+
+		StepVerifier.create(FileSpillingBuffer.collect(input, 2, this.directory))
+				.expectError(IllegalStateException.class)
+				.verify(Duration.ofSeconds(5));
+		assertEquals(0, fileCount());
+	}
+
+
+	private Flux<DataBuffer> input(String... values) {
+		return Flux.fromArray(values)
+				.map(value -> this.bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private String read(FileSpillingBuffer buffer) {
+		DataBuffer joined = DataBufferUtils.join(buffer.read(this.bufferFactory, 4)).block(Duration.ofSeconds(5));
+		assertNotNull(joined);
+		String result = DataBufferTestUtils.dumpString(joined, StandardCharsets.UTF_8);
+		DataBufferUtils.release(joined);
+		return result;
+	}
+
+	private long fileCount() throws IOException {
+		try (Stream<Path> files = Files.list(this.directory)) {
+			return files.count();
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(true, 4096, 2);
+
+
+	@Test
+	public void releasedMemoryIsReused() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(300, buffer.capacity());
+		assertEquals(1, this.bufferFactory.getAllocatedBufferCount());
+		assertEquals(1, this.bufferFactory.getPoolMissCount());
+
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.bufferFactory.getAllocatedBufferCount());
+		assertEquals(1, this.bufferFactory.getPooledBufferCount());
+		assertEquals(512, this.bufferFactory.getPooledMemory());
+
+		buffer = this.bufferFactory.allocateBuffer(400);
+		assertEquals(400, buffer.capacity());
+		assertEquals(1, this.bufferFactory.getPoolHitCount());
+		assertEquals(0, this.bufferFactory.getPooledBufferCount());
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void oversizedBufferIsNotPooled() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(5000);
+		assertEquals(5000, buffer.capacity());
+		DataBufferUtils.release(buffer);
+
+		assertEquals(0, this.bufferFactory.getAllocatedBufferCount());
+		assertEquals(0, this.bufferFactory.getPooledBufferCount());
+	}
+
+	@Test
+	public void poolIsBoundedPerSizeClass() {
+		DataBuffer buffer1 = this.bufferFactory.allocateBuffer(100);
+		DataBuffer buffer2 = this.bufferFactory.allocateBuffer(100);
+		DataBuffer buffer3 = this.bufferFactory.allocateBuffer(100);
+		DataBufferUtils.release(buffer1);
+		DataBufferUtils.release(buffer2);
+		DataBufferUtils.release(buffer3);
+
+		assertEquals(2, this.bufferFactory.getPooledBufferCount());
+	}
+
+	@Test
+	public void growingRecyclesPreviousMemory() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo", StandardCharsets.UTF_8);
+		buffer.write(new byte[1000]);
+
+		assertTrue(buffer.capacity() >= 1003);
+		assertEquals(1, this.bufferFactory.getPooledBufferCount());
+		byte[] bytes = new byte[3];
+		buffer.read(bytes);
+		assertEquals("foo", new String(bytes, StandardCharsets.UTF_8));
+
+		DataBufferUtils.release(buffer);
+		assertEquals(2, this.bufferFactory.getPooledBufferCount());
+		assertEquals(0, this.bufferFactory.getAllocatedBufferCount());
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		DataBuffer slice = DataBufferUtils.retain(buffer.slice(3, 3));
+		assertTrue(slice instanceof PooledDataBuffer);
+
+		assertFalse(DataBufferUtils.release(buffer));
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+		assertEquals(1, this.bufferFactory.getAllocatedBufferCount());
+
+		assertTrue(DataBufferUtils.release(slice));
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+		assertEquals(0, this.bufferFactory.getAllocatedBufferCount());
+	}
+
+	@Test
+	public void growingKeepsMemoryOfSliceUntilReleased() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		DataBuffer slice = DataBufferUtils.retain(buffer.slice(3, 3));
+		buffer.write(new byte[1000]);
+		assertEquals(0, this.bufferFactory.getPooledBufferCount());
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(10);
+		other.write("xxxxxx", StandardCharsets.UTF_8);
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		DataBufferUtils.release(buffer);
+		assertEquals(0, this.bufferFactory.getPooledBufferCount());
+		DataBufferUtils.release(slice);
+		assertEquals(2, this.bufferFactory.getPooledBufferCount());
+		DataBufferUtils.release(other);
+		assertEquals(0, this.bufferFactory.getAllocatedBufferCount());
+	}
+
+	@Test
+	public void wrappedBufferIsNotPooled() {
+		DataBuffer buffer = this.bufferFactory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		assertFalse(buffer instanceof PooledDataBuffer);
+		assertEquals(0, this.bufferFactory.getAllocatedBufferCount());
+	}
+
+}
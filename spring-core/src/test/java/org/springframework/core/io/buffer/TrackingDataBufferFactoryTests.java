@@ -0,0 +1,224 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.TrackingDataBufferFactory.Allocation;
+import org.springframework.core.io.buffer.TrackingDataBufferFactory.Usage;
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TrackingDataBufferFactory}.
+ */
+public class TrackingDataBufferFactoryTests {
+
+	private final TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory();
+
+
+	@Test
+	public void allocateAndRelease() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(16);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(1, this.bufferFactory.getOutstandingBufferCount());
+		assertEquals(16, this.bufferFactory.getOutstandingByteCount());
+
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.bufferFactory.getOutstandingBufferCount());
+		assertEquals(1, this.bufferFactory.getTotalBufferCount());
+		this.bufferFactory.checkForLeaks(Duration.ZERO);
+	}
+
+	@Test
+	public void retainAndRelease() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.bufferFactory.allocateBuffer();
+		buffer.retain();
+		assertFalse(buffer.release());
+		assertTrue(buffer.isAllocated());
+		assertEquals(1, this.bufferFactory.getOutstandingBufferCount());
+
+		assertTrue(buffer.release());
+		assertFalse(buffer.isAllocated());
+		assertEquals(0, this.bufferFactory.getOutstandingBufferCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void releaseTwice() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.bufferFactory.wrap(new byte[] {'a'});
+		buffer.release();
+		buffer.release();
+	}
+
+	@Test
+	public void sliceSharesTracking() {
+		DataBuffer buffer = this.bufferFactory.wrap("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = DataBufferUtils.retain(buffer.slice(3, 3));
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals(1, this.bufferFactory.getOutstandingBufferCount());
+
+		assertFalse(DataBufferUtils.release(buffer));
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+		assertTrue(DataBufferUtils.release(slice));
+		this.bufferFactory.checkForLeaks(Duration.ZERO);
+	}
+
+	@Test
+	public void leakedSlice() {
+		DataBuffer buffer = this.bufferFactory.withOwner("decoder").allocateBuffer(8);
+		buffer.write("foobar", StandardCharsets.UTF_8);
+		DataBuffer slice = DataBufferUtils.retain(buffer.slice(3, 3));
+		DataBufferUtils.release(buffer);
+		try {
+			this.bufferFactory.checkForLeaks(Duration.ZERO);
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage(), ex.getMessage().contains("decoder=1 buffer(s)"));
+		}
+		finally {
+			DataBufferUtils.release(slice);
+		}
+	}
+
+	@Test
+	public void fluentMethodsReturnTrackedBuffer() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(4);
+		assertSame(buffer, buffer.write(new byte[] {'a', 'b'}).write("cd", StandardCharsets.UTF_8));
+		assertSame(buffer, buffer.readPosition(1));
+		assertSame(this.bufferFactory, buffer.factory());
+		assertEquals("bcd", DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8));
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void usagePerOwner() {
+		DataBuffer encoded = this.bufferFactory.withOwner("encoder").allocateBuffer(8);
+		DataBuffer decoded = this.bufferFactory.withOwner("decoder").allocateBuffer(4);
+		DataBuffer unknown = this.bufferFactory.allocateBuffer(2);
+		TrackingDataBufferFactory.claim(unknown, "decoder");
+
+		Map<String, Usage> usage = this.bufferFactory.getOutstandingUsage();
+		assertEquals(Arrays.asList("decoder", "encoder"), new ArrayList<>(usage.keySet()));
+		assertEquals(2, usage.get("decoder").getBufferCount());
+		assertEquals(6, usage.get("decoder").getByteCount());
+		assertEquals(1, usage.get("encoder").getBufferCount());
+		assertEquals(8, usage.get("encoder").getByteCount());
+		assertEquals("encoder", ((TrackingDataBufferFactory) encoded.factory()).getOwner());
+
+		DataBufferUtils.release(encoded);
+		DataBufferUtils.release(decoded);
+		DataBufferUtils.release(unknown);
+		assertTrue(this.bufferFactory.getOutstandingUsage().isEmpty());
+	}
+
+	@Test
+	public void forOwner() {
+		DataBufferFactory defaultFactory = new DefaultDataBufferFactory();
+		assertSame(defaultFactory, TrackingDataBufferFactory.forOwner(defaultFactory, "encoder"));
+
+		DataBufferFactory view = TrackingDataBufferFactory.forOwner(this.bufferFactory, "encoder");
+		assertEquals("encoder", ((TrackingDataBufferFactory) view).getOwner());
+		assertSame(this.bufferFactory.getDelegate(), ((TrackingDataBufferFactory) view).getDelegate());
+	}
+
+	@Test
+	public void joinTransfersTracking() {
+		DataBuffer foo = this.bufferFactory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = this.bufferFactory.wrap("bar".getBytes(StandardCharsets.UTF_8));
+		TrackingDataBufferFactory.claim(foo, "reader");
+
+		DataBuffer joined = this.bufferFactory.join(Arrays.asList(foo, bar));
+		assertEquals("foobar", DataBufferTestUtils.dumpString(joined, StandardCharsets.UTF_8));
+		assertEquals(1, this.bufferFactory.getOutstandingBufferCount());
+		assertEquals("reader", this.bufferFactory.getOutstandingAllocations().get(0).getOwner());
+
+		DataBufferUtils.release(joined);
+		this.bufferFactory.checkForLeaks(Duration.ZERO);
+	}
+
+	@Test
+	public void inputStreamReleaseOnClose() throws Exception {
+		DataBuffer buffer = this.bufferFactory.wrap(new byte[] {'a'});
+		try (InputStream inputStream = buffer.asInputStream(true)) {
+			assertEquals('a', inputStream.read());
+		}
+		this.bufferFactory.checkForLeaks(Duration.ZERO);
+	}
+
+	@Test
+	public void pooledDelegate() {
+		NettyDataBufferFactory delegate = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+		TrackingDataBufferFactory factory = new TrackingDataBufferFactory(delegate);
+		DataBuffer buffer = factory.allocateBuffer(8);
+		DataBuffer other = factory.allocateBuffer(8).write(new byte[] {'a'});
+		buffer.write(other);
+		DataBufferUtils.release(other);
+
+		DataBufferUtils.retain(buffer);
+		DataBufferUtils.release(buffer);
+		assertTrue(((PooledDataBuffer) buffer).isAllocated());
+		DataBufferUtils.release(buffer);
+		factory.checkForLeaks(Duration.ZERO);
+	}
+
+	@Test
+	public void listener() {
+		List<String> events = new ArrayList<>();
+		this.bufferFactory.addListener(new TrackingDataBufferFactory.Listener() {
+			@Override
+			public void onAllocated(Allocation allocation) {
+				events.add("allocated " + allocation.getOwner() + " " + allocation.getCapacity());
+			}
+			@Override
+			public void onReleased(Allocation allocation) {
+				events.add("released " + allocation.getOwner() + " " + allocation.getCapacity());
+			}
+		});
+		DataBufferUtils.release(this.bufferFactory.withOwner("codec").allocateBuffer(4));
+		assertEquals(Arrays.asList("allocated codec 4", "released codec 4"), events);
+	}
+
+	@Test
+	public void checkForLeaks() {
+		this.bufferFactory.setRecordAllocationSites(true);
+		DataBuffer buffer = this.bufferFactory.withOwner("codec").allocateBuffer(4);
+		try {
+			this.bufferFactory.checkForLeaks(Duration.ZERO);
+			fail("IllegalStateException expected");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage(), ex.getMessage().contains("codec=1 buffer(s) / 4 byte(s)"));
+			assertNotNull(ex.getCause());
+			assertEquals("DataBuffer allocated by codec", ex.getCause().getMessage());
+		}
+		finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+}
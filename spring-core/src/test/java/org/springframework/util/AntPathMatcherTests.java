@@ -615,11 +615,16 @@ public class AntPathMatcherTests {
 		match();
 		assertTrue(pathMatcher.stringMatcherCache.size() > 20);
 
-		for (int i = 0; i < 65536; i++) {
-			pathMatcher.match("test" + i, "test");
+		for (int i = 0; i < 70000; i++) {
+			pathMatcher.match("test" + i, "test" + i);
 		}
-		// Cache turned off because it went beyond the threshold
-		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		// Cache bounded to the threshold, evicting the least recently used patterns
+		assertTrue(pathMatcher.stringMatcherCache.size() <= 65536);
+		assertTrue(pathMatcher.stringMatcherCache.getEvictionCount() > 0);
+
+		long hitCount = pathMatcher.stringMatcherCache.getHitCount();
+		pathMatcher.match("test69999", "test69999");
+		assertEquals(hitCount + 1, pathMatcher.stringMatcherCache.getHitCount());
 	}
 
 	@Test
@@ -671,7 +676,7 @@ public class AntPathMatcherTests {
 	public void cachePatternsSetToFalse() {
 		pathMatcher.setCachePatterns(false);
 		match();
-		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		assertEquals(0, pathMatcher.stringMatcherCache.size());
 	}
 
 	@Test
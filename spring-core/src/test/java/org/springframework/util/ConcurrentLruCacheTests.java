@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ *
+ * @since 5.1.17
+ */
+public class ConcurrentLruCacheTests {
+
+	@Test
+	public void getGeneratesValueOnce() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(8);
+		AtomicInteger generated = new AtomicInteger();
+
+		assertEquals("k1v1", cache.get("k1", key -> key + "v" + generated.incrementAndGet()));
+		assertEquals("k1v1", cache.get("k1", key -> key + "v" + generated.incrementAndGet()));
+		assertEquals(1, generated.get());
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		List<String> evicted = new ArrayList<>();
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, 1, (key, value) -> evicted.add(key));
+
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		assertEquals("v1", cache.get("k1"));
+		cache.put("k3", "v3");
+
+		assertEquals(2, cache.size());
+		assertTrue(cache.contains("k1"));
+		assertFalse(cache.contains("k2"));
+		assertTrue(cache.contains("k3"));
+		assertEquals(Arrays.asList("k1", "k3"), new ArrayList<>(cache.keySet()));
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, evicted.size());
+		assertEquals("k2", evicted.get(0));
+	}
+
+	@Test
+	public void concurrentHitsAreAppliedBeforeEviction() throws Exception {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(3, 1);
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		cache.put("k3", "v3");
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch latch = new CountDownLatch(4);
+			for (int i = 0; i < 4; i++) {
+				executor.execute(() -> {
+					for (int j = 0; j < 1000; j++) {
+						cache.get(j % 2 == 0 ? "k1" : "k3");
+					}
+					latch.countDown();
+				});
+			}
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		cache.put("k4", "v4");
+
+		assertFalse(cache.contains("k2"));
+		assertTrue(cache.contains("k1"));
+		assertTrue(cache.contains("k3"));
+		assertEquals(4000, cache.getHitCount());
+	}
+
+	@Test
+	public void sizeLimitAcrossSegments() {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(100);
+		for (int i = 0; i < 1000; i++) {
+			cache.get(i, key -> key);
+		}
+
+		assertTrue(cache.size() <= 100);
+		assertTrue(cache.size() > 0);
+		assertEquals(1000 - cache.size(), cache.getEvictionCount());
+		assertTrue(cache.contains(999));
+	}
+
+	@Test
+	public void zeroSizeLimitDisablesCaching() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0);
+
+		assertEquals("v", cache.get("k", key -> "v"));
+		assertEquals(0, cache.size());
+		assertNull(cache.get("k"));
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void nullValueIsNotCached() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(8);
+
+		assertNull(cache.get("k", key -> null));
+		assertFalse(cache.contains("k"));
+	}
+
+	@Test
+	public void putIfAbsentKeepsExistingValue() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(8);
+
+		assertNull(cache.putIfAbsent("k", "v1"));
+		assertEquals("v1", cache.putIfAbsent("k", "v2"));
+		assertEquals("v1", cache.put("k", "v3"));
+		assertEquals("v3", cache.remove("k"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void clearAndClearStatistics() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(8);
+		cache.get("k", key -> "v");
+		cache.get("k", key -> "v");
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.getHitCount());
+
+		cache.clearStatistics();
+		assertEquals(0, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void concurrentAccess() throws InterruptedException {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(64);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch latch = new CountDownLatch(8);
+		AtomicInteger mismatches = new AtomicInteger();
+		for (int t = 0; t < 8; t++) {
+			executor.execute(() -> {
+				for (int i = 0; i < 10000; i++) {
+					int key = i % 200;
+					Integer value = cache.get(key, k -> k * 2);
+					if (value == null || value != key * 2) {
+						mismatches.incrementAndGet();
+					}
+				}
+				latch.countDown();
+			});
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		executor.shutdown();
+
+		assertEquals(0, mismatches.get());
+		assertTrue(cache.size() <= 64);
+		assertEquals(80000, cache.getHitCount() + cache.getMissCount());
+	}
+
+}
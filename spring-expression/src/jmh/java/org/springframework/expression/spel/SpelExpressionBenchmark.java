@@ -0,0 +1,230 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for {@link org.springframework.expression.spel.standard.SpelExpression#getValue},
+ * comparing interpreted evaluation ({@link SpelCompilerMode#OFF}) with compiled
+ * evaluation ({@link SpelCompilerMode#IMMEDIATE}).
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SpelExpressionBenchmark {
+
+	@Benchmark
+	public Object propertyAccess(ExpressionState state) {
+		return state.propertyAccess.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object methodInvocation(ExpressionState state) {
+		return state.methodInvocation.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object booleanCondition(ExpressionState state) {
+		return state.booleanCondition.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object arithmetic(ExpressionState state) {
+		return state.arithmetic.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object selection(ExpressionState state) {
+		return state.selection.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object projection(ExpressionState state) {
+		return state.projection.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object listIndexer(ExpressionState state) {
+		return state.listIndexer.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object mapIndexer(ExpressionState state) {
+		return state.mapIndexer.getValue(state.context);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ExpressionState {
+
+		@Param({"OFF", "IMMEDIATE"})
+		public SpelCompilerMode compilerMode;
+
+		public StandardEvaluationContext context;
+
+		public Expression propertyAccess;
+
+		public Expression methodInvocation;
+
+		public Expression booleanCondition;
+
+		public Expression arithmetic;
+
+		public Expression selection;
+
+		public Expression projection;
+
+		public Expression listIndexer;
+
+		public Expression mapIndexer;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			SpelParserConfiguration configuration =
+					new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader());
+			SpelExpressionParser parser = new SpelExpressionParser(configuration);
+			Order order = new Order("ORD-1", 42, new Customer("Alice", "AT"));
+			for (int i = 0; i < 10; i++) {
+				order.getLines().add(new OrderLine("SKU-" + i, i));
+			}
+			order.getHeaders().put("priority", "high");
+			this.context = new StandardEvaluationContext(order);
+			this.context.setVariable("index", 3);
+			this.context.setVariable("header", "priority");
+			this.propertyAccess = parser.parseExpression("customer.name");
+			this.methodInvocation = parser.parseExpression("customer.name.toUpperCase()");
+			this.booleanCondition = parser.parseExpression("quantity > 10 and customer.country == 'AT'");
+			this.arithmetic = parser.parseExpression("quantity * 2 + 5");
+			this.selection = parser.parseExpression("lines.?[quantity > 4].size()");
+			this.projection = parser.parseExpression("lines.![sku]");
+			this.listIndexer = parser.parseExpression("lines[#index].sku");
+			this.mapIndexer = parser.parseExpression("headers[#header]");
+
+			// Warm up so that compiled expressions are in compiled state when measured
+			for (int i = 0; i < 5; i++) {
+				this.propertyAccess.getValue(this.context);
+				this.methodInvocation.getValue(this.context);
+				this.booleanCondition.getValue(this.context);
+				this.arithmetic.getValue(this.context);
+				this.selection.getValue(this.context);
+				this.projection.getValue(this.context);
+				this.listIndexer.getValue(this.context);
+				this.mapIndexer.getValue(this.context);
+			}
+		}
+	}
+
+
+	public static class Order {
+
+		private final String id;
+
+		private final int quantity;
+
+		private final Customer customer;
+
+		private final List<OrderLine> lines = new ArrayList<>();
+
+		private final Map<String, Object> headers = new HashMap<>();
+
+		public Order(String id, int quantity, Customer customer) {
+			this.id = id;
+			this.quantity = quantity;
+			this.customer = customer;
+		}
+
+		public String getId() {
+			return this.id;
+		}
+
+		public int getQuantity() {
+			return this.quantity;
+		}
+
+		public Customer getCustomer() {
+			return this.customer;
+		}
+
+		public List<OrderLine> getLines() {
+			return this.lines;
+		}
+
+		public Map<String, Object> getHeaders() {
+			return this.headers;
+		}
+	}
+
+
+	public static class OrderLine {
+
+		private final String sku;
+
+		private final int quantity;
+
+		public OrderLine(String sku, int quantity) {
+			this.sku = sku;
+			this.quantity = quantity;
+		}
+
+		public String getSku() {
+			return this.sku;
+		}
+
+		public int getQuantity() {
+			return this.quantity;
+		}
+	}
+
+
+	public static class Customer {
+
+		private final String name;
+
+		private final String country;
+
+		public Customer(String name, String country) {
+			this.name = name;
+			this.country = country;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public String getCountry() {
+			return this.country;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,6 +41,10 @@ import org.springframework.util.CollectionUtils;
  */
 public class CodeFlow implements Opcodes {
 
+	// The local variable holding the target passed to CompiledExpression.getValue(target, context)
+	private static final int ROOT_TARGET_VARIABLE_ID = 1;
+
+
 	/**
 	 * Name of the class being generated. Typically used when generating code
 	 * that accesses freshly generated fields on the generated type.
@@ -85,9 +89,17 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the EvaluationContext parameters).
+	 */
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * The local variables holding the current target for {@link #loadTarget},
+	 * e.g. the current element while generating code for the criteria of a
+	 * selection. If empty, the target passed to the compiled expression is used.
 	 */
-	private int nextFreeVariableId = 1;
+	private final Deque<Integer> targetVariables = new ArrayDeque<>();
 
 
 	/**
@@ -105,11 +117,44 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context), unless a different target has been
+	 * set through {@link #enterTargetScope(int)})
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer targetVariable = this.targetVariables.peek();
+		mv.visitVarInsn(ALOAD, (targetVariable != null ? targetVariable : ROOT_TARGET_VARIABLE_ID));
+	}
+
+	/**
+	 * Enter a scope in which {@link #loadTarget} loads the given local variable,
+	 * e.g. the current element of a collection for the selection criteria of a
+	 * selection expression.
+	 * @param variableId the local variable holding the target
+	 * @since 5.1.17
+	 * @see #nextFreeVariableId()
+	 */
+	public void enterTargetScope(int variableId) {
+		this.targetVariables.push(variableId);
+	}
+
+	/**
+	 * Enter a scope in which {@link #loadTarget} loads the target that was passed
+	 * to the compiled expression, e.g. for a map key which is evaluated against
+	 * the root object.
+	 * @since 5.1.17
+	 */
+	public void enterRootTargetScope() {
+		this.targetVariables.push(ROOT_TARGET_VARIABLE_ID);
+	}
+
+	/**
+	 * Exit a scope entered through {@link #enterTargetScope(int)} or
+	 * {@link #enterRootTargetScope()}.
+	 * @since 5.1.17
+	 */
+	public void exitTargetScope() {
+		this.targetVariables.pop();
 	}
 
 	/**
@@ -30,10 +30,18 @@ import org.springframework.lang.Nullable;
  */
 public class SpelParserConfiguration {
 
+	/**
+	 * System property that determines the default compiler mode of parsers
+	 * which are not configured with an explicit mode: "spring.expression.compiler.mode".
+	 * @since 5.1.17
+	 * @see SpelCompilerMode
+	 */
+	public static final String SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
 	private static final SpelCompilerMode defaultCompilerMode;
 
 	static {
-		String compilerMode = SpringProperties.getProperty("spring.expression.compiler.mode");
+		String compilerMode = SpringProperties.getProperty(SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME);
 		defaultCompilerMode = (compilerMode != null ?
 				SpelCompilerMode.valueOf(compilerMode.toUpperCase()) : SpelCompilerMode.OFF);
 	}
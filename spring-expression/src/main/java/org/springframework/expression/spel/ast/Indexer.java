@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -89,6 +89,9 @@ public class Indexer extends SpelNodeImpl {
 	@Nullable
 	private IndexedType indexedType;
 
+	// Whether the last map key was used as-is, rather than converted to the key type of the map
+	private boolean mapKeyUnconverted;
+
 
 	public Indexer(int pos, SpelNodeImpl expr) {
 		super(pos, expr);
@@ -153,6 +156,7 @@ public class Indexer extends SpelNodeImpl {
 				key = state.convertValue(key, targetDescriptor.getMapKeyTypeDescriptor());
 			}
 			this.indexedType = IndexedType.MAP;
+			this.mapKeyUnconverted = (key == index);
 			return new MapIndexingValueRef(state.getTypeConverter(), (Map<?, ?>) target, key, targetDescriptor);
 		}
 
@@ -194,13 +198,15 @@ public class Indexer extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		if (this.indexedType == IndexedType.ARRAY) {
-			return (this.exitTypeDescriptor != null);
+			return (this.exitTypeDescriptor != null && isCompilableIntIndex());
 		}
 		else if (this.indexedType == IndexedType.LIST) {
-			return this.children[0].isCompilable();
+			return isCompilableIntIndex();
 		}
 		else if (this.indexedType == IndexedType.MAP) {
-			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
+			// A key that needed conversion to the key type of the map cannot be compiled
+			return (this.children[0] instanceof PropertyOrFieldReference ||
+					(this.mapKeyUnconverted && this.children[0].isCompilable()));
 		}
 		else if (this.indexedType == IndexedType.OBJECT) {
 			// If the string name is changing the accessor is clearly going to change (so no compilation possible)
@@ -211,6 +217,16 @@ public class Indexer extends SpelNodeImpl {
 		return false;
 	}
 
+	/**
+	 * Determine whether the index expression is compilable and produces an
+	 * {@code int} or {@code Integer}, i.e. does not need any conversion.
+	 */
+	private boolean isCompilableIntIndex() {
+		SpelNodeImpl index = this.children[0];
+		String indexDescriptor = index.exitTypeDescriptor;
+		return (index.isCompilable() && ("I".equals(indexDescriptor) || "Ljava/lang/Integer".equals(indexDescriptor)));
+	}
+
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow cf) {
 		String descriptor = cf.lastDescriptor();
@@ -255,18 +271,13 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
@@ -281,7 +292,10 @@ public class Indexer extends SpelNodeImpl {
 			}
 			else {
 				cf.enterCompilationScope();
+				cf.enterRootTargetScope();
 				this.children[0].generateCode(mv, cf);
+				CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+				cf.exitTargetScope();
 				cf.exitCompilationScope();
 			}
 			mv.visitMethodInsn(
@@ -318,6 +332,23 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * Generate the code for an {@code int} index, evaluated against the root
+	 * object as in {@link #getValueRef}, and unboxed if necessary.
+	 */
+	private void generateIndexCode(MethodVisitor mv, CodeFlow cf) {
+		cf.enterCompilationScope();
+		cf.enterRootTargetScope();
+		this.children[0].generateCode(mv, cf);
+		String indexDescriptor = cf.lastDescriptor();
+		Assert.state(indexDescriptor != null, "No index descriptor");
+		if (!"I".equals(indexDescriptor)) {
+			CodeFlow.insertUnboxInsns(mv, 'I', indexDescriptor);
+		}
+		cf.exitTargetScope();
+		cf.exitCompilationScope();
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder("[");
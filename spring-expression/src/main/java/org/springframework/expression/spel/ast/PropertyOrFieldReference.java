@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.expression.spel.ast;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -57,6 +58,10 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 	@Nullable
 	private String originalPrimitiveExitTypeDescriptor;
 
+	// Whether the exit type has been narrowed down from Object to the type of the value read,
+	// requiring a checkcast in the compiled code
+	private boolean exitTypeNarrowed;
+
 	@Nullable
 	private volatile PropertyAccessor cachedReadAccessor;
 
@@ -92,8 +97,7 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 				state.getConfiguration().isAutoGrowNullReferences());
 		PropertyAccessor accessorToUse = this.cachedReadAccessor;
 		if (accessorToUse instanceof CompilablePropertyAccessor) {
-			CompilablePropertyAccessor accessor = (CompilablePropertyAccessor) accessorToUse;
-			setExitTypeDescriptor(CodeFlow.toDescriptor(accessor.getPropertyType()));
+			updateExitTypeDescriptor((CompilablePropertyAccessor) accessorToUse, tv.getValue());
 		}
 		return tv;
 	}
@@ -354,6 +358,9 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 		}
 
 		((CompilablePropertyAccessor) accessorToUse).generateCode(this.name, mv, cf);
+		if (this.exitTypeNarrowed) {
+			CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+		}
 		cf.pushDescriptor(this.exitTypeDescriptor);
 
 		if (this.originalPrimitiveExitTypeDescriptor != null) {
@@ -367,6 +374,27 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 		}
 	}
 
+	/**
+	 * Determine the exit type from the property type of the given accessor.
+	 * <p>If the accessor declares {@code Object}, e.g. a {@code MapAccessor}, the
+	 * exit type is narrowed down to the public type of the value read, such that
+	 * subsequent operators and method invocations can be compiled as well. The
+	 * compiled code then checks the type of the value and, in mixed compiler mode,
+	 * reverts to interpretation if the value turns out to be of a different type.
+	 */
+	private void updateExitTypeDescriptor(CompilablePropertyAccessor accessor, @Nullable Object value) {
+		Class<?> propertyType = accessor.getPropertyType();
+		if (propertyType == Object.class && value != null && value.getClass() != Object.class &&
+				Modifier.isPublic(value.getClass().getModifiers())) {
+			this.exitTypeNarrowed = true;
+			setExitTypeDescriptor(CodeFlow.toDescriptorFromObject(value));
+		}
+		else {
+			this.exitTypeNarrowed = false;
+			setExitTypeDescriptor(CodeFlow.toDescriptor(propertyType));
+		}
+	}
+
 	void setExitTypeDescriptor(String descriptor) {
 		// If this property or field access would return a primitive - and yet
 		// it is also marked null safe - then the exit type descriptor must be
@@ -406,7 +434,7 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 					this.ref.getValueInternal(this.contextObject, this.evalContext, this.autoGrowNullReferences);
 			PropertyAccessor accessorToUse = this.ref.cachedReadAccessor;
 			if (accessorToUse instanceof CompilablePropertyAccessor) {
-				this.ref.setExitTypeDescriptor(CodeFlow.toDescriptor(((CompilablePropertyAccessor) accessorToUse).getPropertyType()));
+				this.ref.updateExitTypeDescriptor((CompilablePropertyAccessor) accessorToUse, value.getValue());
 			}
 			return value;
 		}
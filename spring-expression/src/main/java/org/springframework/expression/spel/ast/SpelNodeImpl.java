@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -228,8 +228,8 @@ public abstract class SpelNodeImpl implements SpelNode, Opcodes {
 			SpelNodeImpl lastChild = (childCount == 0 ? null : arguments[childCount - 1]);
 			String arrayType = paramDescriptors[paramDescriptors.length - 1];
 			// Determine if the final passed argument is already suitably packaged in array
-			// form to be passed to the method
-			if (lastChild != null && arrayType.equals(lastChild.getExitDescriptor())) {
+			// form to be passed to the method, i.e. as the only argument for the varargs
+			if (lastChild != null && childCount - p == 1 && arrayType.equals(lastChild.getExitDescriptor())) {
 				generateCodeForArgument(mv, cf, lastChild, paramDescriptors[p]);
 			}
 			else {
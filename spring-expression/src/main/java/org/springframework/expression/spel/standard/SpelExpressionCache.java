@@ -0,0 +1,226 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.Map;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Bounded cache of parsed SpEL expressions, keyed by expression string and
+ * by the type of the root object the expression is evaluated against.
+ *
+ * <p>Since a compiled expression is specific to the types it was first
+ * evaluated with, the same expression string evaluated against different
+ * root types is parsed into separate {@link Expression} instances, each of
+ * which may be compiled for its own root type. An expression that is
+ * subsequently evaluated with other types than it was compiled for reverts
+ * to interpretation and is recompiled later on, in
+ * {@link SpelCompilerMode#MIXED MIXED} mode.
+ *
+ * <p>A cache {@link #SpelExpressionCache(ClassLoader) created for a ClassLoader},
+ * as well as the {@link #forClassLoader per-ClassLoader instances}, use a parser
+ * in {@code MIXED} mode, unless a default compiler mode is set through the
+ * {@link SpelParserConfiguration#SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME}
+ * property, such that frequently evaluated expressions run as bytecode
+ * without any further configuration.
+ *
+ * @since 5.1.17
+ * @see SpelExpressionParser
+ * @see SpelCompiler
+ */
+public class SpelExpressionCache {
+
+	/**
+	 * The default maximum number of expressions in a cache.
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 1024;
+
+	private static final Map<ClassLoader, SpelExpressionCache> classLoaderCaches =
+			new ConcurrentReferenceHashMap<>(16);
+
+
+	private final SpelExpressionParser parser;
+
+	private final ConcurrentLruCache<ExpressionCacheKey, Expression> expressionCache;
+
+
+	/**
+	 * Create a new cache for expressions parsed in the
+	 * {@link #getDefaultCompilerMode() default compiler mode}, with the
+	 * {@link #DEFAULT_CACHE_LIMIT default} limit.
+	 * @param classLoader the ClassLoader to use as the basis for expression
+	 * compilation, or {@code null} for the thread context ClassLoader at the
+	 * time of compilation
+	 */
+	public SpelExpressionCache(@Nullable ClassLoader classLoader) {
+		this(new SpelExpressionParser(new SpelParserConfiguration(getDefaultCompilerMode(), classLoader)));
+	}
+
+	/**
+	 * Create a new cache for expressions parsed with the given parser,
+	 * with the {@link #DEFAULT_CACHE_LIMIT default} limit.
+	 * @param parser the parser to use
+	 */
+	public SpelExpressionCache(SpelExpressionParser parser) {
+		this(parser, DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a new cache for expressions parsed with the given parser.
+	 * @param parser the parser to use
+	 * @param cacheLimit the maximum number of expressions to cache
+	 */
+	public SpelExpressionCache(SpelExpressionParser parser, int cacheLimit) {
+		Assert.notNull(parser, "SpelExpressionParser must not be null");
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.parser = parser;
+		this.expressionCache = new ConcurrentLruCache<>(cacheLimit);
+	}
+
+
+	/**
+	 * Return the parser used by this cache.
+	 */
+	public SpelExpressionParser getParser() {
+		return this.parser;
+	}
+
+	/**
+	 * Return the {@link Expression} for the given expression string and
+	 * root type, parsing it if not cached yet.
+	 * @param expressionString the raw expression string to parse
+	 * @param rootType the type of the root object, or {@code null} if none
+	 * @return the parsed expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression getExpression(String expressionString, @Nullable Class<?> rootType) throws ParseException {
+		return getExpression(expressionString, null, rootType);
+	}
+
+	/**
+	 * Return the {@link Expression} for the given expression string, parser
+	 * context and root type, parsing it if not cached yet.
+	 * @param expressionString the raw expression string to parse
+	 * @param context a context for influencing the expression parsing routine,
+	 * or {@code null} for a standard expression; compared by identity
+	 * @param rootType the type of the root object, or {@code null} if none
+	 * @return the parsed expression
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression getExpression(String expressionString, @Nullable ParserContext context,
+			@Nullable Class<?> rootType) throws ParseException {
+
+		Assert.notNull(expressionString, "Expression string must not be null");
+		return this.expressionCache.get(new ExpressionCacheKey(expressionString, context, rootType),
+				key -> (key.context != null ? this.parser.parseExpression(key.expression, key.context) :
+						this.parser.parseExpression(key.expression)));
+	}
+
+	/**
+	 * Return the number of expressions currently held in this cache.
+	 */
+	public int size() {
+		return this.expressionCache.size();
+	}
+
+	/**
+	 * Remove all expressions from this cache.
+	 */
+	public void clear() {
+		this.expressionCache.clear();
+	}
+
+
+	/**
+	 * Return the cache instance for the given ClassLoader, parsing expressions
+	 * in the {@link #getDefaultCompilerMode() default compiler mode} and
+	 * compiling them with that ClassLoader.
+	 * <p>Instances are held softly, so that a ClassLoader and the expressions
+	 * compiled with it can be garbage collected once no longer in use.
+	 * @param classLoader the ClassLoader to use as the basis for expression
+	 * compilation, or {@code null} for the thread context ClassLoader at the
+	 * time of compilation
+	 */
+	public static SpelExpressionCache forClassLoader(@Nullable ClassLoader classLoader) {
+		return classLoaderCaches.computeIfAbsent(classLoader, SpelExpressionCache::new);
+	}
+
+	/**
+	 * Return the compiler mode for framework-managed parsers: {@code null},
+	 * i.e. the default mode of {@link SpelParserConfiguration}, if explicitly
+	 * set through the {@link SpelParserConfiguration#SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME}
+	 * property, and {@link SpelCompilerMode#MIXED MIXED} otherwise.
+	 */
+	@Nullable
+	public static SpelCompilerMode getDefaultCompilerMode() {
+		return (SpringProperties.getProperty(SpelParserConfiguration.SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME) != null ?
+				null : SpelCompilerMode.MIXED);
+	}
+
+
+	private static final class ExpressionCacheKey {
+
+		private final String expression;
+
+		@Nullable
+		private final ParserContext context;
+
+		@Nullable
+		private final Class<?> rootType;
+
+		ExpressionCacheKey(String expression, @Nullable ParserContext context, @Nullable Class<?> rootType) {
+			this.expression = expression;
+			this.context = context;
+			this.rootType = rootType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ExpressionCacheKey)) {
+				return false;
+			}
+			ExpressionCacheKey otherKey = (ExpressionCacheKey) other;
+			return (this.expression.equals(otherKey.expression) && this.context == otherKey.context &&
+					this.rootType == otherKey.rootType);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.expression.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.rootType);
+		}
+
+		@Override
+		public String toString() {
+			return "\"" + this.expression + "\"" + (this.rootType != null ? " on " + this.rootType.getName() : "");
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -4485,7 +4486,8 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals("1 2 3", stringify(expression.getValue(ctx, mapToIntArray)));
 		assertCanCompile(expression);
 		assertEquals("1 2 3", stringify(expression.getValue(ctx, mapToIntArray)));
-		assertEquals("Ljava/lang/Object", getAst().getExitDescriptor());
+		// Narrowed down from Object to the type of the value read through the map accessor
+		assertEquals("[I", getAst().getExitDescriptor());
 
 		expression = parser.parseExpression("foo[1]");
 		assertEquals(2, expression.getValue(ctx, mapToIntArray));
@@ -4813,6 +4815,126 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals(3, expression.getValue(root));
 	}
 
+	@Test
+	public void indexerWithNonLiteralIndex() throws Exception {
+		StandardEvaluationContext ctx = new StandardEvaluationContext(Arrays.asList("a", "b", "c"));
+		ctx.setVariable("i", 1);
+		expression = parser.parseExpression("[#i]");
+		assertEquals("b", expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals("b", expression.getValue(ctx));
+		ctx.setVariable("i", 2);
+		assertEquals("c", expression.getValue(ctx));
+
+		ctx = new StandardEvaluationContext(new int[] {1, 2, 3});
+		ctx.setVariable("i", 1);
+		expression = parser.parseExpression("[#i]");
+		assertEquals(2, expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(ctx));
+
+		Map<Integer, String> map = new HashMap<>();
+		map.put(1, "one");
+		ctx = new StandardEvaluationContext(map);
+		expression = parser.parseExpression("[1]");
+		assertEquals("one", expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals("one", expression.getValue(ctx));
+
+		// A key that needs conversion to the key type of the map is not compiled
+		RecordHolder holder = new RecordHolder();
+		holder.add("1", 5L);
+		expression = parser.parseExpression("record[1]");
+		assertEquals(5L, expression.getValue(holder));
+		assertCantCompile(expression);
+		expression = parser.parseExpression("record['1']");
+		assertEquals(5L, expression.getValue(holder));
+		assertCanCompile(expression);
+		assertEquals(5L, expression.getValue(holder));
+	}
+
+	@Test
+	public void selection() throws Exception {
+		List<Integer> numbers = Arrays.asList(1, 2, 3, 4);
+		expression = parser.parseExpression("?[#this > 2]");
+		assertEquals("[3, 4]", expression.getValue(numbers).toString());
+		assertCanCompile(expression);
+		assertEquals("[3, 4]", expression.getValue(numbers).toString());
+		assertEquals("[3, 5]", expression.getValue(Arrays.asList(3, 1, 5)).toString());
+
+		expression = parser.parseExpression("^[#this > 2]");
+		assertEquals(3, expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(numbers));
+		assertNull(expression.getValue(Arrays.asList(1, 2)));
+
+		expression = parser.parseExpression("$[#this > 2]");
+		assertEquals(4, expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(4, expression.getValue(numbers));
+		assertNull(expression.getValue(Collections.emptyList()));
+
+		List<Apple> apples = Arrays.asList(new Apple(1), new Apple(5), new Apple(7));
+		expression = parser.parseExpression("?[i > 4].size()");
+		assertEquals(2, expression.getValue(apples));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(apples));
+
+		// The selection criteria are evaluated against each element, an index against the root object
+		Map<String, Object> root = new HashMap<>();
+		root.put("apples", apples);
+		root.put("limits", Arrays.asList(1, 5));
+		root.put("index", 0);
+		StandardEvaluationContext ctx = new StandardEvaluationContext(root);
+		ctx.addPropertyAccessor(new CompilableMapAccessor());
+		expression = parser.parseExpression("apples.?[i > #root.limits[index]].size()");
+		assertEquals(2, expression.getValue(ctx));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(ctx));
+
+		// Selection on an array is not compiled
+		expression = parser.parseExpression("?[#this > 2]");
+		expression.getValue(new int[] {1, 2, 3});
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void projection() throws Exception {
+		List<Apple> apples = Arrays.asList(new Apple(1), new Apple(5), new Apple(7));
+		expression = parser.parseExpression("![i * 2]");
+		assertEquals("[2, 10, 14]", expression.getValue(apples).toString());
+		assertCanCompile(expression);
+		assertEquals("[2, 10, 14]", expression.getValue(apples).toString());
+
+		expression = parser.parseExpression("?[i > 4].![i]");
+		assertEquals("[5, 7]", expression.getValue(apples).toString());
+		assertCanCompile(expression);
+		assertEquals("[5, 7]", expression.getValue(apples).toString());
+		assertEquals("[]", expression.getValue(Collections.emptyList()).toString());
+
+		// Projection on an array is not compiled
+		expression = parser.parseExpression("![#this]");
+		expression.getValue(new Integer[] {1, 2, 3});
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void varargsWithTrailingArray() throws Exception {
+		TestClass5 tc = new TestClass5();
+		StandardEvaluationContext ctx = new StandardEvaluationContext(tc);
+		ctx.setVariable("objects", new Object[] {"x", "y"});
+
+		// The array is one of several arguments for the varargs, rather than the varargs array itself
+		expression = parser.parseExpression("sixteen('a', #objects)");
+		expression.getValue(ctx);
+		String interpreted = tc.s;
+		assertTrue(interpreted.startsWith("a[Ljava.lang.Object;"));
+		assertCanCompile(expression);
+		tc.reset();
+		expression.getValue(ctx);
+		assertEquals(interpreted, tc.s);
+	}
+
 	@Test
 	public void elvisOperator_SPR15192() {
 		SpelParserConfiguration configuration = new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null);
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SpelExpressionCache}.
+ *
+ * @since 5.1.17
+ */
+public class SpelExpressionCacheTests {
+
+	private final SpelExpressionCache cache = new SpelExpressionCache(new SpelExpressionParser(), 2);
+
+
+	@Test
+	public void sameExpressionAndRootType() {
+		Expression expression = this.cache.getExpression("name", Person.class);
+		assertSame(expression, this.cache.getExpression("name", Person.class));
+		assertEquals(1, this.cache.size());
+	}
+
+	@Test
+	public void sameExpressionAndDifferentRootType() {
+		Expression expression = this.cache.getExpression("name", Person.class);
+		assertNotSame(expression, this.cache.getExpression("name", Pet.class));
+		assertNotSame(expression, this.cache.getExpression("name", null));
+	}
+
+	@Test
+	public void templateExpression() {
+		TemplateParserContext context = new TemplateParserContext();
+		Expression expression = this.cache.getExpression("Hello #{name}", context, Person.class);
+		assertSame(expression, this.cache.getExpression("Hello #{name}", context, Person.class));
+		assertNotSame(expression, this.cache.getExpression("Hello #{name}", new TemplateParserContext(), Person.class));
+		assertEquals("Hello Juergen", expression.getValue(new Person("Juergen")));
+	}
+
+	@Test
+	public void cacheLimit() {
+		this.cache.getExpression("1", null);
+		this.cache.getExpression("2", null);
+		this.cache.getExpression("3", null);
+		assertEquals(2, this.cache.size());
+
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void classLoaderInstanceCompilesExpressions() throws Exception {
+		assertEquals(SpelCompilerMode.MIXED, SpelExpressionCache.getDefaultCompilerMode());
+		ClassLoader classLoader = getClass().getClassLoader();
+		SpelExpressionCache classLoaderCache = SpelExpressionCache.forClassLoader(classLoader);
+		assertSame(classLoaderCache, SpelExpressionCache.forClassLoader(classLoader));
+		assertNotSame(classLoaderCache, SpelExpressionCache.forClassLoader(new URLClassLoader(new URL[0])));
+
+		Expression expression = classLoaderCache.getExpression("name.length() > 3", Person.class);
+		StandardEvaluationContext context = new StandardEvaluationContext(new Person("Juergen"));
+		for (int i = 0; i < 200; i++) {
+			assertEquals(Boolean.TRUE, expression.getValue(context));
+		}
+		Field field = SpelExpression.class.getDeclaredField("compiledAst");
+		field.setAccessible(true);
+		assertNotNull(field.get(expression));
+		assertEquals(Boolean.FALSE, expression.getValue(new Person("Jo")));
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		public Person(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+
+	public static class Pet {
+
+		public String getName() {
+			return "Fido";
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for {@link JdbcTemplate} row mapping against an embedded HSQL
+ * database, comparing a hand-written {@link RowMapper}, the reflective
+ * {@link BeanPropertyRowMapper} and {@link ColumnMapRowMapper}.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateBenchmark {
+
+	private static final String SELECT = "SELECT id, first_name, last_name, age FROM person";
+
+	private static final RowMapper<Person> PERSON_ROW_MAPPER = (rs, rowNum) -> {
+		Person person = new Person();
+		person.setId(rs.getLong("id"));
+		person.setFirstName(rs.getString("first_name"));
+		person.setLastName(rs.getString("last_name"));
+		person.setAge(rs.getInt("age"));
+		return person;
+	};
+
+
+	@Benchmark
+	public List<Person> queryWithRowMapper(DatabaseState state) {
+		return state.jdbcTemplate.query(SELECT, PERSON_ROW_MAPPER);
+	}
+
+	@Benchmark
+	public List<Person> queryWithBeanPropertyRowMapper(DatabaseState state) {
+		return state.jdbcTemplate.query(SELECT, state.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> queryForList(DatabaseState state) {
+		return state.jdbcTemplate.queryForList(SELECT);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class DatabaseState {
+
+		@Param({"10", "1000"})
+		public int rows;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public BeanPropertyRowMapper<Person> beanPropertyRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+					.setType(EmbeddedDatabaseType.HSQL).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE person (id BIGINT PRIMARY KEY, " +
+					"first_name VARCHAR(50), last_name VARCHAR(50), age INTEGER)");
+			for (int i = 0; i < this.rows; i++) {
+				this.jdbcTemplate.update("INSERT INTO person VALUES (?, ?, ?, ?)",
+						i, "first" + i, "last" + i, i % 100);
+			}
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(Person.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	public static class Person {
+
+		private long id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private int age;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+}
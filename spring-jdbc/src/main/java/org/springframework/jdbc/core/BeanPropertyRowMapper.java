@@ -68,7 +68,8 @@ import org.springframework.util.StringUtils;
  * will have been set to the primitive's default value instead of null.
  *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
- * For best performance, consider using a custom {@link RowMapper} implementation.
+ * For best performance, consider using a custom {@link RowMapper} implementation, or a
+ * {@link CachingRowMapperFactory} which resolves the column mapping once per column layout.
  *
  * @author Thomas Risberg
  * @author Juergen Hoeller
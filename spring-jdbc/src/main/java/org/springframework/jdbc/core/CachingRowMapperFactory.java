@@ -0,0 +1,526 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.ConstructorProperties;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.TypeMismatchDataAccessException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Factory for {@link RowMapper RowMappers} that map each row to a new instance
+ * of a target class, using the same column to property name matching as
+ * {@link BeanPropertyRowMapper}, but without its per-row overhead.
+ *
+ * <p>The mapping from columns to constructor arguments and bean properties is
+ * resolved once per target class and column layout, and cached in this factory.
+ * Each row is then mapped by reading every mapped column with the type-specific
+ * {@code ResultSet} getter for its target type, and passing the value straight
+ * to the constructor or setter method. There is no {@code BeanWrapper} per row,
+ * no column name lookup per row, and the {@link ConversionService} is only
+ * involved for values that are not already of the target type.
+ *
+ * <p>Target classes may be mutable JavaBeans with a default constructor and
+ * setter methods, or immutable classes with a single constructor (or a Kotlin
+ * primary constructor) whose parameter names match the columns, as discovered
+ * through {@link ConstructorProperties @ConstructorProperties} or
+ * {@link DefaultParameterNameDiscoverer}. Constructor parameters without a
+ * matching column receive {@code null}, or the default value for primitives.
+ *
+ * <p>A factory instance is thread-safe, and is meant to be shared, typically
+ * one per application, so that mapping plans are reused across queries:
+ *
+ * <pre class="code">
+ * List&lt;Person&gt; people = jdbcTemplate.query("select * from person",
+ *         rowMapperFactory.getRowMapper(Person.class));
+ * </pre>
+ *
+ * @since 5.1.17
+ * @see BeanPropertyRowMapper
+ */
+public class CachingRowMapperFactory {
+
+	private static final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+	private static final Map<Class<?>, Object> DEFAULT_TYPE_VALUES;
+
+	static {
+		Map<Class<?>, Object> values = new HashMap<>();
+		values.put(boolean.class, false);
+		values.put(byte.class, (byte) 0);
+		values.put(short.class, (short) 0);
+		values.put(int.class, 0);
+		values.put(long.class, 0L);
+		values.put(float.class, 0F);
+		values.put(double.class, 0D);
+		values.put(char.class, '\0');
+		DEFAULT_TYPE_VALUES = Collections.unmodifiableMap(values);
+	}
+
+
+	/** Logger available to subclasses. */
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	@Nullable
+	private ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+	private boolean primitivesDefaultedForNullValue = false;
+
+	private final ConcurrentMap<Class<?>, MappedClass<?>> mappedClassCache = new ConcurrentHashMap<>(64);
+
+
+	/**
+	 * Set a {@link ConversionService} for converting JDBC values that are not
+	 * of the target type, or {@code null} for none.
+	 * <p>Default is a shared {@link DefaultConversionService}, which provides
+	 * support for {@code java.time} conversion and other special types.
+	 */
+	public void setConversionService(@Nullable ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+	/**
+	 * Return the {@link ConversionService} for converting JDBC values,
+	 * or {@code null} if none.
+	 */
+	@Nullable
+	public ConversionService getConversionService() {
+		return this.conversionService;
+	}
+
+	/**
+	 * Set whether we're defaulting Java primitives in the case of mapping a null
+	 * value from corresponding database fields.
+	 * <p>Default is {@code false}, throwing an exception when nulls are mapped to
+	 * Java primitives.
+	 */
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Return whether we're defaulting Java primitives in the case of mapping a
+	 * null value from corresponding database fields.
+	 */
+	public boolean isPrimitivesDefaultedForNullValue() {
+		return this.primitivesDefaultedForNullValue;
+	}
+
+
+	/**
+	 * Return a {@link RowMapper} for the given target class.
+	 * <p>The returned mapper may be used for any number of queries, with any
+	 * column layout, and concurrently.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @return the row mapper
+	 * @throws InvalidDataAccessApiUsageException if the class cannot be
+	 * instantiated, or has no suitable constructor
+	 */
+	public <T> RowMapper<T> getRowMapper(Class<T> mappedClass) {
+		Assert.notNull(mappedClass, "Mapped class must not be null");
+		return new PlanRowMapper<>(getMappedClass(mappedClass));
+	}
+
+	/**
+	 * Clear the cached mapping meta-data, e.g. after a class reloading.
+	 */
+	public void clearCache() {
+		this.mappedClassCache.clear();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> MappedClass<T> getMappedClass(Class<T> mappedClass) {
+		return (MappedClass<T>) this.mappedClassCache.computeIfAbsent(mappedClass, MappedClass::new);
+	}
+
+
+	/**
+	 * Convert the given name to lower case.
+	 * By default, conversions will happen within the US locale.
+	 * @param name the original name
+	 * @return the converted name
+	 * @see BeanPropertyRowMapper#lowerCaseName
+	 */
+	protected String lowerCaseName(String name) {
+		return name.toLowerCase(Locale.US);
+	}
+
+	/**
+	 * Convert a name in camelCase to an underscored name in lower case.
+	 * Any upper case letters are converted to lower case with a preceding underscore.
+	 * @param name the original name
+	 * @return the converted name
+	 * @see BeanPropertyRowMapper#underscoreName
+	 */
+	protected String underscoreName(String name) {
+		if (!StringUtils.hasLength(name)) {
+			return "";
+		}
+		StringBuilder result = new StringBuilder();
+		result.append(lowerCaseName(name.substring(0, 1)));
+		for (int i = 1; i < name.length(); i++) {
+			String s = name.substring(i, i + 1);
+			String slc = lowerCaseName(s);
+			if (!s.equals(slc)) {
+				result.append("_").append(slc);
+			}
+			else {
+				result.append(s);
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Register the given property or parameter name under its lower case and
+	 * underscored variants.
+	 */
+	private <V> void putName(Map<String, V> map, String name, V value) {
+		String lowerCaseName = lowerCaseName(name);
+		map.put(lowerCaseName, value);
+		String underscoredName = underscoreName(name);
+		if (!lowerCaseName.equals(underscoredName)) {
+			map.put(underscoredName, value);
+		}
+	}
+
+
+	/**
+	 * Introspection results for a target class, along with the mapping plans
+	 * resolved for it so far, keyed by column layout.
+	 */
+	private final class MappedClass<T> {
+
+		private final Class<T> mappedClass;
+
+		private final Constructor<T> constructor;
+
+		private final TypeDescriptor[] constructorParameterTypes;
+
+		private final Map<String, Integer> constructorParameters = new HashMap<>();
+
+		private final Map<String, PropertyDescriptor> properties = new HashMap<>();
+
+		private final ConcurrentMap<List<String>, MappingPlan<T>> planCache = new ConcurrentHashMap<>(8);
+
+		MappedClass(Class<T> mappedClass) {
+			this.mappedClass = mappedClass;
+			this.constructor = determineConstructor(mappedClass);
+			ReflectionUtils.makeAccessible(this.constructor);
+
+			int parameterCount = this.constructor.getParameterCount();
+			this.constructorParameterTypes = new TypeDescriptor[parameterCount];
+			if (parameterCount > 0) {
+				String[] names = determineParameterNames(this.constructor);
+				for (int i = 0; i < parameterCount; i++) {
+					this.constructorParameterTypes[i] = new TypeDescriptor(new MethodParameter(this.constructor, i));
+					putName(this.constructorParameters, names[i], i);
+				}
+			}
+
+			for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
+				Method writeMethod = pd.getWriteMethod();
+				if (writeMethod != null) {
+					ReflectionUtils.makeAccessible(writeMethod);
+					putName(this.properties, pd.getName(), pd);
+				}
+			}
+		}
+
+		private Constructor<T> determineConstructor(Class<T> mappedClass) {
+			if (mappedClass.isInterface() || Modifier.isAbstract(mappedClass.getModifiers())) {
+				throw new InvalidDataAccessApiUsageException(
+						"Cannot map rows to abstract class or interface [" + mappedClass.getName() + "]");
+			}
+			Constructor<T> ctor = BeanUtils.findPrimaryConstructor(mappedClass);
+			if (ctor != null) {
+				return ctor;
+			}
+			try {
+				return mappedClass.getDeclaredConstructor();
+			}
+			catch (NoSuchMethodException ex) {
+				// no default constructor: try a single (public) constructor
+			}
+			Constructor<?>[] ctors = mappedClass.getConstructors();
+			if (ctors.length == 0) {
+				ctors = mappedClass.getDeclaredConstructors();
+			}
+			if (ctors.length != 1) {
+				throw new InvalidDataAccessApiUsageException("Cannot map rows to class [" + mappedClass.getName() +
+						"]: neither a default constructor nor a single constructor found");
+			}
+			@SuppressWarnings("unchecked")
+			Constructor<T> result = (Constructor<T>) ctors[0];
+			return result;
+		}
+
+		private String[] determineParameterNames(Constructor<T> ctor) {
+			ConstructorProperties cp = ctor.getAnnotation(ConstructorProperties.class);
+			String[] names = (cp != null ? cp.value() : parameterNameDiscoverer.getParameterNames(ctor));
+			if (names == null || names.length != ctor.getParameterCount()) {
+				throw new InvalidDataAccessApiUsageException("Cannot map rows to class [" +
+						this.mappedClass.getName() + "]: unable to determine constructor parameter names " +
+						"(compile with '-parameters' or declare @ConstructorProperties)");
+			}
+			return names;
+		}
+
+		MappingPlan<T> getPlan(ResultSetMetaData rsmd) throws SQLException {
+			int columnCount = rsmd.getColumnCount();
+			String[] columns = new String[columnCount];
+			for (int index = 1; index <= columnCount; index++) {
+				columns[index - 1] = JdbcUtils.lookupColumnName(rsmd, index);
+			}
+			List<String> layout = Arrays.asList(columns);
+			MappingPlan<T> plan = this.planCache.get(layout);
+			if (plan == null) {
+				plan = new MappingPlan<>(this, columns);
+				MappingPlan<T> existing = this.planCache.putIfAbsent(layout, plan);
+				if (existing != null) {
+					plan = existing;
+				}
+			}
+			return plan;
+		}
+	}
+
+
+	/**
+	 * The resolved mapping for one target class and column layout: which
+	 * column goes to which constructor parameter or setter method, and with
+	 * which target type it is read.
+	 */
+	private final class MappingPlan<T> {
+
+		private final Constructor<T> constructor;
+
+		private final TypeDescriptor[] constructorParameterTypes;
+
+		private final ColumnMapping[] constructorMappings;
+
+		private final ColumnMapping[] propertyMappings;
+
+		MappingPlan(MappedClass<T> mappedClass, String[] columns) {
+			this.constructor = mappedClass.constructor;
+			this.constructorParameterTypes = mappedClass.constructorParameterTypes;
+			ColumnMapping[] constructorMappings = new ColumnMapping[this.constructorParameterTypes.length];
+			List<ColumnMapping> propertyMappings = new ArrayList<>(columns.length);
+
+			for (int i = 0; i < columns.length; i++) {
+				String column = columns[i];
+				String field = lowerCaseName(StringUtils.delete(column, " "));
+				Integer parameterIndex = mappedClass.constructorParameters.get(field);
+				if (parameterIndex != null && constructorMappings[parameterIndex] == null) {
+					constructorMappings[parameterIndex] = new ColumnMapping(i + 1, column,
+							this.constructorParameterTypes[parameterIndex], null);
+					continue;
+				}
+				PropertyDescriptor pd = mappedClass.properties.get(field);
+				if (pd != null && pd.getWriteMethod() != null) {
+					propertyMappings.add(new ColumnMapping(i + 1, column,
+							new TypeDescriptor(BeanUtils.getWriteMethodParameter(pd)), pd.getWriteMethod()));
+				}
+				else if (logger.isDebugEnabled()) {
+					logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+				}
+			}
+
+			this.constructorMappings = constructorMappings;
+			this.propertyMappings = propertyMappings.toArray(new ColumnMapping[0]);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Resolved row mapping for class [" + mappedClass.mappedClass.getName() +
+						"] and columns " + Arrays.toString(columns) + ": " + describe());
+			}
+		}
+
+		public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+			Object[] args = new Object[this.constructorMappings.length];
+			for (int i = 0; i < args.length; i++) {
+				ColumnMapping mapping = this.constructorMappings[i];
+				args[i] = (mapping != null ? mapping.getValue(rs) :
+						DEFAULT_TYPE_VALUES.get(this.constructorParameterTypes[i].getType()));
+			}
+			T mappedObject = BeanUtils.instantiateClass(this.constructor, args);
+
+			for (ColumnMapping mapping : this.propertyMappings) {
+				Object value = mapping.getValue(rs);
+				Assert.state(mapping.writeMethod != null, "No write method");
+				try {
+					mapping.writeMethod.invoke(mappedObject, value);
+				}
+				catch (InvocationTargetException ex) {
+					throw new DataRetrievalFailureException("Unable to map column '" + mapping.column +
+							"' to property via " + mapping.writeMethod, ex.getTargetException());
+				}
+				catch (IllegalAccessException ex) {
+					throw new DataRetrievalFailureException("Unable to map column '" + mapping.column +
+							"' to property via " + mapping.writeMethod, ex);
+				}
+			}
+			return mappedObject;
+		}
+
+		private String describe() {
+			StringBuilder sb = new StringBuilder();
+			for (ColumnMapping mapping : this.constructorMappings) {
+				if (mapping != null) {
+					sb.append(mapping.column).append(" -> constructor, ");
+				}
+			}
+			for (ColumnMapping mapping : this.propertyMappings) {
+				Assert.state(mapping.writeMethod != null, "No write method");
+				sb.append(mapping.column).append(" -> ").append(mapping.writeMethod.getName()).append(", ");
+			}
+			return (sb.length() > 0 ? sb.substring(0, sb.length() - 2) : "no mapped columns");
+		}
+	}
+
+
+	/**
+	 * Mapping of one column to a constructor parameter or setter method.
+	 */
+	private final class ColumnMapping {
+
+		private final int index;
+
+		private final String column;
+
+		private final TypeDescriptor targetType;
+
+		private final Class<?> requiredType;
+
+		@Nullable
+		private final Method writeMethod;
+
+		ColumnMapping(int index, String column, TypeDescriptor targetType, @Nullable Method writeMethod) {
+			this.index = index;
+			this.column = column;
+			this.targetType = targetType;
+			this.requiredType = ClassUtils.resolvePrimitiveIfNecessary(targetType.getType());
+			this.writeMethod = writeMethod;
+		}
+
+		@Nullable
+		Object getValue(ResultSet rs) throws SQLException {
+			Object value = JdbcUtils.getResultSetValue(rs, this.index, this.requiredType);
+			if (value == null) {
+				Class<?> type = this.targetType.getType();
+				if (type.isPrimitive() && !isPrimitivesDefaultedForNullValue()) {
+					throw new TypeMismatchDataAccessException("Cannot map null value of column '" +
+							this.column + "' to primitive type [" + type.getName() + "]");
+				}
+				return DEFAULT_TYPE_VALUES.get(type);
+			}
+			if (this.requiredType.isInstance(value)) {
+				return value;
+			}
+			ConversionService conversionService = getConversionService();
+			TypeDescriptor sourceType = TypeDescriptor.forObject(value);
+			if (conversionService != null && conversionService.canConvert(sourceType, this.targetType)) {
+				return conversionService.convert(value, sourceType, this.targetType);
+			}
+			throw new TypeMismatchDataAccessException("Cannot convert value of type [" +
+					value.getClass().getName() + "] for column '" + this.column + "' to required type [" +
+					this.targetType + "]");
+		}
+	}
+
+
+	/**
+	 * {@link RowMapper} for a target class, resolving the mapping plan once
+	 * per {@link ResultSet}, i.e. for its first row.
+	 * <p>The plan is kept per thread, so that threads mapping different
+	 * ResultSets do not replace each other's plan, and the ResultSet is only
+	 * weakly referenced, so that a shared mapper does not keep it and its
+	 * statement and connection from being collected.
+	 */
+	private static final class PlanRowMapper<T> implements RowMapper<T> {
+
+		private final MappedClass<T> mappedClass;
+
+		private final ThreadLocal<ResolvedPlan<T>> resolvedPlan = new NamedThreadLocal<>("Resolved mapping plan");
+
+		PlanRowMapper(MappedClass<T> mappedClass) {
+			this.mappedClass = mappedClass;
+		}
+
+		@Override
+		public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+			ResolvedPlan<T> resolvedPlan = this.resolvedPlan.get();
+			if (resolvedPlan == null || rowNum == 0 || resolvedPlan.resultSet.get() != rs) {
+				resolvedPlan = new ResolvedPlan<>(rs, this.mappedClass.getPlan(rs.getMetaData()));
+				this.resolvedPlan.set(resolvedPlan);
+			}
+			return resolvedPlan.plan.mapRow(rs, rowNum);
+		}
+	}
+
+
+	/**
+	 * A mapping plan along with a weak reference to the {@link ResultSet}
+	 * it was resolved for.
+	 */
+	private static final class ResolvedPlan<T> {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan<T> plan;
+
+		ResolvedPlan(ResultSet resultSet, MappingPlan<T> plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
+}
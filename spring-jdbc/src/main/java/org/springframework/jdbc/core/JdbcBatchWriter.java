@@ -0,0 +1,576 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Writes a stream of items through a single parameterized SQL statement,
+ * in JDBC batches of a fixed size, as an alternative to
+ * {@link JdbcTemplate#batchUpdate(String, java.util.Collection, int, ParameterizedPreparedStatementSetter)}
+ * for bulk loads: the items are consumed from an {@link Iterator} or a
+ * {@link Stream} rather than held in a collection upfront, and only the
+ * aggregated update counts are kept instead of one count per item.
+ *
+ * <p>Each chunk of {@link #setBatchSize "batchSize"} items is sent with a
+ * single {@code executeBatch} call, through {@link JdbcOperations#execute(String, PreparedStatementCallback)}
+ * and therefore with a connection of its own unless one is bound to the
+ * current thread. With a {@link #setConcurrency "concurrency"} greater than 1,
+ * chunks are executed on a {@link #setTaskExecutor TaskExecutor}, spreading
+ * them across as many pooled connections, while the calling thread keeps
+ * reading items; at most that many chunks are in flight at any time.
+ *
+ * <p>If a {@link #setTransactionManager transaction manager} is specified,
+ * each chunk is executed in a new transaction of its own, so a failed chunk
+ * is rolled back as a whole. Otherwise, the outcome of a failed chunk depends
+ * on the auto-commit mode of the connection and on the driver.
+ *
+ * <p>Failures do not propagate: they are reported as
+ * {@link FailedChunk FailedChunks} of the returned {@link Result}, along with
+ * the items of the chunk, for example to be written again. By default, no
+ * further chunks are started after a failure: see {@link #setContinueOnError}.
+ * The exception is an {@link Error}, which stops the write regardless and is
+ * rethrown once the chunks in flight have completed.
+ *
+ * <p><b>NOTE: An instance of this class is thread-safe once configured.</b>
+ *
+ * @since 5.1.17
+ * @param <T> the item type
+ * @see ParameterizedPreparedStatementSetter
+ */
+public class JdbcBatchWriter<T> {
+
+	/** Default number of items per batch: 1000. */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private static final Log logger = LogFactory.getLog(JdbcBatchWriter.class);
+
+
+	private final JdbcOperations jdbcOperations;
+
+	private final String sql;
+
+	private final ParameterizedPreparedStatementSetter<? super T> statementSetter;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private int concurrency = 1;
+
+	@Nullable
+	private TaskExecutor taskExecutor;
+
+	@Nullable
+	private TransactionTemplate transactionTemplate;
+
+	private boolean continueOnError = false;
+
+
+	/**
+	 * Create a new {@code JdbcBatchWriter} for the given {@link DataSource}.
+	 * @param dataSource the JDBC DataSource to write to
+	 * @param sql the SQL statement to execute for each item
+	 * @param statementSetter the callback to set the parameters of the
+	 * statement for each item
+	 */
+	public JdbcBatchWriter(DataSource dataSource, String sql,
+			ParameterizedPreparedStatementSetter<? super T> statementSetter) {
+
+		this(new JdbcTemplate(dataSource), sql, statementSetter);
+	}
+
+	/**
+	 * Create a new {@code JdbcBatchWriter} for the given {@link JdbcOperations}.
+	 * @param jdbcOperations the JdbcOperations to execute the batches with
+	 * @param sql the SQL statement to execute for each item
+	 * @param statementSetter the callback to set the parameters of the
+	 * statement for each item
+	 */
+	public JdbcBatchWriter(JdbcOperations jdbcOperations, String sql,
+			ParameterizedPreparedStatementSetter<? super T> statementSetter) {
+
+		Assert.notNull(jdbcOperations, "JdbcOperations must not be null");
+		Assert.hasText(sql, "SQL must not be empty");
+		Assert.notNull(statementSetter, "ParameterizedPreparedStatementSetter must not be null");
+		this.jdbcOperations = jdbcOperations;
+		this.sql = sql;
+		this.statementSetter = statementSetter;
+	}
+
+
+	/**
+	 * Set the number of items to send with each {@code executeBatch} call.
+	 * <p>Default is 1000.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be positive");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the number of items to send with each {@code executeBatch} call.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the maximum number of chunks to execute concurrently, each on a
+	 * connection of its own. This should not exceed the size of the
+	 * connection pool, nor the number of threads of the
+	 * {@link #setTaskExecutor TaskExecutor}, if limited.
+	 * <p>Default is 1, executing all chunks on the calling thread.
+	 */
+	public void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "Concurrency must be positive");
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Return the maximum number of chunks to execute concurrently.
+	 */
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+	/**
+	 * Set the {@link TaskExecutor} to execute chunks with, if the
+	 * {@link #setConcurrency "concurrency"} is greater than 1.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}, with a thread per chunk.
+	 */
+	public void setTaskExecutor(@Nullable TaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set the transaction manager to execute each chunk in a new transaction
+	 * with. It needs to manage the DataSource that the {@link JdbcOperations}
+	 * of this writer operate on.
+	 * <p>Default is none, executing chunks without a transaction unless the
+	 * calling thread takes part in one and the concurrency is 1.
+	 */
+	public void setTransactionManager(@Nullable PlatformTransactionManager transactionManager) {
+		if (transactionManager != null) {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+			this.transactionTemplate = transactionTemplate;
+		}
+		else {
+			this.transactionTemplate = null;
+		}
+	}
+
+	/**
+	 * Set whether to keep writing chunks after a chunk failed, rather than to
+	 * stop reading items. Chunks that are in flight already complete either way.
+	 * <p>Default is "false".
+	 */
+	public void setContinueOnError(boolean continueOnError) {
+		this.continueOnError = continueOnError;
+	}
+
+	/**
+	 * Return whether to keep writing chunks after a chunk failed.
+	 */
+	public boolean isContinueOnError() {
+		return this.continueOnError;
+	}
+
+
+	/**
+	 * Write the items of the given stream, without closing it.
+	 * @param items the items to write
+	 * @return the outcome of the write
+	 * @see #write(Iterator)
+	 */
+	public Result<T> write(Stream<? extends T> items) {
+		Assert.notNull(items, "Stream must not be null");
+		return write(items.iterator());
+	}
+
+	/**
+	 * Write the items of the given iterator, in chunks of
+	 * {@link #setBatchSize "batchSize"} items, returning once all chunks
+	 * have completed.
+	 * @param items the items to write
+	 * @return the outcome of the write
+	 * @throws IllegalStateException if the calling thread is interrupted while
+	 * waiting for chunks in flight, in which case pending chunks are cancelled
+	 */
+	public Result<T> write(Iterator<? extends T> items) {
+		Assert.notNull(items, "Iterator must not be null");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL batch writes [" + this.sql + "] with a batch size of " +
+					this.batchSize + " and a concurrency of " + this.concurrency);
+		}
+		ResultCollector<T> collector = new ResultCollector<>();
+		if (this.concurrency == 1) {
+			writeSerially(items, collector);
+		}
+		else {
+			writeConcurrently(items, collector);
+		}
+		Error error = collector.getError();
+		if (error != null) {
+			throw error;
+		}
+		return collector.toResult();
+	}
+
+	private void writeSerially(Iterator<? extends T> items, ResultCollector<T> collector) {
+		int index = 0;
+		long offset = 0;
+		while (items.hasNext() && collector.shouldContinue(this.continueOnError)) {
+			List<T> chunk = nextChunk(items);
+			writeChunk(index++, offset, chunk, collector);
+			offset += chunk.size();
+		}
+	}
+
+	private void writeConcurrently(Iterator<? extends T> items, ResultCollector<T> collector) {
+		TaskExecutor executor = this.taskExecutor;
+		if (executor == null) {
+			executor = new SimpleAsyncTaskExecutor(getClass().getSimpleName() + "-");
+		}
+		Semaphore inFlight = new Semaphore(this.concurrency);
+		List<Future<?>> pending = new ArrayList<>(this.concurrency);
+		int index = 0;
+		long offset = 0;
+		try {
+			while (items.hasNext() && collector.shouldContinue(this.continueOnError)) {
+				List<T> chunk = nextChunk(items);
+				int chunkIndex = index++;
+				long chunkOffset = offset;
+				offset += chunk.size();
+				inFlight.acquire();
+				FutureTask<Void> task = new FutureTask<>(() -> {
+					try {
+						writeChunk(chunkIndex, chunkOffset, chunk, collector);
+					}
+					finally {
+						inFlight.release();
+					}
+				}, null);
+				pending.removeIf(Future::isDone);
+				pending.add(task);
+				try {
+					executor.execute(task);
+				}
+				catch (Throwable ex) {
+					pending.remove(task);
+					inFlight.release();
+					collector.failed(new FailedChunk<>(chunkIndex, chunkOffset, chunk, ex));
+				}
+			}
+			// Wait for the chunks in flight to complete
+			inFlight.acquire(this.concurrency);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			for (Future<?> future : pending) {
+				future.cancel(true);
+			}
+			throw new IllegalStateException("Interrupted while waiting for SQL batch writes [" + this.sql + "]", ex);
+		}
+	}
+
+	private List<T> nextChunk(Iterator<? extends T> items) {
+		List<T> chunk = new ArrayList<>(this.batchSize);
+		while (chunk.size() < this.batchSize && items.hasNext()) {
+			chunk.add(items.next());
+		}
+		return chunk;
+	}
+
+	private void writeChunk(int index, long offset, List<T> chunk, ResultCollector<T> collector) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Sending SQL batch write #" + (index + 1) + " with " + chunk.size() + " items");
+		}
+		try {
+			TransactionTemplate transactionTemplate = this.transactionTemplate;
+			int[] updateCounts = (transactionTemplate != null ?
+					transactionTemplate.execute(status -> executeChunk(chunk)) : executeChunk(chunk));
+			Assert.state(updateCounts != null, "No update counts");
+			collector.completed(chunk.size(), updateCounts);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("SQL batch write #" + (index + 1) + " failed", ex);
+			}
+			collector.failed(new FailedChunk<>(index, offset, chunk, ex));
+		}
+	}
+
+	private int[] executeChunk(List<T> chunk) {
+		int[] updateCounts = this.jdbcOperations.execute(this.sql, (PreparedStatementCallback<int[]>) ps -> {
+			try {
+				if (JdbcUtils.supportsBatchUpdates(ps.getConnection())) {
+					for (T item : chunk) {
+						this.statementSetter.setValues(ps, item);
+						ps.addBatch();
+					}
+					return ps.executeBatch();
+				}
+				int[] rowsAffected = new int[chunk.size()];
+				for (int i = 0; i < rowsAffected.length; i++) {
+					this.statementSetter.setValues(ps, chunk.get(i));
+					rowsAffected[i] = ps.executeUpdate();
+				}
+				return rowsAffected;
+			}
+			finally {
+				if (this.statementSetter instanceof ParameterDisposer) {
+					((ParameterDisposer) this.statementSetter).cleanupParameters();
+				}
+			}
+		});
+		Assert.state(updateCounts != null, "No update counts");
+		return updateCounts;
+	}
+
+
+	/**
+	 * The outcome of a {@link JdbcBatchWriter#write write}.
+	 * @param <T> the item type
+	 */
+	public static final class Result<T> {
+
+		private final long chunkCount;
+
+		private final long itemCount;
+
+		private final long updateCount;
+
+		private final long successNoInfoCount;
+
+		private final List<FailedChunk<T>> failedChunks;
+
+		Result(long chunkCount, long itemCount, long updateCount, long successNoInfoCount,
+				List<FailedChunk<T>> failedChunks) {
+
+			this.chunkCount = chunkCount;
+			this.itemCount = itemCount;
+			this.updateCount = updateCount;
+			this.successNoInfoCount = successNoInfoCount;
+			this.failedChunks = failedChunks;
+		}
+
+		/**
+		 * Return the number of chunks that were executed successfully.
+		 */
+		public long getChunkCount() {
+			return this.chunkCount;
+		}
+
+		/**
+		 * Return the number of items of the chunks that were executed successfully.
+		 */
+		public long getItemCount() {
+			return this.itemCount;
+		}
+
+		/**
+		 * Return the sum of the update counts reported by the driver for the
+		 * chunks that were executed successfully.
+		 * @see #getSuccessNoInfoCount()
+		 */
+		public long getUpdateCount() {
+			return this.updateCount;
+		}
+
+		/**
+		 * Return the number of items for which the driver did not report an
+		 * update count, i.e. {@link Statement#SUCCESS_NO_INFO}.
+		 */
+		public long getSuccessNoInfoCount() {
+			return this.successNoInfoCount;
+		}
+
+		/**
+		 * Return whether all chunks were executed successfully.
+		 */
+		public boolean isSuccessful() {
+			return this.failedChunks.isEmpty();
+		}
+
+		/**
+		 * Return the chunks that failed, in the order of their items.
+		 */
+		public List<FailedChunk<T>> getFailedChunks() {
+			return this.failedChunks;
+		}
+
+		@Override
+		public String toString() {
+			return "JdbcBatchWriter.Result [chunkCount=" + this.chunkCount + ", itemCount=" + this.itemCount +
+					", updateCount=" + this.updateCount + ", successNoInfoCount=" + this.successNoInfoCount +
+					", failedChunks=" + this.failedChunks.size() + "]";
+		}
+	}
+
+
+	/**
+	 * A chunk of items that could not be written.
+	 * @param <T> the item type
+	 */
+	public static final class FailedChunk<T> {
+
+		private final int index;
+
+		private final long offset;
+
+		private final List<T> items;
+
+		private final Throwable exception;
+
+		FailedChunk(int index, long offset, List<T> items, Throwable exception) {
+			this.index = index;
+			this.offset = offset;
+			this.items = Collections.unmodifiableList(items);
+			this.exception = exception;
+		}
+
+		/**
+		 * Return the 0-based index of the chunk.
+		 */
+		public int getIndex() {
+			return this.index;
+		}
+
+		/**
+		 * Return the 0-based position of the first item of the chunk
+		 * among all items written.
+		 */
+		public long getOffset() {
+			return this.offset;
+		}
+
+		/**
+		 * Return the items of the chunk.
+		 */
+		public List<T> getItems() {
+			return this.items;
+		}
+
+		/**
+		 * Return the exception that the chunk failed with, typically a
+		 * {@link org.springframework.dao.DataAccessException}.
+		 */
+		public Throwable getException() {
+			return this.exception;
+		}
+
+		@Override
+		public String toString() {
+			return "FailedChunk [index=" + this.index + ", offset=" + this.offset +
+					", items=" + this.items.size() + ", exception=" + this.exception + "]";
+		}
+	}
+
+
+	/**
+	 * Aggregates the outcome of chunks, possibly from concurrent threads.
+	 */
+	private static class ResultCollector<T> {
+
+		private final LongAdder chunkCount = new LongAdder();
+
+		private final LongAdder itemCount = new LongAdder();
+
+		private final LongAdder updateCount = new LongAdder();
+
+		private final LongAdder successNoInfoCount = new LongAdder();
+
+		private final List<FailedChunk<T>> failedChunks = new ArrayList<>();
+
+		private final AtomicBoolean failed = new AtomicBoolean();
+
+		@Nullable
+		private volatile Error error;
+
+		void completed(int itemCount, int[] updateCounts) {
+			long updates = 0;
+			long successNoInfo = 0;
+			for (int updateCount : updateCounts) {
+				if (updateCount >= 0) {
+					updates += updateCount;
+				}
+				else if (updateCount == Statement.SUCCESS_NO_INFO) {
+					successNoInfo++;
+				}
+			}
+			this.chunkCount.increment();
+			this.itemCount.add(itemCount);
+			this.updateCount.add(updates);
+			this.successNoInfoCount.add(successNoInfo);
+		}
+
+		void failed(FailedChunk<T> failedChunk) {
+			synchronized (this.failedChunks) {
+				this.failedChunks.add(failedChunk);
+				if (failedChunk.getException() instanceof Error && this.error == null) {
+					this.error = (Error) failedChunk.getException();
+				}
+			}
+			this.failed.set(true);
+		}
+
+		boolean shouldContinue(boolean continueOnError) {
+			return (continueOnError ? this.error == null : !this.failed.get());
+		}
+
+		@Nullable
+		Error getError() {
+			return this.error;
+		}
+
+		Result<T> toResult() {
+			List<FailedChunk<T>> failedChunks;
+			synchronized (this.failedChunks) {
+				failedChunks = new ArrayList<>(this.failedChunks);
+			}
+			failedChunks.sort(Comparator.comparingInt(FailedChunk::getIndex));
+			return new Result<>(this.chunkCount.sum(), this.itemCount.sum(), this.updateCount.sum(),
+					this.successNoInfoCount.sum(), Collections.unmodifiableList(failedChunks));
+		}
+	}
+
+}
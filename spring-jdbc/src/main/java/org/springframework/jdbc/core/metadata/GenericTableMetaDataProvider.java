@@ -46,6 +46,23 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 	/** Logger available to subclasses. */
 	protected static final Log logger = LogFactory.getLog(TableMetaDataProvider.class);
 
+	/**
+	 * database products we know supporting multi-row inserts, with the maximum
+	 * number of bind parameters per statement imposed by the database or its driver.
+	 */
+	private static final Map<String, Integer> productsSupportingMultiRowInsert = new HashMap<>(16);
+
+	static {
+		productsSupportingMultiRowInsert.put("Apache Derby", 32767);
+		productsSupportingMultiRowInsert.put("DB2", 32767);
+		productsSupportingMultiRowInsert.put("H2", 32767);
+		productsSupportingMultiRowInsert.put("HSQL Database Engine", 32767);
+		productsSupportingMultiRowInsert.put("Microsoft SQL Server", 2100);
+		productsSupportingMultiRowInsert.put("MySQL", 65535);
+		productsSupportingMultiRowInsert.put("PostgreSQL", 32767);
+		productsSupportingMultiRowInsert.put("SQLite", 999);
+	}
+
 	/** indicator whether column meta-data should be used. */
 	private boolean tableColumnMetaDataUsed = false;
 
@@ -73,6 +90,15 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 	private List<String> productsNotSupportingGeneratedKeysColumnNameArray =
 			Arrays.asList("Apache Derby", "HSQL Database Engine");
 
+	/** indicates whether multi-row inserts are supported. */
+	private boolean multiRowInsertSupported = false;
+
+	/** the maximum number of bind parameters per statement, or 0 if not known. */
+	private int maxStatementParameterCount = 0;
+
+	/** the maximum number of rows per multi-row insert statement, or 0 if not known. */
+	private int maxMultiRowInsertRowCount = 0;
+
 	/** Collection of TableParameterMetaData objects. */
 	private List<TableParameterMetaData> tableParameterMetaData = new ArrayList<>();
 
@@ -142,6 +168,33 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 		return this.generatedKeysColumnNameArraySupported;
 	}
 
+	public void setMultiRowInsertSupported(boolean multiRowInsertSupported) {
+		this.multiRowInsertSupported = multiRowInsertSupported;
+	}
+
+	@Override
+	public boolean isMultiRowInsertSupported() {
+		return this.multiRowInsertSupported;
+	}
+
+	public void setMaxStatementParameterCount(int maxStatementParameterCount) {
+		this.maxStatementParameterCount = maxStatementParameterCount;
+	}
+
+	@Override
+	public int getMaxStatementParameterCount() {
+		return this.maxStatementParameterCount;
+	}
+
+	public void setMaxMultiRowInsertRowCount(int maxMultiRowInsertRowCount) {
+		this.maxMultiRowInsertRowCount = maxMultiRowInsertRowCount;
+	}
+
+	@Override
+	public int getMaxMultiRowInsertRowCount() {
+		return this.maxMultiRowInsertRowCount;
+	}
+
 
 	@Override
 	public void initializeWithMetaData(DatabaseMetaData databaseMetaData) throws SQLException {
@@ -179,6 +232,19 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 					setGeneratedKeysColumnNameArraySupported(false);
 				}
 			}
+			Integer maxStatementParameterCount =
+					productsSupportingMultiRowInsert.get(JdbcUtils.commonDatabaseName(databaseProductName));
+			if (maxStatementParameterCount != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Multi-row inserts are supported for " + databaseProductName);
+				}
+				setMultiRowInsertSupported(true);
+				setMaxStatementParameterCount(maxStatementParameterCount);
+				if ("Microsoft SQL Server".equals(databaseProductName)) {
+					// Table value constructors are limited to 1000 rows
+					setMaxMultiRowInsertRowCount(1000);
+				}
+			}
 		}
 		catch (SQLException ex) {
 			if (logger.isWarnEnabled()) {
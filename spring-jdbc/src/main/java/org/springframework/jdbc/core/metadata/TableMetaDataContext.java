@@ -270,6 +270,19 @@ public class TableMetaDataContext {
 	 * @return the insert string to be used
 	 */
 	public String createInsertString(String... generatedKeyNames) {
+		return createMultiRowInsertString(1, generatedKeyNames);
+	}
+
+	/**
+	 * Build an insert string for the given number of rows, based on configuration
+	 * and meta-data information, repeating the values clause for each row.
+	 * @param rowCount the number of rows to insert with a single statement
+	 * @return the insert string to be used
+	 * @since 5.1.17
+	 * @see #getMaxRowsPerMultiRowInsert(int)
+	 */
+	public String createMultiRowInsertString(int rowCount, String... generatedKeyNames) {
+		Assert.isTrue(rowCount > 0, "Row count must be positive");
 		Set<String> keys = new LinkedHashSet<>(generatedKeyNames.length);
 		for (String key : generatedKeyNames) {
 			keys.add(key.toUpperCase());
@@ -305,13 +318,18 @@ public class TableMetaDataContext {
 						getTableName() + "' so an insert statement can't be generated");
 			}
 		}
-		for (int i = 0; i < columnCount; i++) {
-			if (i > 0) {
-				insertStatement.append(", ");
+		for (int row = 0; row < rowCount; row++) {
+			if (row > 0) {
+				insertStatement.append(", (");
+			}
+			for (int i = 0; i < columnCount; i++) {
+				if (i > 0) {
+					insertStatement.append(", ");
+				}
+				insertStatement.append("?");
 			}
-			insertStatement.append("?");
+			insertStatement.append(")");
 		}
-		insertStatement.append(")");
 		return insertStatement.toString();
 	}
 
@@ -385,6 +403,33 @@ public class TableMetaDataContext {
 		return obtainMetaDataProvider().getSimpleQueryForGetGeneratedKey(tableName, keyColumnName);
 	}
 
+	/**
+	 * Determine the number of rows to insert with a single multi-row insert
+	 * statement, within the parameter and row limits of the database.
+	 * @param maxRowCount the maximum number of rows requested by the caller
+	 * @return the number of rows per statement, or 1 if the database does
+	 * not support multi-row inserts
+	 * @since 5.1.17
+	 * @see TableMetaDataProvider#isMultiRowInsertSupported()
+	 */
+	public int getMaxRowsPerMultiRowInsert(int maxRowCount) {
+		TableMetaDataProvider provider = obtainMetaDataProvider();
+		if (!provider.isMultiRowInsertSupported()) {
+			return 1;
+		}
+		int rowCount = maxRowCount;
+		int columnCount = getTableColumns().size();
+		int maxParameterCount = provider.getMaxStatementParameterCount();
+		if (maxParameterCount > 0 && columnCount > 0) {
+			rowCount = Math.min(rowCount, maxParameterCount / columnCount);
+		}
+		int maxMultiRowInsertRowCount = provider.getMaxMultiRowInsertRowCount();
+		if (maxMultiRowInsertRowCount > 0) {
+			rowCount = Math.min(rowCount, maxMultiRowInsertRowCount);
+		}
+		return Math.max(rowCount, 1);
+	}
+
 	/**
 	 * Is a column name String array for retrieving generated keys supported:
 	 * {@link java.sql.Connection#createStruct(String, Object[])}?
@@ -117,6 +117,36 @@ public interface TableMetaDataProvider {
 	 */
 	boolean isGeneratedKeysColumnNameArraySupported();
 
+	/**
+	 * Does this database support inserting multiple rows with a single
+	 * {@code INSERT ... VALUES (...), (...)} statement?
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.1.17
+	 */
+	default boolean isMultiRowInsertSupported() {
+		return false;
+	}
+
+	/**
+	 * Get the maximum number of bind parameters in a single statement,
+	 * as imposed by the database or its driver.
+	 * <p>The default implementation returns 0, indicating no known limit.
+	 * @since 5.1.17
+	 */
+	default int getMaxStatementParameterCount() {
+		return 0;
+	}
+
+	/**
+	 * Get the maximum number of rows in a single multi-row insert statement.
+	 * <p>The default implementation returns 0, indicating no known limit.
+	 * @since 5.1.17
+	 * @see #isMultiRowInsertSupported()
+	 */
+	default int getMaxMultiRowInsertRowCount() {
+		return 0;
+	}
+
 	/**
 	 * Get the table parameter meta-data that is currently used.
 	 * @return a List of {@link TableParameterMetaData}
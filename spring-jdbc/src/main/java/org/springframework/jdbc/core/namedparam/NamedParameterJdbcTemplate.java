@@ -18,17 +18,23 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.LinkedHashMap;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.ArgumentTypePreparedStatementSetter;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcBatchWriter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
@@ -39,6 +45,7 @@ import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
@@ -78,14 +85,7 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
 	/** Cache of original SQL String to ParsedSql representation. */
-	@SuppressWarnings("serial")
-	private final Map<String, ParsedSql> parsedSqlCache =
-			new LinkedHashMap<String, ParsedSql>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private final Map<String, ParsedSql> parsedSqlCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
 
 
 	/**
@@ -228,6 +228,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return query(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(getPreparedStatementCreator(sql, paramSource), rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
@@ -379,6 +393,40 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	}
 
 
+	/**
+	 * Create a {@link JdbcBatchWriter} for the given SQL statement with named
+	 * parameters, writing a {@link SqlParameterSource} per item through the
+	 * wrapped {@link #getJdbcOperations() JdbcOperations}.
+	 * <p>As the statement is shared by all items, each named parameter maps to
+	 * a single placeholder: collection values are not expanded, and an item with
+	 * a collection value fails with an {@link InvalidDataAccessApiUsageException}.
+	 * @param sql the SQL statement to execute for each item
+	 * @return the batch writer, to be configured further
+	 * @since 5.1.17
+	 * @see JdbcBatchWriter#write(java.util.Iterator)
+	 */
+	public JdbcBatchWriter<SqlParameterSource> batchWriter(String sql) {
+		ParsedSql parsedSql = getParsedSql(sql);
+		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, null);
+		return new JdbcBatchWriter<>(getJdbcOperations(), sqlToUse, (ps, paramSource) -> {
+			Object[] values = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
+			for (int i = 0; i < values.length; i++) {
+				Object value = values[i];
+				if (value instanceof SqlParameterValue) {
+					value = ((SqlParameterValue) value).getValue();
+				}
+				if (value instanceof Collection) {
+					throw new InvalidDataAccessApiUsageException("Collection value for parameter '" +
+							parsedSql.getParameterNames().get(i) + "' not supported by batch writer " +
+							"since the statement is not expanded per item: " + sql);
+				}
+			}
+			int[] argTypes = NamedParameterUtils.buildSqlTypeArray(parsedSql, paramSource);
+			new ArgumentTypePreparedStatementSetter(values, argTypes).setValues(ps);
+		});
+	}
+
+
 	/**
 	 * Build a {@link PreparedStatementCreator} based on the given SQL and named parameters.
 	 * <p>Note: Directly called from all {@code query} variants. Delegates to the common
@@ -421,22 +469,33 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/**
 	 * Obtain a parsed representation of the given SQL statement.
-	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries.
+	 * <p>The default implementation uses a cache with an upper limit of 256 entries,
+	 * looking up cached statements without locking. Once the limit is reached,
+	 * an arbitrary other entry is evicted for each newly parsed statement.
 	 * @param sql the original SQL statement
 	 * @return a representation of the parsed SQL statement
 	 */
 	protected ParsedSql getParsedSql(String sql) {
-		if (getCacheLimit() <= 0) {
+		int cacheLimit = getCacheLimit();
+		if (cacheLimit <= 0) {
 			return NamedParameterUtils.parseSqlStatement(sql);
 		}
-		synchronized (this.parsedSqlCache) {
-			ParsedSql parsedSql = this.parsedSqlCache.get(sql);
-			if (parsedSql == null) {
-				parsedSql = NamedParameterUtils.parseSqlStatement(sql);
-				this.parsedSqlCache.put(sql, parsedSql);
+		ParsedSql parsedSql = this.parsedSqlCache.get(sql);
+		if (parsedSql == null) {
+			parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+			ParsedSql existing = this.parsedSqlCache.putIfAbsent(sql, parsedSql);
+			if (existing != null) {
+				return existing;
+			}
+			Iterator<String> iterator = this.parsedSqlCache.keySet().iterator();
+			while (this.parsedSqlCache.size() > cacheLimit && iterator.hasNext()) {
+				String cachedSql = iterator.next();
+				if (!cachedSql.equals(sql)) {
+					iterator.remove();
+				}
 			}
-			return parsedSql;
 		}
+		return parsedSql;
 	}
 
 	/**
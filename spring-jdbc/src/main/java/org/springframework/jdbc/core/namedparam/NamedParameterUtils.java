@@ -17,9 +17,9 @@
 package org.springframework.jdbc.core.namedparam;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -260,61 +260,120 @@ public abstract class NamedParameterUtils {
 	 * be used for a select list. Select lists should be limited to 100 or fewer elements.
 	 * A larger number of elements is not guaranteed to be supported by the database and
 	 * is strictly vendor-dependent.
+	 * <p>The resulting SQL statement is cached in the given {@code ParsedSql} per
+	 * number of placeholders for each parameter, so repeated executions with the
+	 * same collection sizes do not build the statement again.
 	 * @param parsedSql the parsed representation of the SQL statement
 	 * @param paramSource the source for named parameters
 	 * @return the SQL statement with substituted parameters
 	 * @see #parseSqlStatement
 	 */
 	public static String substituteNamedParameters(ParsedSql parsedSql, @Nullable SqlParameterSource paramSource) {
-		String originalSql = parsedSql.getOriginalSql();
+		if (parsedSql.getParameterNames().isEmpty()) {
+			return parsedSql.getOriginalSql();
+		}
+		int[] expansion = determineExpansion(parsedSql, paramSource);
+		return parsedSql.getSubstitutedSql(expansion, layout -> buildSubstitutedSql(parsedSql, layout));
+	}
+
+	/**
+	 * Determine the placeholder layout for the given parameter values: for each
+	 * parameter, either -1 for a single placeholder, or the number of elements
+	 * of a collection value followed by, for each element, -1 for a single
+	 * placeholder or the length of an expression list.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param paramSource the source for named parameters
+	 * @return the placeholder layout, or {@code null} if no parameter value
+	 * is a collection, i.e. each parameter maps to a single placeholder
+	 */
+	@Nullable
+	private static int[] determineExpansion(ParsedSql parsedSql, @Nullable SqlParameterSource paramSource) {
+		if (paramSource == null) {
+			return null;
+		}
 		List<String> paramNames = parsedSql.getParameterNames();
-		if (paramNames.isEmpty()) {
-			return originalSql;
+		int[] layout = null;
+		int length = 0;
+		for (int i = 0; i < paramNames.size(); i++) {
+			String paramName = paramNames.get(i);
+			Object value = (paramSource.hasValue(paramName) ? paramSource.getValue(paramName) : null);
+			if (value instanceof SqlParameterValue) {
+				value = ((SqlParameterValue) value).getValue();
+			}
+			if (!(value instanceof Collection)) {
+				if (layout != null) {
+					layout = ensureCapacity(layout, length + 1);
+					layout[length++] = -1;
+				}
+				continue;
+			}
+			Collection<?> entries = (Collection<?>) value;
+			if (layout == null) {
+				layout = new int[paramNames.size() + entries.size()];
+				Arrays.fill(layout, 0, i, -1);
+				length = i;
+			}
+			layout = ensureCapacity(layout, length + 1);
+			int sizeIndex = length++;
+			int size = 0;
+			for (Object entry : entries) {
+				layout = ensureCapacity(layout, length + 1);
+				layout[length++] = (entry instanceof Object[] ? ((Object[]) entry).length : -1);
+				size++;
+			}
+			layout[sizeIndex] = size;
 		}
+		return (layout != null ? Arrays.copyOf(layout, length) : null);
+	}
+
+	private static int[] ensureCapacity(int[] layout, int minLength) {
+		return (layout.length >= minLength ? layout : Arrays.copyOf(layout, Math.max(minLength, layout.length * 2)));
+	}
+
+	/**
+	 * Build the SQL statement with substituted parameters for the given
+	 * placeholder layout.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param layout the placeholder layout, as determined by
+	 * {@link #determineExpansion}, or {@code null} for a single placeholder
+	 * per parameter
+	 * @return the SQL statement with substituted parameters
+	 */
+	private static String buildSubstitutedSql(ParsedSql parsedSql, @Nullable int[] layout) {
+		String originalSql = parsedSql.getOriginalSql();
+		List<String> paramNames = parsedSql.getParameterNames();
 		StringBuilder actualSql = new StringBuilder(originalSql.length());
 		int lastIndex = 0;
+		int position = 0;
 		for (int i = 0; i < paramNames.size(); i++) {
-			String paramName = paramNames.get(i);
 			int[] indexes = parsedSql.getParameterIndexes(i);
 			int startIndex = indexes[0];
 			int endIndex = indexes[1];
 			actualSql.append(originalSql, lastIndex, startIndex);
-			if (paramSource != null && paramSource.hasValue(paramName)) {
-				Object value = paramSource.getValue(paramName);
-				if (value instanceof SqlParameterValue) {
-					value = ((SqlParameterValue) value).getValue();
-				}
-				if (value instanceof Collection) {
-					Iterator<?> entryIter = ((Collection<?>) value).iterator();
-					int k = 0;
-					while (entryIter.hasNext()) {
-						if (k > 0) {
-							actualSql.append(", ");
-						}
-						k++;
-						Object entryItem = entryIter.next();
-						if (entryItem instanceof Object[]) {
-							Object[] expressionList = (Object[]) entryItem;
-							actualSql.append('(');
-							for (int m = 0; m < expressionList.length; m++) {
-								if (m > 0) {
-									actualSql.append(", ");
-								}
-								actualSql.append('?');
+			int size = (layout != null ? layout[position++] : -1);
+			if (size < 0) {
+				actualSql.append('?');
+			}
+			else {
+				for (int k = 0; k < size; k++) {
+					if (k > 0) {
+						actualSql.append(", ");
+					}
+					int expressionListLength = layout[position++];
+					if (expressionListLength < 0) {
+						actualSql.append('?');
+					}
+					else {
+						actualSql.append('(');
+						for (int m = 0; m < expressionListLength; m++) {
+							if (m > 0) {
+								actualSql.append(", ");
 							}
-							actualSql.append(')');
-						}
-						else {
 							actualSql.append('?');
 						}
+						actualSql.append(')');
 					}
 				}
-				else {
-					actualSql.append('?');
-				}
-			}
-			else {
-				actualSql.append('?');
 			}
 			lastIndex = endIndex;
 		}
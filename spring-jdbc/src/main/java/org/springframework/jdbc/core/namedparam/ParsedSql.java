@@ -17,7 +17,14 @@
 package org.springframework.jdbc.core.namedparam;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
 
 /**
  * Holds information about a parsed SQL statement.
@@ -28,6 +35,12 @@ import java.util.List;
  */
 public class ParsedSql {
 
+	/**
+	 * Maximum number of distinct collection expansions cached per statement.
+	 */
+	private static final int EXPANDED_SQL_CACHE_LIMIT = 32;
+
+
 	private String originalSql;
 
 	private List<String> parameterNames = new ArrayList<>();
@@ -40,6 +53,12 @@ public class ParsedSql {
 
 	private int totalParameterCount;
 
+	@Nullable
+	private volatile String substitutedSql;
+
+	@Nullable
+	private volatile Map<Expansion, String> expandedSqlCache;
+
 
 	/**
 	 * Create a new instance of the {@link ParsedSql} class.
@@ -133,6 +152,47 @@ public class ParsedSql {
 		return this.totalParameterCount;
 	}
 
+	/**
+	 * Return the SQL statement with its parameters substituted for JDBC
+	 * placeholders, generating it on first access.
+	 * @param expansion the placeholder layout for collection parameters,
+	 * as determined by {@link NamedParameterUtils}, or {@code null} if no
+	 * parameter is expanded, i.e. each one maps to a single placeholder
+	 * @param generator the function to build the SQL statement for the
+	 * given expansion
+	 * @since 5.1.17
+	 */
+	String getSubstitutedSql(@Nullable int[] expansion, Function<int[], String> generator) {
+		if (expansion == null) {
+			String sql = this.substitutedSql;
+			if (sql == null) {
+				sql = generator.apply(null);
+				this.substitutedSql = sql;
+			}
+			return sql;
+		}
+		Map<Expansion, String> cache = this.expandedSqlCache;
+		if (cache == null) {
+			cache = new ConcurrentHashMap<>(EXPANDED_SQL_CACHE_LIMIT);
+			this.expandedSqlCache = cache;
+		}
+		Expansion key = new Expansion(expansion);
+		String sql = cache.get(key);
+		if (sql == null) {
+			sql = generator.apply(expansion);
+			if (cache.size() >= EXPANDED_SQL_CACHE_LIMIT) {
+				// Make room for the new layout, evicting an arbitrary one
+				Iterator<Expansion> iterator = cache.keySet().iterator();
+				if (iterator.hasNext()) {
+					iterator.next();
+					iterator.remove();
+				}
+			}
+			cache.put(key, sql);
+		}
+		return sql;
+	}
+
 
 	/**
 	 * Exposes the original SQL String.
@@ -142,4 +202,31 @@ public class ParsedSql {
 		return this.originalSql;
 	}
 
+
+	/**
+	 * Cache key for the placeholder layout of expanded collection parameters.
+	 */
+	private static final class Expansion {
+
+		private final int[] layout;
+
+		private final int hashCode;
+
+		Expansion(int[] layout) {
+			this.layout = layout;
+			this.hashCode = Arrays.hashCode(layout);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (this == other || (other instanceof Expansion &&
+					Arrays.equals(this.layout, ((Expansion) other).layout)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
 }
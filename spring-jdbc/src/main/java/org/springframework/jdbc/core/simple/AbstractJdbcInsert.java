@@ -88,6 +88,12 @@ public abstract class AbstractJdbcInsert {
 	/** The SQL type information for the insert columns. */
 	private int[] insertTypes = new int[0];
 
+	/** The maximum number of rows per batch insert statement. */
+	private int maxRowsPerInsert = 1;
+
+	/** The number of rows per batch insert statement, within the limits of the database. */
+	private int rowsPerInsert = 1;
+
 
 	/**
 	 * Constructor to be used when initializing using a {@link DataSource}.
@@ -221,6 +227,30 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.setOverrideIncludeSynonymsDefault(override);
 	}
 
+	/**
+	 * Specify the maximum number of rows per statement for batch inserts.
+	 * <p>The default is 1, using single-row insert statements sent as a JDBC batch.
+	 * A higher number switches batch inserts to multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statements, if supported by the
+	 * database, with the number of rows further limited by the maximum number
+	 * of parameters per statement of the database or its driver.
+	 * @since 5.1.17
+	 * @see org.springframework.jdbc.core.metadata.TableMetaDataProvider#isMultiRowInsertSupported()
+	 */
+	public void setMaxRowsPerInsert(int maxRowsPerInsert) {
+		checkIfConfigurationModificationIsAllowed();
+		Assert.isTrue(maxRowsPerInsert > 0, "Max rows per insert must be positive");
+		this.maxRowsPerInsert = maxRowsPerInsert;
+	}
+
+	/**
+	 * Get the maximum number of rows per statement for batch inserts.
+	 * @since 5.1.17
+	 */
+	public int getMaxRowsPerInsert() {
+		return this.maxRowsPerInsert;
+	}
+
 	/**
 	 * Get the insert string to be used.
 	 */
@@ -277,8 +307,14 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.processMetaData(dataSource, getColumnNames(), getGeneratedKeyNames());
 		this.insertString = this.tableMetaDataContext.createInsertString(getGeneratedKeyNames());
 		this.insertTypes = this.tableMetaDataContext.createInsertTypes();
+		if (this.maxRowsPerInsert > 1) {
+			this.rowsPerInsert = this.tableMetaDataContext.getMaxRowsPerMultiRowInsert(this.maxRowsPerInsert);
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Compiled insert object: insert string is [" + this.insertString + "]");
+			if (this.rowsPerInsert > 1) {
+				logger.debug("Using multi-row inserts with up to " + this.rowsPerInsert + " rows per statement");
+			}
 		}
 		onCompileInternal();
 	}
@@ -566,6 +602,9 @@ public abstract class AbstractJdbcInsert {
 	 * Delegate method to execute the batch insert.
 	 */
 	private int[] executeBatchInternal(final List<List<Object>> batchValues) {
+		if (this.rowsPerInsert > 1 && batchValues.size() > 1) {
+			return executeMultiRowBatchInternal(batchValues);
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing statement " + getInsertString() + " with batch of size: " + batchValues.size());
 		}
@@ -582,6 +621,84 @@ public abstract class AbstractJdbcInsert {
 				});
 	}
 
+	/**
+	 * Delegate method to execute the batch insert with multi-row insert statements.
+	 * <p>Statements for full chunks of rows are sent as a JDBC batch, followed by a
+	 * statement for the remaining rows. As the update count of a statement covers
+	 * all of its rows, each row is reported with 1 if the update count matches
+	 * the number of rows, or {@link Statement#SUCCESS_NO_INFO} otherwise.
+	 */
+	private int[] executeMultiRowBatchInternal(final List<List<Object>> batchValues) {
+		final int rowCount = Math.min(this.rowsPerInsert, batchValues.size());
+		final int statementCount = batchValues.size() / rowCount;
+		int remainingRowCount = batchValues.size() % rowCount;
+		int[] rowsAffected = new int[batchValues.size()];
+
+		String insertString = this.tableMetaDataContext.createMultiRowInsertString(rowCount, getGeneratedKeyNames());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing statement " + insertString + " with batch of size: " + statementCount);
+		}
+		int[] updateCounts = getJdbcTemplate().batchUpdate(insertString,
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						List<List<Object>> rows = batchValues.subList(i * rowCount, (i + 1) * rowCount);
+						setMultiRowParameterValues(ps, rows, getInsertTypes());
+					}
+					@Override
+					public int getBatchSize() {
+						return statementCount;
+					}
+				});
+		for (int i = 0; i < updateCounts.length; i++) {
+			fillRowsAffected(rowsAffected, i * rowCount, rowCount, updateCounts[i]);
+		}
+
+		if (remainingRowCount > 0) {
+			int offset = statementCount * rowCount;
+			List<List<Object>> remainingValues = batchValues.subList(offset, batchValues.size());
+			String remainingInsertString = (remainingRowCount > 1 ?
+					this.tableMetaDataContext.createMultiRowInsertString(remainingRowCount, getGeneratedKeyNames()) :
+					getInsertString());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing statement " + remainingInsertString);
+			}
+			int updateCount = getJdbcTemplate().update(remainingInsertString,
+					ps -> setMultiRowParameterValues(ps, remainingValues, getInsertTypes()));
+			fillRowsAffected(rowsAffected, offset, remainingRowCount, updateCount);
+		}
+		return rowsAffected;
+	}
+
+	private static void fillRowsAffected(int[] rowsAffected, int offset, int rowCount, int updateCount) {
+		Arrays.fill(rowsAffected, offset, offset + rowCount, (updateCount == rowCount ? 1 : Statement.SUCCESS_NO_INFO));
+	}
+
+	/**
+	 * Internal implementation for setting the parameter values of multiple rows,
+	 * in the order of the rows.
+	 * @param preparedStatement the PreparedStatement
+	 * @param rows the values to be set for each row
+	 */
+	private void setMultiRowParameterValues(PreparedStatement preparedStatement, List<List<Object>> rows,
+			@Nullable int... columnTypes) throws SQLException {
+
+		int colIndex = 0;
+		for (List<Object> values : rows) {
+			int typeIndex = 0;
+			for (Object value : values) {
+				colIndex++;
+				if (columnTypes == null || typeIndex >= columnTypes.length) {
+					StatementCreatorUtils.setParameterValue(preparedStatement, colIndex, SqlTypeValue.TYPE_UNKNOWN, value);
+				}
+				else {
+					StatementCreatorUtils.setParameterValue(preparedStatement, colIndex, columnTypes[typeIndex], value);
+				}
+				typeIndex++;
+			}
+		}
+	}
+
 	/**
 	 * Internal implementation for setting parameter values.
 	 * @param preparedStatement the PreparedStatement
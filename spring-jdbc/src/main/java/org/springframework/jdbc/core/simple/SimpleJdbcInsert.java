@@ -112,6 +112,12 @@ public class SimpleJdbcInsert extends AbstractJdbcInsert implements SimpleJdbcIn
 		return this;
 	}
 
+	@Override
+	public SimpleJdbcInsertOperations usingMultiRowInserts(int maxRowsPerInsert) {
+		setMaxRowsPerInsert(maxRowsPerInsert);
+		return this;
+	}
+
 	@Override
 	public int execute(Map<String, ?> args) {
 		return doExecute(args);
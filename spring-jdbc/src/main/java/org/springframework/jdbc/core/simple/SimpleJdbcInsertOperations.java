@@ -80,6 +80,22 @@ public interface SimpleJdbcInsertOperations {
 	 */
 	SimpleJdbcInsertOperations includeSynonymsForTableColumnMetaData();
 
+	/**
+	 * Use multi-row {@code INSERT ... VALUES (...), (...)} statements for batch
+	 * inserts, with up to the given number of rows per statement, if supported
+	 * by the database. The number of rows is reduced further as necessary to
+	 * stay within the parameter limit of the database or its driver.
+	 * <p>The default implementation ignores this setting and returns this
+	 * instance as-is, keeping batch inserts at one row per statement.
+	 * {@link SimpleJdbcInsert} overrides it.
+	 * @param maxRowsPerInsert the maximum number of rows per insert statement
+	 * @return the instance of this SimpleJdbcInsert
+	 * @since 5.1.17
+	 */
+	default SimpleJdbcInsertOperations usingMultiRowInserts(int maxRowsPerInsert) {
+		return this;
+	}
+
 
 	/**
 	 * Execute the insert using the values passed in.
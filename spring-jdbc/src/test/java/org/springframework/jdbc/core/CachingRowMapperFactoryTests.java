@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.TypeMismatchDataAccessException;
+import org.springframework.jdbc.core.test.AbstractPerson;
+import org.springframework.jdbc.core.test.ConcretePerson;
+import org.springframework.jdbc.core.test.ConstructorPerson;
+import org.springframework.jdbc.core.test.DatePerson;
+import org.springframework.jdbc.core.test.Person;
+import org.springframework.jdbc.core.test.SpacePerson;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for {@link CachingRowMapperFactory}.
+ */
+public class CachingRowMapperFactoryTests extends AbstractRowMapperTests {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final CachingRowMapperFactory factory = new CachingRowMapperFactory();
+
+
+	@Test
+	public void testStaticQueryWithRowMapper() throws Exception {
+		Mock mock = new Mock();
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				this.factory.getRowMapper(Person.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingWithInheritance() throws Exception {
+		Mock mock = new Mock();
+		List<ConcretePerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				this.factory.getRowMapper(ConcretePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingWithConstructor() throws Exception {
+		Mock mock = new Mock();
+		List<ConstructorPerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				this.factory.getRowMapper(ConstructorPerson.class));
+		assertEquals(1, result.size());
+		ConstructorPerson person = result.get(0);
+		assertEquals("Bubba", person.name());
+		assertEquals(22L, person.age());
+		assertEquals(new java.util.Date(1221222L), person.birthDate());
+		assertEquals(new BigDecimal("1234.56"), person.balance());
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingNullValue() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		thrown.expect(TypeMismatchDataAccessException.class);
+		mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people",
+				this.factory.getRowMapper(Person.class));
+	}
+
+	@Test
+	public void testMappingNullValueWithPrimitivesDefaulted() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		this.factory.setPrimitivesDefaultedForNullValue(true);
+		List<ConstructorPerson> result = mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people",
+				this.factory.getRowMapper(ConstructorPerson.class));
+		assertEquals(1, result.size());
+		assertEquals("Bubba", result.get(0).name());
+		assertEquals(0L, result.get(0).age());
+	}
+
+	@Test
+	public void testQueryWithSpaceInColumnNameAndLocalDateTime() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		List<SpacePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people",
+				this.factory.getRowMapper(SpacePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testQueryWithSpaceInColumnNameAndLocalDate() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		List<DatePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people",
+				this.factory.getRowMapper(DatePerson.class));
+		assertEquals(1, result.size());
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingPlanResolvedOncePerColumnLayout() throws Exception {
+		ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+		given(rsmd.getColumnCount()).willReturn(1);
+		given(rsmd.getColumnLabel(1)).willReturn("name");
+		ResultSet rs = mock(ResultSet.class);
+		given(rs.getMetaData()).willReturn(rsmd);
+		given(rs.getString(1)).willReturn("Bubba", "Bobby");
+
+		RowMapper<Person> mapper = this.factory.getRowMapper(Person.class);
+		assertEquals("Bubba", mapper.mapRow(rs, 0).getName());
+		assertEquals("Bobby", mapper.mapRow(rs, 1).getName());
+		verify(rs, times(1)).getMetaData();
+		verify(rsmd, times(1)).getColumnLabel(1);
+
+		ResultSetMetaData otherRsmd = mock(ResultSetMetaData.class);
+		given(otherRsmd.getColumnCount()).willReturn(1);
+		given(otherRsmd.getColumnLabel(1)).willReturn("name");
+		given(rs.getMetaData()).willReturn(otherRsmd);
+		given(rs.getString(1)).willReturn("Billy");
+		assertEquals("Billy", this.factory.getRowMapper(Person.class).mapRow(rs, 0).getName());
+		verify(otherRsmd, times(1)).getColumnLabel(1);
+	}
+
+	@Test
+	public void testAbstractClassNotAccepted() {
+		thrown.expect(InvalidDataAccessApiUsageException.class);
+		this.factory.getRowMapper(AbstractPerson.class);
+	}
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for {@link JdbcBatchWriter}.
+ *
+ * @since 5.1.17
+ */
+public class JdbcBatchWriterTests {
+
+	private static final String SQL = "INSERT INTO NOSUCHTABLE (ID) VALUES (?)";
+
+	private final ParameterizedPreparedStatementSetter<Integer> setter = (ps, id) -> ps.setInt(1, id);
+
+	private Connection connection;
+
+	private DataSource dataSource;
+
+	private PreparedStatement preparedStatement;
+
+
+	@Before
+	public void setup() throws Exception {
+		this.connection = mock(Connection.class);
+		this.dataSource = mock(DataSource.class);
+		this.preparedStatement = mock(PreparedStatement.class);
+		given(this.dataSource.getConnection()).willReturn(this.connection);
+		given(this.connection.prepareStatement(anyString())).willReturn(this.preparedStatement);
+		given(this.preparedStatement.getConnection()).willReturn(this.connection);
+		DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+		given(databaseMetaData.supportsBatchUpdates()).willReturn(true);
+		given(this.connection.getMetaData()).willReturn(databaseMetaData);
+	}
+
+
+	@Test
+	public void writeInChunks() throws Exception {
+		given(this.preparedStatement.executeBatch()).willReturn(
+				new int[] {1, 1}, new int[] {1, Statement.SUCCESS_NO_INFO}, new int[] {1});
+
+		JdbcBatchWriter<Integer> writer = createWriter();
+		writer.setBatchSize(2);
+		JdbcBatchWriter.Result<Integer> result = writer.write(IntStream.rangeClosed(1, 5).boxed());
+
+		assertTrue(result.isSuccessful());
+		assertEquals(3, result.getChunkCount());
+		assertEquals(5, result.getItemCount());
+		assertEquals(4, result.getUpdateCount());
+		assertEquals(1, result.getSuccessNoInfoCount());
+		for (int id = 1; id <= 5; id++) {
+			verify(this.preparedStatement).setInt(1, id);
+		}
+		verify(this.preparedStatement, times(5)).addBatch();
+		verify(this.preparedStatement, times(3)).executeBatch();
+		verify(this.preparedStatement, times(3)).close();
+		verify(this.connection, times(3)).close();
+	}
+
+	@Test
+	public void writeWithoutBatchSupport() throws Exception {
+		given(this.connection.getMetaData().supportsBatchUpdates()).willReturn(false);
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+
+		JdbcBatchWriter.Result<Integer> result = createWriter().write(Arrays.asList(1, 2, 3).iterator());
+
+		assertTrue(result.isSuccessful());
+		assertEquals(1, result.getChunkCount());
+		assertEquals(3, result.getUpdateCount());
+		verify(this.preparedStatement, times(3)).executeUpdate();
+		verify(this.preparedStatement, never()).executeBatch();
+	}
+
+	@Test
+	public void failedChunkStopsWriting() throws Exception {
+		SQLException sqlException = new SQLException("duplicate key", "23000");
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1}).willThrow(sqlException);
+
+		JdbcBatchWriter<Integer> writer = createWriter();
+		writer.setBatchSize(2);
+		JdbcBatchWriter.Result<Integer> result = writer.write(IntStream.rangeClosed(1, 6).boxed());
+
+		assertFalse(result.isSuccessful());
+		assertEquals(1, result.getChunkCount());
+		assertEquals(2, result.getItemCount());
+		assertEquals(1, result.getFailedChunks().size());
+		JdbcBatchWriter.FailedChunk<Integer> failedChunk = result.getFailedChunks().get(0);
+		assertEquals(1, failedChunk.getIndex());
+		assertEquals(2, failedChunk.getOffset());
+		assertEquals(Arrays.asList(3, 4), failedChunk.getItems());
+		assertTrue(failedChunk.getException() instanceof DataAccessException);
+		assertSame(sqlException, failedChunk.getException().getCause());
+		verify(this.preparedStatement, times(2)).executeBatch();
+		verify(this.preparedStatement, never()).setInt(1, 5);
+	}
+
+	@Test
+	public void failedChunkWithContinueOnError() throws Exception {
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1})
+				.willThrow(new SQLException("duplicate key", "23000")).willReturn(new int[] {1, 1});
+
+		JdbcBatchWriter<Integer> writer = createWriter();
+		writer.setBatchSize(2);
+		writer.setContinueOnError(true);
+		JdbcBatchWriter.Result<Integer> result = writer.write(IntStream.rangeClosed(1, 6).boxed());
+
+		assertFalse(result.isSuccessful());
+		assertEquals(2, result.getChunkCount());
+		assertEquals(4, result.getUpdateCount());
+		assertEquals(1, result.getFailedChunks().size());
+		assertEquals(Arrays.asList(3, 4), result.getFailedChunks().get(0).getItems());
+		verify(this.preparedStatement, times(3)).executeBatch();
+	}
+
+	@Test
+	public void writeConcurrently() throws Exception {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		given(this.preparedStatement.executeBatch()).willAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(10);
+			inFlight.decrementAndGet();
+			return new int[] {1, 1, 1, 1, 1};
+		});
+
+		JdbcBatchWriter<Integer> writer = createWriter();
+		writer.setBatchSize(5);
+		writer.setConcurrency(3);
+		JdbcBatchWriter.Result<Integer> result = writer.write(IntStream.range(0, 100).boxed());
+
+		assertTrue(result.isSuccessful());
+		assertEquals(20, result.getChunkCount());
+		assertEquals(100, result.getItemCount());
+		assertEquals(100, result.getUpdateCount());
+		assertTrue(maxInFlight.get() <= 3);
+		verify(this.preparedStatement, times(100)).addBatch();
+		verify(this.connection, times(20)).close();
+	}
+
+	@Test
+	public void errorStopsWritingAndIsRethrown() throws Exception {
+		OutOfMemoryError error = new OutOfMemoryError("Test");
+		given(this.preparedStatement.executeBatch()).willThrow(error);
+
+		JdbcBatchWriter<Integer> writer = createWriter();
+		writer.setBatchSize(2);
+		writer.setContinueOnError(true);
+		writer.setConcurrency(2);
+		try {
+			writer.write(IntStream.rangeClosed(1, 100).boxed());
+			fail("Should have thrown OutOfMemoryError");
+		}
+		catch (OutOfMemoryError ex) {
+			assertSame(error, ex);
+		}
+		verify(this.preparedStatement, atMost(3)).executeBatch();
+	}
+
+	@Test
+	public void interruptedWhileWritingConcurrently() throws Exception {
+		JdbcBatchWriter<Integer> writer = createWriter();
+		writer.setConcurrency(2);
+		Thread.currentThread().interrupt();
+		try {
+			writer.write(IntStream.rangeClosed(1, 10).boxed());
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof InterruptedException);
+			assertTrue(Thread.currentThread().isInterrupted());
+		}
+		finally {
+			Thread.interrupted();
+		}
+		verify(this.preparedStatement, never()).executeBatch();
+	}
+
+	@Test
+	public void writeWithTransactionPerChunk() throws Exception {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		TransactionStatus status = mock(TransactionStatus.class);
+		given(transactionManager.getTransaction(any())).willReturn(status);
+		given(this.preparedStatement.executeBatch()).willReturn(new int[] {1, 1})
+				.willThrow(new SQLException("duplicate key", "23000"));
+
+		JdbcBatchWriter<Integer> writer = createWriter();
+		writer.setBatchSize(2);
+		writer.setTransactionManager(transactionManager);
+		JdbcBatchWriter.Result<Integer> result = writer.write(IntStream.rangeClosed(1, 4).boxed());
+
+		assertEquals(1, result.getChunkCount());
+		assertEquals(1, result.getFailedChunks().size());
+		verify(transactionManager, times(2)).getTransaction(argThat(definition ->
+				definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		verify(transactionManager).commit(status);
+		verify(transactionManager).rollback(status);
+	}
+
+
+	private JdbcBatchWriter<Integer> createWriter() {
+		return new JdbcBatchWriter<>(new JdbcTemplate(this.dataSource), SQL, this.setter);
+	}
+
+}
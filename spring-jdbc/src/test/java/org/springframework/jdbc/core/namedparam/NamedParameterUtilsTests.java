@@ -16,6 +16,7 @@
 
 package org.springframework.jdbc.core.namedparam;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -68,6 +69,34 @@ public class NamedParameterUtilsTests {
 				NamedParameterUtils.substituteNamedParameters("xxx :a :b :c xx :a :a", namedParams));
 	}
 
+	@Test
+	public void substituteNamedParametersWithCollectionsAcrossExecutions() {
+		ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement("select * from t where id in (:ids) and x = :x");
+		MapSqlParameterSource namedParams = new MapSqlParameterSource("x", 1);
+
+		namedParams.addValue("ids", Arrays.asList(1, 2, 3));
+		String sql = NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams);
+		assertEquals("select * from t where id in (?, ?, ?) and x = ?", sql);
+		namedParams.addValue("ids", Arrays.asList(4, 5, 6));
+		assertSame(sql, NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+
+		namedParams.addValue("ids", Arrays.asList(1, 2));
+		assertEquals("select * from t where id in (?, ?) and x = ?",
+				NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		namedParams.addValue("ids", Collections.singletonList(new Object[] {1, "a"}));
+		assertEquals("select * from t where id in ((?, ?)) and x = ?",
+				NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		namedParams.addValue("ids", Collections.singletonList(1));
+		assertEquals("select * from t where id in (?) and x = ?",
+				NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		namedParams.addValue("ids", 1);
+		assertEquals("select * from t where id in (?) and x = ?",
+				NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+		namedParams.addValue("x", Arrays.asList(1, 2));
+		assertEquals("select * from t where id in (?) and x = ?, ?",
+				NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+	}
+
 	@Test
 	public void convertParamMapToArray() {
 		Map<String, String> paramMap = new HashMap<>();
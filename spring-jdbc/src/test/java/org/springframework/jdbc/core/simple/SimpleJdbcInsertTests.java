@@ -18,6 +18,7 @@ package org.springframework.jdbc.core.simple;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.HashMap;
 
@@ -30,7 +31,10 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
+import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
 
 /**
@@ -87,4 +91,41 @@ public class SimpleJdbcInsertTests {
 		}
 	}
 
+	@Test
+	public void testExecuteBatchWithMultiRowInserts() throws Exception {
+		given(databaseMetaData.getDatabaseProductName()).willReturn("MySQL");
+		Connection executionConnection = mock(Connection.class);
+		DatabaseMetaData executionMetaData = mock(DatabaseMetaData.class);
+		given(executionMetaData.supportsBatchUpdates()).willReturn(true);
+		given(executionConnection.getMetaData()).willReturn(executionMetaData);
+		given(dataSource.getConnection()).willReturn(connection, executionConnection);
+		PreparedStatement batchStatement = mock(PreparedStatement.class);
+		given(batchStatement.getConnection()).willReturn(executionConnection);
+		given(batchStatement.executeBatch()).willReturn(new int[] {2, 2});
+		given(executionConnection.prepareStatement("INSERT INTO x (id, name) VALUES(?, ?), (?, ?)"))
+				.willReturn(batchStatement);
+		PreparedStatement remainingStatement = mock(PreparedStatement.class);
+		given(remainingStatement.executeUpdate()).willReturn(1);
+		given(executionConnection.prepareStatement("INSERT INTO x (id, name) VALUES(?, ?)"))
+				.willReturn(remainingStatement);
+
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(dataSource).withTableName("x");
+		insert.usingColumns("id", "name").withoutTableColumnMetaDataAccess().usingMultiRowInserts(2);
+		SqlParameterSource[] batch = new SqlParameterSource[5];
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = new MapSqlParameterSource("id", i).addValue("name", "name" + i);
+		}
+		int[] rowsAffected = insert.executeBatch(batch);
+
+		assertArrayEquals(new int[] {1, 1, 1, 1, 1}, rowsAffected);
+		verify(batchStatement, times(2)).addBatch();
+		verify(batchStatement).setObject(1, 0);
+		verify(batchStatement).setObject(3, 1);
+		verify(batchStatement).setString(4, "name1");
+		verify(batchStatement).setObject(3, 3);
+		verify(remainingStatement).setObject(1, 4);
+		verify(remainingStatement).setString(2, "name4");
+		verify(executionConnection, times(2)).close();
+	}
+
 }
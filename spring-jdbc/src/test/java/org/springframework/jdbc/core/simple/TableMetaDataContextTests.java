@@ -155,4 +155,33 @@ public class TableMetaDataContextTests  {
 		verify(columnsResultSet).close();
 	}
 
+	@Test
+	public void testMultiRowInsertString() throws Exception {
+		given(databaseMetaData.getDatabaseProductName()).willReturn("Microsoft SQL Server");
+		List<String> columns = new ArrayList<>();
+		columns.add("id");
+		columns.add("name");
+		context.setTableName("customers");
+		context.setAccessTableColumnMetaData(false);
+		context.processMetaData(dataSource, columns, new String[] {});
+
+		assertEquals("INSERT INTO customers (id, name) VALUES(?, ?), (?, ?), (?, ?)",
+				context.createMultiRowInsertString(3));
+		assertEquals("INSERT INTO customers (id, name) VALUES(?, ?)", context.createMultiRowInsertString(1));
+		assertEquals(10, context.getMaxRowsPerMultiRowInsert(10));
+		assertEquals(1000, context.getMaxRowsPerMultiRowInsert(5000));
+	}
+
+	@Test
+	public void testMultiRowInsertNotSupported() throws Exception {
+		given(databaseMetaData.getDatabaseProductName()).willReturn("MyDB");
+		List<String> columns = new ArrayList<>();
+		columns.add("id");
+		context.setTableName("customers");
+		context.setAccessTableColumnMetaData(false);
+		context.processMetaData(dataSource, columns, new String[] {});
+
+		assertEquals(1, context.getMaxRowsPerMultiRowInsert(10));
+	}
+
 }
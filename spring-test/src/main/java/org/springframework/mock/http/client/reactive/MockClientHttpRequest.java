@@ -52,7 +52,7 @@ public class MockClientHttpRequest extends AbstractClientHttpRequest {
 
 	private URI url;
 
-	private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+	private final DataBufferFactory bufferFactory;
 
 	private Flux<DataBuffer> body = Flux.error(
 			new IllegalStateException("The body is not set. " +
@@ -66,8 +66,18 @@ public class MockClientHttpRequest extends AbstractClientHttpRequest {
 	}
 
 	public MockClientHttpRequest(HttpMethod httpMethod, URI url) {
+		this(httpMethod, url, new DefaultDataBufferFactory());
+	}
+
+	/**
+	 * Constructor with the {@link DataBufferFactory} to write the body with.
+	 * @since 5.1.17
+	 */
+	public MockClientHttpRequest(HttpMethod httpMethod, URI url, DataBufferFactory bufferFactory) {
+		Assert.notNull(bufferFactory, "DataBufferFactory is required");
 		this.httpMethod = httpMethod;
 		this.url = url;
+		this.bufferFactory = bufferFactory;
 		this.writeHandler = body -> {
 			this.body = body.cache();
 			return this.body.then();
@@ -17,14 +17,11 @@
 package org.springframework.test.context.cache;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,13 +33,14 @@ import org.springframework.lang.Nullable;
 import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
 import org.springframework.test.context.MergedContextConfiguration;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Default implementation of the {@link ContextCache} API.
  *
- * <p>Uses a synchronized {@link Map} configured with a maximum size
+ * <p>Uses a {@link ConcurrentLruCache} configured with a maximum size
  * and a <em>least recently used</em> (LRU) eviction policy to cache
- * {@link ApplicationContext} instances.
+ * {@link ApplicationContext} instances, closing evicted contexts.
  *
  * <p>The maximum size may be supplied as a {@linkplain #DefaultContextCache(int)
  * constructor argument} or set via a system property or Spring property named
@@ -58,10 +56,9 @@ public class DefaultContextCache implements ContextCache {
 	private static final Log statsLogger = LogFactory.getLog(CONTEXT_CACHE_LOGGING_CATEGORY);
 
 	/**
-	 * Map of context keys to Spring {@code ApplicationContext} instances.
+	 * Cache of context keys to Spring {@code ApplicationContext} instances.
 	 */
-	private final Map<MergedContextConfiguration, ApplicationContext> contextMap =
-			Collections.synchronizedMap(new LruCache(32, 0.75f));
+	private final ConcurrentLruCache<MergedContextConfiguration, ApplicationContext> contextMap;
 
 	/**
 	 * Map of parent keys to sets of children keys, representing a top-down <em>tree</em>
@@ -74,10 +71,6 @@ public class DefaultContextCache implements ContextCache {
 
 	private final int maxSize;
 
-	private final AtomicInteger hitCount = new AtomicInteger();
-
-	private final AtomicInteger missCount = new AtomicInteger();
-
 
 	/**
 	 * Create a new {@code DefaultContextCache} using the maximum cache size
@@ -102,6 +95,8 @@ public class DefaultContextCache implements ContextCache {
 	public DefaultContextCache(int maxSize) {
 		Assert.isTrue(maxSize > 0, "'maxSize' must be positive");
 		this.maxSize = maxSize;
+		// A single stripe for an exact LRU order across all contexts
+		this.contextMap = new ConcurrentLruCache<>(maxSize, 1, this::evict);
 	}
 
 
@@ -111,7 +106,7 @@ public class DefaultContextCache implements ContextCache {
 	@Override
 	public boolean contains(MergedContextConfiguration key) {
 		Assert.notNull(key, "Key must not be null");
-		return this.contextMap.containsKey(key);
+		return this.contextMap.contains(key);
 	}
 
 	/**
@@ -121,14 +116,7 @@ public class DefaultContextCache implements ContextCache {
 	@Nullable
 	public ApplicationContext get(MergedContextConfiguration key) {
 		Assert.notNull(key, "Key must not be null");
-		ApplicationContext context = this.contextMap.get(key);
-		if (context == null) {
-			this.missCount.incrementAndGet();
-		}
-		else {
-			this.hitCount.incrementAndGet();
-		}
-		return context;
+		return this.contextMap.get(key);
 	}
 
 	/**
@@ -209,6 +197,17 @@ public class DefaultContextCache implements ContextCache {
 		removedContexts.add(key);
 	}
 
+	/**
+	 * Remove the hierarchy below a context that got evicted from the cache,
+	 * and close the evicted context itself.
+	 */
+	private void evict(MergedContextConfiguration key, ApplicationContext context) {
+		remove(key, HierarchyMode.CURRENT_LEVEL);
+		if (context instanceof ConfigurableApplicationContext) {
+			((ConfigurableApplicationContext) context).close();
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -237,7 +236,7 @@ public class DefaultContextCache implements ContextCache {
 	 */
 	@Override
 	public int getHitCount() {
-		return this.hitCount.get();
+		return (int) this.contextMap.getHitCount();
 	}
 
 	/**
@@ -245,7 +244,7 @@ public class DefaultContextCache implements ContextCache {
 	 */
 	@Override
 	public int getMissCount() {
-		return this.missCount.get();
+		return (int) this.contextMap.getMissCount();
 	}
 
 	/**
@@ -253,10 +252,8 @@ public class DefaultContextCache implements ContextCache {
 	 */
 	@Override
 	public void reset() {
-		synchronized (this.contextMap) {
-			clear();
-			clearStatistics();
-		}
+		clear();
+		clearStatistics();
 	}
 
 	/**
@@ -264,10 +261,8 @@ public class DefaultContextCache implements ContextCache {
 	 */
 	@Override
 	public void clear() {
-		synchronized (this.contextMap) {
-			this.contextMap.clear();
-			this.hierarchyMap.clear();
-		}
+		this.contextMap.clear();
+		this.hierarchyMap.clear();
 	}
 
 	/**
@@ -275,10 +270,7 @@ public class DefaultContextCache implements ContextCache {
 	 */
 	@Override
 	public void clearStatistics() {
-		synchronized (this.contextMap) {
-			this.hitCount.set(0);
-			this.missCount.set(0);
-		}
+		this.contextMap.clearStatistics();
 	}
 
 	/**
@@ -309,37 +301,4 @@ public class DefaultContextCache implements ContextCache {
 				.toString();
 	}
 
-
-	/**
-	 * Simple cache implementation based on {@link LinkedHashMap} with a maximum
-	 * size and a <em>least recently used</em> (LRU) eviction policy that
-	 * properly closes application contexts.
-	 * @since 4.3
-	 */
-	@SuppressWarnings("serial")
-	private class LruCache extends LinkedHashMap<MergedContextConfiguration, ApplicationContext> {
-
-		/**
-		 * Create a new {@code LruCache} with the supplied initial capacity
-		 * and load factor.
-		 * @param initialCapacity the initial capacity
-		 * @param loadFactor the load factor
-		 */
-		LruCache(int initialCapacity, float loadFactor) {
-			super(initialCapacity, loadFactor, true);
-		}
-
-		@Override
-		protected boolean removeEldestEntry(Map.Entry<MergedContextConfiguration, ApplicationContext> eldest) {
-			if (this.size() > DefaultContextCache.this.getMaxSize()) {
-				// Do NOT delete "DefaultContextCache.this."; otherwise, we accidentally
-				// invoke java.util.Map.remove(Object, Object).
-				DefaultContextCache.this.remove(eldest.getKey(), HierarchyMode.CURRENT_LEVEL);
-			}
-
-			// Return false since we invoke a custom eviction algorithm.
-			return false;
-		}
-	}
-
 }
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.server.WebFilter;
@@ -43,6 +44,9 @@ abstract class AbstractMockServerSpec<B extends WebTestClient.MockServerSpec<B>>
 	@Nullable
 	private WebSessionManager sessionManager;
 
+	@Nullable
+	private DataBufferFactory bufferFactory;
+
 	@Nullable
 	private List<MockServerConfigurer> configurers;
 
@@ -68,6 +72,12 @@ abstract class AbstractMockServerSpec<B extends WebTestClient.MockServerSpec<B>>
 		return self();
 	}
 
+	@Override
+	public <T extends B> T dataBufferFactory(DataBufferFactory bufferFactory) {
+		this.bufferFactory = bufferFactory;
+		return self();
+	}
+
 	@Override
 	public <T extends B> T apply(MockServerConfigurer configurer) {
 		configurer.afterConfigureAdded(this);
@@ -93,7 +103,7 @@ abstract class AbstractMockServerSpec<B extends WebTestClient.MockServerSpec<B>>
 		if (!CollectionUtils.isEmpty(this.configurers)) {
 			this.configurers.forEach(configurer -> configurer.beforeServerCreated(builder));
 		}
-		return new DefaultWebTestClientBuilder(builder);
+		return new DefaultWebTestClientBuilder(builder, this.bufferFactory);
 	}
 
 	/**
@@ -20,6 +20,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.function.Consumer;
 
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
@@ -49,6 +50,9 @@ class DefaultWebTestClientBuilder implements WebTestClient.Builder {
 	@Nullable
 	private final ClientHttpConnector connector;
 
+	@Nullable
+	private final DataBufferFactory bufferFactory;
+
 	@Nullable
 	private Duration responseTimeout;
 
@@ -60,23 +64,28 @@ class DefaultWebTestClientBuilder implements WebTestClient.Builder {
 
 	/** Connect to server through the given connector. */
 	DefaultWebTestClientBuilder(ClientHttpConnector connector) {
-		this(null, null, connector, null);
+		this(null, null, connector, null, null);
 	}
 
 	/** Connect to given mock server with mock request and response. */
 	DefaultWebTestClientBuilder(WebHttpHandlerBuilder httpHandlerBuilder) {
-		this(null, httpHandlerBuilder, null, null);
+		this(null, httpHandlerBuilder, null, null, null);
+	}
+
+	/** Connect to given mock server with mock request and response using the given buffer factory. */
+	DefaultWebTestClientBuilder(WebHttpHandlerBuilder httpHandlerBuilder, @Nullable DataBufferFactory bufferFactory) {
+		this(null, httpHandlerBuilder, null, bufferFactory, null);
 	}
 
 	/** Copy constructor. */
 	DefaultWebTestClientBuilder(DefaultWebTestClientBuilder other) {
 		this(other.webClientBuilder.clone(), other.httpHandlerBuilder, other.connector,
-				other.responseTimeout);
+				other.bufferFactory, other.responseTimeout);
 	}
 
 	private DefaultWebTestClientBuilder(@Nullable WebClient.Builder webClientBuilder,
 			@Nullable WebHttpHandlerBuilder httpHandlerBuilder, @Nullable ClientHttpConnector connector,
-			@Nullable Duration responseTimeout) {
+			@Nullable DataBufferFactory bufferFactory, @Nullable Duration responseTimeout) {
 
 		Assert.isTrue(httpHandlerBuilder != null || connector != null,
 				"Either WebHttpHandlerBuilder or ClientHttpConnector must be provided");
@@ -84,6 +93,7 @@ class DefaultWebTestClientBuilder implements WebTestClient.Builder {
 		this.webClientBuilder = (webClientBuilder != null ? webClientBuilder : WebClient.builder());
 		this.httpHandlerBuilder = (httpHandlerBuilder != null ? httpHandlerBuilder.clone() : null);
 		this.connector = connector;
+		this.bufferFactory = bufferFactory;
 		this.responseTimeout = responseTimeout;
 	}
 
@@ -174,7 +184,9 @@ class DefaultWebTestClientBuilder implements WebTestClient.Builder {
 		ClientHttpConnector connectorToUse = this.connector;
 		if (connectorToUse == null) {
 			Assert.state(this.httpHandlerBuilder != null, "No WebHttpHandlerBuilder available");
-			connectorToUse = new HttpHandlerConnector(this.httpHandlerBuilder.build());
+			connectorToUse = (this.bufferFactory != null ?
+					new HttpHandlerConnector(this.httpHandlerBuilder.build(), this.bufferFactory) :
+					new HttpHandlerConnector(this.httpHandlerBuilder.build()));
 		}
 
 		return new DefaultWebTestClient(this.webClientBuilder,
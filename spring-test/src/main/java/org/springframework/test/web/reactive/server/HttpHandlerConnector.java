@@ -27,6 +27,8 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoProcessor;
 
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpCookie;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -61,13 +63,28 @@ public class HttpHandlerConnector implements ClientHttpConnector {
 
 	private final HttpHandler handler;
 
+	private final DataBufferFactory bufferFactory;
+
 
 	/**
 	 * Constructor with the {@link HttpHandler} to handle requests with.
 	 */
 	public HttpHandlerConnector(HttpHandler handler) {
+		this(handler, new DefaultDataBufferFactory());
+	}
+
+	/**
+	 * Constructor with the {@link HttpHandler} to handle requests with, and
+	 * the {@link DataBufferFactory} for the mock request and response, e.g.
+	 * a {@link org.springframework.core.io.buffer.TrackingDataBufferFactory}
+	 * to check for buffer leaks.
+	 * @since 5.1.17
+	 */
+	public HttpHandlerConnector(HttpHandler handler, DataBufferFactory bufferFactory) {
 		Assert.notNull(handler, "HttpHandler is required");
+		Assert.notNull(bufferFactory, "DataBufferFactory is required");
 		this.handler = handler;
+		this.bufferFactory = bufferFactory;
 	}
 
 
@@ -77,8 +94,8 @@ public class HttpHandlerConnector implements ClientHttpConnector {
 
 		MonoProcessor<ClientHttpResponse> result = MonoProcessor.create();
 
-		MockClientHttpRequest mockClientRequest = new MockClientHttpRequest(httpMethod, uri);
-		MockServerHttpResponse mockServerResponse = new MockServerHttpResponse();
+		MockClientHttpRequest mockClientRequest = new MockClientHttpRequest(httpMethod, uri, this.bufferFactory);
+		MockServerHttpResponse mockServerResponse = new MockServerHttpResponse(this.bufferFactory);
 
 		mockClientRequest.setWriteHandler(requestBody -> {
 			log("Invoking HttpHandler for ", httpMethod, uri);
@@ -30,6 +30,7 @@ import org.reactivestreams.Publisher;
 
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -272,6 +273,18 @@ public interface WebTestClient {
 		 */
 		<T extends B> T webSessionManager(WebSessionManager sessionManager);
 
+		/**
+		 * Provide the {@link DataBufferFactory} for the mock request and response.
+		 * <p>By default a {@link org.springframework.core.io.buffer.DefaultDataBufferFactory
+		 * DefaultDataBufferFactory} is used. Use a
+		 * {@link org.springframework.core.io.buffer.TrackingDataBufferFactory
+		 * TrackingDataBufferFactory} to verify that the server and codecs under
+		 * test release all buffers, e.g. via {@code checkForLeaks()} after the test.
+		 * @param bufferFactory the buffer factory to use
+		 * @since 5.1.17
+		 */
+		<T extends B> T dataBufferFactory(DataBufferFactory bufferFactory);
+
 		/**
 		 * Shortcut for pre-packaged customizations to the mock server setup.
 		 * @param configurer the configurer to apply
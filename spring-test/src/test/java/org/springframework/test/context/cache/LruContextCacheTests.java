@@ -17,7 +17,6 @@
 package org.springframework.test.context.cache;
 
 import java.util.List;
-import java.util.Map;
 
 import org.junit.Test;
 
@@ -25,6 +24,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.test.context.MergedContextConfiguration;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ConcurrentLruCache;
 
 import static java.util.Arrays.*;
 import static java.util.stream.Collectors.*;
@@ -155,8 +155,8 @@ public class LruContextCacheTests {
 	@SuppressWarnings("unchecked")
 	private static void assertCacheContents(DefaultContextCache cache, String... expectedNames) {
 
-		Map<MergedContextConfiguration, ApplicationContext> contextMap =
-				(Map<MergedContextConfiguration, ApplicationContext>) ReflectionTestUtils.getField(cache, "contextMap");
+		ConcurrentLruCache<MergedContextConfiguration, ApplicationContext> contextMap =
+				(ConcurrentLruCache<MergedContextConfiguration, ApplicationContext>) ReflectionTestUtils.getField(cache, "contextMap");
 
 		// @formatter:off
 		List<String> actualNames = contextMap.keySet().stream()
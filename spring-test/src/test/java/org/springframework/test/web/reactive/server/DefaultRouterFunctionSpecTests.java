@@ -18,12 +18,15 @@ package org.springframework.test.web.reactive.server;
 import org.junit.Test;
 import reactor.core.publisher.Mono;
 
+import org.springframework.core.io.buffer.TrackingDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.server.HandlerStrategies;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import static org.junit.Assert.*;
+
 /**
  * Unit tests for {@link DefaultRouterFunctionSpec}.
  * @author Rossen Stoyanchev
@@ -72,4 +75,27 @@ public class DefaultRouterFunctionSpecTests {
 				.exchange()
 				.expectStatus().isBadRequest();
 	}
+
+	@Test
+	public void dataBufferFactory() {
+
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.route()
+				.POST("/echo", request -> ServerResponse.ok().body(request.bodyToMono(String.class), String.class))
+				.build();
+
+		TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory();
+
+		new DefaultRouterFunctionSpec(routerFunction)
+				.dataBufferFactory(bufferFactory)
+				.build()
+				.post()
+				.uri("/echo")
+				.syncBody("foo")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("foo");
+
+		assertTrue(bufferFactory.getTotalBufferCount() > 0);
+		bufferFactory.checkForLeaks();
+	}
 }
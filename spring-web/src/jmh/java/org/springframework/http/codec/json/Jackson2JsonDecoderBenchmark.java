@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Benchmarks for {@link Jackson2JsonDecoder}, decoding a JSON array that arrives
+ * in chunks either as a stream of elements or as a single aggregated list.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	private static final ResolvableType POJO_TYPE = ResolvableType.forClass(Pojo.class);
+
+	private static final ResolvableType POJO_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, Pojo.class);
+
+
+	@Benchmark
+	public List<Object> decodeToFlux(DecoderState state) {
+		return state.decoder.decode(state.chunks(), POJO_TYPE, MimeTypeUtils.APPLICATION_JSON,
+				Collections.emptyMap()).collectList().block();
+	}
+
+	@Benchmark
+	public Object decodeToMono(DecoderState state) {
+		return state.decoder.decodeToMono(state.chunks(), POJO_LIST_TYPE, MimeTypeUtils.APPLICATION_JSON,
+				Collections.emptyMap()).block();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class DecoderState {
+
+		@Param({"10", "10000"})
+		public int elements;
+
+		@Param({"8192"})
+		public int chunkSize;
+
+		public Jackson2JsonDecoder decoder;
+
+		private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+		private final List<byte[]> chunks = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.decoder = new Jackson2JsonDecoder();
+			this.decoder.setMaxInMemorySize(-1);
+
+			StringBuilder json = new StringBuilder("[");
+			for (int i = 0; i < this.elements; i++) {
+				if (i > 0) {
+					json.append(',');
+				}
+				json.append("{\"foo\":\"foo").append(i).append("\",\"bar\":\"bar").append(i).append("\"}");
+			}
+			json.append(']');
+
+			byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+			for (int offset = 0; offset < bytes.length; offset += this.chunkSize) {
+				int length = Math.min(this.chunkSize, bytes.length - offset);
+				byte[] chunk = new byte[length];
+				System.arraycopy(bytes, offset, chunk, 0, length);
+				this.chunks.add(chunk);
+			}
+		}
+
+		public Flux<DataBuffer> chunks() {
+			return Flux.fromIterable(this.chunks).map(bytes -> this.bufferFactory.wrap(ByteBuffer.wrap(bytes)));
+		}
+	}
+
+
+	public static class Pojo {
+
+		private String foo;
+
+		private String bar;
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonEncoder}, encoding a stream of elements
+ * either as {@code application/stream+json} or as a single JSON array.
+ *
+ * @since 5.1.17
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonEncoderBenchmark {
+
+	private static final ResolvableType POJO_TYPE = ResolvableType.forClass(Jackson2JsonDecoderBenchmark.Pojo.class);
+
+
+	@Benchmark
+	public long encodeStream(EncoderState state) {
+		return state.encode(MediaType.APPLICATION_STREAM_JSON);
+	}
+
+	@Benchmark
+	public long encodeArray(EncoderState state) {
+		return state.encode(MediaType.APPLICATION_JSON);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class EncoderState {
+
+		@Param({"10", "10000"})
+		public int elements;
+
+		private final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+
+		private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+		private final List<Jackson2JsonDecoderBenchmark.Pojo> pojos = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			for (int i = 0; i < this.elements; i++) {
+				Jackson2JsonDecoderBenchmark.Pojo pojo = new Jackson2JsonDecoderBenchmark.Pojo();
+				pojo.setFoo("foo" + i);
+				pojo.setBar("bar" + i);
+				this.pojos.add(pojo);
+			}
+		}
+
+		public long encode(MediaType mediaType) {
+			return this.encoder.encode(Flux.fromIterable(this.pojos), this.bufferFactory, POJO_TYPE,
+					mediaType, Collections.emptyMap())
+					.map(buffer -> {
+						int count = buffer.readableByteCount();
+						DataBufferUtils.release(buffer);
+						return (long) count;
+					})
+					.reduce(0L, Long::sum)
+					.block();
+		}
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.http.codec;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -176,6 +177,22 @@ public interface CodecConfigurer {
 		 */
 		void maxInMemorySize(int byteCount);
 
+		/**
+		 * Configure a directory in which to spill input that exceeds the
+		 * {@link #maxInMemorySize(int) maxInMemorySize} to temporary files,
+		 * rather than rejecting it. This applies to codecs that can consume
+		 * aggregated input from a file, i.e. the
+		 * {@link org.springframework.core.codec.ResourceDecoder ResourceDecoder}
+		 * when decoding to an {@code InputStreamResource} or {@code Resource},
+		 * and the JAXB2 decoder when decoding to a single value. Other codecs
+		 * remain limited, as they need the aggregated input in memory.
+		 * <p>By default this is not set, and input is not spilled.
+		 * @param directory the directory for temporary files
+		 * @since 5.1.17
+		 * @see org.springframework.core.io.buffer.FileSpillingBuffer
+		 */
+		void spillDirectory(Path directory);
+
 		/**
 		 * Whether to log form data at DEBUG level, and headers at TRACE level.
 		 * Both may contain sensitive information.
@@ -210,6 +227,7 @@ public interface CodecConfigurer {
 		 * properties, if configured, via {@link #defaultCodecs()}:
 		 * <ul>
 		 * <li>{@link CodecConfigurer.DefaultCodecs#maxInMemorySize(int) maxInMemorySize}
+		 * <li>{@link CodecConfigurer.DefaultCodecs#spillDirectory(Path) spillDirectory}
 		 * <li>{@link CodecConfigurer.DefaultCodecs#enableLoggingRequestDetails(boolean) enableLoggingRequestDetails}
 		 * </ul>
 		 * <p>The properties are applied every time {@link #getReaders()} or
@@ -307,6 +325,14 @@ public interface CodecConfigurer {
 		@Nullable
 		Integer maxInMemorySize();
 
+		/**
+		 * Get the configured directory in which to spill input that exceeds
+		 * the {@link #maxInMemorySize() maxInMemorySize} to temporary files.
+		 * @since 5.1.17
+		 */
+		@Nullable
+		Path spillDirectory();
+
 		/**
 		 * Whether to log form data at DEBUG level, and headers at TRACE level.
 		 * Both may contain sensitive information.
@@ -27,6 +27,8 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.AbstractDecoder;
 import org.springframework.core.codec.Decoder;
 import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.TrackingDataBufferFactory;
 import org.springframework.http.HttpLogging;
 import org.springframework.http.HttpMessage;
 import org.springframework.http.MediaType;
@@ -96,13 +98,22 @@ public class DecoderHttpMessageReader<T> implements HttpMessageReader<T> {
 	@Override
 	public Flux<T> read(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
 		MediaType contentType = getContentType(message);
-		return this.decoder.decode(message.getBody(), elementType, contentType, hints);
+		return this.decoder.decode(getBody(message), elementType, contentType, hints);
 	}
 
 	@Override
 	public Mono<T> readMono(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
 		MediaType contentType = getContentType(message);
-		return this.decoder.decodeToMono(message.getBody(), elementType, contentType, hints);
+		return this.decoder.decodeToMono(getBody(message), elementType, contentType, hints);
+	}
+
+	/**
+	 * Return the body of the given message, with its buffers attributed to the
+	 * decoder in case they come from a {@link TrackingDataBufferFactory}.
+	 */
+	private Flux<DataBuffer> getBody(ReactiveHttpInputMessage message) {
+		String owner = this.decoder.getClass().getName();
+		return message.getBody().map(buffer -> TrackingDataBufferFactory.claim(buffer, owner));
 	}
 
 	/**
@@ -29,7 +29,9 @@ import org.springframework.core.codec.AbstractEncoder;
 import org.springframework.core.codec.Encoder;
 import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.core.io.buffer.TrackingDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpLogging;
 import org.springframework.http.MediaType;
@@ -115,8 +117,10 @@ public class EncoderHttpMessageWriter<T> implements HttpMessageWriter<T> {
 
 		MediaType contentType = updateContentType(message, mediaType);
 
+		DataBufferFactory bufferFactory = TrackingDataBufferFactory.forOwner(
+				message.bufferFactory(), this.encoder.getClass().getName());
 		Flux<DataBuffer> body = this.encoder.encode(
-				inputStream, message.bufferFactory(), elementType, contentType, hints);
+				inputStream, bufferFactory, elementType, contentType, hints);
 
 		if (inputStream instanceof Mono) {
 			HttpHeaders headers = message.getHeaders();
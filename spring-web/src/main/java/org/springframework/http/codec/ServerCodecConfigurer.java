@@ -84,13 +84,15 @@ public interface ServerCodecConfigurer extends CodecConfigurer {
 
 		/**
 		 * Configure the {@code HttpMessageReader} to use for multipart requests.
-		 * <p>By default, if
-		 * <a href="https://github.com/synchronoss/nio-multipart">Synchronoss NIO Multipart</a>
-		 * is present, this is set to
+		 * <p>By default this is set to
 		 * {@link org.springframework.http.codec.multipart.MultipartHttpMessageReader
 		 * MultipartHttpMessageReader} created with an instance of
+		 * {@link org.springframework.http.codec.multipart.DefaultPartHttpMessageReader
+		 * DefaultPartHttpMessageReader}. To keep using
+		 * <a href="https://github.com/synchronoss/nio-multipart">Synchronoss NIO Multipart</a>,
+		 * configure a {@code MultipartHttpMessageReader} created with an instance of
 		 * {@link org.springframework.http.codec.multipart.SynchronossPartHttpMessageReader
-		 * SynchronossPartHttpMessageReader}.
+		 * SynchronossPartHttpMessageReader} here.
 		 * <p>Note that {@link #maxInMemorySize(int)} and/or
 		 * {@link #enableLoggingRequestDetails(boolean)}, if configured, will be
 		 * applied to the given reader, if applicable.
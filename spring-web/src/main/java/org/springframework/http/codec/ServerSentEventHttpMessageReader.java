@@ -32,6 +32,7 @@ import org.springframework.core.codec.StringDecoder;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.TrackingDataBufferFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.ReactiveHttpInputMessage;
 import org.springframework.lang.Nullable;
@@ -104,11 +105,16 @@ public class ServerSentEventHttpMessageReader implements HttpMessageReader<Objec
 		boolean shouldWrap = isServerSentEvent(elementType);
 		ResolvableType valueType = (shouldWrap ? elementType.getGeneric() : elementType);
 
-		return stringDecoder.decode(message.getBody(), STRING_TYPE, null, hints)
+		return stringDecoder.decode(getBody(message), STRING_TYPE, null, hints)
 				.bufferUntil(line -> line.equals(""))
 				.concatMap(lines -> buildEvent(lines, valueType, shouldWrap, hints));
 	}
 
+	private Flux<DataBuffer> getBody(ReactiveHttpInputMessage message) {
+		String owner = getClass().getName();
+		return message.getBody().map(buffer -> TrackingDataBufferFactory.claim(buffer, owner));
+	}
+
 	private Mono<?> buildEvent(List<String> lines, ResolvableType valueType, boolean shouldWrap,
 			Map<String, Object> hints) {
 
@@ -176,7 +182,7 @@ public class ServerSentEventHttpMessageReader implements HttpMessageReader<Objec
 		// Let's see if we can aggregate the output (lest we time out)...
 
 		if (elementType.resolve() == String.class) {
-			Flux<DataBuffer> body = message.getBody();
+			Flux<DataBuffer> body = getBody(message);
 			return stringDecoder.decodeToMono(body, elementType, null, null).cast(Object.class);
 		}
 
@@ -17,12 +17,17 @@
 package org.springframework.http.codec.json;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.lang.annotation.Annotation;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
@@ -41,6 +46,9 @@ import org.springframework.core.codec.DecodingException;
 import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.LimitedDataBufferList;
+import org.springframework.core.io.buffer.PooledDataBuffer;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.codec.HttpMessageDecoder;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -143,19 +151,60 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		return Flux.from(input);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>Unlike {@link #decode}, this method does not tokenize the input into
+	 * intermediate {@link TokenBuffer TokenBuffers}. The input is aggregated,
+	 * subject to the {@link #setMaxInMemorySize max in-memory size}, and the
+	 * value is then bound by the {@link ObjectReader} straight from the
+	 * aggregated buffers, in a single pass over the input. Content after the
+	 * end of the value, such as a second top-level value, is rejected with a
+	 * {@link DecodingException}.
+	 */
 	@Override
 	public Mono<Object> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		boolean forceUseOfBigDecimal = getObjectMapper().isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-		if (BigDecimal.class.equals(elementType.getType())) {
-			forceUseOfBigDecimal = true;
-		}
-
+		ObjectReader reader = getObjectReader(elementType, hints);
 		Flux<DataBuffer> processed = processInput(input, elementType, mimeType, hints);
-		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(processed, this.jsonFactory, getObjectMapper(),
-				false, forceUseOfBigDecimal, getMaxInMemorySize());
-		return decodeInternal(tokens, elementType, mimeType, hints).singleOrEmpty();
+
+		// TODO: Drop doOnDiscard(LimitedDataBufferList.class, ...) (reactor-core#1924)
+
+		return processed
+				.collect(() -> new LimitedDataBufferList(getMaxInMemorySize()), LimitedDataBufferList::add)
+				.filter(list -> !list.isEmpty())
+				.flatMap(list -> {
+					try {
+						return readValue(reader, list, hints);
+					}
+					finally {
+						list.releaseAndClear();
+					}
+				})
+				.doOnDiscard(LimitedDataBufferList.class, LimitedDataBufferList::releaseAndClear)
+				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
+	private Mono<Object> readValue(ObjectReader reader, List<DataBuffer> buffers, @Nullable Map<String, Object> hints) {
+		try {
+			InputStream inputStream = (buffers.size() == 1 ? buffers.get(0).asInputStream() :
+					new SequenceInputStream(Collections.enumeration(buffers.stream()
+							.map(DataBuffer::asInputStream).collect(Collectors.toList()))));
+			try (JsonParser parser = getObjectMapper().getFactory().createParser(inputStream)) {
+				if (parser.nextToken() == null) {
+					return Mono.empty();
+				}
+				Object value = reader.readValue(parser);
+				if (parser.nextToken() != null) {
+					return Mono.error(new DecodingException(
+							"JSON decoding error: Unexpected content after the end of the value"));
+				}
+				return toMono(value, hints);
+			}
+		}
+		catch (IOException ex) {
+			return Mono.error(processException(ex));
+		}
 	}
 
 	private Flux<Object> decodeInternal(Flux<TokenBuffer> tokens, ResolvableType elementType,
@@ -164,38 +213,50 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		Assert.notNull(tokens, "'tokens' must not be null");
 		Assert.notNull(elementType, "'elementType' must not be null");
 
-		MethodParameter param = getParameter(elementType);
-		Class<?> contextClass = (param != null ? param.getContainingClass() : null);
-		JavaType javaType = getJavaType(elementType.getType(), contextClass);
-		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
-
-		ObjectReader reader = (jsonView != null ?
-				getObjectMapper().readerWithView(jsonView).forType(javaType) :
-				getObjectMapper().readerFor(javaType));
+		ObjectReader reader = getObjectReader(elementType, hints);
 
 		return tokens.flatMap(tokenBuffer -> {
 			try {
-				Object value = reader.readValue(tokenBuffer.asParser(getObjectMapper()));
-				if (!Hints.isLoggingSuppressed(hints)) {
-					LogFormatUtils.traceDebug(logger, traceOn -> {
-						String formatted = LogFormatUtils.formatValue(value, !traceOn);
-						return Hints.getLogPrefix(hints) + "Decoded [" + formatted + "]";
-					});
-				}
-				return Mono.justOrEmpty(value);
-			}
-			catch (InvalidDefinitionException ex) {
-				return Mono.error(new CodecException("Type definition error: " + ex.getType(), ex));
-			}
-			catch (JsonProcessingException ex) {
-				return Mono.error(new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex));
+				return toMono(reader.readValue(tokenBuffer.asParser(getObjectMapper())), hints);
 			}
 			catch (IOException ex) {
-				return Mono.error(new DecodingException("I/O error while parsing input stream", ex));
+				return Mono.error(processException(ex));
 			}
 		});
 	}
 
+	private ObjectReader getObjectReader(ResolvableType elementType, @Nullable Map<String, Object> hints) {
+		Assert.notNull(elementType, "'elementType' must not be null");
+		MethodParameter param = getParameter(elementType);
+		Class<?> contextClass = (param != null ? param.getContainingClass() : null);
+		JavaType javaType = getJavaType(elementType.getType(), contextClass);
+		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
+		return (jsonView != null ?
+				getObjectMapper().readerWithView(jsonView).forType(javaType) :
+				getObjectMapper().readerFor(javaType));
+	}
+
+	private Mono<Object> toMono(@Nullable Object value, @Nullable Map<String, Object> hints) {
+		if (!Hints.isLoggingSuppressed(hints)) {
+			LogFormatUtils.traceDebug(logger, traceOn -> {
+				String formatted = LogFormatUtils.formatValue(value, !traceOn);
+				return Hints.getLogPrefix(hints) + "Decoded [" + formatted + "]";
+			});
+		}
+		return Mono.justOrEmpty(value);
+	}
+
+	private CodecException processException(IOException ex) {
+		if (ex instanceof InvalidDefinitionException) {
+			return new CodecException("Type definition error: " + ((InvalidDefinitionException) ex).getType(), ex);
+		}
+		if (ex instanceof JsonProcessingException) {
+			String originalMessage = ((JsonProcessingException) ex).getOriginalMessage();
+			return new DecodingException("JSON decoding error: " + originalMessage, ex);
+		}
+		return new DecodingException("I/O error while parsing input stream", ex);
+	}
+
 
 	// HttpMessageDecoder
 
@@ -17,6 +17,7 @@
 package org.springframework.http.codec.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -28,7 +29,6 @@ import java.util.Map;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
@@ -45,6 +45,7 @@ import org.springframework.core.codec.EncodingException;
 import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageEncoder;
@@ -140,20 +141,11 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		else {
 			byte[] separator = streamSeparator(mimeType);
 			if (separator != null) { // streaming
-				try {
-					ObjectWriter writer = createObjectWriter(elementType, mimeType, hints);
-					ByteArrayBuilder byteBuilder = new ByteArrayBuilder(writer.getFactory()._getBufferRecycler());
-					JsonEncoding encoding = getJsonEncoding(mimeType);
-					JsonGenerator generator = getObjectMapper().getFactory().createGenerator(byteBuilder, encoding);
-					SequenceWriter sequenceWriter = writer.writeValues(generator);
-
-					return Flux.from(inputStream)
-							.map(value -> encodeStreamingValue(value, bufferFactory, hints, sequenceWriter, byteBuilder,
-									separator));
-				}
-				catch (IOException ex) {
-					return Flux.error(ex);
-				}
+				return Flux.using(
+						() -> new StreamingGenerator(createObjectWriter(elementType, mimeType, hints), mimeType),
+						generator -> Flux.from(inputStream).map(value ->
+								encodeStreamingValue(value, bufferFactory, hints, generator, separator)),
+						StreamingGenerator::close);
 			}
 			else { // non-streaming
 				ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
@@ -170,15 +162,17 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			ResolvableType valueType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		ObjectWriter writer = createObjectWriter(valueType, mimeType, hints);
-		ByteArrayBuilder byteBuilder = new ByteArrayBuilder(writer.getFactory()._getBufferRecycler());
 		JsonEncoding encoding = getJsonEncoding(mimeType);
 
 		logValue(hints, value);
 
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		boolean release = true;
 		try {
-			JsonGenerator generator = getObjectMapper().getFactory().createGenerator(byteBuilder, encoding);
+			JsonGenerator generator = writer.getFactory().createGenerator(buffer.asOutputStream(), encoding);
 			writer.writeValue(generator, value);
-			generator.flush();
+			generator.close();
+			release = false;
 		}
 		catch (InvalidDefinitionException ex) {
 			throw new CodecException("Type definition error: " + ex.getType(), ex);
@@ -187,24 +181,27 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			throw new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex);
 		}
 		catch (IOException ex) {
-			throw new IllegalStateException("Unexpected I/O error while writing to byte array builder", ex);
+			throw new IllegalStateException("Unexpected I/O error while writing to data buffer", ex);
+		}
+		finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
 		}
-
-		byte[] bytes = byteBuilder.toByteArray();
-		DataBuffer buffer = bufferFactory.allocateBuffer(bytes.length);
-		buffer.write(bytes);
 
 		return buffer;
 	}
 
-	private DataBuffer encodeStreamingValue(Object value, DataBufferFactory bufferFactory, @Nullable Map<String, Object> hints,
-			SequenceWriter sequenceWriter, ByteArrayBuilder byteArrayBuilder, byte[] separator) {
+	private DataBuffer encodeStreamingValue(Object value, DataBufferFactory bufferFactory,
+			@Nullable Map<String, Object> hints, StreamingGenerator generator, byte[] separator) {
 
 		logValue(hints, value);
 
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		boolean release = true;
 		try {
-			sequenceWriter.write(value);
-			sequenceWriter.flush();
+			generator.write(value, buffer);
+			release = false;
 		}
 		catch (InvalidDefinitionException ex) {
 			throw new CodecException("Type definition error: " + ex.getType(), ex);
@@ -213,25 +210,18 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			throw new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex);
 		}
 		catch (IOException ex) {
-			throw new IllegalStateException("Unexpected I/O error while writing to byte array builder", ex);
+			throw new IllegalStateException("Unexpected I/O error while writing to data buffer", ex);
+		}
+		finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
 		}
 
-		byte[] bytes = byteArrayBuilder.toByteArray();
-		byteArrayBuilder.reset();
-
-		int offset;
-		int length;
-		if (bytes.length > 0 && bytes[0] == ' ') {
+		if (buffer.readableByteCount() > 0 && buffer.getByte(buffer.readPosition()) == ' ') {
 			// SequenceWriter writes an unnecessary space in between values
-			offset = 1;
-			length = bytes.length - 1;
-		}
-		else {
-			offset = 0;
-			length = bytes.length;
+			buffer.readPosition(buffer.readPosition() + 1);
 		}
-		DataBuffer buffer = bufferFactory.allocateBuffer(length + separator.length);
-		buffer.write(bytes, offset, length);
 		buffer.write(separator);
 
 		return buffer;
@@ -322,4 +312,71 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		return parameter.getMethodAnnotation(annotType);
 	}
 
+
+	/**
+	 * Per-subscription state for streaming: a single {@link JsonGenerator} and
+	 * {@link SequenceWriter}, reused for all elements and writing straight into
+	 * the {@link DataBuffer} allocated for the element currently being encoded.
+	 */
+	private class StreamingGenerator {
+
+		private final DataBufferOutputStream outputStream = new DataBufferOutputStream();
+
+		private final JsonGenerator generator;
+
+		private final SequenceWriter sequenceWriter;
+
+		StreamingGenerator(ObjectWriter writer, @Nullable MimeType mimeType) throws IOException {
+			this.generator = writer.getFactory().createGenerator(this.outputStream, getJsonEncoding(mimeType));
+			this.sequenceWriter = writer.writeValues(this.generator);
+		}
+
+		public void write(Object value, DataBuffer buffer) throws IOException {
+			this.outputStream.buffer = buffer;
+			try {
+				this.sequenceWriter.write(value);
+				this.sequenceWriter.flush();
+			}
+			finally {
+				this.outputStream.buffer = null;
+			}
+		}
+
+		public void close() {
+			try {
+				this.generator.close();
+			}
+			catch (IOException ex) {
+				// Nothing left to write at this point: only releasing the generator's recycled buffers
+			}
+		}
+	}
+
+
+	/**
+	 * {@link OutputStream} writing into whichever {@link DataBuffer} is currently set.
+	 */
+	private static class DataBufferOutputStream extends OutputStream {
+
+		@Nullable
+		DataBuffer buffer;
+
+		@Override
+		public void write(int b) throws IOException {
+			getBuffer().write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			getBuffer().write(b, off, len);
+		}
+
+		private DataBuffer getBuffer() throws IOException {
+			if (this.buffer == null) {
+				throw new IOException("No DataBuffer to write to outside of encoding a value");
+			}
+			return this.buffer;
+		}
+	}
+
 }
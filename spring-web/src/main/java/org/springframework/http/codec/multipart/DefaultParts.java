@@ -0,0 +1,320 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Default implementations of {@link Part} and subtypes, as created by
+ * {@link DefaultPartHttpMessageReader}.
+ *
+ * @since 5.1.17
+ */
+abstract class DefaultParts {
+
+	// Static DataBufferFactory to wrap in-memory content, or to read from files
+	private static final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private static final int FILE_BUFFER_SIZE = 4096;
+
+
+	/**
+	 * Create a new {@link FormFieldPart} with the given parameters.
+	 * @param headers the part headers
+	 * @param value the form field value
+	 * @return the created part
+	 */
+	public static FormFieldPart formFieldPart(HttpHeaders headers, String value) {
+		Assert.notNull(headers, "Headers must not be null");
+		Assert.notNull(value, "Value must not be null");
+		return new DefaultFormFieldPart(headers, value);
+	}
+
+	/**
+	 * Create a new {@link Part} or {@link FilePart} with content held in memory.
+	 * @param headers the part headers
+	 * @param content the part content
+	 * @return the created part
+	 */
+	public static Part part(HttpHeaders headers, byte[] content) {
+		Assert.notNull(headers, "Headers must not be null");
+		Assert.notNull(content, "Content must not be null");
+		return partForContent(headers, new MemoryContent(content));
+	}
+
+	/**
+	 * Create a new {@link Part} or {@link FilePart} with content stored in
+	 * the given file.
+	 * @param headers the part headers
+	 * @param file the file with the part content
+	 * @param scheduler the scheduler for blocking file operations
+	 * @return the created part
+	 */
+	public static Part part(HttpHeaders headers, Path file, Scheduler scheduler) {
+		Assert.notNull(headers, "Headers must not be null");
+		Assert.notNull(file, "File must not be null");
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		return partForContent(headers, new FileContent(file, scheduler));
+	}
+
+	private static Part partForContent(HttpHeaders headers, Content content) {
+		String filename = headers.getContentDisposition().getFilename();
+		return (filename != null ? new DefaultFilePart(headers, filename, content) :
+				new DefaultPart(headers, content));
+	}
+
+	/**
+	 * Whether a part with the given headers is a {@link FormFieldPart}, i.e.
+	 * has no filename and has a textual content type, if any.
+	 */
+	public static boolean isFormField(HttpHeaders headers) {
+		MediaType contentType = headers.getContentType();
+		return (headers.getContentDisposition().getFilename() == null &&
+				(contentType == null || MediaType.TEXT_PLAIN.equalsTypeAndSubtype(contentType)));
+	}
+
+	/**
+	 * Return the charset of a part with the given headers, UTF-8 by default.
+	 */
+	public static Charset getCharset(HttpHeaders headers) {
+		MediaType contentType = headers.getContentType();
+		Charset charset = (contentType != null ? contentType.getCharset() : null);
+		return (charset != null ? charset : StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Abstract base class for {@link Part} implementations.
+	 */
+	private abstract static class AbstractPart implements Part {
+
+		private final HttpHeaders headers;
+
+		@Nullable
+		private final String name;
+
+		AbstractPart(HttpHeaders headers) {
+			this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+			this.name = headers.getContentDisposition().getName();
+		}
+
+		@Override
+		public String name() {
+			Assert.state(this.name != null, "No name available");
+			return this.name;
+		}
+
+		@Override
+		public HttpHeaders headers() {
+			return this.headers;
+		}
+	}
+
+
+	/**
+	 * Default implementation of {@link FormFieldPart}.
+	 */
+	private static class DefaultFormFieldPart extends AbstractPart implements FormFieldPart {
+
+		private final String value;
+
+		DefaultFormFieldPart(HttpHeaders headers, String value) {
+			super(headers);
+			this.value = value;
+		}
+
+		@Override
+		public String value() {
+			return this.value;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return Flux.defer(() -> Flux.just(bufferFactory.wrap(this.value.getBytes(getCharset(headers())))));
+		}
+
+		@Override
+		public String toString() {
+			return "DefaultFormFieldPart{" + name() + "}";
+		}
+	}
+
+
+	/**
+	 * Default implementation of {@link Part}.
+	 */
+	private static class DefaultPart extends AbstractPart {
+
+		private final Content content;
+
+		DefaultPart(HttpHeaders headers, Content content) {
+			super(headers);
+			this.content = content;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return this.content.content();
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return this.content.delete();
+		}
+
+		protected Content getContent() {
+			return this.content;
+		}
+
+		@Override
+		public String toString() {
+			return "DefaultPart{" + name() + "}";
+		}
+	}
+
+
+	/**
+	 * Default implementation of {@link FilePart}.
+	 */
+	private static final class DefaultFilePart extends DefaultPart implements FilePart {
+
+		private final String filename;
+
+		DefaultFilePart(HttpHeaders headers, String filename, Content content) {
+			super(headers, content);
+			this.filename = filename;
+		}
+
+		@Override
+		public String filename() {
+			return this.filename;
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return getContent().transferTo(dest);
+		}
+
+		@Override
+		public String toString() {
+			return "DefaultFilePart{" + name() + " (" + this.filename + ")}";
+		}
+	}
+
+
+	/**
+	 * Part content abstraction.
+	 */
+	private interface Content {
+
+		Flux<DataBuffer> content();
+
+		Mono<Void> transferTo(Path dest);
+
+		Mono<Void> delete();
+	}
+
+
+	/**
+	 * {@code Content} implementation based on a byte array.
+	 */
+	private static final class MemoryContent implements Content {
+
+		private final byte[] content;
+
+		MemoryContent(byte[] content) {
+			this.content = content;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return Flux.defer(() -> Flux.just(bufferFactory.wrap(this.content)));
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return Mono.fromCallable(() -> Files.write(dest, this.content)).then();
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return Mono.empty();
+		}
+	}
+
+
+	/**
+	 * {@code Content} implementation based on a file.
+	 */
+	private static final class FileContent implements Content {
+
+		private final Path file;
+
+		private final Scheduler scheduler;
+
+		FileContent(Path file, Scheduler scheduler) {
+			this.file = file;
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		public Flux<DataBuffer> content() {
+			return DataBufferUtils.readByteChannel(
+					() -> Files.newByteChannel(this.file, StandardOpenOption.READ), bufferFactory, FILE_BUFFER_SIZE)
+					.subscribeOn(this.scheduler);
+		}
+
+		@Override
+		public Mono<Void> transferTo(Path dest) {
+			return Mono.fromCallable(() -> Files.copy(this.file, dest, StandardCopyOption.REPLACE_EXISTING))
+					.subscribeOn(this.scheduler)
+					.then();
+		}
+
+		@Override
+		public Mono<Void> delete() {
+			return Mono.<Void>fromRunnable(() -> {
+				try {
+					Files.deleteIfExists(this.file);
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException("Could not delete " + this.file, ex);
+				}
+			}).subscribeOn(this.scheduler);
+		}
+	}
+
+}
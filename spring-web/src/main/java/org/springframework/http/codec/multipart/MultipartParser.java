@@ -0,0 +1,586 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Subscribes to a buffer stream and produces a flux of {@link Token} instances:
+ * a {@link HeadersToken} at the start of each part, followed by the
+ * {@link BodyToken BodyTokens} with the content of that part.
+ *
+ * <p>Boundaries are found with an incremental matcher, so that a delimiter
+ * spanning several buffers is recognized without copying, and body buffers
+ * are passed on as (retained) slices of the input. Input is only requested
+ * when there is downstream demand for tokens.
+ *
+ * @since 5.1.17
+ */
+final class MultipartParser extends BaseSubscriber<DataBuffer> {
+
+	private static final byte CR = '\r';
+
+	private static final byte LF = '\n';
+
+	private static final byte HYPHEN = '-';
+
+	private static final byte[] CR_LF = {CR, LF};
+
+	private static final byte[] TWO_HYPHENS = {HYPHEN, HYPHEN};
+
+
+	private final FluxSink<Token> sink;
+
+	private final byte[] boundary;
+
+	private final int maxHeadersSize;
+
+	private final Charset headersCharset;
+
+	private final AtomicBoolean requestOutstanding = new AtomicBoolean();
+
+	private volatile State state;
+
+
+	private MultipartParser(FluxSink<Token> sink, byte[] boundary, int maxHeadersSize, Charset headersCharset) {
+		this.sink = sink;
+		this.boundary = boundary;
+		this.maxHeadersSize = maxHeadersSize;
+		this.headersCharset = headersCharset;
+		this.state = new PreambleState();
+	}
+
+
+	/**
+	 * Parse the given stream of buffers into a stream of tokens.
+	 * @param buffers the input buffers
+	 * @param boundary the multipart boundary, as found in the Content-Type header
+	 * @param maxHeadersSize the maximum size of the headers of a single part
+	 * @param headersCharset the charset to decode part headers with
+	 * @return the output tokens
+	 */
+	public static Flux<Token> parse(Flux<DataBuffer> buffers, byte[] boundary, int maxHeadersSize,
+			Charset headersCharset) {
+
+		return Flux.create(sink -> {
+			MultipartParser parser = new MultipartParser(sink, boundary, maxHeadersSize, headersCharset);
+			sink.onCancel(parser::onSinkCancel);
+			sink.onRequest(n -> parser.requestBuffer());
+			buffers.subscribe(parser);
+		});
+	}
+
+
+	@Override
+	protected void hookOnSubscribe(Subscription subscription) {
+		requestBuffer();
+	}
+
+	@Override
+	protected void hookOnNext(DataBuffer buffer) {
+		this.requestOutstanding.set(false);
+		this.state.onNext(buffer);
+	}
+
+	@Override
+	protected void hookOnComplete() {
+		this.state.onComplete();
+	}
+
+	@Override
+	protected void hookOnError(Throwable throwable) {
+		changeState(DisposedState.INSTANCE);
+		this.sink.error(throwable);
+	}
+
+	private void onSinkCancel() {
+		changeState(DisposedState.INSTANCE);
+		cancel();
+	}
+
+	private void changeState(State newState) {
+		State oldState = this.state;
+		if (oldState == DisposedState.INSTANCE) {
+			// Disposed while emitting a token, e.g. as the downstream cancelled
+			newState.dispose();
+			return;
+		}
+		this.state = newState;
+		oldState.dispose();
+	}
+
+	private void changeState(State newState, DataBuffer remainder) {
+		changeState(newState);
+		if (remainder.readableByteCount() > 0) {
+			this.state.onNext(remainder);
+		}
+		else {
+			DataBufferUtils.release(remainder);
+			requestBuffer();
+		}
+	}
+
+	private void emitHeaders(HttpHeaders headers) {
+		this.sink.next(new HeadersToken(headers));
+	}
+
+	private void emitBody(DataBuffer buffer) {
+		this.sink.next(new BodyToken(buffer));
+	}
+
+	private void emitError(Throwable ex) {
+		changeState(DisposedState.INSTANCE);
+		cancel();
+		this.sink.error(ex);
+	}
+
+	private void requestBuffer() {
+		if (upstream() != null && !this.sink.isCancelled() && this.sink.requestedFromDownstream() > 0 &&
+				this.requestOutstanding.compareAndSet(false, true)) {
+			request(1);
+		}
+	}
+
+	/**
+	 * Return a retained slice of the given buffer from the given index to its
+	 * write position, releasing the buffer itself.
+	 */
+	private static DataBuffer remainder(DataBuffer buffer, int index) {
+		DataBuffer result = DataBufferUtils.retain(buffer.slice(index, buffer.writePosition() - index));
+		DataBufferUtils.release(buffer);
+		return result;
+	}
+
+	private static byte[] concat(byte[]... byteArrays) {
+		int length = 0;
+		for (byte[] byteArray : byteArrays) {
+			length += byteArray.length;
+		}
+		byte[] result = new byte[length];
+		int offset = 0;
+		for (byte[] byteArray : byteArrays) {
+			System.arraycopy(byteArray, 0, result, offset, byteArray.length);
+			offset += byteArray.length;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Represents the output of {@link #parse}.
+	 */
+	abstract static class Token {
+
+		public abstract HttpHeaders headers();
+
+		public abstract DataBuffer buffer();
+	}
+
+
+	/**
+	 * Represents a token that contains the headers of a part.
+	 */
+	static final class HeadersToken extends Token {
+
+		private final HttpHeaders headers;
+
+		HeadersToken(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		@Override
+		public HttpHeaders headers() {
+			return this.headers;
+		}
+
+		@Override
+		public DataBuffer buffer() {
+			throw new IllegalStateException("Headers token has no buffer");
+		}
+	}
+
+
+	/**
+	 * Represents a token that contains a chunk of the body of a part.
+	 */
+	static final class BodyToken extends Token {
+
+		private final DataBuffer buffer;
+
+		BodyToken(DataBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public HttpHeaders headers() {
+			throw new IllegalStateException("Body token has no headers");
+		}
+
+		@Override
+		public DataBuffer buffer() {
+			return this.buffer;
+		}
+	}
+
+
+	/**
+	 * Incremental matcher for a byte sequence, based on the Knuth-Morris-Pratt
+	 * algorithm, that keeps its progress between buffers.
+	 */
+	static final class DelimiterMatcher {
+
+		private final byte[] delimiter;
+
+		private final int[] table;
+
+		private int matches;
+
+		DelimiterMatcher(byte[] delimiter) {
+			this.delimiter = delimiter;
+			this.table = longestSuffixPrefixTable(delimiter);
+		}
+
+		private static int[] longestSuffixPrefixTable(byte[] delimiter) {
+			int[] result = new int[delimiter.length];
+			result[0] = 0;
+			for (int i = 1; i < delimiter.length; i++) {
+				int j = result[i - 1];
+				while (j > 0 && delimiter[i] != delimiter[j]) {
+					j = result[j - 1];
+				}
+				if (delimiter[i] == delimiter[j]) {
+					j++;
+				}
+				result[i] = j;
+			}
+			return result;
+		}
+
+		public int delimiterLength() {
+			return this.delimiter.length;
+		}
+
+		/**
+		 * Continue as if the first {@code matches} bytes of the delimiter
+		 * had been matched already.
+		 */
+		public void setMatches(int matches) {
+			this.matches = matches;
+		}
+
+		/**
+		 * Find the end of the delimiter in the readable bytes of the given buffer,
+		 * taking into account a partial match at the end of the previous buffer.
+		 * @return the index of the last byte of the delimiter, or -1 if not found
+		 */
+		public int match(DataBuffer buffer) {
+			byte[] delimiter = this.delimiter;
+			int matches = this.matches;
+			for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+				byte b = buffer.getByte(i);
+				while (matches > 0 && b != delimiter[matches]) {
+					matches = this.table[matches - 1];
+				}
+				if (b == delimiter[matches]) {
+					matches++;
+					if (matches == delimiter.length) {
+						this.matches = 0;
+						return i;
+					}
+				}
+			}
+			this.matches = matches;
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Represents the internal state of the parser.
+	 */
+	private interface State {
+
+		void onNext(DataBuffer buffer);
+
+		void onComplete();
+
+		default void dispose() {
+		}
+	}
+
+
+	/**
+	 * The initial state: looking for the first boundary, and discarding any
+	 * preamble before it.
+	 */
+	private final class PreambleState implements State {
+
+		private final DelimiterMatcher firstBoundary = new DelimiterMatcher(concat(TWO_HYPHENS, boundary));
+
+		@Override
+		public void onNext(DataBuffer buffer) {
+			int endIdx = this.firstBoundary.match(buffer);
+			if (endIdx != -1) {
+				changeState(new PostBoundaryState(), remainder(buffer, endIdx + 1));
+			}
+			else {
+				DataBufferUtils.release(buffer);
+				requestBuffer();
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			changeState(DisposedState.INSTANCE);
+			sink.error(new DecodingException("Could not find first boundary"));
+		}
+	}
+
+
+	/**
+	 * The state right after a boundary: expecting either {@code CRLF} before the
+	 * headers of the next part, or {@code --} for the end of the multipart body.
+	 */
+	private final class PostBoundaryState implements State {
+
+		private int previous = -1;
+
+		@Override
+		public void onNext(DataBuffer buffer) {
+			int readPosition = buffer.readPosition();
+			if (readPosition == buffer.writePosition()) {
+				DataBufferUtils.release(buffer);
+				requestBuffer();
+				return;
+			}
+			byte first;
+			int next;
+			if (this.previous == -1) {
+				if (buffer.readableByteCount() < 2) {
+					this.previous = buffer.getByte(readPosition);
+					DataBufferUtils.release(buffer);
+					requestBuffer();
+					return;
+				}
+				first = buffer.getByte(readPosition);
+				next = readPosition + 1;
+			}
+			else {
+				first = (byte) this.previous;
+				next = readPosition;
+			}
+			byte second = buffer.getByte(next);
+			if (first == CR && second == LF) {
+				changeState(new HeadersState(), remainder(buffer, next + 1));
+			}
+			else if (first == HYPHEN && second == HYPHEN) {
+				changeState(DisposedState.INSTANCE);
+				DataBufferUtils.release(buffer);
+				sink.complete();
+				// Drain the epilogue, if any
+				requestUnbounded();
+			}
+			else {
+				DataBufferUtils.release(buffer);
+				emitError(new DecodingException("Invalid multipart boundary: expected CRLF or '--'"));
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			changeState(DisposedState.INSTANCE);
+			sink.error(new DecodingException("Could not find end of multipart body"));
+		}
+	}
+
+
+	/**
+	 * The state of reading the headers of a part, up to and including the
+	 * empty line that separates them from the body.
+	 */
+	private final class HeadersState implements State {
+
+		private final DelimiterMatcher endOfHeaders = new DelimiterMatcher(concat(CR_LF, CR_LF));
+
+		private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(256);
+
+		HeadersState() {
+			// The CRLF following the boundary is the start of the terminating sequence
+			// for a part without headers
+			this.endOfHeaders.setMatches(CR_LF.length);
+		}
+
+		@Override
+		public void onNext(DataBuffer buffer) {
+			int endIdx = this.endOfHeaders.match(buffer);
+			int readPosition = buffer.readPosition();
+			int length = (endIdx != -1 ? endIdx + 1 - readPosition : buffer.readableByteCount());
+			if (this.headerBytes.size() + length > maxHeadersSize) {
+				DataBufferUtils.release(buffer);
+				emitError(new DataBufferLimitException(
+						"Part headers exceeded the memory usage limit of " + maxHeadersSize + " bytes"));
+				return;
+			}
+			byte[] bytes = new byte[length];
+			buffer.read(bytes);
+			this.headerBytes.write(bytes, 0, length);
+			if (endIdx != -1) {
+				emitHeaders(parseHeaders());
+				changeState(new BodyState(), remainder(buffer, endIdx + 1));
+			}
+			else {
+				DataBufferUtils.release(buffer);
+				requestBuffer();
+			}
+		}
+
+		private HttpHeaders parseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			String string = new String(this.headerBytes.toByteArray(), headersCharset);
+			for (String line : string.split("\r\n")) {
+				int idx = line.indexOf(':');
+				if (idx > 0) {
+					headers.add(line.substring(0, idx).trim(), line.substring(idx + 1).trim());
+				}
+			}
+			return headers;
+		}
+
+		@Override
+		public void onComplete() {
+			changeState(DisposedState.INSTANCE);
+			sink.error(new DecodingException("Could not find end of headers"));
+		}
+	}
+
+
+	/**
+	 * The state of reading the body of a part, up to the next boundary. Enough
+	 * trailing bytes are held back to contain the start of a delimiter that
+	 * is split across buffers.
+	 */
+	private final class BodyState implements State {
+
+		private final DelimiterMatcher delimiter = new DelimiterMatcher(concat(CR_LF, TWO_HYPHENS, boundary));
+
+		private final Deque<DataBuffer> queue = new ArrayDeque<>();
+
+		private long queuedByteCount;
+
+		@Override
+		public void onNext(DataBuffer buffer) {
+			int endIdx = this.delimiter.match(buffer);
+			if (endIdx == -1) {
+				this.queue.add(buffer);
+				this.queuedByteCount += buffer.readableByteCount();
+				flush();
+				requestBuffer();
+				return;
+			}
+			int readPosition = buffer.readPosition();
+			long bodyLength = this.queuedByteCount + (endIdx + 1 - readPosition) - this.delimiter.delimiterLength();
+			DataBuffer queued;
+			while ((queued = this.queue.poll()) != null) {
+				int count = queued.readableByteCount();
+				if (bodyLength >= count) {
+					emitBody(queued);
+				}
+				else if (bodyLength > 0) {
+					emitBody(DataBufferUtils.retain(queued.slice(queued.readPosition(), (int) bodyLength)));
+					DataBufferUtils.release(queued);
+				}
+				else {
+					DataBufferUtils.release(queued);
+				}
+				bodyLength -= count;
+			}
+			this.queuedByteCount = 0;
+			if (bodyLength > 0) {
+				emitBody(DataBufferUtils.retain(buffer.slice(readPosition, (int) bodyLength)));
+			}
+			changeState(new PostBoundaryState(), remainder(buffer, endIdx + 1));
+		}
+
+		/**
+		 * Emit queued buffers, as long as the bytes that remain queued could
+		 * still contain a delimiter.
+		 */
+		private void flush() {
+			int delimiterLength = this.delimiter.delimiterLength();
+			DataBuffer first;
+			while ((first = this.queue.peek()) != null &&
+					this.queuedByteCount - first.readableByteCount() >= delimiterLength) {
+				this.queue.poll();
+				this.queuedByteCount -= first.readableByteCount();
+				if (first.readableByteCount() > 0) {
+					emitBody(first);
+				}
+				else {
+					DataBufferUtils.release(first);
+				}
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			changeState(DisposedState.INSTANCE);
+			sink.error(new DecodingException("Could not find end of body"));
+		}
+
+		@Override
+		public void dispose() {
+			DataBuffer buffer;
+			while ((buffer = this.queue.poll()) != null) {
+				DataBufferUtils.release(buffer);
+			}
+		}
+	}
+
+
+	/**
+	 * The terminal state, releasing any further input.
+	 */
+	private static final class DisposedState implements State {
+
+		static final DisposedState INSTANCE = new DisposedState();
+
+		@Override
+		public void onNext(DataBuffer buffer) {
+			DataBufferUtils.release(buffer);
+		}
+
+		@Override
+		public void onComplete() {
+		}
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.http.codec.multipart;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
@@ -57,4 +58,16 @@ public interface Part {
 	 */
 	Flux<DataBuffer> content();
 
+	/**
+	 * Return a mono that, when subscribed to, deletes the underlying storage
+	 * for this part, e.g. a temporary file.
+	 * <p>The default implementation returns an empty mono, as there is nothing
+	 * to delete for parts held in memory.
+	 * @return a mono that completes when the part is deleted
+	 * @since 5.1.17
+	 */
+	default Mono<Void> delete() {
+		return Mono.empty();
+	}
+
 }
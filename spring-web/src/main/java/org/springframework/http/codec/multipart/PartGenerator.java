@@ -0,0 +1,483 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+
+/**
+ * Subscribes to a token stream (i.e. the result of
+ * {@link MultipartParser#parse}), and produces a flux of {@link Part} objects.
+ *
+ * <p>Form fields are kept in memory, up to the maximum in-memory size. Other
+ * parts are kept in memory up to that size as well, and are written to a
+ * temporary file beyond it. File operations run on a scheduler for blocking
+ * operations, and the next token is only requested once the previous one has
+ * been written, so that a slow disk holds back the request body rather than
+ * buffering it in memory.
+ *
+ * @since 5.1.17
+ */
+final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
+
+	private final FluxSink<Part> sink;
+
+	private final int maxParts;
+
+	private final int maxInMemorySize;
+
+	private final long maxDiskUsagePerPart;
+
+	private final Mono<Path> fileStorageDirectory;
+
+	private final Scheduler blockingOperationScheduler;
+
+	private final AtomicBoolean finished = new AtomicBoolean();
+
+	private volatile State state = new InitialState();
+
+	private volatile boolean busy;
+
+	private volatile boolean upstreamComplete;
+
+	private int partCount;
+
+
+	private PartGenerator(FluxSink<Part> sink, int maxParts, int maxInMemorySize, long maxDiskUsagePerPart,
+			Mono<Path> fileStorageDirectory, Scheduler blockingOperationScheduler) {
+
+		this.sink = sink;
+		this.maxParts = maxParts;
+		this.maxInMemorySize = maxInMemorySize;
+		this.maxDiskUsagePerPart = maxDiskUsagePerPart;
+		this.fileStorageDirectory = fileStorageDirectory;
+		this.blockingOperationScheduler = blockingOperationScheduler;
+	}
+
+
+	/**
+	 * Create parts from the given stream of tokens.
+	 * @param tokens the tokens produced by the {@link MultipartParser}
+	 * @param maxParts the maximum number of parts, or -1 for unlimited
+	 * @param maxInMemorySize the maximum number of bytes to keep in memory per
+	 * part, or -1 for unlimited
+	 * @param maxDiskUsagePerPart the maximum number of bytes to store on disk
+	 * per part, or -1 for unlimited
+	 * @param fileStorageDirectory the directory to store temporary files in
+	 * @param blockingOperationScheduler the scheduler for file operations
+	 * @return the parts
+	 */
+	public static Flux<Part> createParts(Flux<MultipartParser.Token> tokens, int maxParts, int maxInMemorySize,
+			long maxDiskUsagePerPart, Mono<Path> fileStorageDirectory, Scheduler blockingOperationScheduler) {
+
+		return Flux.create(sink -> {
+			PartGenerator generator = new PartGenerator(sink, maxParts, maxInMemorySize, maxDiskUsagePerPart,
+					fileStorageDirectory, blockingOperationScheduler);
+			sink.onCancel(generator::onSinkCancel);
+			tokens.subscribe(generator);
+		});
+	}
+
+
+	@Override
+	protected void hookOnSubscribe(Subscription subscription) {
+		request(1);
+	}
+
+	@Override
+	protected void hookOnNext(MultipartParser.Token token) {
+		if (token instanceof MultipartParser.HeadersToken) {
+			onHeaders(token.headers());
+		}
+		else {
+			this.state.onBody(token.buffer());
+		}
+	}
+
+	@Override
+	protected void hookOnComplete() {
+		this.upstreamComplete = true;
+		if (!this.busy) {
+			finish();
+		}
+	}
+
+	@Override
+	protected void hookOnError(Throwable throwable) {
+		emitError(throwable);
+	}
+
+	private void onSinkCancel() {
+		if (this.finished.compareAndSet(false, true)) {
+			this.state.dispose();
+			cancel();
+		}
+	}
+
+	private void onHeaders(HttpHeaders headers) {
+		State previous = this.state;
+		this.busy = true;
+		previous.complete().subscribe(this::emitPart, this::emitError, () -> startPart(headers));
+	}
+
+	private void startPart(HttpHeaders headers) {
+		if (this.maxParts > 0 && ++this.partCount > this.maxParts) {
+			emitError(new DecodingException("Too many parts (" + this.maxParts + " allowed)"));
+			return;
+		}
+		this.state = (DefaultParts.isFormField(headers) ? new FormFieldState(headers) : new InMemoryState(headers));
+		this.busy = false;
+		requestToken();
+	}
+
+	/**
+	 * Run the given file operation, and request the next token once it completes.
+	 */
+	private void runAsync(Mono<?> operation) {
+		this.busy = true;
+		operation.subscribe(null, this::emitError, () -> {
+			this.busy = false;
+			requestToken();
+		});
+	}
+
+	private void requestToken() {
+		if (this.upstreamComplete) {
+			finish();
+		}
+		else {
+			request(1);
+		}
+	}
+
+	private void finish() {
+		if (this.finished.compareAndSet(false, true)) {
+			State state = this.state;
+			state.complete().subscribe(this.sink::next,
+					ex -> {
+						state.dispose();
+						this.sink.error(ex);
+					},
+					this.sink::complete);
+		}
+	}
+
+	private void emitPart(Part part) {
+		if (!this.finished.get()) {
+			this.sink.next(part);
+		}
+	}
+
+	private void emitError(Throwable ex) {
+		if (this.finished.compareAndSet(false, true)) {
+			this.state.dispose();
+			cancel();
+			this.sink.error(ex);
+		}
+	}
+
+	private boolean exceedsInMemorySize(long byteCount) {
+		return (this.maxInMemorySize != -1 && byteCount > this.maxInMemorySize);
+	}
+
+
+	/**
+	 * Represents the internal state of the generator.
+	 */
+	private interface State {
+
+		/**
+		 * Handle a chunk of the body of the current part.
+		 */
+		void onBody(DataBuffer buffer);
+
+		/**
+		 * Complete the current part, returning it if any.
+		 */
+		Mono<Part> complete();
+
+		/**
+		 * Release the resources of the current part, as it will not be completed.
+		 */
+		default void dispose() {
+		}
+	}
+
+
+	/**
+	 * The state before the first headers token.
+	 */
+	private final class InitialState implements State {
+
+		@Override
+		public void onBody(DataBuffer buffer) {
+			DataBufferUtils.release(buffer);
+			requestToken();
+		}
+
+		@Override
+		public Mono<Part> complete() {
+			return Mono.empty();
+		}
+	}
+
+
+	/**
+	 * Collects the body of a part in memory, for the subclasses to create a
+	 * part from.
+	 */
+	private abstract class AbstractMemoryState implements State {
+
+		protected final HttpHeaders headers;
+
+		protected final ByteArrayOutputStream content = new ByteArrayOutputStream(256);
+
+		AbstractMemoryState(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		protected void append(DataBuffer buffer) {
+			try {
+				byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				this.content.write(bytes, 0, bytes.length);
+			}
+			finally {
+				DataBufferUtils.release(buffer);
+			}
+		}
+	}
+
+
+	/**
+	 * The state of a form field, which is always kept in memory.
+	 */
+	private final class FormFieldState extends AbstractMemoryState {
+
+		FormFieldState(HttpHeaders headers) {
+			super(headers);
+		}
+
+		@Override
+		public void onBody(DataBuffer buffer) {
+			if (exceedsInMemorySize(this.content.size() + (long) buffer.readableByteCount())) {
+				DataBufferUtils.release(buffer);
+				emitError(new DataBufferLimitException(
+						"Form field value exceeded the memory usage limit of " + maxInMemorySize + " bytes"));
+				return;
+			}
+			append(buffer);
+			requestToken();
+		}
+
+		@Override
+		public Mono<Part> complete() {
+			String value = new String(this.content.toByteArray(), DefaultParts.getCharset(this.headers));
+			return Mono.just(DefaultParts.formFieldPart(this.headers, value));
+		}
+	}
+
+
+	/**
+	 * The state of a file (or other non form field) part that fits in memory
+	 * so far. Switches to {@link FileState} once its size exceeds the
+	 * in-memory limit.
+	 */
+	private final class InMemoryState extends AbstractMemoryState {
+
+		InMemoryState(HttpHeaders headers) {
+			super(headers);
+		}
+
+		@Override
+		public void onBody(DataBuffer buffer) {
+			if (exceedsInMemorySize(this.content.size() + (long) buffer.readableByteCount())) {
+				FileState fileState = new FileState(this.headers);
+				state = fileState;
+				fileState.start(this.content, buffer);
+			}
+			else {
+				append(buffer);
+				requestToken();
+			}
+		}
+
+		@Override
+		public Mono<Part> complete() {
+			return Mono.just(DefaultParts.part(this.headers, this.content.toByteArray()));
+		}
+	}
+
+
+	/**
+	 * The state of a part that is written to a temporary file.
+	 */
+	private final class FileState implements State {
+
+		private final HttpHeaders headers;
+
+		@Nullable
+		private volatile Path file;
+
+		@Nullable
+		private volatile FileChannel channel;
+
+		private long byteCount;
+
+		private volatile boolean disposed;
+
+		FileState(HttpHeaders headers) {
+			this.headers = headers;
+		}
+
+		/**
+		 * Create the temporary file, and write the content collected in memory
+		 * so far, followed by the given buffer.
+		 */
+		public void start(ByteArrayOutputStream initialContent, DataBuffer buffer) {
+			if (!checkDiskUsage(initialContent.size() + (long) buffer.readableByteCount(), buffer)) {
+				return;
+			}
+			runAsync(fileStorageDirectory
+					.doOnError(ex -> DataBufferUtils.release(buffer))
+					.flatMap(directory -> Mono.fromRunnable(() -> writeInitialContent(directory, initialContent, buffer)))
+					.subscribeOn(blockingOperationScheduler));
+		}
+
+		private void writeInitialContent(Path directory, ByteArrayOutputStream initialContent, DataBuffer buffer) {
+			try {
+				createFile(directory);
+				write(ByteBuffer.wrap(initialContent.toByteArray()));
+			}
+			catch (IOException ex) {
+				DataBufferUtils.release(buffer);
+				throw new DecodingException("Could not write part to temporary file", ex);
+			}
+			catch (RuntimeException ex) {
+				DataBufferUtils.release(buffer);
+				throw ex;
+			}
+			write(buffer);
+		}
+
+		private void createFile(Path directory) throws IOException {
+			Path file = Files.createTempFile(directory, null, ".multipart");
+			this.file = file;
+			this.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+			if (this.disposed) {
+				deleteFile();
+				throw new IllegalStateException("Part disposed while creating temporary file");
+			}
+		}
+
+		@Override
+		public void onBody(DataBuffer buffer) {
+			if (checkDiskUsage(buffer.readableByteCount(), buffer)) {
+				runAsync(Mono.fromRunnable(() -> write(buffer)).subscribeOn(blockingOperationScheduler));
+			}
+		}
+
+		private boolean checkDiskUsage(long additionalByteCount, DataBuffer buffer) {
+			this.byteCount += additionalByteCount;
+			if (maxDiskUsagePerPart != -1 && this.byteCount > maxDiskUsagePerPart) {
+				DataBufferUtils.release(buffer);
+				emitError(new DecodingException(
+						"Part exceeded the disk usage limit of " + maxDiskUsagePerPart + " bytes"));
+				return false;
+			}
+			return true;
+		}
+
+		private void write(DataBuffer buffer) {
+			try {
+				write(buffer.asByteBuffer());
+			}
+			catch (IOException ex) {
+				throw new DecodingException("Could not write part to temporary file", ex);
+			}
+			finally {
+				DataBufferUtils.release(buffer);
+			}
+		}
+
+		private void write(ByteBuffer byteBuffer) throws IOException {
+			FileChannel channel = this.channel;
+			if (channel == null) {
+				throw new IllegalStateException("No temporary file opened");
+			}
+			while (byteBuffer.hasRemaining()) {
+				channel.write(byteBuffer);
+			}
+		}
+
+		@Override
+		public Mono<Part> complete() {
+			return Mono.fromCallable(() -> {
+				FileChannel channel = this.channel;
+				Path file = this.file;
+				if (channel == null || file == null) {
+					throw new IllegalStateException("No temporary file opened");
+				}
+				channel.close();
+				return DefaultParts.part(this.headers, file, blockingOperationScheduler);
+			}).subscribeOn(blockingOperationScheduler);
+		}
+
+		@Override
+		public void dispose() {
+			this.disposed = true;
+			blockingOperationScheduler.schedule(this::deleteFile);
+		}
+
+		private void deleteFile() {
+			FileChannel channel = this.channel;
+			Path file = this.file;
+			try {
+				if (channel != null) {
+					channel.close();
+				}
+				if (file != null) {
+					Files.deleteIfExists(file);
+				}
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.http.codec.support;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -47,6 +48,7 @@ import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.http.codec.json.Jackson2SmileDecoder;
 import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
 import org.springframework.http.codec.multipart.MultipartHttpMessageReader;
 import org.springframework.http.codec.multipart.MultipartHttpMessageWriter;
 import org.springframework.http.codec.multipart.SynchronossPartHttpMessageReader;
@@ -109,6 +111,9 @@ class BaseDefaultCodecs implements CodecConfigurer.DefaultCodecs, CodecConfigure
 	@Nullable
 	private Integer maxInMemorySize;
 
+	@Nullable
+	private Path spillDirectory;
+
 	@Nullable
 	private Boolean enableLoggingRequestDetails;
 
@@ -129,6 +134,7 @@ class BaseDefaultCodecs implements CodecConfigurer.DefaultCodecs, CodecConfigure
 		this.jaxb2Decoder = other.jaxb2Decoder;
 		this.jaxb2Encoder = other.jaxb2Encoder;
 		this.maxInMemorySize = other.maxInMemorySize;
+		this.spillDirectory = other.spillDirectory;
 		this.enableLoggingRequestDetails = other.enableLoggingRequestDetails;
 		this.registerDefaults = other.registerDefaults;
 	}
@@ -174,6 +180,17 @@ class BaseDefaultCodecs implements CodecConfigurer.DefaultCodecs, CodecConfigure
 		return this.maxInMemorySize;
 	}
 
+	@Override
+	public void spillDirectory(Path directory) {
+		this.spillDirectory = directory;
+	}
+
+	@Override
+	@Nullable
+	public Path spillDirectory() {
+		return this.spillDirectory;
+	}
+
 	@Override
 	public void enableLoggingRequestDetails(boolean enable) {
 		this.enableLoggingRequestDetails = enable;
@@ -268,6 +285,9 @@ class BaseDefaultCodecs implements CodecConfigurer.DefaultCodecs, CodecConfigure
 			if (codec instanceof FormHttpMessageReader) {
 				((FormHttpMessageReader) codec).setMaxInMemorySize(size);
 			}
+			if (codec instanceof DefaultPartHttpMessageReader) {
+				((DefaultPartHttpMessageReader) codec).setMaxInMemorySize(size);
+			}
 			if (synchronossMultipartPresent) {
 				if (codec instanceof SynchronossPartHttpMessageReader) {
 					((SynchronossPartHttpMessageReader) codec).setMaxInMemorySize(size);
@@ -275,6 +295,18 @@ class BaseDefaultCodecs implements CodecConfigurer.DefaultCodecs, CodecConfigure
 			}
 		}
 
+		Path directory = this.spillDirectory;
+		if (directory != null) {
+			if (codec instanceof ResourceDecoder) {
+				((ResourceDecoder) codec).setSpillDirectory(directory);
+			}
+			if (jaxb2Present) {
+				if (codec instanceof Jaxb2XmlDecoder) {
+					((Jaxb2XmlDecoder) codec).setSpillDirectory(directory);
+				}
+			}
+		}
+
 		Boolean enable = this.enableLoggingRequestDetails;
 		if (enable != null) {
 			if (codec instanceof FormHttpMessageReader) {
@@ -283,6 +315,9 @@ class BaseDefaultCodecs implements CodecConfigurer.DefaultCodecs, CodecConfigure
 			if (codec instanceof MultipartHttpMessageReader) {
 				((MultipartHttpMessageReader) codec).setEnableLoggingRequestDetails(enable);
 			}
+			if (codec instanceof DefaultPartHttpMessageReader) {
+				((DefaultPartHttpMessageReader) codec).setEnableLoggingRequestDetails(enable);
+			}
 			if (synchronossMultipartPresent) {
 				if (codec instanceof SynchronossPartHttpMessageReader) {
 					((SynchronossPartHttpMessageReader) codec).setEnableLoggingRequestDetails(enable);
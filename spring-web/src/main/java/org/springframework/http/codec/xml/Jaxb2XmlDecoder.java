@@ -16,6 +16,9 @@
 
 package org.springframework.http.codec.xml;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +34,8 @@ import javax.xml.bind.annotation.XmlSchema;
 import javax.xml.bind.annotation.XmlType;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
 
 import org.reactivestreams.Publisher;
@@ -43,7 +48,10 @@ import org.springframework.core.codec.CodecException;
 import org.springframework.core.codec.DecodingException;
 import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.FileSpillingBuffer;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -72,6 +80,12 @@ public class Jaxb2XmlDecoder extends AbstractDecoder<Object> {
 	 */
 	private static final String JAXB_DEFAULT_ANNOTATION_VALUE = "##default";
 
+	private static final XMLInputFactory inputFactory = StaxUtils.createDefensiveInputFactory();
+
+	private static final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private static final int BUFFER_SIZE = 4096;
+
 
 	private final XmlEventDecoder xmlEventDecoder = new XmlEventDecoder();
 
@@ -81,6 +95,9 @@ public class Jaxb2XmlDecoder extends AbstractDecoder<Object> {
 
 	private int maxInMemorySize = -1;
 
+	@Nullable
+	private Path spillDirectory;
+
 
 	public Jaxb2XmlDecoder() {
 		super(MimeTypeUtils.APPLICATION_XML, MimeTypeUtils.TEXT_XML);
@@ -136,6 +153,31 @@ public class Jaxb2XmlDecoder extends AbstractDecoder<Object> {
 		return this.maxInMemorySize;
 	}
 
+	/**
+	 * Set the directory in which to spill input that exceeds the
+	 * {@link #setMaxInMemorySize(int) maxInMemorySize} to a temporary file,
+	 * when decoding to a single value. Spilled input is unmarshalled directly
+	 * from the temporary file, rather than rejected with a
+	 * {@link DataBufferLimitException}. Streams of values are not affected.
+	 * <p>By default this is not set, and input is not spilled.
+	 * @param spillDirectory the directory for temporary files, or {@code null}
+	 * to disable spilling
+	 * @since 5.1.17
+	 * @see FileSpillingBuffer
+	 */
+	public void setSpillDirectory(@Nullable Path spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
+	/**
+	 * Return the {@link #setSpillDirectory configured} spill directory.
+	 * @since 5.1.17
+	 */
+	@Nullable
+	public Path getSpillDirectory() {
+		return this.spillDirectory;
+	}
+
 
 	@Override
 	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
@@ -169,13 +211,47 @@ public class Jaxb2XmlDecoder extends AbstractDecoder<Object> {
 	public Mono<Object> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		return decode(inputStream, elementType, mimeType, hints).singleOrEmpty();
+		Path directory = this.spillDirectory;
+		if (directory == null) {
+			return decode(inputStream, elementType, mimeType, hints).singleOrEmpty();
+		}
+		return Mono.usingWhen(FileSpillingBuffer.collect(inputStream, this.maxInMemorySize, directory),
+				buffer -> {
+					if (!buffer.isSpilled()) {
+						Flux<DataBuffer> content = buffer.read(bufferFactory, BUFFER_SIZE);
+						return decode(content, elementType, mimeType, hints).singleOrEmpty();
+					}
+					return Mono.fromCallable(() -> {
+						Object value = unmarshal(buffer, elementType.toClass());
+						LogFormatUtils.traceDebug(logger, traceOn -> {
+							String formatted = LogFormatUtils.formatValue(value, !traceOn);
+							return Hints.getLogPrefix(hints) + "Decoded [" + formatted + "]";
+						});
+						return value;
+					});
+				},
+				buffer -> Mono.<Void>fromRunnable(buffer::release),
+				buffer -> Mono.<Void>fromRunnable(buffer::release),
+				buffer -> Mono.<Void>fromRunnable(buffer::release));
+	}
+
+	private Object unmarshal(FileSpillingBuffer buffer, Class<?> outputClass) {
+		try (InputStream inputStream = buffer.getInputStream(true)) {
+			return unmarshal(inputFactory.createXMLEventReader(inputStream), outputClass);
+		}
+		catch (XMLStreamException | IOException ex) {
+			buffer.release();
+			throw new DecodingException("Could not read XML from temporary file", ex);
+		}
 	}
 
 	private Object unmarshal(List<XMLEvent> events, Class<?> outputClass) {
+		return unmarshal(StaxUtils.createXMLEventReader(events), outputClass);
+	}
+
+	private Object unmarshal(XMLEventReader eventReader, Class<?> outputClass) {
 		try {
 			Unmarshaller unmarshaller = initUnmarshaller(outputClass);
-			XMLEventReader eventReader = StaxUtils.createXMLEventReader(events);
 			if (outputClass.isAnnotationPresent(XmlRootElement.class)) {
 				return unmarshaller.unmarshal(eventReader);
 			}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.codec;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link org.springframework.http.converter.HttpMessageConverter} that delegates
+ * to a reactive {@link Encoder} and/or {@link Decoder}, allowing Spring MVC to
+ * share the codecs used by WebFlux, e.g. {@code Jackson2JsonEncoder} and
+ * {@code Jackson2JsonDecoder}.
+ *
+ * <p>Values are encoded into {@link DataBuffer DataBuffers} obtained from the
+ * configured {@link DataBufferFactory} and written to the response body, after
+ * which the buffers are released. Request bodies are read into buffers from the
+ * same factory and decoded as a single value. A {@code NettyDataBufferFactory}
+ * over a pooled allocator may be configured to recycle buffers across requests.
+ *
+ * <p>Both encoding and decoding block the calling thread, as expected in a
+ * Servlet container, and are therefore only suitable for codecs that do not
+ * depend on asynchronous resources.
+ *
+ * @since 5.1.17
+ * @param <T> the converted object type
+ */
+public class CodecHttpMessageConverter<T> extends AbstractGenericHttpMessageConverter<T> {
+
+	@Nullable
+	private final Encoder<T> encoder;
+
+	@Nullable
+	private final Decoder<T> decoder;
+
+	private DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private int bufferSize = StreamUtils.BUFFER_SIZE;
+
+
+	/**
+	 * Create a new {@code CodecHttpMessageConverter} for the given encoder and decoder.
+	 * @param encoder the encoder to write with, or {@code null} for read-only use
+	 * @param decoder the decoder to read with, or {@code null} for write-only use
+	 */
+	public CodecHttpMessageConverter(@Nullable Encoder<T> encoder, @Nullable Decoder<T> decoder) {
+		Assert.isTrue(encoder != null || decoder != null, "Encoder or Decoder is required");
+		this.encoder = encoder;
+		this.decoder = decoder;
+		setSupportedMediaTypes(initSupportedMediaTypes(encoder, decoder));
+	}
+
+	private static List<MediaType> initSupportedMediaTypes(
+			@Nullable Encoder<?> encoder, @Nullable Decoder<?> decoder) {
+
+		Set<MimeType> mimeTypes = new LinkedHashSet<>();
+		if (encoder != null) {
+			mimeTypes.addAll(encoder.getEncodableMimeTypes());
+		}
+		if (decoder != null) {
+			mimeTypes.addAll(decoder.getDecodableMimeTypes());
+		}
+		return MediaType.asMediaTypes(new ArrayList<>(mimeTypes));
+	}
+
+
+	/**
+	 * Return the configured {@link Encoder}, if any.
+	 */
+	@Nullable
+	public Encoder<T> getEncoder() {
+		return this.encoder;
+	}
+
+	/**
+	 * Return the configured {@link Decoder}, if any.
+	 */
+	@Nullable
+	public Decoder<T> getDecoder() {
+		return this.decoder;
+	}
+
+	/**
+	 * Configure the {@link DataBufferFactory} to allocate buffers from.
+	 * <p>By default this is a {@link DefaultDataBufferFactory}.
+	 */
+	public void setBufferFactory(DataBufferFactory bufferFactory) {
+		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
+		this.bufferFactory = bufferFactory;
+	}
+
+	/**
+	 * Return the configured {@link DataBufferFactory}.
+	 */
+	public DataBufferFactory getBufferFactory() {
+		return this.bufferFactory;
+	}
+
+	/**
+	 * Configure the size of the buffers the request body is read into.
+	 * <p>By default this is set to 4096.
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "Buffer size must be greater than 0");
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Return the configured buffer size.
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+
+	@Override
+	public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+		return canRead(clazz, null, mediaType);
+	}
+
+	@Override
+	public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+		return (this.decoder != null &&
+				this.decoder.canDecode(getResolvableType(type, contextClass), mediaType));
+	}
+
+	@Override
+	public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+		return canWrite(null, clazz, mediaType);
+	}
+
+	@Override
+	public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+		return (this.encoder != null &&
+				this.encoder.canEncode(getResolvableType(type != null ? type : clazz, null), mediaType));
+	}
+
+	@Override
+	protected T readInternal(Class<? extends T> clazz, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+
+		return read(clazz, null, inputMessage);
+	}
+
+	@Override
+	public T read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+
+		Assert.state(this.decoder != null, "No Decoder configured");
+		ResolvableType elementType = getResolvableType(type, contextClass);
+		MediaType contentType = inputMessage.getHeaders().getContentType();
+		Flux<DataBuffer> input = DataBufferUtils.readInputStream(
+				inputMessage::getBody, this.bufferFactory, this.bufferSize);
+
+		T value;
+		try {
+			value = this.decoder.decodeToMono(input, elementType, contentType, getHints()).block();
+		}
+		catch (DecodingException ex) {
+			throw new HttpMessageNotReadableException("Could not decode: " + ex.getMessage(), ex, inputMessage);
+		}
+		catch (CodecException ex) {
+			throw new HttpMessageConversionException("Could not decode: " + ex.getMessage(), ex);
+		}
+		catch (RuntimeException ex) {
+			throw unwrapIOException(ex);
+		}
+
+		if (value == null) {
+			throw new HttpMessageNotReadableException("No value decoded from request body", inputMessage);
+		}
+		return value;
+	}
+
+	@Override
+	protected void writeInternal(T t, @Nullable Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+
+		Assert.state(this.encoder != null, "No Encoder configured");
+		ResolvableType valueType = (type != null ? ResolvableType.forType(type) : ResolvableType.forInstance(t));
+		MediaType contentType = outputMessage.getHeaders().getContentType();
+		Flux<DataBuffer> body = this.encoder.encode(
+				Mono.just(t), this.bufferFactory, valueType, contentType, getHints());
+
+		try {
+			DataBufferUtils.write(body, outputMessage.getBody())
+					.doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+					.doOnNext(DataBufferUtils::release)
+					.blockLast();
+		}
+		catch (CodecException ex) {
+			throw new HttpMessageNotWritableException("Could not encode: " + ex.getMessage(), ex);
+		}
+		catch (RuntimeException ex) {
+			throw unwrapIOException(ex);
+		}
+	}
+
+	/**
+	 * Return the hints to pass to the {@link Encoder} or {@link Decoder}.
+	 * <p>By default this is {@link Hints#none()}.
+	 */
+	protected Map<String, Object> getHints() {
+		return Hints.none();
+	}
+
+	private static ResolvableType getResolvableType(Type type, @Nullable Class<?> contextClass) {
+		return ResolvableType.forType(GenericTypeResolver.resolveType(type, contextClass));
+	}
+
+	private static RuntimeException unwrapIOException(RuntimeException ex) throws IOException {
+		Throwable cause = Exceptions.unwrap(ex);
+		if (cause instanceof IOException) {
+			throw (IOException) cause;
+		}
+		return ex;
+	}
+
+}
@@ -0,0 +1,11 @@
+/**
+ * Provides an HttpMessageConverter adapting reactive
+ * {@link org.springframework.core.codec.Encoder Encoders} and
+ * {@link org.springframework.core.codec.Decoder Decoders}.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.http.converter.codec;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -109,6 +109,12 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.servletPath;
 	}
 
+	/**
+	 * Configure the {@link DataBufferFactory} to use for request and response bodies.
+	 * <p>By default this is a {@link DefaultDataBufferFactory} for heap buffers.
+	 * A {@link org.springframework.core.io.buffer.PooledDataBufferFactory} may be
+	 * used instead to recycle the memory of released buffers.
+	 */
 	public void setDataBufferFactory(DataBufferFactory dataBufferFactory) {
 		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
 		this.dataBufferFactory = dataBufferFactory;
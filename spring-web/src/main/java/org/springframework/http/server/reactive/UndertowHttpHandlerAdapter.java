@@ -54,6 +54,12 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 	}
 
 
+	/**
+	 * Configure the {@link DataBufferFactory} to use for request and response bodies.
+	 * <p>By default this is a {@link DefaultDataBufferFactory} for heap buffers.
+	 * A {@link org.springframework.core.io.buffer.PooledDataBufferFactory} may be
+	 * used instead to recycle the memory of released buffers.
+	 */
 	public void setDataBufferFactory(DataBufferFactory bufferFactory) {
 		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
 		this.bufferFactory = bufferFactory;
@@ -19,14 +19,19 @@ package org.springframework.web.cors;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Provide a per request {@link CorsConfiguration} instance based on a
@@ -34,6 +39,8 @@ import org.springframework.web.util.UrlPathHelper;
  *
  * <p>Exact path mapping URIs (such as {@code "/admin"}) are supported
  * as well as Ant-style path patterns (such as {@code "/admin/**"}).
+ * Alternatively, the patterns may be parsed into {@link PathPattern PathPatterns}
+ * through a {@link #setPatternParser PathPatternParser}.
  *
  * @author Sebastien Deleuze
  * @since 4.2
@@ -46,6 +53,11 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 
 	private UrlPathHelper urlPathHelper = new UrlPathHelper();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
+	private final Map<String, PathPattern> pathPatternCache = new ConcurrentHashMap<>();
+
 
 	/**
 	 * Set the PathMatcher implementation to use for matching URL paths
@@ -90,6 +102,29 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 		this.urlPathHelper = urlPathHelper;
 	}
 
+	/**
+	 * Use a {@link PathPatternParser} to parse the URL patterns into
+	 * {@link PathPattern PathPatterns}, and to match them against the
+	 * {@link ServletRequestPathUtils parsed path} of the request instead of
+	 * the lookup path determined through the {@code UrlPathHelper} and
+	 * matched through the {@code PathMatcher}.
+	 * <p>By default this is not set.
+	 * @since 5.1.17
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		this.pathPatternCache.clear();
+	}
+
+	/**
+	 * Return the configured {@link PathPatternParser}, if any.
+	 * @since 5.1.17
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 	/**
 	 * Set CORS configuration based on URL patterns.
 	 */
@@ -118,6 +153,17 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 	@Override
 	@Nullable
 	public CorsConfiguration getCorsConfiguration(HttpServletRequest request) {
+		PathPatternParser patternParser = this.patternParser;
+		if (patternParser != null) {
+			PathContainer path = ServletRequestPathUtils.getOrParseAndCache(request).pathWithinApplication();
+			for (Map.Entry<String, CorsConfiguration> entry : this.corsConfigurations.entrySet()) {
+				PathPattern pattern = this.pathPatternCache.computeIfAbsent(entry.getKey(), patternParser::parse);
+				if (pattern.matches(path)) {
+					return entry.getValue();
+				}
+			}
+			return null;
+		}
 		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
 		for (Map.Entry<String, CorsConfiguration> entry : this.corsConfigurations.entrySet()) {
 			if (this.pathMatcher.match(entry.getKey(), lookupPath)) {
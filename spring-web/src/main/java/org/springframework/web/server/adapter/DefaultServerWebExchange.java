@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.context.ApplicationContext;
@@ -94,6 +95,9 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 	@Nullable
 	private final ApplicationContext applicationContext;
 
+	@Nullable
+	private volatile MultiValueMap<String, Part> resolvedMultipartData;
+
 	private volatile boolean notModified;
 
 	private Function<String, String> urlTransformer = url -> url;
@@ -129,7 +133,8 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 		this.sessionMono = sessionManager.getSession(this).cache();
 		this.localeContextResolver = localeContextResolver;
 		this.formDataMono = initFormData(request, codecConfigurer, getLogPrefix());
-		this.multipartDataMono = initMultipartData(request, codecConfigurer, getLogPrefix());
+		this.multipartDataMono = initMultipartData(request, codecConfigurer, getLogPrefix())
+				.doOnNext(multipartData -> this.resolvedMultipartData = multipartData);
 		this.applicationContext = applicationContext;
 	}
 
@@ -221,6 +226,25 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 		return this.multipartDataMono;
 	}
 
+	/**
+	 * Delete the underlying storage of the parts obtained through
+	 * {@link #getMultipartData()}, if any, e.g. temporary files.
+	 * Only parts that have actually been resolved are deleted, without
+	 * triggering the parsing of the request body otherwise.
+	 * Failures to delete individual parts are ignored.
+	 * @since 5.1.17
+	 */
+	Mono<Void> cleanupMultipart() {
+		MultiValueMap<String, Part> multipartData = this.resolvedMultipartData;
+		if (multipartData == null) {
+			return Mono.empty();
+		}
+		return Flux.fromIterable(multipartData.values())
+				.flatMapIterable(Function.identity())
+				.flatMap(part -> part.delete().onErrorResume(ex -> Mono.empty()))
+				.then();
+	}
+
 	@Override
 	public LocaleContext getLocaleContext() {
 		return this.localeContextResolver.resolveLocaleContext(this);
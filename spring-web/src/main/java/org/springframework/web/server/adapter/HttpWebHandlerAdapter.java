@@ -232,12 +232,21 @@ public class HttpWebHandlerAdapter extends WebHandlerDecorator implements HttpHa
 				exchange.getLogPrefix() + formatRequest(exchange.getRequest()) +
 						(traceOn ? ", headers=" + formatHeaders(exchange.getRequest().getHeaders()) : ""));
 
-		return getDelegate().handle(exchange)
+		Mono<Void> handling = getDelegate().handle(exchange)
 				.doOnSuccess(aVoid -> logResponse(exchange))
-				.onErrorResume(ex -> handleUnresolvedError(exchange, ex))
+				.onErrorResume(ex -> handleUnresolvedError(exchange, ex));
+
+		// Clean up multipart storage on completion, error, and cancellation alike
+		return Mono.usingWhen(Mono.just(exchange), handledExchange -> handling,
+				this::cleanupMultipart, this::cleanupMultipart, this::cleanupMultipart)
 				.then(Mono.defer(response::setComplete));
 	}
 
+	private Mono<Void> cleanupMultipart(ServerWebExchange exchange) {
+		return (exchange instanceof DefaultServerWebExchange ?
+				((DefaultServerWebExchange) exchange).cleanupMultipart() : Mono.empty());
+	}
+
 	protected ServerWebExchange createExchange(ServerHttpRequest request, ServerHttpResponse response) {
 		return new DefaultServerWebExchange(request, response, this.sessionManager,
 				getCodecConfigurer(), getLocaleContextResolver(), this.applicationContext);
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility methods to parse the path of a Servlet request into a
+ * {@link RequestPath} and to cache it in a request attribute, for matching
+ * against parsed {@link org.springframework.web.util.pattern.PathPattern
+ * PathPatterns} without decoding and parsing the path over and over again.
+ *
+ * <p>The {@link RequestPath#contextPath() context path} of the parsed path
+ * includes the servlet path if the servlet is mapped by path prefix, e.g.
+ * "/app/*", such that {@link RequestPath#pathWithinApplication()} is the
+ * path within the servlet mapping, much like the lookup path of
+ * {@link UrlPathHelper}.
+ *
+ * @since 5.1.17
+ * @see org.springframework.web.util.pattern.PathPattern
+ */
+public abstract class ServletRequestPathUtils {
+
+	/**
+	 * Name of the request attribute that holds the parsed {@link RequestPath}.
+	 */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the path of the given request into a {@link RequestPath}, and save
+	 * it in the {@link #PATH_ATTRIBUTE} request attribute for subsequent use.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = parse(request);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Return the {@link RequestPath} previously {@link #parseAndCache parsed}
+	 * for the given request, or parse and cache it if not available yet.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath getOrParseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		return (requestPath != null ? requestPath : parseAndCache(request));
+	}
+
+	/**
+	 * Return the {@link RequestPath} previously {@link #parseAndCache parsed}
+	 * for the given request.
+	 * @param request the current request
+	 * @return the parsed path
+	 * @throws IllegalArgumentException if the path has not been parsed
+	 */
+	public static RequestPath getParsedRequestPath(ServletRequest request) {
+		RequestPath requestPath = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		Assert.notNull(requestPath, "Expected parsed RequestPath in request attribute \"" + PATH_ATTRIBUTE + "\".");
+		return requestPath;
+	}
+
+	/**
+	 * Check whether a parsed {@link RequestPath} is cached for the given request.
+	 * @param request the current request
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Set the cached, parsed {@link RequestPath} to the given value,
+	 * e.g. to restore the path of the outer request after a forward or an include.
+	 * @param requestPath the value to set to, or {@code null} to remove it
+	 * @param request the current request
+	 */
+	public static void setParsedRequestPath(@Nullable RequestPath requestPath, ServletRequest request) {
+		if (requestPath != null) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
+		else {
+			request.removeAttribute(PATH_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Remove the cached, parsed {@link RequestPath}, if any.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(ServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+
+	private static RequestPath parse(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		String contextPath;
+		String servletPath;
+		String pathInfo;
+		if (requestUri != null) {
+			contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+			servletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+			pathInfo = (String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE);
+		}
+		else {
+			requestUri = request.getRequestURI();
+			contextPath = request.getContextPath();
+			servletPath = request.getServletPath();
+			pathInfo = request.getPathInfo();
+		}
+		contextPath = (contextPath != null && !"/".equals(contextPath) ? contextPath : "");
+		if (StringUtils.hasLength(servletPath) && pathInfo != null) {
+			// Servlet mapped by path prefix: the servlet path is part of the application path
+			String prefix = contextPath + UriUtils.encodePath(servletPath, StandardCharsets.UTF_8);
+			if (requestUri.startsWith(prefix) &&
+					(requestUri.length() == prefix.length() || requestUri.charAt(prefix.length()) == '/')) {
+				contextPath = prefix;
+			}
+		}
+		return RequestPath.parse(requestUri, contextPath);
+	}
+
+}
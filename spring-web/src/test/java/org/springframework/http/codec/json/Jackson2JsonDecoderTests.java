@@ -41,6 +41,7 @@ import org.springframework.core.codec.AbstractDecoderTestCase;
 import org.springframework.core.codec.CodecException;
 import org.springframework.core.codec.DecodingException;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.Pojo;
 import org.springframework.util.MimeType;
@@ -274,6 +275,51 @@ public class Jackson2JsonDecoderTests extends AbstractDecoderTestCase<Jackson2Js
 				null);
 	}
 
+	@Test
+	public void decodeToMonoWithValueAcrossBuffers() {
+		Flux<DataBuffer> input = Flux.concat(
+				stringBuffer("{\"bar\":\"b"),
+				stringBuffer("1\",\"fo"),
+				stringBuffer("o\":\"f1\"}"));
+
+		testDecodeToMono(input, Pojo.class, step -> step
+				.expectNext(pojo1)
+				.verifyComplete());
+	}
+
+	@Test
+	public void decodeToMonoWithWhitespaceOnly() {
+		Flux<DataBuffer> input = Flux.concat(stringBuffer("  "), stringBuffer("\n"));
+
+		testDecodeToMono(input, Pojo.class, step -> step.verifyComplete());
+	}
+
+	@Test
+	public void decodeToMonoWithMultipleValues() {
+		Flux<DataBuffer> input = Flux.concat(
+				stringBuffer("{\"bar\":\"b1\",\"foo\":\"f1\"}"),
+				stringBuffer("{\"bar\":\"b2\",\"foo\":\"f2\"}"));
+
+		testDecodeToMono(input, Pojo.class, step -> step.verifyError(DecodingException.class));
+	}
+
+	@Test
+	public void decodeToMonoWithTrailingTokens() {
+		Flux<DataBuffer> input = stringBuffer("{\"bar\":\"b1\",\"foo\":\"f1\"} garbage").flux();
+
+		testDecodeToMono(input, Pojo.class, step -> step.verifyError(DecodingException.class));
+	}
+
+	@Test
+	public void decodeToMonoWithMaxInMemorySize() {
+		Flux<DataBuffer> input = Flux.concat(
+				stringBuffer("{\"bar\":\"b1\","),
+				stringBuffer("\"foo\":\"f1\"}"));
+		this.decoder.setMaxInMemorySize(10);
+
+		testDecodeToMono(input, Pojo.class, step -> step.verifyError(DataBufferLimitException.class));
+	}
+
 	private Mono<DataBuffer> stringBuffer(String value) {
 		return stringBuffer(value, StandardCharsets.UTF_8);
 	}
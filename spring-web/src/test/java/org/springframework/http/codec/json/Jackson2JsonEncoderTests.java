@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -223,6 +223,19 @@ public class Jackson2JsonEncoderTests extends AbstractEncoderTestCase<Jackson2Js
 				.verify(Duration.ofSeconds(5));
 	}
 
+	@Test
+	public void encodeStreamResubscribe() {
+		Flux<DataBuffer> result = this.encoder.encode(Flux.just(new Pojo("foo", "bar"), new Pojo("foofoo", "barbar")),
+				this.bufferFactory, ResolvableType.forClass(Pojo.class), APPLICATION_STREAM_JSON, null);
+
+		for (int i = 0; i < 2; i++) {
+			StepVerifier.create(result)
+					.consumeNextWith(expectString("{\"foo\":\"foo\",\"bar\":\"bar\"}\n"))
+					.consumeNextWith(expectString("{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n"))
+					.verifyComplete();
+		}
+	}
+
 
 	@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
 	private static class ParentClass {
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.TrackingDataBufferFactory;
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.mock.http.client.reactive.test.MockClientHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.MultiValueMap;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.core.ResolvableType.forClass;
+import static org.springframework.core.ResolvableType.forClassWithGenerics;
+
+/**
+ * Unit tests for {@link DefaultPartHttpMessageReader}.
+ */
+public class DefaultPartHttpMessageReaderTests {
+
+	private static final ResolvableType PARTS_ELEMENT_TYPE =
+			forClassWithGenerics(MultiValueMap.class, String.class, Part.class);
+
+	private static final String LOREM_IPSUM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. " +
+			"Integer iaculis metus id vestibulum nullam.";
+
+	private final TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory();
+
+	private final DefaultPartHttpMessageReader partReader = new DefaultPartHttpMessageReader();
+
+	private final MultipartHttpMessageReader reader = new MultipartHttpMessageReader(this.partReader);
+
+	@Nullable
+	private Path storageDirectory;
+
+
+	@After
+	public void checkForLeaks() throws IOException {
+		this.bufferFactory.checkForLeaks(Duration.ofSeconds(5));
+		if (this.storageDirectory != null) {
+			FileSystemUtils.deleteRecursively(this.storageDirectory);
+		}
+	}
+
+
+	@Test
+	public void canRead() {
+		assertTrue(this.partReader.canRead(forClass(Part.class), MediaType.MULTIPART_FORM_DATA));
+		assertTrue(this.partReader.canRead(forClass(Part.class), null));
+		assertFalse(this.partReader.canRead(forClass(Part.class), MediaType.APPLICATION_FORM_URLENCODED));
+		assertFalse(this.partReader.canRead(forClass(String.class), MediaType.MULTIPART_FORM_DATA));
+	}
+
+	@Test
+	public void resolveParts() {
+		MultiValueMap<String, Part> parts = readParts(generateMultipartRequest(1024));
+		assertParts(parts);
+	}
+
+	@Test
+	public void resolvePartsFromSingleByteBuffers() {
+		MultiValueMap<String, Part> parts = readParts(generateMultipartRequest(1));
+		assertParts(parts);
+	}
+
+	@Test
+	public void resolvePartsWithPreambleAndEpilogue() {
+		String body = "preamble\r\n" +
+				"--boundary\r\n" +
+				"Content-Disposition: form-data; name=\"empty\"\r\n" +
+				"\r\n" +
+				"\r\n" +
+				"--boundary\r\n" +
+				"Content-Disposition: form-data; name=\"text\"\r\n" +
+				"Content-Type: text/plain; charset=UTF-8\r\n" +
+				"\r\n" +
+				"été\r\n" +
+				"--boundary--\r\n" +
+				"epilogue";
+		MediaType contentType = new MediaType("multipart", "form-data", singletonMap("boundary", "\"boundary\""));
+		ServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(contentType)
+				.body(Flux.just(this.bufferFactory.wrap(body.getBytes(StandardCharsets.UTF_8))));
+
+		List<Part> parts = this.partReader.read(forClass(Part.class), request, emptyMap())
+				.collectList().block(Duration.ofSeconds(5));
+
+		assertNotNull(parts);
+		assertEquals(2, parts.size());
+		assertEquals("empty", parts.get(0).name());
+		assertEquals("", ((FormFieldPart) parts.get(0)).value());
+		assertEquals("text", parts.get(1).name());
+		assertEquals("été", ((FormFieldPart) parts.get(1)).value());
+	}
+
+	@Test
+	public void filePartStoredOnDisk() throws IOException {
+		this.storageDirectory = Files.createTempDirectory("DefaultPartHttpMessageReaderTests");
+		this.partReader.setFileStorageDirectory(this.storageDirectory);
+		this.partReader.setMaxInMemorySize(16);
+
+		MultiValueMap<String, Part> parts = readParts(generateMultipartRequest(7));
+		assertParts(parts);
+		assertEquals(1, fileCount(this.storageDirectory));
+
+		FilePart part = (FilePart) parts.getFirst("filePart");
+		Path dest = this.storageDirectory.resolve("dest.txt");
+		part.transferTo(dest).block(Duration.ofSeconds(5));
+		assertEquals(LOREM_IPSUM, new String(Files.readAllBytes(dest), StandardCharsets.UTF_8));
+
+		part.delete().block(Duration.ofSeconds(5));
+		assertEquals(1, fileCount(this.storageDirectory));
+	}
+
+	@Test
+	public void transferTo() throws IOException {
+		MultiValueMap<String, Part> parts = readParts(generateMultipartRequest(1024));
+		FilePart part = (FilePart) parts.getFirst("filePart");
+		assertNotNull(part);
+
+		Path dest = Files.createTempFile("DefaultPartHttpMessageReaderTests", ".txt");
+		try {
+			part.transferTo(dest).block(Duration.ofSeconds(5));
+			assertEquals(LOREM_IPSUM, new String(Files.readAllBytes(dest), StandardCharsets.UTF_8));
+		}
+		finally {
+			Files.delete(dest);
+		}
+	}
+
+	@Test
+	public void noBoundary() {
+		ServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(MediaType.MULTIPART_FORM_DATA)
+				.body(Flux.just(new DefaultDataBufferFactory().wrap("invalid content".getBytes(StandardCharsets.UTF_8))));
+
+		StepVerifier.create(this.reader.readMono(PARTS_ELEMENT_TYPE, request, emptyMap()))
+				.expectError(DecodingException.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void truncatedBody() throws IOException {
+		ReadableByteChannel channel = new ClassPathResource("invalid.multipart", getClass()).readableChannel();
+		Flux<DataBuffer> body = DataBufferUtils.readByteChannel(() -> channel, this.bufferFactory, 1024);
+
+		MediaType contentType = new MediaType("multipart", "form-data",
+				singletonMap("boundary", "NbjrKgjbsaMLdnMxMfDpD6myWomYc0qNX0w"));
+		ServerHttpRequest request = MockServerHttpRequest.post("/").contentType(contentType).body(body);
+
+		StepVerifier.create(this.reader.readMono(PARTS_ELEMENT_TYPE, request, emptyMap()))
+				.expectError(DecodingException.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void readTooManyParts() {
+		testMultipartExceptions(reader -> reader.setMaxParts(1), ex -> {
+			assertEquals(DecodingException.class, ex.getClass());
+			assertEquals("Too many parts (1 allowed)", ex.getMessage());
+		});
+	}
+
+	@Test
+	public void readFilePartTooBig() throws IOException {
+		this.storageDirectory = Files.createTempDirectory("DefaultPartHttpMessageReaderTests");
+		testMultipartExceptions(reader -> {
+			try {
+				reader.setFileStorageDirectory(this.storageDirectory);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+			reader.setMaxInMemorySize(8);
+			reader.setMaxDiskUsagePerPart(16);
+		}, ex -> {
+			assertEquals(DecodingException.class, ex.getClass());
+			assertEquals("Part exceeded the disk usage limit of 16 bytes", ex.getMessage());
+		});
+	}
+
+	@Test
+	public void readFormFieldTooBig() {
+		testMultipartExceptions(reader -> reader.setMaxInMemorySize(8), ex -> {
+			assertEquals(DataBufferLimitException.class, ex.getClass());
+			assertEquals("Form field value exceeded the memory usage limit of 8 bytes", ex.getMessage());
+		});
+	}
+
+	@Test
+	public void readHeadersTooBig() {
+		testMultipartExceptions(reader -> reader.setMaxHeadersSize(16),
+				ex -> assertEquals(DataBufferLimitException.class, ex.getClass()));
+	}
+
+
+	private MultiValueMap<String, Part> readParts(ServerHttpRequest request) {
+		MultiValueMap<String, Part> parts =
+				this.reader.readMono(PARTS_ELEMENT_TYPE, request, emptyMap()).block(Duration.ofSeconds(5));
+		assertNotNull(parts);
+		return parts;
+	}
+
+	private void assertParts(MultiValueMap<String, Part> parts) {
+		assertEquals(2, parts.size());
+
+		Part part = parts.getFirst("filePart");
+		assertTrue(part instanceof FilePart);
+		assertEquals("filePart", part.name());
+		assertEquals("lorem.txt", ((FilePart) part).filename());
+		DataBuffer content = DataBufferUtils.join(part.content()).block(Duration.ofSeconds(5));
+		assertEquals(LOREM_IPSUM, DataBufferTestUtils.dumpString(content, StandardCharsets.UTF_8));
+		DataBufferUtils.release(content);
+
+		part = parts.getFirst("textPart");
+		assertTrue(part instanceof FormFieldPart);
+		assertEquals("textPart", part.name());
+		assertEquals("sample-text", ((FormFieldPart) part).value());
+	}
+
+	private void testMultipartExceptions(
+			Consumer<DefaultPartHttpMessageReader> configurer, Consumer<Throwable> assertions) {
+
+		configurer.accept(this.partReader);
+		StepVerifier.create(this.reader.readMono(PARTS_ELEMENT_TYPE, generateMultipartRequest(7), emptyMap()))
+				.consumeErrorWith(assertions)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	private ServerHttpRequest generateMultipartRequest(int bufferSize) {
+		MultipartBodyBuilder partsBuilder = new MultipartBodyBuilder();
+		partsBuilder.part("filePart", new ByteArrayResource(LOREM_IPSUM.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public String getFilename() {
+				return "lorem.txt";
+			}
+		});
+		partsBuilder.part("textPart", "sample-text");
+
+		MockClientHttpRequest outputMessage = new MockClientHttpRequest(HttpMethod.POST, "/");
+		new MultipartHttpMessageWriter()
+				.write(Mono.just(partsBuilder.build()), null, MediaType.MULTIPART_FORM_DATA, outputMessage, null)
+				.block(Duration.ofSeconds(5));
+		DataBuffer joined = DataBufferUtils.join(outputMessage.getBody()).block(Duration.ofSeconds(5));
+		byte[] bytes = new byte[joined.readableByteCount()];
+		joined.read(bytes);
+		DataBufferUtils.release(joined);
+
+		// Allocate lazily, so that buffers not requested after an error are not reported as leaks
+		int count = (bytes.length + bufferSize - 1) / bufferSize;
+		Flux<DataBuffer> body = Flux.range(0, count).map(i -> {
+			int offset = i * bufferSize;
+			int length = Math.min(bufferSize, bytes.length - offset);
+			return this.bufferFactory.allocateBuffer(length).write(bytes, offset, length);
+		});
+		return MockServerHttpRequest.post("/")
+				.contentType(outputMessage.getHeaders().getContentType())
+				.body(body);
+	}
+
+	private static long fileCount(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+}
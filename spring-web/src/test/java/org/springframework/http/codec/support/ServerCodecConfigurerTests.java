@@ -17,11 +17,14 @@
 package org.springframework.http.codec.support;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import reactor.core.publisher.Flux;
@@ -53,6 +56,7 @@ import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.http.codec.json.Jackson2SmileDecoder;
 import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
 import org.springframework.http.codec.multipart.MultipartHttpMessageReader;
 import org.springframework.http.codec.multipart.SynchronossPartHttpMessageReader;
 import org.springframework.http.codec.protobuf.ProtobufDecoder;
@@ -92,7 +96,7 @@ public class ServerCodecConfigurerTests {
 		assertStringDecoder(getNextDecoder(readers), true);
 		assertEquals(ProtobufDecoder.class, getNextDecoder(readers).getClass());
 		assertEquals(FormHttpMessageReader.class, readers.get(this.index.getAndIncrement()).getClass());
-		assertEquals(SynchronossPartHttpMessageReader.class, readers.get(this.index.getAndIncrement()).getClass());
+		assertEquals(DefaultPartHttpMessageReader.class, readers.get(this.index.getAndIncrement()).getClass());
 		assertEquals(MultipartHttpMessageReader.class, readers.get(this.index.getAndIncrement()).getClass());
 		assertEquals(Jackson2JsonDecoder.class, getNextDecoder(readers).getClass());
 		assertEquals(Jackson2SmileDecoder.class, getNextDecoder(readers).getClass());
@@ -144,10 +148,10 @@ public class ServerCodecConfigurerTests {
 		assertEquals(size, ((StringDecoder) getNextDecoder(readers)).getMaxInMemorySize());
 		assertEquals(size, ((ProtobufDecoder) getNextDecoder(readers)).getMaxMessageSize());
 		assertEquals(size, ((FormHttpMessageReader) nextReader(readers)).getMaxInMemorySize());
-		assertEquals(size, ((SynchronossPartHttpMessageReader) nextReader(readers)).getMaxInMemorySize());
+		assertEquals(size, ((DefaultPartHttpMessageReader) nextReader(readers)).getMaxInMemorySize());
 
 		MultipartHttpMessageReader multipartReader = (MultipartHttpMessageReader) nextReader(readers);
-		SynchronossPartHttpMessageReader reader = (SynchronossPartHttpMessageReader) multipartReader.getPartReader();
+		DefaultPartHttpMessageReader reader = (DefaultPartHttpMessageReader) multipartReader.getPartReader();
 		assertEquals(size, (reader).getMaxInMemorySize());
 
 		assertEquals(size, ((Jackson2JsonDecoder) getNextDecoder(readers)).getMaxInMemorySize());
@@ -156,6 +160,19 @@ public class ServerCodecConfigurerTests {
 		assertEquals(size, ((StringDecoder) getNextDecoder(readers)).getMaxInMemorySize());
 	}
 
+	@Test
+	public void spillDirectory() {
+		Path directory = Paths.get("spill");
+		this.configurer.defaultCodecs().spillDirectory(directory);
+
+		List<HttpMessageReader<?>> readers = this.configurer.getReaders();
+		assertEquals(directory, findDecoder(readers, ResourceDecoder.class).getSpillDirectory());
+		assertEquals(directory, findDecoder(readers, Jaxb2XmlDecoder.class).getSpillDirectory());
+
+		readers = this.configurer.clone().getReaders();
+		assertEquals(directory, findDecoder(readers, ResourceDecoder.class).getSpillDirectory());
+	}
+
 	@Test
 	public void maxInMemorySizeWithCustomCodecs() {
 
@@ -188,7 +205,7 @@ public class ServerCodecConfigurerTests {
 		MultipartHttpMessageReader multipartReader = findCodec(readers, MultipartHttpMessageReader.class);
 		assertTrue(multipartReader.isEnableLoggingRequestDetails());
 
-		SynchronossPartHttpMessageReader reader = (SynchronossPartHttpMessageReader) multipartReader.getPartReader();
+		DefaultPartHttpMessageReader reader = (DefaultPartHttpMessageReader) multipartReader.getPartReader();
 		assertTrue(reader.isEnableLoggingRequestDetails());
 	}
 
@@ -257,6 +274,13 @@ public class ServerCodecConfigurerTests {
 		return (T) codecs.stream().filter(type::isInstance).findFirst().get();
 	}
 
+	private <T> T findDecoder(List<HttpMessageReader<?>> readers, Class<T> type) {
+		return findCodec(readers.stream()
+				.filter(reader -> reader instanceof DecoderHttpMessageReader)
+				.map(reader -> ((DecoderHttpMessageReader<?>) reader).getDecoder())
+				.collect(Collectors.toList()), type);
+	}
+
 	@SuppressWarnings("unchecked")
 	private void assertStringDecoder(Decoder<?> decoder, boolean textOnly) {
 		assertEquals(StringDecoder.class, decoder.getClass());
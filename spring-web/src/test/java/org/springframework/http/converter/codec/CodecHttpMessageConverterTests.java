@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.codec;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.LeakAwareDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.MockHttpInputMessage;
+import org.springframework.http.MockHttpOutputMessage;
+import org.springframework.http.codec.Pojo;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CodecHttpMessageConverter}.
+ */
+public class CodecHttpMessageConverterTests {
+
+	private final LeakAwareDataBufferFactory bufferFactory = new LeakAwareDataBufferFactory();
+
+	private final CodecHttpMessageConverter<Object> converter =
+			new CodecHttpMessageConverter<>(new Jackson2JsonEncoder(), new Jackson2JsonDecoder());
+
+
+	@Before
+	public void setup() {
+		this.converter.setBufferFactory(this.bufferFactory);
+	}
+
+	@Test
+	public void canReadAndWrite() {
+		assertTrue(this.converter.canRead(Pojo.class, MediaType.APPLICATION_JSON));
+		assertTrue(this.converter.canWrite(Pojo.class, MediaType.APPLICATION_JSON));
+		assertTrue(this.converter.canWrite(Pojo.class, MediaType.APPLICATION_STREAM_JSON));
+		assertFalse(this.converter.canRead(Pojo.class, MediaType.APPLICATION_XML));
+		assertFalse(this.converter.canWrite(String.class, MediaType.APPLICATION_JSON));
+		assertTrue(this.converter.getSupportedMediaTypes().contains(MediaType.APPLICATION_JSON_UTF8));
+	}
+
+	@Test
+	public void writeOnly() {
+		CodecHttpMessageConverter<Object> converter = new CodecHttpMessageConverter<>(new Jackson2JsonEncoder(), null);
+		assertFalse(converter.canRead(Pojo.class, MediaType.APPLICATION_JSON));
+		assertTrue(converter.canWrite(Pojo.class, MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void read() throws IOException {
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(
+				"{\"foo\":\"f\",\"bar\":\"b\"}".getBytes(StandardCharsets.UTF_8));
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+		assertEquals(new Pojo("f", "b"), this.converter.read(Pojo.class, inputMessage));
+		this.bufferFactory.checkForLeaks();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void readGeneric() throws IOException {
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(
+				"[{\"foo\":\"f1\",\"bar\":\"b1\"},{\"foo\":\"f2\",\"bar\":\"b2\"}]".getBytes(StandardCharsets.UTF_8));
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		Type type = new ParameterizedTypeReference<List<Pojo>>() {}.getType();
+
+		assertTrue(this.converter.canRead(type, null, MediaType.APPLICATION_JSON));
+		List<Pojo> result = (List<Pojo>) this.converter.read(type, null, inputMessage);
+		assertEquals(Arrays.asList(new Pojo("f1", "b1"), new Pojo("f2", "b2")), result);
+		this.bufferFactory.checkForLeaks();
+	}
+
+	@Test(expected = HttpMessageNotReadableException.class)
+	public void readInvalidJson() throws IOException {
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage("{\"foo\"".getBytes(StandardCharsets.UTF_8));
+		inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		this.converter.read(Pojo.class, inputMessage);
+	}
+
+	@Test
+	public void write() throws IOException {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		this.converter.write(new Pojo("f", "b"), null, MediaType.APPLICATION_JSON, outputMessage);
+
+		assertEquals("{\"foo\":\"f\",\"bar\":\"b\"}", outputMessage.getBodyAsString(StandardCharsets.UTF_8));
+		assertEquals(MediaType.APPLICATION_JSON, outputMessage.getHeaders().getContentType());
+		this.bufferFactory.checkForLeaks();
+	}
+
+	@Test
+	public void writeGeneric() throws IOException {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		Type type = new ParameterizedTypeReference<List<Pojo>>() {}.getType();
+		this.converter.write(Arrays.asList(new Pojo("f1", "b1"), new Pojo("f2", "b2")), type,
+				MediaType.APPLICATION_JSON, outputMessage);
+
+		assertEquals("[{\"foo\":\"f1\",\"bar\":\"b1\"},{\"foo\":\"f2\",\"bar\":\"b2\"}]",
+				outputMessage.getBodyAsString(StandardCharsets.UTF_8));
+		this.bufferFactory.checkForLeaks();
+	}
+
+}
@@ -16,13 +16,25 @@
 
 package org.springframework.web.server.adapter;
 
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.Part;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.server.session.DefaultWebSessionManager;
 
 import static org.junit.Assert.*;
@@ -56,6 +68,49 @@ public class DefaultServerWebExchangeTests {
 		assertEquals("/foo;p=abc?q=123", exchange.transformUrl("/foo"));
 	}
 
+	@Test
+	public void cleanupMultipart() {
+		String body = "--boundary\r\n" +
+				"Content-Disposition: form-data; name=\"file\"; filename=\"foo.txt\"\r\n" +
+				"\r\n" +
+				"Lorem ipsum dolor sit amet\r\n" +
+				"--boundary--\r\n";
+		MockServerHttpRequest request = MockServerHttpRequest.post("https://example.com")
+				.contentType(new MediaType(MediaType.MULTIPART_FORM_DATA, Collections.singletonMap("boundary", "boundary")))
+				.body(body);
+		ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+		configurer.defaultCodecs().maxInMemorySize(8);
+		DefaultServerWebExchange exchange = new DefaultServerWebExchange(request, new MockServerHttpResponse(),
+				new DefaultWebSessionManager(), configurer, new AcceptHeaderLocaleContextResolver());
+
+		StepVerifier.create(exchange.cleanupMultipart()).verifyComplete();
+
+		MultiValueMap<String, Part> parts = exchange.getMultipartData().block(Duration.ofSeconds(5));
+		assertNotNull(parts);
+		Part part = parts.getFirst("file");
+		assertTrue(part instanceof FilePart);
+
+		exchange.cleanupMultipart().block(Duration.ofSeconds(5));
+		StepVerifier.create(part.content())
+				.expectError(NoSuchFileException.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void cleanupMultipartDoesNotParseUnresolvedParts() {
+		AtomicBoolean subscribed = new AtomicBoolean();
+		Flux<DataBuffer> body = Flux.<DataBuffer>empty().doOnSubscribe(subscription -> subscribed.set(true));
+		MockServerHttpRequest request = MockServerHttpRequest.post("https://example.com")
+				.contentType(new MediaType(MediaType.MULTIPART_FORM_DATA, Collections.singletonMap("boundary", "boundary")))
+				.body(body);
+		DefaultServerWebExchange exchange = new DefaultServerWebExchange(request, new MockServerHttpResponse(),
+				new DefaultWebSessionManager(), ServerCodecConfigurer.create(), new AcceptHeaderLocaleContextResolver());
+
+		exchange.getMultipartData();
+		StepVerifier.create(exchange.cleanupMultipart()).verifyComplete();
+		assertFalse(subscribed.get());
+	}
+
 
 	private DefaultServerWebExchange createExchange() {
 		MockServerHttpRequest request = MockServerHttpRequest.get("https://example.com").build();
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ *
+ * @since 5.1.17
+ */
+public class ServletRequestPathUtilsTests {
+
+	@Test
+	public void parseAndCache() {
+		testParseAndCache("/app/a/b", "/app", "", "/app", "/a/b");
+		testParseAndCache("/a/b", "", "", "", "/a/b");
+		testParseAndCache("/app/a%20b", "/app", "", "/app", "/a%20b");
+	}
+
+	@Test
+	public void parseAndCacheWithPrefixMappedServlet() {
+		testParseAndCache("/app/servlet/a/b", "/app", "/servlet", "/app/servlet", "/a/b");
+		testParseAndCache("/app/servlet", "/app", "/servlet", "/app/servlet", "");
+		testParseAndCache("/app/my%20servlet/a", "/app", "/my servlet", "/app/my%20servlet", "/a");
+	}
+
+	@Test
+	public void getOrParseAndCacheReusesParsedPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/a/b");
+		RequestPath requestPath = ServletRequestPathUtils.getOrParseAndCache(request);
+
+		assertSame(requestPath, ServletRequestPathUtils.getOrParseAndCache(request));
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+
+		ServletRequestPathUtils.clearParsedRequestPath(request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+	}
+
+	@Test
+	public void includeRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a/b");
+		request.setContextPath("/app");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/c/d");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertEquals("/c/d", requestPath.pathWithinApplication().value());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getParsedRequestPathWhenNotParsed() {
+		ServletRequestPathUtils.getParsedRequestPath(new MockHttpServletRequest());
+	}
+
+
+	private void testParseAndCache(
+			String requestUri, String contextPath, String servletPath, String appPath, String pathWithinApp) {
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		request.setContextPath(contextPath);
+		request.setServletPath(servletPath);
+		if (!servletPath.isEmpty()) {
+			request.setPathInfo(requestUri.substring(appPath.length()));
+		}
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+
+		assertEquals(appPath, requestPath.contextPath().value());
+		assertEquals(pathWithinApp, requestPath.pathWithinApplication().value());
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+	}
+
+}
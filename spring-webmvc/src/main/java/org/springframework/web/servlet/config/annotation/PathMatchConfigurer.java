@@ -23,6 +23,7 @@ import java.util.function.Predicate;
 import org.springframework.lang.Nullable;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Helps with configuring HandlerMappings path matching options such as trailing
@@ -57,6 +58,9 @@ public class PathMatchConfigurer {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	@Nullable
 	private Map<String, Predicate<Class<?>>> pathPrefixes;
 
@@ -117,6 +121,24 @@ public class PathMatchConfigurer {
 		return this;
 	}
 
+	/**
+	 * Enable the use of parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}
+	 * for matching request paths, as an alternative to String pattern matching
+	 * with a {@link PathMatcher}. The request path is then parsed once per
+	 * request and matched against patterns that are parsed once at startup.
+	 * <p>When set, the {@link #setUrlPathHelper UrlPathHelper},
+	 * {@link #setPathMatcher PathMatcher} and suffix pattern matching options do
+	 * not apply to request mappings, while trailing slash matching is governed
+	 * by {@link PathPatternParser#setMatchOptionalTrailingSeparator}.
+	 * @param patternParser the parser to use
+	 * @since 5.1.17
+	 */
+	public PathMatchConfigurer setPatternParser(PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		return this;
+	}
+
 	/**
 	 * Configure a path prefix to apply to matching controller methods.
 	 * <p>Prefixes are used to enrich the mappings of every {@code @RequestMapping}
@@ -162,6 +184,15 @@ public class PathMatchConfigurer {
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Return the {@link PathPatternParser} to use, if configured.
+	 * @since 5.1.17
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 	@Nullable
 	protected Map<String, Predicate<Class<?>>> getPathPrefixes() {
 		return this.pathPrefixes;
@@ -30,6 +30,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
@@ -48,7 +49,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -80,6 +83,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private final List<Object> interceptors = new ArrayList<>();
 
 	private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<>();
@@ -187,6 +193,48 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Enable the use of parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns}, as an alternative to String pattern matching with a
+	 * {@link PathMatcher}, for request mappings, mapped interceptors and
+	 * "global" CORS configurations of this handler mapping.
+	 * <p>Patterns are then parsed once, and matched against the
+	 * {@link org.springframework.http.server.RequestPath RequestPath} that the
+	 * {@link org.springframework.web.servlet.DispatcherServlet} parses once per
+	 * request, see {@link ServletRequestPathUtils}. The {@link #setUrlPathHelper
+	 * UrlPathHelper} and {@link #setPathMatcher PathMatcher} settings do not
+	 * apply to request matching in that case.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use, or {@code null} for String
+	 * pattern matching through the {@code PathMatcher}
+	 * @since 5.1.17
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		if (this.corsConfigurationSource instanceof UrlBasedCorsConfigurationSource) {
+			((UrlBasedCorsConfigurationSource) this.corsConfigurationSource).setPatternParser(patternParser);
+		}
+	}
+
+	/**
+	 * Return the {@link #setPatternParser configured} {@code PathPatternParser}, if any.
+	 * @since 5.1.17
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Return "true" if this {@code HandlerMapping} has been
+	 * {@link #setPatternParser enabled} to use parsed {@code PathPattern}s.
+	 * @since 5.1.17
+	 */
+	@Override
+	public boolean usesPathPatterns() {
+		return (getPatternParser() != null);
+	}
+
 	/**
 	 * Set the interceptors to apply for all handlers mapped by this handler mapping.
 	 * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
@@ -213,6 +261,7 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		source.setCorsConfigurations(corsConfigurations);
 		source.setPathMatcher(this.pathMatcher);
 		source.setUrlPathHelper(this.urlPathHelper);
+		source.setPatternParser(this.patternParser);
 		this.corsConfigurationSource = source;
 	}
 
@@ -452,6 +501,25 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Determine the lookup path for the given request: the
+	 * {@link org.springframework.http.server.RequestPath#pathWithinApplication()
+	 * path within the application} of the parsed request path, with semicolon
+	 * content removed unless configured otherwise on the {@code UrlPathHelper},
+	 * if {@link #usesPathPatterns() PathPatterns are in use},
+	 * or the lookup path of the {@link #getUrlPathHelper() UrlPathHelper} otherwise.
+	 * @param request the current request
+	 * @return the lookup path
+	 * @since 5.1.17
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		if (usesPathPatterns()) {
+			String path = ServletRequestPathUtils.getOrParseAndCache(request).pathWithinApplication().value();
+			return getUrlPathHelper().removeSemicolonContent(path);
+		}
+		return getUrlPathHelper().getLookupPathForRequest(request);
+	}
+
 	/**
 	 * Build a {@link HandlerExecutionChain} for the given handler, including
 	 * applicable interceptors.
@@ -476,11 +544,20 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		HandlerExecutionChain chain = (handler instanceof HandlerExecutionChain ?
 				(HandlerExecutionChain) handler : new HandlerExecutionChain(handler));
 
-		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+		PathPatternParser patternParser = getPatternParser();
+		PathContainer path = null;
+		String lookupPath = null;
+		if (patternParser != null) {
+			path = ServletRequestPathUtils.getOrParseAndCache(request).pathWithinApplication();
+		}
+		else {
+			lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+		}
 		for (HandlerInterceptor interceptor : this.adaptedInterceptors) {
 			if (interceptor instanceof MappedInterceptor) {
 				MappedInterceptor mappedInterceptor = (MappedInterceptor) interceptor;
-				if (mappedInterceptor.matches(lookupPath, this.pathMatcher)) {
+				if (patternParser != null ? mappedInterceptor.matches(path, patternParser) :
+						mappedInterceptor.matches(lookupPath, this.pathMatcher)) {
 					chain.addInterceptor(mappedInterceptor.getInterceptor());
 				}
 			}
@@ -97,6 +97,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	private final MappingRegistry mappingRegistry = new MappingRegistry();
 
+	private boolean routeIndexApplicable;
+
 
 	/**
 	 * Whether to detect handler methods in beans in ancestor ApplicationContexts.
@@ -194,9 +196,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	/**
 	 * Detects handler methods at initialization.
 	 * @see #initHandlerMethods
+	 * @see #isRouteIndexApplicable
 	 */
 	@Override
 	public void afterPropertiesSet() {
+		this.routeIndexApplicable = isRouteIndexApplicable();
 		initHandlerMethods();
 	}
 
@@ -360,7 +364,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		this.mappingRegistry.acquireReadLock();
 		try {
 			HandlerMethod handlerMethod = lookupHandlerMethod(lookupPath, request);
@@ -388,8 +392,14 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			if (this.routeIndexApplicable) {
+				// Only go through the mappings with a pattern that may match...
+				addMatchingMappings(this.mappingRegistry.getMappingsByPattern(lookupPath), matches, request);
+			}
+			else {
+				// No choice but to go through all mappings...
+				addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			}
 		}
 
 		if (!matches.isEmpty()) {
@@ -471,6 +481,25 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	}
 
 
+	/**
+	 * Whether the mappings that do not match the lookup path directly may be
+	 * narrowed down through an index over their {@link #getMappingPathPatterns
+	 * path patterns}, rather than checking all mappings against the request.
+	 * <p>This requires that a mapping can only match a request if one of its
+	 * path patterns matches the lookup path the way a case-sensitive or
+	 * insensitive {@link org.springframework.util.AntPathMatcher} with the
+	 * default "/" separator does, possibly with a file extension or a trailing
+	 * slash appended to the pattern.
+	 * <p>Evaluated once on {@link #afterPropertiesSet()}, so it may only
+	 * depend on the configuration of this HandlerMapping.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.1.17
+	 */
+	protected boolean isRouteIndexApplicable() {
+		return false;
+	}
+
+
 	// Abstract template methods
 
 	/**
@@ -528,6 +557,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final MappingRouteIndex<T> routeIndex = new MappingRouteIndex<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -551,6 +582,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings with a pattern that may match the given URL path.
+		 * Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Set<T> getMappingsByPattern(String urlPath) {
+			return this.routeIndex.getCandidates(urlPath);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -567,14 +607,14 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 
 		/**
-		 * Acquire the read lock when using getMappings and getMappingsByUrl.
+		 * Acquire the read lock when using getMappings, getMappingsByUrl and getMappingsByPattern.
 		 */
 		public void acquireReadLock() {
 			this.readWriteLock.readLock().lock();
 		}
 
 		/**
-		 * Release the read lock after using getMappings and getMappingsByUrl.
+		 * Release the read lock after using getMappings, getMappingsByUrl and getMappingsByPattern.
 		 */
 		public void releaseReadLock() {
 			this.readWriteLock.readLock().unlock();
@@ -591,6 +631,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
 				}
+				this.routeIndex.add(mapping, getMappingPathPatterns(mapping));
 
 				String name = null;
 				if (getNamingStrategy() != null) {
@@ -668,6 +709,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				this.routeIndex.remove(definition.getMapping(), getMappingPathPatterns(definition.getMapping()));
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
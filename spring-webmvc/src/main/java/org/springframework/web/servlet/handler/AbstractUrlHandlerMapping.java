@@ -28,10 +28,15 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for URL-mapped {@link org.springframework.web.servlet.HandlerMapping}
@@ -48,6 +53,11 @@ import org.springframework.web.servlet.HandlerExecutionChain;
  * current request path. The most exact match is defined as the longest
  * path pattern that matches the current request path.
  *
+ * <p>If a {@link #setPatternParser PathPatternParser} is set, URL paths are
+ * registered as parsed {@link PathPattern PathPatterns} instead, matched
+ * against the parsed request path and ranked through
+ * {@link PathPattern#SPECIFICITY_COMPARATOR}.
+ *
  * @author Juergen Hoeller
  * @author Arjen Poutsma
  * @since 16.04.2003
@@ -63,6 +73,8 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 
 	private final Map<String, Object> handlerMap = new LinkedHashMap<>();
 
+	private final Map<PathPattern, Object> pathPatternHandlerMap = new LinkedHashMap<>();
+
 
 	/**
 	 * Set the root handler for this handler mapping, that is,
@@ -82,10 +94,25 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return this.rootHandler;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The parser must be set before handlers are registered, i.e. before
+	 * this handler mapping is initialized with its {@code ApplicationContext}.
+	 */
+	@Override
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		Assert.state(this.handlerMap.isEmpty(),
+				"PathPatternParser must be set before the registration of handlers");
+		super.setPatternParser(patternParser);
+	}
+
 	/**
 	 * Whether to match to URLs irrespective of the presence of a trailing slash.
 	 * If enabled a URL pattern such as "/users" also matches to "/users/".
 	 * <p>The default value is {@code false}.
+	 * <p>This does not apply when {@link #setPatternParser parsed patterns}
+	 * are in use: see {@link PathPatternParser#setMatchOptionalTrailingSeparator}
+	 * instead.
 	 */
 	public void setUseTrailingSlashMatch(boolean useTrailingSlashMatch) {
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
@@ -120,8 +147,15 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Override
 	@Nullable
 	protected Object getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
-		Object handler = lookupHandler(lookupPath, request);
+		String lookupPath = initLookupPath(request);
+		Object handler;
+		if (usesPathPatterns()) {
+			RequestPath path = ServletRequestPathUtils.getParsedRequestPath(request);
+			handler = lookupHandler(path, lookupPath, request);
+		}
+		else {
+			handler = lookupHandler(lookupPath, request);
+		}
 		if (handler == null) {
 			// We need to care for the default handler directly, since we need to
 			// expose the PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE for it as well.
@@ -233,6 +267,82 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return null;
 	}
 
+	/**
+	 * Look up a handler instance for the given parsed request path, through the
+	 * {@link #setPatternParser parsed patterns} of registered URL paths.
+	 * <p>Supports direct matches of the lookup path first, and otherwise
+	 * selects the most specific of the matching patterns as per
+	 * {@link PathPattern#SPECIFICITY_COMPARATOR}.
+	 * @param path the parsed request path
+	 * @param lookupPath the lookup path for direct matches
+	 * @param request current HTTP request (to expose the path within the mapping to)
+	 * @return the associated handler instance, or {@code null} if not found
+	 * @since 5.1.17
+	 */
+	@Nullable
+	protected Object lookupHandler(RequestPath path, String lookupPath, HttpServletRequest request)
+			throws Exception {
+
+		// Direct match?
+		Object handler = this.handlerMap.get(lookupPath);
+		if (handler != null) {
+			handler = resolveHandler(handler);
+			validateHandler(handler, request);
+			return buildPathExposingHandler(handler, lookupPath, lookupPath, null);
+		}
+
+		// Pattern match?
+		PathContainer pathWithinApplication = path.pathWithinApplication();
+		List<PathPattern> matchingPatterns = null;
+		for (PathPattern pattern : this.pathPatternHandlerMap.keySet()) {
+			if (pattern.matches(pathWithinApplication)) {
+				matchingPatterns = (matchingPatterns != null ? matchingPatterns : new ArrayList<>());
+				matchingPatterns.add(pattern);
+			}
+		}
+		if (matchingPatterns == null) {
+			return null;
+		}
+		if (matchingPatterns.size() > 1) {
+			matchingPatterns.sort(PathPattern.SPECIFICITY_COMPARATOR);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Matching patterns " + matchingPatterns);
+			}
+		}
+		PathPattern bestMatch = matchingPatterns.get(0);
+		handler = resolveHandler(this.pathPatternHandlerMap.get(bestMatch));
+		validateHandler(handler, request);
+		String pathWithinMapping = getDecodedValue(bestMatch.extractPathWithinPattern(pathWithinApplication));
+		PathPattern.PathMatchInfo matchInfo = bestMatch.matchAndExtract(pathWithinApplication);
+		Map<String, String> uriTemplateVariables = (matchInfo != null ? matchInfo.getUriVariables() : null);
+		if (logger.isTraceEnabled() && !CollectionUtils.isEmpty(uriTemplateVariables)) {
+			logger.trace("URI variables " + uriTemplateVariables);
+		}
+		return buildPathExposingHandler(handler, bestMatch.getPatternString(), pathWithinMapping, uriTemplateVariables);
+	}
+
+	private Object resolveHandler(Object handler) {
+		// Bean name or resolved handler?
+		if (handler instanceof String) {
+			String handlerName = (String) handler;
+			return obtainApplicationContext().getBean(handlerName);
+		}
+		return handler;
+	}
+
+	/**
+	 * Return the decoded value of the given path, without path parameters,
+	 * as the {@link org.springframework.web.util.UrlPathHelper} would by default.
+	 */
+	private static String getDecodedValue(PathContainer path) {
+		StringBuilder sb = new StringBuilder();
+		for (PathContainer.Element element : path.elements()) {
+			sb.append(element instanceof PathContainer.PathSegment ?
+					((PathContainer.PathSegment) element).valueToMatch() : element.value());
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Validate the given handler against the current request.
 	 * <p>The default implementation is empty. Can be overridden in subclasses,
@@ -363,6 +473,10 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 			}
 			else {
 				this.handlerMap.put(urlPath, resolvedHandler);
+				PathPatternParser patternParser = getPatternParser();
+				if (patternParser != null) {
+					this.pathPatternHandlerMap.put(patternParser.parse(urlPath), resolvedHandler);
+				}
 				if (logger.isTraceEnabled()) {
 					logger.trace("Mapped [" + urlPath + "] onto " + getHandlerDescription(handler));
 				}
@@ -385,6 +499,17 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return Collections.unmodifiableMap(this.handlerMap);
 	}
 
+	/**
+	 * Identical to {@link #getHandlerMap()} but populated only when
+	 * {@link #setPatternParser parsed patterns} are in use, with the
+	 * parsed pattern as key.
+	 * @since 5.1.17
+	 */
+	public final Map<PathPattern, Object> getPathPatternHandlerMap() {
+		return (this.pathPatternHandlerMap.isEmpty() ? Collections.emptyMap() :
+				Collections.unmodifiableMap(this.pathPatternHandlerMap));
+	}
+
 	/**
 	 * Indicates whether this handler mapping support type-level mappings. Default to {@code false}.
 	 */
@@ -19,12 +19,15 @@ package org.springframework.web.servlet.handler;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.context.request.WebRequestInterceptor;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Contains and delegates calls to a {@link HandlerInterceptor} along with
@@ -55,6 +58,9 @@ public final class MappedInterceptor implements HandlerInterceptor {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private volatile ParsedPatterns parsedPatterns;
+
 
 	/**
 	 * Create a new MappedInterceptor instance.
@@ -163,6 +169,52 @@ public final class MappedInterceptor implements HandlerInterceptor {
 		return false;
 	}
 
+	/**
+	 * Determine a match for the given parsed request path, using include and
+	 * exclude patterns parsed once with the given {@link PathPatternParser}.
+	 * <p>If a {@link #setPathMatcher PathMatcher} is configured, it takes
+	 * precedence and is applied to the decoded path instead, with path
+	 * parameters removed, consistent with the lookup path for
+	 * {@link #matches(String, PathMatcher)}.
+	 * @param path the parsed path within the application
+	 * @param patternParser the parser to use for the include and exclude patterns
+	 * @return {@code true} if the interceptor applies to the given request path
+	 * @since 5.1.17
+	 */
+	public boolean matches(PathContainer path, PathPatternParser patternParser) {
+		if (this.pathMatcher != null) {
+			return matches(decodePath(path), this.pathMatcher);
+		}
+		ParsedPatterns patterns = this.parsedPatterns;
+		if (patterns == null || patterns.parser != patternParser) {
+			patterns = new ParsedPatterns(patternParser, this.includePatterns, this.excludePatterns);
+			this.parsedPatterns = patterns;
+		}
+		for (PathPattern pattern : patterns.excludePatterns) {
+			if (pattern.matches(path)) {
+				return false;
+			}
+		}
+		if (patterns.includePatterns.length == 0) {
+			return true;
+		}
+		for (PathPattern pattern : patterns.includePatterns) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String decodePath(PathContainer path) {
+		StringBuilder decodedPath = new StringBuilder(path.value().length());
+		for (PathContainer.Element element : path.elements()) {
+			decodedPath.append(element instanceof PathContainer.PathSegment ?
+					((PathContainer.PathSegment) element).valueToMatch() : element.value());
+		}
+		return decodedPath.toString();
+	}
+
 	@Override
 	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
 			throws Exception {
@@ -184,4 +236,34 @@ public final class MappedInterceptor implements HandlerInterceptor {
 		this.interceptor.afterCompletion(request, response, handler, ex);
 	}
 
+
+	/**
+	 * Include and exclude patterns parsed with a specific {@link PathPatternParser}.
+	 */
+	private static final class ParsedPatterns {
+
+		private final PathPatternParser parser;
+
+		private final PathPattern[] includePatterns;
+
+		private final PathPattern[] excludePatterns;
+
+		ParsedPatterns(PathPatternParser parser, @Nullable String[] includePatterns, @Nullable String[] excludePatterns) {
+			this.parser = parser;
+			this.includePatterns = parse(parser, includePatterns);
+			this.excludePatterns = parse(parser, excludePatterns);
+		}
+
+		private static PathPattern[] parse(PathPatternParser parser, @Nullable String[] patterns) {
+			if (ObjectUtils.isEmpty(patterns)) {
+				return new PathPattern[0];
+			}
+			PathPattern[] result = new PathPattern[patterns.length];
+			for (int i = 0; i < patterns.length; i++) {
+				result[i] = parser.parse(patterns[i]);
+			}
+			return result;
+		}
+	}
+
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Segment trie over the "/"-separated path patterns of handler method mappings,
+ * narrowing down the mappings that may match a lookup path in a single pass
+ * over the path segments, before their conditions are actually checked.
+ *
+ * <p>The index is conservative with respect to {@link org.springframework.util.AntPathMatcher}
+ * style matching: it may return mappings that do not match, but it never
+ * leaves out a mapping with a pattern that matches the lookup path, possibly
+ * with a file extension or a trailing slash, in a case-sensitive or insensitive
+ * fashion, and with or without trimmed tokens. To that end:
+ * <ul>
+ * <li>Literal segments are compared case-insensitively and trimmed.
+ * <li>All pattern segments, such as "*" or "{id}", are merged into a single
+ * node that accepts any one path segment.
+ * <li>A "**" segment, as well as a trailing "/", accepts any remaining path.
+ * <li>A last pattern segment also accepts a missing last path segment.
+ * <li>The last path segment is also looked up without its extension(s).
+ * </ul>
+ *
+ * <p>Not thread-safe: guarded by the lock of the mapping registry.
+ *
+ * @since 5.1.17
+ * @param <T> the mapping type
+ * @see AbstractHandlerMethodMapping#isRouteIndexApplicable()
+ */
+final class MappingRouteIndex<T> {
+
+	private static final String PATH_SEPARATOR = "/";
+
+
+	private final Node<T> root = new Node<>();
+
+	/** Mappings without any pattern, or with an empty pattern, to consider for every lookup path. */
+	private final Set<T> unindexedMappings = new LinkedHashSet<>();
+
+
+	/**
+	 * Add the given mapping with the given path patterns.
+	 */
+	public void add(T mapping, Collection<String> patterns) {
+		if (patterns.isEmpty()) {
+			this.unindexedMappings.add(mapping);
+			return;
+		}
+		for (String pattern : patterns) {
+			if (pattern.isEmpty()) {
+				this.unindexedMappings.add(mapping);
+			}
+			else {
+				addPattern(mapping, pattern);
+			}
+		}
+	}
+
+	private void addPattern(T mapping, String pattern) {
+		Node<T> node = this.root;
+		for (String segment : tokenize(pattern)) {
+			if ("**".equals(segment)) {
+				node.anyPathMappings.add(mapping);
+				return;
+			}
+			node = (isPatternSegment(segment) ? node.getAnySegmentChild() : node.getLiteralChild(normalize(segment)));
+		}
+		if (pattern.endsWith(PATH_SEPARATOR)) {
+			// A suffix pattern after a trailing slash adds a segment
+			node.anyPathMappings.add(mapping);
+		}
+		else {
+			node.mappings.add(mapping);
+		}
+	}
+
+	/**
+	 * Remove the given mapping with the given path patterns.
+	 */
+	public void remove(T mapping, Collection<String> patterns) {
+		this.unindexedMappings.remove(mapping);
+		for (String pattern : patterns) {
+			Node<T> node = this.root;
+			for (String segment : tokenize(pattern)) {
+				node.anyPathMappings.remove(mapping);
+				node = (isPatternSegment(segment) ? node.anySegmentChild : node.literalChildren.get(normalize(segment)));
+				if (node == null) {
+					break;
+				}
+			}
+			if (node != null) {
+				node.anyPathMappings.remove(mapping);
+				node.mappings.remove(mapping);
+			}
+		}
+	}
+
+	/**
+	 * Return the mappings that may match the given lookup path.
+	 */
+	public Set<T> getCandidates(String lookupPath) {
+		Set<T> candidates = new LinkedHashSet<>(this.unindexedMappings);
+		collect(this.root, tokenize(lookupPath), 0, candidates);
+		return candidates;
+	}
+
+	private void collect(Node<T> node, String[] segments, int index, Set<T> candidates) {
+		candidates.addAll(node.anyPathMappings);
+		if (index == segments.length) {
+			candidates.addAll(node.mappings);
+			if (node.anySegmentChild != null) {
+				// A last "*" segment also matches an empty segment after a trailing slash
+				candidates.addAll(node.anySegmentChild.mappings);
+			}
+			return;
+		}
+		String segment = normalize(segments[index]);
+		Node<T> child = node.literalChildren.get(segment);
+		if (child != null) {
+			collect(child, segments, index + 1, candidates);
+		}
+		if (index == segments.length - 1) {
+			// Suffix pattern match, e.g. "/users.json" or "/users.v1.json" for "/users"
+			int extensionIndex = segment.indexOf('.', 1);
+			while (extensionIndex != -1) {
+				child = node.literalChildren.get(segment.substring(0, extensionIndex));
+				if (child != null) {
+					candidates.addAll(child.anyPathMappings);
+					candidates.addAll(child.mappings);
+				}
+				extensionIndex = segment.indexOf('.', extensionIndex + 1);
+			}
+		}
+		if (node.anySegmentChild != null) {
+			collect(node.anySegmentChild, segments, index + 1, candidates);
+		}
+	}
+
+
+	private static String[] tokenize(String path) {
+		return StringUtils.tokenizeToStringArray(path, PATH_SEPARATOR, true, true);
+	}
+
+	private static boolean isPatternSegment(String segment) {
+		return (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1);
+	}
+
+	/**
+	 * Normalize the given literal segment such that segments that are equal
+	 * ignoring case get the same key, as per {@link String#equalsIgnoreCase}.
+	 */
+	private static String normalize(String segment) {
+		char[] chars = segment.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+
+
+	private static final class Node<T> {
+
+		private final Map<String, Node<T>> literalChildren = new HashMap<>(4);
+
+		@Nullable
+		private Node<T> anySegmentChild;
+
+		/** Mappings with a pattern ending at this node. */
+		private final Set<T> mappings = new LinkedHashSet<>(2);
+
+		/** Mappings with a pattern matching any remaining path from this node. */
+		private final Set<T> anyPathMappings = new LinkedHashSet<>(2);
+
+		Node<T> getLiteralChild(String segment) {
+			return this.literalChildren.computeIfAbsent(segment, key -> new Node<>());
+		}
+
+		Node<T> getAnySegmentChild() {
+			Node<T> child = this.anySegmentChild;
+			if (child == null) {
+				child = new Node<>();
+				this.anySegmentChild = child;
+			}
+			return child;
+		}
+	}
+
+}
@@ -28,16 +28,25 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>If created with a {@link PathPatternParser}, the patterns are parsed once
+ * into {@link PathPattern PathPatterns} and matched against the parsed request
+ * path, see {@link ServletRequestPathUtils}, in which case suffix pattern and
+ * trailing slash matching are subject to the parser configuration instead.
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
@@ -55,6 +64,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final PathPatternParser patternParser;
+
+	private final List<PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns.
@@ -98,6 +112,18 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				useTrailingSlashMatch, fileExtensions);
 	}
 
+	/**
+	 * Creates a new instance with the given URL patterns, parsed with the given
+	 * {@link PathPatternParser} into {@link PathPattern PathPatterns}.
+	 * Each pattern that is not empty and does not start with "/" is prepended with "/".
+	 * @param patternParser the parser to use for the patterns
+	 * @param patterns 0 or more URL patterns; if 0 the condition will match to every request.
+	 * @since 5.1.17
+	 */
+	public PatternsRequestCondition(PathPatternParser patternParser, String... patterns) {
+		this(Arrays.asList(patterns), null, null, patternParser, false, false, null);
+	}
+
 	/**
 	 * Private constructor accepting a collection of patterns.
 	 */
@@ -105,6 +131,16 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 			@Nullable PathMatcher pathMatcher, boolean useSuffixPatternMatch,
 			boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
 
+		this(patterns, urlPathHelper, pathMatcher, null, useSuffixPatternMatch, useTrailingSlashMatch, fileExtensions);
+	}
+
+	/**
+	 * Private constructor accepting a collection of patterns and an optional parser.
+	 */
+	private PatternsRequestCondition(Collection<String> patterns, @Nullable UrlPathHelper urlPathHelper,
+			@Nullable PathMatcher pathMatcher, @Nullable PathPatternParser patternParser,
+			boolean useSuffixPatternMatch, boolean useTrailingSlashMatch, @Nullable List<String> fileExtensions) {
+
 		this.patterns = Collections.unmodifiableSet(prependLeadingSlash(patterns));
 		this.pathHelper = (urlPathHelper != null ? urlPathHelper : new UrlPathHelper());
 		this.pathMatcher = (pathMatcher != null ? pathMatcher : new AntPathMatcher());
@@ -119,6 +155,36 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				this.fileExtensions.add(fileExtension);
 			}
 		}
+
+		this.patternParser = patternParser;
+		if (patternParser != null) {
+			List<PathPattern> pathPatterns = new ArrayList<>(this.patterns.size());
+			for (String pattern : this.patterns) {
+				pathPatterns.add(patternParser.parse(pattern));
+			}
+			this.pathPatterns = Collections.unmodifiableList(pathPatterns);
+		}
+		else {
+			this.pathPatterns = Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Private constructor for a matching condition with already parsed patterns.
+	 */
+	private PatternsRequestCondition(PatternsRequestCondition original, List<PathPattern> pathPatterns) {
+		Set<String> patterns = new LinkedHashSet<>(pathPatterns.size());
+		for (PathPattern pathPattern : pathPatterns) {
+			patterns.add(pathPattern.getPatternString());
+		}
+		this.patterns = Collections.unmodifiableSet(patterns);
+		this.pathHelper = original.pathHelper;
+		this.pathMatcher = original.pathMatcher;
+		this.useSuffixPatternMatch = original.useSuffixPatternMatch;
+		this.useTrailingSlashMatch = original.useTrailingSlashMatch;
+		this.fileExtensions.addAll(original.fileExtensions);
+		this.patternParser = original.patternParser;
+		this.pathPatterns = Collections.unmodifiableList(pathPatterns);
 	}
 
 
@@ -137,6 +203,15 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return this.patterns;
 	}
 
+	/**
+	 * Return the parsed patterns, in the same order as {@link #getPatterns()},
+	 * or an empty list if not created with a {@link PathPatternParser}.
+	 * @since 5.1.17
+	 */
+	public List<PathPattern> getPathPatterns() {
+		return this.pathPatterns;
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -176,7 +251,7 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		else {
 			result.add("");
 		}
-		return new PatternsRequestCondition(result, this.pathHelper, this.pathMatcher,
+		return new PatternsRequestCondition(result, this.pathHelper, this.pathMatcher, this.patternParser,
 				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions);
 	}
 
@@ -202,6 +277,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.patternParser != null) {
+			PathContainer path = ServletRequestPathUtils.getOrParseAndCache(request).pathWithinApplication();
+			List<PathPattern> matches = getMatchingPathPatterns(path);
+			return (!matches.isEmpty() ? new PatternsRequestCondition(this, matches) : null);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return (!matches.isEmpty() ?
@@ -219,6 +299,13 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.patternParser != null) {
+			List<String> matches = new ArrayList<>();
+			for (PathPattern pathPattern : getMatchingPathPatterns(PathContainer.parsePath(lookupPath))) {
+				matches.add(pathPattern.getPatternString());
+			}
+			return matches;
+		}
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -232,6 +319,23 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return matches;
 	}
 
+	private List<PathPattern> getMatchingPathPatterns(PathContainer path) {
+		List<PathPattern> matches = null;
+		for (PathPattern pathPattern : this.pathPatterns) {
+			if (pathPattern.matches(path)) {
+				matches = (matches != null ? matches : new ArrayList<>());
+				matches.add(pathPattern);
+			}
+		}
+		if (matches == null) {
+			return Collections.emptyList();
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		}
+		return matches;
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -276,10 +380,18 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.patternParser != null) {
+			return compareTo(this.pathPatterns.iterator(), other.pathPatterns.iterator(),
+					PathPattern.SPECIFICITY_COMPARATOR);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
-		Iterator<String> iterator = this.patterns.iterator();
-		Iterator<String> iteratorOther = other.patterns.iterator();
+		return compareTo(this.patterns.iterator(), other.patterns.iterator(), patternComparator);
+	}
+
+	private static <T> int compareTo(
+			Iterator<T> iterator, Iterator<T> iteratorOther, Comparator<? super T> patternComparator) {
+
 		while (iterator.hasNext() && iteratorOther.hasNext()) {
 			int result = patternComparator.compare(iterator.next(), iteratorOther.next());
 			if (result != 0) {
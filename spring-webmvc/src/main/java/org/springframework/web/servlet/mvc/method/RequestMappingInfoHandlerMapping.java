@@ -33,8 +33,11 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -45,7 +48,9 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -94,6 +99,22 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getMatchingCondition(request);
 	}
 
+	/**
+	 * A RequestMappingInfo only matches if its {@code PatternsRequestCondition}
+	 * does, which applies the configured PathMatcher: with a plain
+	 * {@link AntPathMatcher}, the candidates can be narrowed down by pattern.
+	 * Not applicable to parsed patterns, which match the encoded request path.
+	 */
+	@Override
+	protected boolean isRouteIndexApplicable() {
+		if (usesPathPatterns()) {
+			return false;
+		}
+		PathMatcher pathMatcher = getPathMatcher();
+		// "*" only matches "a/b" with a path separator other than "/"
+		return (pathMatcher.getClass() == AntPathMatcher.class && !pathMatcher.match("*", "a/b"));
+	}
+
 	/**
 	 * Provide a Comparator to sort RequestMappingInfos matched to a request.
 	 */
@@ -112,6 +133,42 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		super.handleMatch(info, lookupPath, request);
 
+		if (usesPathPatterns()) {
+			handleMatchWithPathPatterns(info, lookupPath, request);
+		}
+		else {
+			handleMatchWithPathMatcher(info, lookupPath, request);
+		}
+
+		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
+			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
+			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+		}
+	}
+
+	private void handleMatchWithPathPatterns(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
+		List<PathPattern> patterns = info.getPatternsCondition().getPathPatterns();
+		if (patterns.isEmpty()) {
+			request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, lookupPath);
+			request.setAttribute(URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.emptyMap());
+			return;
+		}
+		PathPattern bestPattern = patterns.get(0);
+		request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, bestPattern.getPatternString());
+
+		// URI variables and matrix variables are decoded by the PathPattern already
+		PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+		PathPattern.PathMatchInfo matchInfo = bestPattern.matchAndExtract(path);
+		if (matchInfo != null) {
+			request.setAttribute(URI_TEMPLATE_VARIABLES_ATTRIBUTE, matchInfo.getUriVariables());
+			request.setAttribute(MATRIX_VARIABLES_ATTRIBUTE, matchInfo.getMatrixVariables());
+		}
+		else {
+			request.setAttribute(URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.emptyMap());
+		}
+	}
+
+	private void handleMatchWithPathMatcher(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		String bestPattern;
 		Map<String, String> uriVariables;
 
@@ -134,11 +191,6 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 		Map<String, String> decodedUriVariables = getUrlPathHelper().decodePathVariables(request, uriVariables);
 		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, decodedUriVariables);
-
-		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
-			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
-			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
-		}
 	}
 
 	private boolean isMatrixVariableContentAvailable() {
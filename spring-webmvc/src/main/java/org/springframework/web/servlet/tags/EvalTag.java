@@ -28,13 +28,13 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeConverter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.util.JavaScriptUtils;
 import org.springframework.web.util.TagUtils;
@@ -109,8 +109,6 @@ public class EvalTag extends HtmlEscapingAwareTag {
 			"org.springframework.web.servlet.tags.EVALUATION_CONTEXT";
 
 
-	private final ExpressionParser expressionParser = new SpelExpressionParser();
-
 	@Nullable
 	private Expression expression;
 
@@ -126,7 +124,9 @@ public class EvalTag extends HtmlEscapingAwareTag {
 	 * Set the expression to evaluate.
 	 */
 	public void setExpression(String expression) {
-		this.expression = this.expressionParser.parseExpression(expression);
+		// Root-level names get resolved against the PageContext, see JspPropertyAccessor
+		this.expression = SpelExpressionCache.forClassLoader(ClassUtils.getDefaultClassLoader())
+				.getExpression(expression, PageContext.class);
 	}
 
 	/**
@@ -16,7 +16,6 @@
 
 package org.springframework.web.servlet.view;
 
-import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -25,6 +24,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.context.support.WebApplicationObjectSupport;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
@@ -47,7 +47,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	/** Default maximum number of entries for the view cache: 1024. */
 	public static final int DEFAULT_CACHE_LIMIT = 1024;
 
-	/** Dummy marker object for unresolved views in the cache Maps. */
+	/** Dummy marker object for unresolved views in the cache. */
 	private static final View UNRESOLVED_VIEW = new View() {
 		@Override
 		@Nullable
@@ -66,24 +66,11 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	/** Whether we should refrain from resolving views again if unresolved once. */
 	private boolean cacheUnresolved = true;
 
-	/** Fast access cache for Views, returning already cached instances without a global lock. */
-	private final Map<Object, View> viewAccessCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
+	/** Cache for Views, bounded by the cache limit and evicting least recently used entries. */
+	private volatile ConcurrentLruCache<Object, View> viewCache = new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT);
 
-	/** Map from view key to View instance, synchronized for View creation. */
-	@SuppressWarnings("serial")
-	private final Map<Object, View> viewCreationCache =
-			new LinkedHashMap<Object, View>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Object, View> eldest) {
-					if (size() > getCacheLimit()) {
-						viewAccessCache.remove(eldest.getKey());
-						return true;
-					}
-					else {
-						return false;
-					}
-				}
-			};
+	/** Locks for View creation per view key, held while a View for the key is being created. */
+	private final Map<Object, Object> viewCreationLocks = new ConcurrentHashMap<>(16);
 
 
 	/**
@@ -92,6 +79,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.viewCache = new ConcurrentLruCache<>(Math.max(cacheLimit, 0));
 	}
 
 	/**
@@ -109,7 +97,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 * Disable this only for debugging and development.
 	 */
 	public void setCache(boolean cache) {
-		this.cacheLimit = (cache ? DEFAULT_CACHE_LIMIT : 0);
+		setCacheLimit(cache ? DEFAULT_CACHE_LIMIT : 0);
 	}
 
 	/**
@@ -151,22 +139,30 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			View view = this.viewAccessCache.get(cacheKey);
+			ConcurrentLruCache<Object, View> viewCache = this.viewCache;
+			View view = viewCache.get(cacheKey);
 			if (view == null) {
-				synchronized (this.viewCreationCache) {
-					view = this.viewCreationCache.get(cacheKey);
-					if (view == null) {
-						// Ask the subclass to create the View object.
-						view = createView(viewName, locale);
-						if (view == null && this.cacheUnresolved) {
-							view = UNRESOLVED_VIEW;
-						}
-						if (view != null) {
-							this.viewAccessCache.put(cacheKey, view);
-							this.viewCreationCache.put(cacheKey, view);
+				// Create the View under a lock for its key only: concurrent requests
+				// for the same view wait for it, while other views can be created.
+				Object creationLock = this.viewCreationLocks.computeIfAbsent(cacheKey, key -> new Object());
+				try {
+					synchronized (creationLock) {
+						view = viewCache.get(cacheKey);
+						if (view == null) {
+							// Ask the subclass to create the View object.
+							view = createView(viewName, locale);
+							if (view == null && this.cacheUnresolved) {
+								view = UNRESOLVED_VIEW;
+							}
+							if (view != null) {
+								viewCache.put(cacheKey, view);
+							}
 						}
 					}
 				}
+				finally {
+					this.viewCreationLocks.remove(cacheKey, creationLock);
+				}
 			}
 			else {
 				if (logger.isTraceEnabled()) {
@@ -207,11 +203,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			Object cachedView;
-			synchronized (this.viewCreationCache) {
-				this.viewAccessCache.remove(cacheKey);
-				cachedView = this.viewCreationCache.remove(cacheKey);
-			}
+			Object cachedView = this.viewCache.remove(cacheKey);
 			if (logger.isDebugEnabled()) {
 				// Some debug output might be useful...
 				logger.debug(formatKey(cacheKey) +
@@ -226,10 +218,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 */
 	public void clearCache() {
 		logger.debug("Clearing all views from the cache");
-		synchronized (this.viewCreationCache) {
-			this.viewAccessCache.clear();
-			this.viewCreationCache.clear();
-		}
+		this.viewCache.clear();
 	}
 
 
@@ -24,11 +24,13 @@ import javax.servlet.http.HttpServletResponse;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.*;
@@ -86,6 +88,18 @@ public class MappedInterceptorTests {
 		assertFalse(mappedInterceptor.matches("/admin/foo", pathMatcher));
 	}
 
+	@Test
+	public void includeAndExcludePathPatterns() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(
+				new String[] { "/**" }, new String[] { "/admin/**" }, this.interceptor);
+		PathPatternParser parser = new PathPatternParser();
+
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/foo"), parser));
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/foo;q=1/bar"), parser));
+		assertFalse(mappedInterceptor.matches(PathContainer.parsePath("/admin/foo"), parser));
+		assertFalse(mappedInterceptor.matches(PathContainer.parsePath("/admin;q=1/foo"), parser));
+	}
+
 	@Test
 	public void customPathMatcher() {
 		MappedInterceptor mappedInterceptor = new MappedInterceptor(new String[] { "/foo/[0-9]*" }, this.interceptor);
@@ -95,6 +109,17 @@ public class MappedInterceptorTests {
 		assertFalse(mappedInterceptor.matches("/foo/bar", pathMatcher));
 	}
 
+	@Test
+	public void customPathMatcherWithParsedPath() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(new String[] { "/foo bar/[0-9]*" }, this.interceptor);
+		mappedInterceptor.setPathMatcher(new TestPathMatcher());
+		PathPatternParser parser = new PathPatternParser();
+
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/foo%20bar/123"), parser));
+		assertTrue(mappedInterceptor.matches(PathContainer.parsePath("/foo%20bar;q=1/123"), parser));
+		assertFalse(mappedInterceptor.matches(PathContainer.parsePath("/foo%20bar/baz"), parser));
+	}
+
 	@Test
 	public void preHandle() throws Exception {
 		HandlerInterceptor interceptor = mock(HandlerInterceptor.class);
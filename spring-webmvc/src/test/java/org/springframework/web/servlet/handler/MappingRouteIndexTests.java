@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.util.AntPathMatcher;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MappingRouteIndex}.
+ *
+ * @since 5.1.17
+ */
+public class MappingRouteIndexTests {
+
+	private final MappingRouteIndex<String> index = new MappingRouteIndex<>();
+
+
+	@Test
+	public void literalPatterns() {
+		add("/users", "/users/list", "/orders");
+
+		assertCandidates("/users", "/users");
+		assertCandidates("/users/list", "/users/list");
+		assertCandidates("/users/other");
+		assertCandidates("/");
+	}
+
+	@Test
+	public void patternSegments() {
+		add("/users/{id}", "/users/*/orders", "/users/a?c", "/users/list");
+
+		assertCandidates("/users/5", "/users/{id}", "/users/a?c");
+		assertCandidates("/users/list", "/users/{id}", "/users/a?c", "/users/list");
+		assertCandidates("/users/5/orders", "/users/*/orders");
+		assertCandidates("/users/5/other");
+		// AntPathMatcher matches "/users/*" with "/users/"
+		assertCandidates("/users/", "/users/{id}", "/users/a?c");
+	}
+
+	@Test
+	public void doubleWildcard() {
+		add("/static/**", "/api/**/items", "/other");
+
+		assertCandidates("/static", "/static/**");
+		assertCandidates("/static/css/app.css", "/static/**");
+		assertCandidates("/api/v1/items", "/api/**/items");
+		assertCandidates("/other", "/other");
+		assertCandidates("/other/x");
+	}
+
+	@Test
+	public void suffixAndTrailingSlash() {
+		add("/users", "/users/", "/users.json");
+
+		assertCandidates("/users.json", "/users", "/users/", "/users.json");
+		assertCandidates("/users.v1.json", "/users", "/users/");
+		assertCandidates("/users/", "/users", "/users/");
+		assertCandidates("/users/.json", "/users/");
+	}
+
+	@Test
+	public void caseAndWhitespace() {
+		add("/Users");
+
+		assertCandidates("/users", "/Users");
+		assertCandidates("/USERS/ ", "/Users");
+	}
+
+	@Test
+	public void unindexedMappings() {
+		index.add("any", Collections.emptySet());
+		index.add("empty", Collections.singleton(""));
+
+		assertEquals(new HashSet<>(Arrays.asList("any", "empty")), index.getCandidates("/foo"));
+	}
+
+	@Test
+	public void remove() {
+		add("/users", "/users/{id}", "/static/**");
+		index.remove("/users/{id}", Collections.singleton("/users/{id}"));
+		index.remove("/static/**", Collections.singleton("/static/**"));
+
+		assertCandidates("/users/5");
+		assertCandidates("/static/app.css");
+		assertCandidates("/users", "/users");
+	}
+
+	@Test
+	public void candidatesIncludeAllAntPathMatcherMatches() {
+		String[] patterns = {"/", "/a", "/a/", "/a/b", "/a/*", "/a/{x}", "/a/**", "/a/*/c", "/a/b.*",
+				"/*.html", "/A/B", "/**/c", "/a/b*", "/a/{x:[a-z]+}.json", "/a/?"};
+		String[] paths = {"/", "/a", "/a/", "/a/b", "/a/b/", "/a/b/c", "/a/b.json", "/a/B", "/x.html",
+				"/a/abc.json", "/a/b/c/d", "/A/b", "/c", "/a/x"};
+		add(patterns);
+		AntPathMatcher caseSensitive = new AntPathMatcher();
+		AntPathMatcher caseInsensitive = new AntPathMatcher();
+		caseInsensitive.setCaseSensitive(false);
+		for (String path : paths) {
+			Set<String> candidates = index.getCandidates(path);
+			for (String pattern : patterns) {
+				for (AntPathMatcher matcher : Arrays.asList(caseSensitive, caseInsensitive)) {
+					if (matcher.match(pattern, path) || matcher.match(pattern + ".*", path) ||
+							matcher.match(pattern + "/", path)) {
+						assertTrue(pattern + " should be a candidate for " + path, candidates.contains(pattern));
+					}
+				}
+			}
+		}
+	}
+
+
+	private void add(String... patterns) {
+		for (String pattern : patterns) {
+			index.add(pattern, Collections.singleton(pattern));
+		}
+	}
+
+	private void assertCandidates(String path, String... expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), index.getCandidates(path));
+	}
+
+}
@@ -30,7 +30,9 @@ import org.springframework.web.context.support.XmlWebApplicationContext;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +92,39 @@ public class SimpleUrlHandlerMappingTests {
 		assertSame(controller, hec.getHandler());
 	}
 
+	@Test
+	public void urlMappingWithPathPatterns() throws Exception {
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		Object resources = new Object();
+		Object user = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/resources/**", resources);
+		urlMap.put("/users/{id}", user);
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+		assertEquals(2, handlerMapping.getPathPatternHandlerMap().size());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/resources/css/my%20app.css");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+		HandlerExecutionChain hec = getHandler(handlerMapping, request);
+		assertSame(resources, hec.getHandler());
+		assertEquals("/resources/**", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		assertEquals("css/my app.css", request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+
+		request = new MockHttpServletRequest("GET", "/users/a%20b");
+		ServletRequestPathUtils.parseAndCache(request);
+		hec = getHandler(handlerMapping, request);
+		assertSame(user, hec.getHandler());
+		Map<?, ?> uriVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals("a b", uriVariables.get("id"));
+
+		request = new MockHttpServletRequest("GET", "/other");
+		ServletRequestPathUtils.parseAndCache(request);
+		assertNull(handlerMapping.getHandler(request));
+	}
+
 	@SuppressWarnings("resource")
 	private void checkMappings(String beanName) throws Exception {
 		MockServletContext sc = new MockServletContext("");
@@ -16,7 +16,9 @@
 
 package org.springframework.web.servlet.mvc.condition;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -24,6 +26,8 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -213,4 +217,47 @@ public class PatternsRequestConditionTests {
 		assertEquals(1, match1.compareTo(match2, request));
 	}
 
+	@Test
+	public void matchSortPathPatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition = new PatternsRequestCondition(parser, "/**", "/foo/bar", "/foo/{id}");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/bar");
+		request.setContextPath("/app");
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+
+		assertNotNull(match);
+		assertEquals(new PatternsRequestCondition("/foo/bar", "/foo/{id}", "/**"), match);
+		assertEquals(3, match.getPathPatterns().size());
+		assertEquals("/foo/bar", match.getPathPatterns().get(0).getPatternString());
+
+		match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/bar"));
+		assertNotNull(match);
+		assertEquals(Collections.singletonList("/**"), patternStrings(match.getPathPatterns()));
+	}
+
+	@Test
+	public void combineAndComparePathPatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(parser, "/foo").combine(
+				new PatternsRequestCondition(parser, "/{id}"));
+		PatternsRequestCondition c2 = new PatternsRequestCondition(parser, "/foo/bar");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/bar");
+
+		assertEquals(Collections.singletonList("/foo/{id}"), patternStrings(c1.getPathPatterns()));
+		PatternsRequestCondition match1 = c1.getMatchingCondition(request);
+		PatternsRequestCondition match2 = c2.getMatchingCondition(request);
+		assertNotNull(match1);
+		assertNotNull(match2);
+		assertEquals(1, match1.compareTo(match2, request));
+		assertNull(c1.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar/baz")));
+	}
+
+	private static List<String> patternStrings(List<PathPattern> pathPatterns) {
+		List<String> result = new ArrayList<>();
+		for (PathPattern pathPattern : pathPatterns) {
+			result.add(pathPattern.getPatternString());
+		}
+		return result;
+	}
+
 }
@@ -46,8 +46,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -172,6 +177,27 @@ public class RequestMappingHandlerMappingTests {
 		assertNull(info.getPatternsCondition().getMatchingCondition(request));
 	}
 
+	@Test
+	public void pathPatterns() throws Exception {
+		this.wac.registerSingleton("userController", UserController.class);
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.handlerMapping.afterPropertiesSet();
+		assertTrue(this.handlerMapping.usesPathPatterns());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/user/a%20b;role=admin");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+		HandlerExecutionChain chain = this.handlerMapping.getHandler(request);
+
+		assertNotNull(chain);
+		assertEquals("getUser", ((HandlerMethod) chain.getHandler()).getMethod().getName());
+		assertEquals("/user/{id}", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		Map<?, ?> uriVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals("a b", uriVariables.get("id"));
+		Map<?, ?> matrixVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE);
+		assertEquals(Collections.singletonMap("role", Collections.singletonList("admin")), matrixVariables.get("id"));
+	}
+
 	@Test
 	public void resolveRequestMappingViaComposedAnnotation() throws Exception {
 		RequestMappingInfo info = assertComposedAnnotationMapping("postJson", "/postJson", RequestMethod.POST);
@@ -20,6 +20,11 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.RequestDispatcher;
@@ -524,6 +529,36 @@ public class ViewResolverTests {
 		assertEquals(3, count.intValue());
 	}
 
+	@Test
+	public void testCacheCreatesViewOnce() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		final CountDownLatch loading = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				count.incrementAndGet();
+				loading.countDown();
+				assertTrue(proceed.await(10, TimeUnit.SECONDS));
+				return new TestView();
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<View> view1 = executor.submit(() -> viewResolver.resolveViewName("view", Locale.getDefault()));
+			assertTrue(loading.await(10, TimeUnit.SECONDS));
+			Future<View> view2 = executor.submit(() -> viewResolver.resolveViewName("view", Locale.getDefault()));
+			Thread.sleep(50);
+			proceed.countDown();
+			assertSame(view1.get(10, TimeUnit.SECONDS), view2.get(10, TimeUnit.SECONDS));
+			assertEquals(1, count.intValue());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 
 	public static class TestView extends InternalResourceView {
 